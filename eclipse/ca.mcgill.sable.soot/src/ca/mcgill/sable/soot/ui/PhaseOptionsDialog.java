@@ -429,6 +429,7 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		addToEnableGroup("cg", getcgall_reachable_widget(), "all-reachable");
 		addToEnableGroup("cg", getcgimplicit_entry_widget(), "implicit-entry");
 		addToEnableGroup("cg", getcgtrim_clinit_widget(), "trim-clinit");
+		addToEnableGroup("cg", getcgcompact_storage_widget(), "compact-storage");
 		addToEnableGroup("cg", getcgtypes_for_invoke_widget(), "types-for-invoke");
 		addToEnableGroup("cg", getcgresolve_all_abstract_invokes_widget(), "resolve-all-abstract-invokes");
 		getcgenabled_widget().getButton().addSelectionListener(this);
@@ -438,6 +439,7 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		getcgall_reachable_widget().getButton().addSelectionListener(this);
 		getcgimplicit_entry_widget().getButton().addSelectionListener(this);
 		getcgtrim_clinit_widget().getButton().addSelectionListener(this);
+		getcgcompact_storage_widget().getButton().addSelectionListener(this);
 		getcgtypes_for_invoke_widget().getButton().addSelectionListener(this);
 		getcgresolve_all_abstract_invokes_widget().getButton().addSelectionListener(this);
 
@@ -467,6 +469,7 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		addToEnableGroup("cg", "cg.spark", getcgcg_sparkempties_as_allocs_widget(), "empties-as-allocs");
 		addToEnableGroup("cg", "cg.spark", getcgcg_sparksimple_edges_bidirectional_widget(), "simple-edges-bidirectional");
 		addToEnableGroup("cg", "cg.spark", getcgcg_sparkon_fly_cg_widget(), "on-fly-cg");
+		addToEnableGroup("cg", "cg.spark", getcgcg_sparkparallel_pag_widget(), "parallel-pag");
 		addToEnableGroup("cg", "cg.spark", getcgcg_sparksimplify_offline_widget(), "simplify-offline");
 		addToEnableGroup("cg", "cg.spark", getcgcg_sparksimplify_sccs_widget(), "simplify-sccs");
 		addToEnableGroup("cg", "cg.spark", getcgcg_sparkignore_types_for_sccs_widget(), "ignore-types-for-sccs");
@@ -496,6 +499,7 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		addToEnableGroup("cg", "cg.spark", getcgcg_sparkgeom_blocking_widget(), "geom-blocking");
 		addToEnableGroup("cg", "cg.spark", getcgcg_sparkgeom_runs_widget(), "geom-runs");
 		addToEnableGroup("cg", "cg.spark", getcgcg_sparkgeom_app_only_widget(), "geom-app-only");
+		addToEnableGroup("cg", "cg.spark", getcgcg_sparkgeom_parallel_widget(), "geom-parallel");
 
 		makeNewEnableGroup("cg", "cg.paddle");
 		addToEnableGroup("cg", "cg.paddle", getcgcg_paddleenabled_widget(), "enabled");
@@ -1068,6 +1072,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if (boolRes != defBoolRes) {
 			getConfig().put(getGeneral_Optionsvalidate_widget().getAlias(), new Boolean(boolRes));
 		}
+		boolRes = getGeneral_Optionsparallel_validation_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getGeneral_Optionsparallel_validation_widget().getAlias(), new Boolean(boolRes));
+		}
 		boolRes = getGeneral_Optionsdebug_widget().getButton().getSelection();
 		defBoolRes = false;
 
@@ -1098,6 +1108,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if ((!(stringRes.equals(defStringRes))) && (stringRes != null) && (stringRes.length() != 0)) {
 			getConfig().put(getGeneral_Optionsphase_help_widget().getAlias(), stringRes);
 		}
+		stringRes = getGeneral_Optionsvalidation_sample_percent_widget().getText().getText();
+		defStringRes = "";
+
+		if ((!(stringRes.equals(defStringRes))) && (stringRes != null) && (stringRes.length() != 0)) {
+			getConfig().put(getGeneral_Optionsvalidation_sample_percent_widget().getAlias(), stringRes);
+		}
 		boolRes = getInput_Optionsprepend_classpath_widget().getButton().getSelection();
 		defBoolRes = false;
 
@@ -1134,6 +1150,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if (boolRes != defBoolRes) {
 			getConfig().put(getInput_Optionsoaat_widget().getAlias(), new Boolean(boolRes));
 		}
+		boolRes = getInput_Optionsstreaming_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getInput_Optionsstreaming_widget().getAlias(), new Boolean(boolRes));
+		}
 		boolRes = getInput_Optionsast_metrics_widget().getButton().getSelection();
 		defBoolRes = false;
 
@@ -1146,6 +1168,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if (boolRes != defBoolRes) {
 			getConfig().put(getInput_Optionsfull_resolver_widget().getAlias(), new Boolean(boolRes));
 		}
+		boolRes = getInput_Optionsconcurrent_resolver_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getInput_Optionsconcurrent_resolver_widget().getAlias(), new Boolean(boolRes));
+		}
 		boolRes = getInput_Optionsignore_methodsource_error_widget().getButton().getSelection();
 		defBoolRes = false;
 
@@ -1206,6 +1234,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if (boolRes != defBoolRes) {
 			getConfig().put(getInput_Optionsdrop_bodies_after_load_widget().getAlias(), new Boolean(boolRes));
 		}
+		boolRes = getInput_Optionslazy_method_sources_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getInput_Optionslazy_method_sources_widget().getAlias(), new Boolean(boolRes));
+		}
 		boolRes = getInput_Optionsnative_code_widget().getButton().getSelection();
 		defBoolRes = false;
 
@@ -1230,6 +1264,18 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if ((!(stringRes.equals(defStringRes))) && (stringRes != null) && (stringRes.length() != 0)) {
 			getConfig().put(getInput_Optionsdotnet_nativehost_path_widget().getAlias(), stringRes);
 		}
+		stringRes = getInput_Optionsbody_cache_dir_widget().getText().getText();
+		defStringRes = "";
+
+		if ((!(stringRes.equals(defStringRes))) && (stringRes != null) && (stringRes.length() != 0)) {
+			getConfig().put(getInput_Optionsbody_cache_dir_widget().getAlias(), stringRes);
+		}
+		stringRes = getInput_Optionsclass_path_index_dir_widget().getText().getText();
+		defStringRes = "";
+
+		if ((!(stringRes.equals(defStringRes))) && (stringRes != null) && (stringRes.length() != 0)) {
+			getConfig().put(getInput_Optionsclass_path_index_dir_widget().getAlias(), stringRes);
+		}
 		stringRes = getInput_Optionsprocess_dir_widget().getText().getText();
 		defStringRes = "";
 
@@ -1284,6 +1330,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if (boolRes != defBoolRes) {
 			getConfig().put(getOutput_Optionsoutput_jar_widget().getAlias(), new Boolean(boolRes));
 		}
+		boolRes = getOutput_Optionsparallel_dex_output_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getOutput_Optionsparallel_dex_output_widget().getAlias(), new Boolean(boolRes));
+		}
 		boolRes = getOutput_Optionshierarchy_dirs_widget().getButton().getSelection();
 		defBoolRes = false;
 
@@ -1391,6 +1443,18 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if (boolRes != defBoolRes) {
 			getConfig().put(getProcessing_Optionsomit_excepting_unit_edges_widget().getAlias(), new Boolean(boolRes));
 		}
+		boolRes = getProcessing_Optionscompact_cfgs_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getProcessing_Optionscompact_cfgs_widget().getAlias(), new Boolean(boolRes));
+		}
+		boolRes = getProcessing_Optionsbody_analysis_cache_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getProcessing_Optionsbody_analysis_cache_widget().getAlias(), new Boolean(boolRes));
+		}
 		boolRes = getProcessing_Optionstrim_cfgs_widget().getButton().getSelection();
 		defBoolRes = false;
 
@@ -1841,6 +1905,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if (boolRes != defBoolRes) {
 			getConfig().put(getcgtrim_clinit_widget().getAlias(), new Boolean(boolRes));
 		}
+		boolRes = getcgcompact_storage_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getcgcompact_storage_widget().getAlias(), new Boolean(boolRes));
+		}
 		boolRes = getcgtypes_for_invoke_widget().getButton().getSelection();
 		defBoolRes = false;
 
@@ -1871,6 +1941,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if ((!(stringRes.equals(defStringRes))) && (stringRes != null) && (stringRes.length() != 0)) {
 			getConfig().put(getcgguards_widget().getAlias(), stringRes);
 		}
+		stringRes = getcgsnapshot_widget().getText().getText();
+		defStringRes = "";
+
+		if ((!(stringRes.equals(defStringRes))) && (stringRes != null) && (stringRes.length() != 0)) {
+			getConfig().put(getcgsnapshot_widget().getAlias(), stringRes);
+		}
 		stringRes = getcglibrary_widget().getSelectedAlias();
 		defStringRes = "disabled";
 
@@ -1991,6 +2067,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if (boolRes != defBoolRes) {
 			getConfig().put(getcgcg_sparkon_fly_cg_widget().getAlias(), new Boolean(boolRes));
 		}
+		boolRes = getcgcg_sparkparallel_pag_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getcgcg_sparkparallel_pag_widget().getAlias(), new Boolean(boolRes));
+		}
 		boolRes = getcgcg_sparksimplify_offline_widget().getButton().getSelection();
 		defBoolRes = false;
 
@@ -2135,6 +2217,12 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		if (boolRes != defBoolRes) {
 			getConfig().put(getcgcg_sparkgeom_app_only_widget().getAlias(), new Boolean(boolRes));
 		}
+		boolRes = getcgcg_sparkgeom_parallel_widget().getButton().getSelection();
+		defBoolRes = false;
+
+		if (boolRes != defBoolRes) {
+			getConfig().put(getcgcg_sparkgeom_parallel_widget().getAlias(), new Boolean(boolRes));
+		}
 		stringRes = getcgcg_sparkgeom_dump_verbose_widget().getText().getText();
 		defStringRes = "";
 
@@ -4673,6 +4761,16 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		return General_Optionsvalidate_widget;
 	}	
 	
+	private BooleanOptionWidget General_Optionsparallel_validation_widget;
+	
+	private void setGeneral_Optionsparallel_validation_widget(BooleanOptionWidget widget) {
+		General_Optionsparallel_validation_widget = widget;
+	}
+	
+	public BooleanOptionWidget getGeneral_Optionsparallel_validation_widget() {
+		return General_Optionsparallel_validation_widget;
+	}	
+	
 	private BooleanOptionWidget General_Optionsdebug_widget;
 	
 	private void setGeneral_Optionsdebug_widget(BooleanOptionWidget widget) {
@@ -4725,6 +4823,18 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 	}	
 	
 	
+	
+	private StringOptionWidget General_Optionsvalidation_sample_percent_widget;
+	
+	private void setGeneral_Optionsvalidation_sample_percent_widget(StringOptionWidget widget) {
+		General_Optionsvalidation_sample_percent_widget = widget;
+	}
+	
+	public StringOptionWidget getGeneral_Optionsvalidation_sample_percent_widget() {
+		return General_Optionsvalidation_sample_percent_widget;
+	}
+	
+	
 	private BooleanOptionWidget Input_Optionsprepend_classpath_widget;
 	
 	private void setInput_Optionsprepend_classpath_widget(BooleanOptionWidget widget) {
@@ -4785,6 +4895,16 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		return Input_Optionsoaat_widget;
 	}	
 	
+	private BooleanOptionWidget Input_Optionsstreaming_widget;
+	
+	private void setInput_Optionsstreaming_widget(BooleanOptionWidget widget) {
+		Input_Optionsstreaming_widget = widget;
+	}
+	
+	public BooleanOptionWidget getInput_Optionsstreaming_widget() {
+		return Input_Optionsstreaming_widget;
+	}	
+	
 	private BooleanOptionWidget Input_Optionsast_metrics_widget;
 	
 	private void setInput_Optionsast_metrics_widget(BooleanOptionWidget widget) {
@@ -4805,6 +4925,16 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		return Input_Optionsfull_resolver_widget;
 	}	
 	
+	private BooleanOptionWidget Input_Optionsconcurrent_resolver_widget;
+	
+	private void setInput_Optionsconcurrent_resolver_widget(BooleanOptionWidget widget) {
+		Input_Optionsconcurrent_resolver_widget = widget;
+	}
+	
+	public BooleanOptionWidget getInput_Optionsconcurrent_resolver_widget() {
+		return Input_Optionsconcurrent_resolver_widget;
+	}	
+	
 	private BooleanOptionWidget Input_Optionsignore_methodsource_error_widget;
 	
 	private void setInput_Optionsignore_methodsource_error_widget(BooleanOptionWidget widget) {
@@ -4905,6 +5035,16 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		return Input_Optionsdrop_bodies_after_load_widget;
 	}	
 	
+	private BooleanOptionWidget Input_Optionslazy_method_sources_widget;
+	
+	private void setInput_Optionslazy_method_sources_widget(BooleanOptionWidget widget) {
+		Input_Optionslazy_method_sources_widget = widget;
+	}
+	
+	public BooleanOptionWidget getInput_Optionslazy_method_sources_widget() {
+		return Input_Optionslazy_method_sources_widget;
+	}	
+	
 	private BooleanOptionWidget Input_Optionsnative_code_widget;
 	
 	private void setInput_Optionsnative_code_widget(BooleanOptionWidget widget) {
@@ -4976,6 +5116,30 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 	
 	
 	
+	private StringOptionWidget Input_Optionsbody_cache_dir_widget;
+	
+	private void setInput_Optionsbody_cache_dir_widget(StringOptionWidget widget) {
+		Input_Optionsbody_cache_dir_widget = widget;
+	}
+	
+	public StringOptionWidget getInput_Optionsbody_cache_dir_widget() {
+		return Input_Optionsbody_cache_dir_widget;
+	}
+	
+	
+	
+	private StringOptionWidget Input_Optionsclass_path_index_dir_widget;
+	
+	private void setInput_Optionsclass_path_index_dir_widget(StringOptionWidget widget) {
+		Input_Optionsclass_path_index_dir_widget = widget;
+	}
+	
+	public StringOptionWidget getInput_Optionsclass_path_index_dir_widget() {
+		return Input_Optionsclass_path_index_dir_widget;
+	}
+	
+	
+	
 	private StringOptionWidget Input_Optionsvirtualedges_path_widget;
 	
 	private void setInput_Optionsvirtualedges_path_widget(StringOptionWidget widget) {
@@ -5057,6 +5221,16 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		return Output_Optionsoutput_jar_widget;
 	}	
 	
+	private BooleanOptionWidget Output_Optionsparallel_dex_output_widget;
+	
+	private void setOutput_Optionsparallel_dex_output_widget(BooleanOptionWidget widget) {
+		Output_Optionsparallel_dex_output_widget = widget;
+	}
+	
+	public BooleanOptionWidget getOutput_Optionsparallel_dex_output_widget() {
+		return Output_Optionsparallel_dex_output_widget;
+	}	
+	
 	private BooleanOptionWidget Output_Optionshierarchy_dirs_widget;
 	
 	private void setOutput_Optionshierarchy_dirs_widget(BooleanOptionWidget widget) {
@@ -5247,6 +5421,26 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		return Processing_Optionsomit_excepting_unit_edges_widget;
 	}	
 	
+	private BooleanOptionWidget Processing_Optionscompact_cfgs_widget;
+	
+	private void setProcessing_Optionscompact_cfgs_widget(BooleanOptionWidget widget) {
+		Processing_Optionscompact_cfgs_widget = widget;
+	}
+	
+	public BooleanOptionWidget getProcessing_Optionscompact_cfgs_widget() {
+		return Processing_Optionscompact_cfgs_widget;
+	}	
+	
+	private BooleanOptionWidget Processing_Optionsbody_analysis_cache_widget;
+	
+	private void setProcessing_Optionsbody_analysis_cache_widget(BooleanOptionWidget widget) {
+		Processing_Optionsbody_analysis_cache_widget = widget;
+	}
+	
+	public BooleanOptionWidget getProcessing_Optionsbody_analysis_cache_widget() {
+		return Processing_Optionsbody_analysis_cache_widget;
+	}	
+	
 	private BooleanOptionWidget Processing_Optionstrim_cfgs_widget;
 	
 	private void setProcessing_Optionstrim_cfgs_widget(BooleanOptionWidget widget) {
@@ -6009,6 +6203,16 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		return cgtrim_clinit_widget;
 	}	
 	
+	private BooleanOptionWidget cgcompact_storage_widget;
+	
+	private void setcgcompact_storage_widget(BooleanOptionWidget widget) {
+		cgcompact_storage_widget = widget;
+	}
+	
+	public BooleanOptionWidget getcgcompact_storage_widget() {
+		return cgcompact_storage_widget;
+	}	
+	
 	private BooleanOptionWidget cgtypes_for_invoke_widget;
 	
 	private void setcgtypes_for_invoke_widget(BooleanOptionWidget widget) {
@@ -6066,6 +6270,18 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 	
 	
 	
+	private StringOptionWidget cgsnapshot_widget;
+	
+	private void setcgsnapshot_widget(StringOptionWidget widget) {
+		cgsnapshot_widget = widget;
+	}
+	
+	public StringOptionWidget getcgsnapshot_widget() {
+		return cgsnapshot_widget;
+	}
+	
+	
+	
 	private MultiOptionWidget cglibrary_widget;
 	
 	private void setcglibrary_widget(MultiOptionWidget widget) {
@@ -6267,6 +6483,16 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		return cgcg_sparkon_fly_cg_widget;
 	}	
 	
+	private BooleanOptionWidget cgcg_sparkparallel_pag_widget;
+	
+	private void setcgcg_sparkparallel_pag_widget(BooleanOptionWidget widget) {
+		cgcg_sparkparallel_pag_widget = widget;
+	}
+	
+	public BooleanOptionWidget getcgcg_sparkparallel_pag_widget() {
+		return cgcg_sparkparallel_pag_widget;
+	}	
+	
 	private BooleanOptionWidget cgcg_sparksimplify_offline_widget;
 	
 	private void setcgcg_sparksimplify_offline_widget(BooleanOptionWidget widget) {
@@ -6519,6 +6745,16 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		return cgcg_sparkgeom_app_only_widget;
 	}	
 	
+	private BooleanOptionWidget cgcg_sparkgeom_parallel_widget;
+	
+	private void setcgcg_sparkgeom_parallel_widget(BooleanOptionWidget widget) {
+		cgcg_sparkgeom_parallel_widget = widget;
+	}
+	
+	public BooleanOptionWidget getcgcg_sparkgeom_parallel_widget() {
+		return cgcg_sparkgeom_parallel_widget;
+	}	
+	
 	
 	private StringOptionWidget cgcg_sparkgeom_dump_verbose_widget;
 	
@@ -8752,6 +8988,17 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 
 		setGeneral_Optionsvalidate_widget(new BooleanOptionWidget(editGroupGeneral_Options, SWT.NONE, new OptionData("Validate", "", "","validate", "\nCauses internal checks to be done on bodies in the various Soot \nIRs, to make sure the transformations have not done something \nstrange. This option may degrade Soot's performance.", defaultBool)));
 
+		defKey = ""+" "+""+" "+"parallel-validation";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setGeneral_Optionsparallel_validation_widget(new BooleanOptionWidget(editGroupGeneral_Options, SWT.NONE, new OptionData("Parallel Validation", "", "","parallel-validation", "\nWhen bodies are validated, run the validators of each body in \nparallel rather than one after the other. The validators share \nthe control flow graph and the local definitions they need. The \nviolations found are reported in the same order as by a serial \nvalidation.", defaultBool)));
+
 		defKey = ""+" "+""+" "+"debug";
 		defKey = defKey.trim();
 
@@ -8808,6 +9055,18 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		setGeneral_Optionsphase_help_widget(new ListOptionWidget(editGroupGeneral_Options, SWT.NONE, new OptionData("Phase Help",  "", "","ph phase-help", "\nPrint a help message about the phase or sub-phase named PHASE, \nthen exit. To see the help message of more than one phase, \nspecify multiple phase-help options.", defaultString)));
 		
 
+		defKey = ""+" "+""+" "+"validation-sample-percent";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultString = getStringDef(defKey);	
+		} else {
+			defaultString = "";
+		}
+
+		setGeneral_Optionsvalidation_sample_percent_widget(new StringOptionWidget(editGroupGeneral_Options, SWT.NONE, new OptionData("Validation Sample Percentage",  "", "","validation-sample-percent", "\nWith -validate, validate the bodies of only PERCENT percent of \nthe methods after each phase, instead of all of them. Which \nmethods are validated depends on the method signature and the \nphase, so that repeated runs validate the same methods while \ndifferent phases validate different ones. The violations found \nare collected by the ValidationManager.", defaultString)));
+		
+
 
 		return editGroupGeneral_Options;
 	}
@@ -8904,6 +9163,17 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 
 		setInput_Optionsoaat_widget(new BooleanOptionWidget(editGroupInput_Options, SWT.NONE, new OptionData("One at a time", "", "","oaat", "\nThis option is meant to keep memory consumption low. If enabled, \nthe -process-dir option must be used as well. From the \nprocess-dir, Soot will process one class at a time. Only body \npacks are run, no whole-program packs.", defaultBool)));
 
+		defKey = ""+" "+""+" "+"streaming";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setInput_Optionsstreaming_widget(new BooleanOptionWidget(editGroupInput_Options, SWT.NONE, new OptionData("Streaming body packs", "", "","streaming", "\nThis option is meant to keep memory consumption low without \ngiving up parallelism. Instead of running the body packs on all \napplication classes and writing the output afterwards, Soot \ntransforms a class, writes it out and releases its bodies before \nadmitting further classes. At most twice as many classes as \nthere are threads are in flight at any time. Whole-program packs \nare still run beforehand. This option has no effect in \ninteractive mode and for the Dava, dex, XML and template output \nformats, which cannot be written class by class in parallel. \nApplication classes that are created while bodies are loaded, \ne.g. for lambda expressions, are written after the other \nclasses, but methods that body transformations add to classes \nwhich have already been written are not part of the output.", defaultBool)));
+
 		defKey = ""+" "+""+" "+"ast-metrics";
 		defKey = defKey.trim();
 
@@ -8926,6 +9196,17 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 
 		setInput_Optionsfull_resolver_widget(new BooleanOptionWidget(editGroupInput_Options, SWT.NONE, new OptionData("Force complete resolver", "", "","full-resolver", "\nNormally, Soot resolves only that application classes and any \nclasses that they refer to, along with any classes it needs for \nthe Jimple typing, but it does not transitively resolve \nreferences in these additional classes that were resolved only \nbecause they were referenced. This switch forces full transitive \nresolution of all references found in all classes that are \nresolved, regardless of why they were resolved. In whole-program \nmode, class resolution is always fully transitive. Therefore, in \nwhole-program mode, this switch has no effect, and class \nresolution is always performed as if it were turned on.", defaultBool)));
 
+		defKey = ""+" "+""+" "+"concurrent-resolver";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setInput_Optionsconcurrent_resolver_widget(new BooleanOptionWidget(editGroupInput_Options, SWT.NONE, new OptionData("Concurrent resolver", "", "","concurrent-resolver", "\nNormally, Soot locates, reads and resolves every class on the \nresolver worklist one after another. This switch lets the \nresolver look up the class sources of all pending classes and \nread their class files ahead of time on a work-stealing pool \nthat uses as many threads as specified by -num-threads. The \nclasses themselves are still resolved in worklist order, \nhierarchy before signatures before bodies, so the resulting \nScene is identical to the one built by the sequential resolver. \nThe switch only takes effect for the c, only-class and J source \nprecedences outside of module mode; it is ignored otherwise.", defaultBool)));
+
 		defKey = ""+" "+""+" "+"ignore-methodsource-error";
 		defKey = defKey.trim();
 
@@ -9036,6 +9317,17 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 
 		setInput_Optionsdrop_bodies_after_load_widget(new BooleanOptionWidget(editGroupInput_Options, SWT.NONE, new OptionData("Drop method source after loading bodies", "", "","drop-bodies-after-load", "\nEach method is associated with a method source for loading its \nbody. When this option is disabled, a reference to this source \nis kept around even after the body has already been loaded. This \nis a waste of memory for most use cases. When this option is \nenabled, the reference is dropped, allowing for garbage \ncollection of the method source. On the other hand, if the body \nis ever released, it cannot easily be recovered (i.e., loaded \nagain) easily.", defaultBool)));
 
+		defKey = ""+" "+""+" "+"lazy-method-sources";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setInput_Optionslazy_method_sources_widget(new BooleanOptionWidget(editGroupInput_Options, SWT.NONE, new OptionData("Lazy method sources", "", "","lazy-method-sources", "\nWhen this option is enabled, the ASM front end does not keep the \ninstructions of a method in memory until its body is loaded. \nInstead, the method source only refers to the bytes of the class \nfile, which are shared by all methods of the class. The \ninstructions are read again when the body is loaded and are \ndropped after the body has been created. This saves memory when \nmost methods are never loaded, at the cost of reading the class \nfile once more for each loaded body. A body that has been \nreleased can be loaded again from the class file. Together with \n-drop-bodies-after-load, the class file is released as soon as \nthe bodies of all methods of the class have been loaded.", defaultBool)));
+
 		defKey = ""+" "+""+" "+"nc native-code";
 		defKey = defKey.trim();
 
@@ -9151,6 +9443,30 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		setInput_Optionsdotnet_nativehost_path_widget(new StringOptionWidget(editGroupInput_Options, SWT.NONE, new OptionData("Dotnet NativeHost Path",  "", "","dotnet-nativehost-path", "\nUse dotnet-nativehost-path to load the NativeHost library which \nis needed for soot.dotnet.", defaultString)));
 		
 
+		defKey = ""+" "+""+" "+"body-cache-dir";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultString = getStringDef(defKey);	
+		} else {
+			defaultString = "";
+		}
+
+		setInput_Optionsbody_cache_dir_widget(new StringOptionWidget(editGroupInput_Options, SWT.NONE, new OptionData("Body cache directory",  "", "","body-cache-dir", "\nStore the Jimple body of every method that is loaded from a \n.class file in DIR after the jb pack has run, and load it from \nthere in later runs instead of converting the bytecode and \nrunning jb again. Entries are keyed by a hash of the class file, \nof the class files of the classes it refers to and of their \nsuperclasses and interfaces, of the phase options of jb and of \nthe other options that influence jb. They are therefore not used \nany more as soon as one of these class files or options changes, \nwhile a change to any other class leaves them valid. Bodies that \ncontain invokedynamic are not cached.", defaultString)));
+		
+
+		defKey = ""+" "+""+" "+"class-path-index-dir";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultString = getStringDef(defKey);	
+		} else {
+			defaultString = "";
+		}
+
+		setInput_Optionsclass_path_index_dir_widget(new StringOptionWidget(editGroupInput_Options, SWT.NONE, new OptionData("Class path index directory",  "", "","class-path-index-dir", "\nIndex the entries of all JAR and ZIP files on the Soot class \npath and store the index in DIR. The index maps every entry to \nthe first archive that contains it, so looking up a class then \ntakes a single probe in the memory-mapped index instead of a \nsearch through the archives, also for classes that do not exist \nat all. Later runs reuse the index without opening the archives. \nThe index is keyed by the path, size and modification time of \nevery archive, so a new index is built as soon as one of the \narchives changes. The entries of every archive are stored \nseparately as well, so only the archives that have changed are \nread again. Directories on the class path are not indexed and \nare searched as before. The names of the classes in every APK \nand DEX file on the class path are stored in DIR as well, so \nthat later runs build the index of Dalvik classes without \nparsing the dex files.", defaultString)));
+		
+
 		defKey = ""+" "+""+" "+"virtualedges-path";
 		defKey = defKey.trim();
 
@@ -9252,6 +9568,17 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 
 		setOutput_Optionsoutput_jar_widget(new BooleanOptionWidget(editGroupOutput_Options, SWT.NONE, new OptionData("Output Jar File", "", "","outjar output-jar", "\nSaves output files into a Jar file instead of a directory. The \noutput Jar file name should be specified using the Output \nDirectory (output-dir) option. Note that if the output Jar file \nexists before Soot runs, any files inside it will first be \nremoved.", defaultBool)));
 
+		defKey = ""+" "+""+" "+"parallel-dex-output";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setOutput_Optionsparallel_dex_output_widget(new BooleanOptionWidget(editGroupOutput_Options, SWT.NONE, new OptionData("Parallel dex output", "", "","parallel-dex-output", "\nWhen writing dex output, convert the classes to dex on several \nthreads without a global lock. The converted classes are split \ninto dex files by the number of method, field and type \nreferences they add, and the dex files are built concurrently. \nOnly the final write of each dex file is sequential.", defaultBool)));
+
 		defKey = ""+" "+""+" "+"hierarchy-dirs";
 		defKey = defKey.trim();
 
@@ -9613,6 +9940,28 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 
 		setProcessing_Optionsomit_excepting_unit_edges_widget(new BooleanOptionWidget(editGroupProcessing_Options, SWT.NONE, new OptionData("Omit Excepting Unit Edges", "", "","omit-excepting-unit-edges", "\nWhen constructing an ExceptionalUnitGraph or \nExceptionalBlockGraph, include edges to an exception handler \nonly from the predecessors of an instruction which may throw an \nexception to the handler, and not from the excepting instruction \nitself, unless the excepting instruction has potential side \neffects. Omitting edges from excepting units allows more \naccurate flow analyses (since if an instruction without side \neffects throws an exception, it has not changed the state of the \ncomputation). This accuracy, though, could lead optimizations to \ngenerate unverifiable code, since the dataflow analyses \nperformed by bytecode verifiers might include paths to exception \nhandlers from all protected instructions, regardless of whether \nthe instructions have side effects. (In practice, the pedantic \nthrow analysis suffices to pass verification in all VMs tested \nwith Soot to date, but the JVM specification does allow for less \ndiscriminating verifiers which would reject some code that might \nbe generated using the pedantic throw analysis without also \nadding edges from all excepting units.)", defaultBool)));
 
+		defKey = ""+" "+""+" "+"compact-cfgs";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setProcessing_Optionscompact_cfgs_widget(new BooleanOptionWidget(editGroupProcessing_Options, SWT.NONE, new OptionData("Compact CFGs", "", "","compact-cfgs", "\nWhen constructing an ExceptionalUnitGraph through \nExceptionalUnitGraphFactory, build a \nCompactExceptionalUnitGraph, which numbers the units of the body \nand stores the edges in integer arrays instead of maps. The \ngraph has the same nodes and edges, but takes less memory and \nless time to build. The lists of successors and predecessors it \nreturns cannot be modified.", defaultBool)));
+
+		defKey = ""+" "+""+" "+"body-analysis-cache";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setProcessing_Optionsbody_analysis_cache_widget(new BooleanOptionWidget(editGroupProcessing_Options, SWT.NONE, new OptionData("Body Analysis Cache", "", "","body-analysis-cache", "\nCache the control flow graphs built by \nExceptionalUnitGraphFactory, and the local definitions and uses \nbuilt by LocalDefsFactory and LocalUses.Factory, for every body, \nso that transformers running on an unchanged body reuse them \ninstead of building them again. The cached results of a body are \ndropped as soon as the body is modified, and released after the \nbody packs have been applied to it. With -time, the number of \nreused results is reported.", defaultBool)));
+
 		defKey = ""+" "+""+" "+"trim-cfgs";
 		defKey = defKey.trim();
 
@@ -11608,6 +11957,17 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 
 		setcgtrim_clinit_widget(new BooleanOptionWidget(editGroupcg, SWT.NONE, new OptionData("Trim Static Initializer Edges", "p phase-option", "cg","trim-clinit", "\nThe call graph contains an edge from each statement that could \ntrigger execution of a static initializer to that static \ninitializer. However, each static initializer is triggered only \nonce. When this option is enabled, after the call graph is \nbuilt, an intra-procedural analysis is performed to detect \nstatic initializer edges leading to methods that must have \nalready been executed. Since these static initializers cannot be \nexecuted again, the corresponding call graph edges are removed \nfrom the call graph.", defaultBool)));
 
+		defKey = "p phase-option"+" "+"cg"+" "+"compact-storage";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setcgcompact_storage_widget(new BooleanOptionWidget(editGroupcg, SWT.NONE, new OptionData("Compact Storage", "p phase-option", "cg","compact-storage", "\nWhen this option is enabled, the call graph is frozen once it \nhas been built. A frozen call graph keeps its edges in a single \narray and indexes them by source statement, source method, and \ntarget method in compact integer arrays instead of hash maps and \nlinked lists, which considerably reduces the memory used by \nlarge call graphs. The call graph can still be modified \nafterwards, but the first modification converts it back into the \nregular representation.", defaultBool)));
+
 		defKey = "p phase-option"+" "+"cg"+" "+"types-for-invoke";
 		defKey = defKey.trim();
 
@@ -11694,6 +12054,18 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 		setcgguards_widget(new StringOptionWidget(editGroupcg, SWT.NONE, new OptionData("Guarding strategy",  "p phase-option", "cg","guards", "\nUsing a reflection log is only sound for method executions that \nwere logged. Executing the program differently may be unsound. \nSoot can insert guards at program points for which the \nreflection log contains no information. When these points are \nreached (because the program is executed differently) then the \nfollwing will happen, depending on the value of this flag. \nignore: no guard is inserted, the program executes normally but \nunder unsound assumptions. print: the program prints a stack \ntrace when reaching a porgram location that was not traced but \ncontinues to run. throw (default): the program throws an Error \ninstead.", defaultString)));
 		
 
+		defKey = "p phase-option"+" "+"cg"+" "+"snapshot";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultString = getStringDef(defKey);	
+		} else {
+			defaultString = "";
+		}
+
+		setcgsnapshot_widget(new StringOptionWidget(editGroupcg, SWT.NONE, new OptionData("Snapshot",  "p phase-option", "cg","snapshot", "\nSave the call graph together with a hash of the class file of \nevery application class in the given file. If the file exists \nalready, restore the call graph from it, and only recompute the \nedges out of the methods that are affected by the application \nclasses whose class files have changed since, instead of \nbuilding the whole call graph again. This is useful when the \nsame program is analyzed repeatedly with small changes, for \nexample on every commit. The edges are only updated \nincrementally if the call graph is built by cg.cha. The whole \ncall graph is built again if the file has been saved with \ndifferent options, if application classes have been added or \nremoved, or if the superclass or interfaces of a changed class \nare different. The bodies of the callers are loaded to restore \nthe call sites, so this option works best together with \n-body-cache-dir.", defaultString)));
+		
+
 
 		return editGroupcg;
 	}
@@ -12023,6 +12395,17 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 
 		setcgcg_sparkon_fly_cg_widget(new BooleanOptionWidget(editGroupcgSpark_Pointer_Assignment_Graph_Building_Options, SWT.NONE, new OptionData("On Fly Call Graph", "p phase-option", "cg.spark","on-fly-cg", "\nWhen this option is set to true, the call graph is computed \non-the-fly as points-to information is computed. Otherwise, an \ninitial CHA approximation to the call graph is used.", defaultBool)));
 
+		defKey = "p phase-option"+" "+"cg.spark"+" "+"parallel-pag";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setcgcg_sparkparallel_pag_widget(new BooleanOptionWidget(editGroupcgSpark_Pointer_Assignment_Graph_Building_Options, SWT.NONE, new OptionData("Parallel PAG Building", "p phase-option", "cg.spark","parallel-pag", "\nWhen this option is set to true, the pointer assignment graphs \nof newly reachable methods are built on several threads. The \nnodes and edges of every method are buffered and merged into the \nPAG in the order of the methods, so node numbers do not depend \non thread timing. The number of threads is set with the global \nnum-threads option. The option is ignored together with rta, \nadd-tags, or a library mode.", defaultBool)));
+
 
 		return editGroupcgSpark_Pointer_Assignment_Graph_Building_Options;
 	}
@@ -12126,6 +12509,10 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 						"worklist",
 						"\nWorklist is a worklist-based algorithm that tries to do as \nlittle work as possible. This is currently the fastest \nalgorithm.",
 						true),
+				new OptionData("Parallel",
+						"parallel",
+						"\nParallel is a worklist-based algorithm that propagates the \npoints-to sets of the nodes in the worklist on several threads. \nIt computes the same result as Worklist and supports on-the-fly \ncall graph construction. The number of threads is set with the \nglobal num-threads option. Points-to set implementations that \nshare state between sets (heintze and sharedlist) are propagated \non one thread.",
+						false),
 				new OptionData("Cycle",
 						"cycle",
 						"\nThis algorithm finds cycles in the PAG on-the-fly. It is not yet \nfinished.",
@@ -12182,6 +12569,10 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 						"sharedlist",
 						"\nShared List stores its elements in a linked list, and might \nshare its tail with other similar points-to sets.",
 						false),
+				new OptionData("Roaring",
+						"roaring",
+						"\nRoaring is a compressed implementation that splits the numbers \nof the allocation sites into chunks of 65536 and stores each \nchunk either in a sorted array of up to 4096 elements or in a \nbitmap. Its memory use does not grow with the total number of \nallocation sites, and unions are computed one chunk at a time.",
+						false),
 				new OptionData("Double",
 						"double",
 						"\nDouble is an implementation that itself uses a pair of sets for \neach points-to set. The first set in the pair stores new \npointed-to objects that have not yet been propagated, while the \nsecond set stores old pointed-to objects that have been \npropagated and need not be reconsidered. This allows the \npropagation algorithms to be incremental, often speeding them up \nsignificantly.",
@@ -12226,6 +12617,10 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 						"sharedlist",
 						"\nShared List stores its elements in a linked list, and might \nshare its tail with other similar points-to sets.",
 						false),
+				new OptionData("Roaring",
+						"roaring",
+						"\nRoaring is a compressed implementation that splits the numbers \nof the allocation sites into chunks of 65536 and stores each \nchunk either in a sorted array of up to 4096 elements or in a \nbitmap. Its memory use does not grow with the total number of \nallocation sites, and unions are computed one chunk at a time.",
+						false),
 		};
 
 
@@ -12266,6 +12661,10 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 						"sharedlist",
 						"\nShared List stores its elements in a linked list, and might \nshare its tail with other similar points-to sets.",
 						false),
+				new OptionData("Roaring",
+						"roaring",
+						"\nRoaring is a compressed implementation that splits the numbers \nof the allocation sites into chunks of 65536 and stores each \nchunk either in a sorted array of up to 4096 elements or in a \nbitmap. Its memory use does not grow with the total number of \nallocation sites, and unions are computed one chunk at a time.",
+						false),
 		};
 
 
@@ -12559,6 +12958,17 @@ public class PhaseOptionsDialog extends AbstractOptionsDialog implements Selecti
 
 		setcgcg_sparkgeom_app_only_widget(new BooleanOptionWidget(editGroupcgGeometric_context_sensitive_analysis_from_ISSTA_2011, SWT.NONE, new OptionData("Pointers processed by geomPTA", "p phase-option", "cg.spark","geom-app-only", "\nWhen this option is true, geomPTA only processes the pointers in \nlibrary functions ( java.*, sun.*, and etc.) that potentially \nimpact the points-to information of pointers in application \ncode, the pointers in application code, and the base pointers at \nvirtual callsites.", defaultBool)));
 
+		defKey = "p phase-option"+" "+"cg.spark"+" "+"geom-parallel";
+		defKey = defKey.trim();
+
+		if (isInDefList(defKey)) {
+			defaultBool = getBoolDef(defKey);	
+		} else {
+			defaultBool = false;
+		}
+
+		setcgcg_sparkgeom_parallel_widget(new BooleanOptionWidget(editGroupcgGeometric_context_sensitive_analysis_from_ISSTA_2011, SWT.NONE, new OptionData("Parallel refinement", "p phase-option", "cg.spark","geom-parallel", "\nWhen this option is true, geomPTA splits the pointers into \nclusters that do not share any constraint and solves the \nclusters on several threads. Every thread has its own worklist. \nThe number of threads is set with the global num-threads option.", defaultBool)));
+
 		data = new OptionData [] {
 		
 				new OptionData("Geometric",
@@ -0,0 +1,268 @@
+// class version 45.3 (196653)
+// access flags 0x21
+public class soot/asm/backend/targets/CompareInstructions {
+
+  // compiled from: CompareInstructions.java
+
+  // access flags 0x0
+  I i
+
+  // access flags 0x0
+  F f
+
+  // access flags 0x0
+  D d
+
+  // access flags 0x0
+  J l
+
+  // access flags 0x0
+  B b
+
+  // access flags 0x0
+  Z bool
+
+  // access flags 0x0
+  C c
+
+  // access flags 0x0
+  S s
+
+  // access flags 0x0
+  Ljava/lang/Object; o
+
+  // access flags 0x1
+  public <init>()V
+    ALOAD 0
+    INVOKESPECIAL java/lang/Object.<init> ()V
+    ALOAD 0
+    ICONST_2
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.i : I
+    ALOAD 0
+    LDC 221349.02
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.f : F
+    ALOAD 0
+    LDC 2123996.1231231233
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.d : D
+    ALOAD 0
+    LDC 2
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.l : J
+    ALOAD 0
+    ICONST_2
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.b : B
+    ALOAD 0
+    ICONST_1
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.bool : Z
+    ALOAD 0
+    ICONST_4
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.c : C
+    ALOAD 0
+    ICONST_3
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.s : S
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x0
+  compareBool(Z)V
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.bool : Z
+    ILOAD 1
+    IF_ICMPNE L0
+    ALOAD 0
+    ICONST_1
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.bool : Z
+   L0
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.bool : Z
+    ILOAD 1
+    IF_ICMPEQ L1
+    ALOAD 0
+    ICONST_0
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.bool : Z
+   L1
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x0
+  compareb(B)V
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.b : B
+    ILOAD 1
+    IF_ICMPNE L0
+    ALOAD 0
+    ICONST_2
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.b : B
+   L0
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.b : B
+    ILOAD 1
+    IF_ICMPEQ L1
+    ALOAD 0
+    ICONST_1
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.b : B
+   L1
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x0
+  comparec(C)V
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.c : C
+    ILOAD 1
+    IF_ICMPNE L0
+    ALOAD 0
+    ICONST_2
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.c : C
+   L0
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.c : C
+    ILOAD 1
+    IF_ICMPEQ L1
+    ALOAD 0
+    ICONST_3
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.c : C
+   L1
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x0
+  compared(D)V
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.d : D
+    DLOAD 1
+    DCMPL
+    IFNE L0
+    ALOAD 0
+    LDC 2.0
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.d : D
+   L0
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.d : D
+    DLOAD 1
+    DCMPL
+    IFEQ L1
+    ALOAD 0
+    DCONST_1
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.d : D
+   L1
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x0
+  comparef(F)V
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.f : F
+    FLOAD 1
+    FCMPL
+    IFNE L0
+    ALOAD 0
+    FCONST_0
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.f : F
+   L0
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.f : F
+    FLOAD 1
+    FCMPL
+    IFEQ L1
+    ALOAD 0
+    FCONST_1
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.f : F
+   L1
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x0
+  comparei(I)V
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.i : I
+    ILOAD 1
+    IF_ICMPNE L0
+    ALOAD 0
+    ICONST_2
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.i : I
+   L0
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.i : I
+    ILOAD 1
+    IF_ICMPEQ L1
+    ALOAD 0
+    ICONST_1
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.i : I
+   L1
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x0
+  comparel(J)V
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.l : J
+    LLOAD 1
+    LCMP
+    IFNE L0
+    ALOAD 0
+    LDC 2
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.l : J
+   L0
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.l : J
+    LLOAD 1
+    LCMP
+    IFEQ L1
+    ALOAD 0
+    LCONST_1
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.l : J
+   L1
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x0
+  comparenull(Ljava/lang/Object;)V
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.o : Ljava/lang/Object;
+    IFNONNULL L0
+    ALOAD 0
+    NEW java/lang/Object
+    DUP
+    INVOKESPECIAL java/lang/Object.<init> ()V
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.o : Ljava/lang/Object;
+   L0
+    ALOAD 1
+    IFNULL L1
+    ALOAD 0
+    ACONST_NULL
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.o : Ljava/lang/Object;
+   L1
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x0
+  compares(S)V
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.s : S
+    ILOAD 1
+    IF_ICMPNE L0
+    ALOAD 0
+    ICONST_1
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.s : S
+   L0
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/CompareInstructions.s : S
+    ILOAD 1
+    IF_ICMPEQ L1
+    ALOAD 0
+    ICONST_3
+    PUTFIELD soot/asm/backend/targets/CompareInstructions.s : S
+   L1
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+}
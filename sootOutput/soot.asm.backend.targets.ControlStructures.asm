@@ -0,0 +1,111 @@
+// class version 50.0 (50)
+// access flags 0x21
+public class soot/asm/backend/targets/ControlStructures {
+
+  // compiled from: ControlStructures.java
+
+  // access flags 0x0
+  // signature Ljava/util/List<Ljava/lang/Integer;>;
+  // declaration: result extends java.util.List<java.lang.Integer>
+  Ljava/util/List; result
+
+  // access flags 0x1
+  public <init>()V
+    ALOAD 0
+    INVOKESPECIAL java/lang/Object.<init> ()V
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x4
+  // signature (I)Ljava/util/List<Ljava/lang/Integer;>;
+  // declaration: java.util.List<java.lang.Integer> get(int)
+  protected get(I)Ljava/util/List;
+    ALOAD 0
+    NEW java/util/ArrayList
+    DUP
+    INVOKESPECIAL java/util/ArrayList.<init> ()V
+    PUTFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    ILOAD 1
+    TABLESWITCH
+      1: L0
+      2: L1
+      3: L2
+      default: L3
+   L0
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    ICONST_1
+    INVOKESTATIC java/lang/Integer.valueOf (I)Ljava/lang/Integer;
+    INVOKEINTERFACE java/util/List.add (Ljava/lang/Object;)Z (itf)
+    POP
+    GOTO L4
+   L1
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    ICONST_2
+    INVOKESTATIC java/lang/Integer.valueOf (I)Ljava/lang/Integer;
+    INVOKEINTERFACE java/util/List.add (Ljava/lang/Object;)Z (itf)
+    POP
+   L2
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    ICONST_3
+    INVOKESTATIC java/lang/Integer.valueOf (I)Ljava/lang/Integer;
+    INVOKEINTERFACE java/util/List.add (Ljava/lang/Object;)Z (itf)
+    POP
+    GOTO L4
+   L3
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    ACONST_NULL
+    INVOKEINTERFACE java/util/List.add (Ljava/lang/Object;)Z (itf)
+    POP
+   L4
+    ILOAD 1
+    LOOKUPSWITCH
+      1: L5
+      10: L6
+      100: L7
+      1000: L8
+      default: L9
+   L5
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    ICONST_1
+    INVOKESTATIC java/lang/Integer.valueOf (I)Ljava/lang/Integer;
+    INVOKEINTERFACE java/util/List.add (Ljava/lang/Object;)Z (itf)
+    POP
+   L6
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    BIPUSH 10
+    INVOKESTATIC java/lang/Integer.valueOf (I)Ljava/lang/Integer;
+    INVOKEINTERFACE java/util/List.add (Ljava/lang/Object;)Z (itf)
+    POP
+   L7
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    BIPUSH 100
+    INVOKESTATIC java/lang/Integer.valueOf (I)Ljava/lang/Integer;
+    INVOKEINTERFACE java/util/List.add (Ljava/lang/Object;)Z (itf)
+    POP
+   L8
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    SIPUSH 1000
+    INVOKESTATIC java/lang/Integer.valueOf (I)Ljava/lang/Integer;
+    INVOKEINTERFACE java/util/List.add (Ljava/lang/Object;)Z (itf)
+    POP
+   L9
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    ACONST_NULL
+    INVOKEINTERFACE java/util/List.add (Ljava/lang/Object;)Z (itf)
+    POP
+    ALOAD 0
+    GETFIELD soot/asm/backend/targets/ControlStructures.result : Ljava/util/List;
+    ARETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+}
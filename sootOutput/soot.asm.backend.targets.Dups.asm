@@ -0,0 +1,30 @@
+// class version 45.3 (196653)
+// access flags 0x21
+public class soot/asm/backend/targets/Dups {
+
+  // compiled from: Dups.java
+
+  // access flags 0x1
+  public <init>()V
+    ALOAD 0
+    INVOKESPECIAL java/lang/Object.<init> ()V
+    RETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x1
+  public dubl()J
+    LDC 2468
+    LRETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+
+  // access flags 0x1
+  public dup()Ljava/lang/Object;
+    NEW java/lang/Object
+    DUP
+    INVOKESPECIAL java/lang/Object.<init> ()V
+    ARETURN
+    MAXSTACK = 0
+    MAXLOCALS = 0
+}
@@ -174,6 +174,10 @@ public class AntTask extends MatchingTask {
             if(arg) addArg("-validate");
         }
   
+        public void setparallel_validation(boolean arg) {
+            if(arg) addArg("-parallel-validation");
+        }
+  
         public void setdebug(boolean arg) {
             if(arg) addArg("-debug");
         }
@@ -205,6 +209,16 @@ public class AntTask extends MatchingTask {
             addArg(arg);
         }
   
+        public void setbody_cache_dir(String arg) {
+            addArg("-body-cache-dir");
+            addArg(arg);
+        }
+  
+        public void setclass_path_index_dir(String arg) {
+            addArg("-class-path-index-dir");
+            addArg(arg);
+        }
+  
         public void setprepend_classpath(boolean arg) {
             if(arg) addArg("-prepend-classpath");
         }
@@ -258,6 +272,10 @@ public class AntTask extends MatchingTask {
             if(arg) addArg("-oaat");
         }
   
+        public void setstreaming(boolean arg) {
+            if(arg) addArg("-streaming");
+        }
+  
         public void setandroid_jars(String arg) {
             addArg("-android-jars");
             addArg(arg);
@@ -297,6 +315,10 @@ public class AntTask extends MatchingTask {
             if(arg) addArg("-full-resolver");
         }
   
+        public void setconcurrent_resolver(boolean arg) {
+            if(arg) addArg("-concurrent-resolver");
+        }
+  
         public void setignore_methodsource_error(boolean arg) {
             if(arg) addArg("-ignore-methodsource-error");
         }
@@ -342,6 +364,10 @@ public class AntTask extends MatchingTask {
             if(arg) addArg("-drop-bodies-after-load");
         }
   
+        public void setlazy_method_sources(boolean arg) {
+            if(arg) addArg("-lazy-method-sources");
+        }
+  
         public void setnative_code(boolean arg) {
             if(arg) addArg("-native-code");
         }
@@ -432,6 +458,10 @@ public class AntTask extends MatchingTask {
             if(arg) addArg("-output-jar");
         }
   
+        public void setparallel_dex_output(boolean arg) {
+            if(arg) addArg("-parallel-dex-output");
+        }
+  
         public void sethierarchy_dirs(boolean arg) {
             if(arg) addArg("-hierarchy-dirs");
         }
@@ -581,6 +611,14 @@ public class AntTask extends MatchingTask {
             if(arg) addArg("-omit-excepting-unit-edges");
         }
   
+        public void setcompact_cfgs(boolean arg) {
+            if(arg) addArg("-compact-cfgs");
+        }
+  
+        public void setbody_analysis_cache(boolean arg) {
+            if(arg) addArg("-body-analysis-cache");
+        }
+  
         public void settrim_cfgs(boolean arg) {
             if(arg) addArg("-trim-cfgs");
         }
@@ -1421,6 +1459,12 @@ public class AntTask extends MatchingTask {
             addArg("trim-clinit:"+(arg?"true":"false"));
           }
       
+          public void setcompact_storage(boolean arg) {
+            addArg("-p");
+            addArg("cg");
+            addArg("compact-storage:"+(arg?"true":"false"));
+          }
+      
           public void settypes_for_invoke(boolean arg) {
             addArg("-p");
             addArg("cg");
@@ -1457,6 +1501,12 @@ public class AntTask extends MatchingTask {
             addArg("guards:"+arg);
           }
       
+          public void setsnapshot(String arg) {
+            addArg("-p");
+            addArg("cg");
+            addArg("snapshot:"+arg);
+          }
+      
         }
     
         public Object createp_cg_cha() {
@@ -1589,6 +1639,12 @@ public class AntTask extends MatchingTask {
             addArg("on-fly-cg:"+(arg?"true":"false"));
           }
       
+          public void setparallel_pag(boolean arg) {
+            addArg("-p");
+            addArg("cg.spark");
+            addArg("parallel-pag:"+(arg?"true":"false"));
+          }
+      
           public void setsimplify_offline(boolean arg) {
             addArg("-p");
             addArg("cg.spark");
@@ -1697,6 +1753,12 @@ public class AntTask extends MatchingTask {
             addArg("geom-app-only:"+(arg?"true":"false"));
           }
       
+          public void setgeom_parallel(boolean arg) {
+            addArg("-p");
+            addArg("cg.spark");
+            addArg("geom-parallel:"+(arg?"true":"false"));
+          }
+      
           public void setpropagator(String arg) {
             addArg("-p");
             addArg("cg.spark");
@@ -143,6 +143,23 @@ public class CGOptions {
         return soot.PhaseOptions.getBoolean(options, "trim-clinit");
     }
 
+    /**
+     * Compact Storage --
+     * Stores the finished call graph in compact arrays.
+     *
+     * When this option is enabled, the call graph is frozen once it 
+     * has been built. A frozen call graph keeps its edges in a single 
+     * array and indexes them by source statement, source method, and 
+     * target method in compact integer arrays instead of hash maps and 
+     * linked lists, which considerably reduces the memory used by 
+     * large call graphs. The call graph can still be modified 
+     * afterwards, but the first modification converts it back into the 
+     * regular representation.
+     */
+    public boolean compact_storage() {
+        return soot.PhaseOptions.getBoolean(options, "compact-storage");
+    }
+
     /**
      * Types for invoke --
      * Uses reaching types inferred by the pointer analysis to resolve 
@@ -229,6 +246,31 @@ public class CGOptions {
         return soot.PhaseOptions.getString(options, "guards");
     }
 
+    /**
+     * Snapshot --
+     * Updates the call graph saved in the given file instead of 
+     * building it again.
+     *
+     * Save the call graph together with a hash of the class file of 
+     * every application class in the given file. If the file exists 
+     * already, restore the call graph from it, and only recompute the 
+     * edges out of the methods that are affected by the application 
+     * classes whose class files have changed since, instead of 
+     * building the whole call graph again. This is useful when the 
+     * same program is analyzed repeatedly with small changes, for 
+     * example on every commit. The edges are only updated 
+     * incrementally if the call graph is built by cg.cha. The whole 
+     * call graph is built again if the file has been saved with 
+     * different options, if application classes have been added or 
+     * removed, or if the superclass or interfaces of a changed class 
+     * are different. The bodies of the callers are loaded to restore 
+     * the call sites, so this option works best together with 
+     * -body-cache-dir.
+     */
+    public String snapshot() {
+        return soot.PhaseOptions.getString(options, "snapshot");
+    }
+
     public static final int library_disabled = 1;
     public static final int library_any_subtype = 2;
     public static final int library_signature_resolution = 3;
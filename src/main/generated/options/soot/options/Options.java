@@ -214,6 +214,26 @@ public class Options extends OptionsBase {
                     || option.equals("validate")
             )
                 validate = true;
+            else if (false
+                    || option.equals("parallel-validation")
+            )
+                parallel_validation = true;
+            else if (false
+                || option.equals("validation-sample-percent")
+            ) {
+                if (!hasMoreOptions()) {
+                    G.v().out.println("No value given for option -" + option);
+                    return false;
+                }
+
+                String value = nextOption();
+                if(validation_sample_percent == -1)
+                    validation_sample_percent = Integer.valueOf(value);
+                else {
+                    G.v().out.println("Duplicate values " + validation_sample_percent + " and " + value + " for option -" + option);
+                    return false;
+                }
+            }
             else if (false
                     || option.equals("debug")
             )
@@ -280,6 +300,38 @@ public class Options extends OptionsBase {
                     return false;
                 }
             }
+            else if (false
+                    || option.equals("body-cache-dir")
+            ) {
+                if (!hasMoreOptions()) {
+                    G.v().out.println("No value given for option -" + option);
+                    return false;
+                }
+
+                String value = nextOption();
+                if (body_cache_dir.isEmpty())
+                    body_cache_dir = value;
+                else {
+                    G.v().out.println("Duplicate values " + body_cache_dir + " and " + value + " for option -" + option);
+                    return false;
+                }
+            }
+            else if (false
+                    || option.equals("class-path-index-dir")
+            ) {
+                if (!hasMoreOptions()) {
+                    G.v().out.println("No value given for option -" + option);
+                    return false;
+                }
+
+                String value = nextOption();
+                if (class_path_index_dir.isEmpty())
+                    class_path_index_dir = value;
+                else {
+                    G.v().out.println("Duplicate values " + class_path_index_dir + " and " + value + " for option -" + option);
+                    return false;
+                }
+            }
             else if (false
                     || option.equals("pp")
                     || option.equals("prepend-classpath")
@@ -349,6 +401,10 @@ public class Options extends OptionsBase {
                     || option.equals("oaat")
             )
                 oaat = true;
+            else if (false
+                    || option.equals("streaming")
+            )
+                streaming = true;
             else if (false
                     || option.equals("android-jars")
             ) {
@@ -487,6 +543,10 @@ public class Options extends OptionsBase {
                     || option.equals("full-resolver")
             )
                 full_resolver = true;
+            else if (false
+                    || option.equals("concurrent-resolver")
+            )
+                concurrent_resolver = true;
             else if (false
                     || option.equals("ignore-methodsource-error")
             )
@@ -543,6 +603,10 @@ public class Options extends OptionsBase {
                     || option.equals("no-drop-bodies-after-load")
             )
                 drop_bodies_after_load = false;
+            else if (false
+                    || option.equals("lazy-method-sources")
+            )
+                lazy_method_sources = true;
             else if (false
                     || option.equals("nc")
                     || option.equals("native-code")
@@ -898,6 +962,10 @@ public class Options extends OptionsBase {
                     || option.equals("output-jar")
             )
                 output_jar = true;
+            else if (false
+                    || option.equals("parallel-dex-output")
+            )
+                parallel_dex_output = true;
             else if (false
                     || option.equals("hierarchy-dirs")
             )
@@ -1276,6 +1344,14 @@ public class Options extends OptionsBase {
                     || option.equals("omit-excepting-unit-edges")
             )
                 omit_excepting_unit_edges = true;
+            else if (false
+                    || option.equals("compact-cfgs")
+            )
+                compact_cfgs = true;
+            else if (false
+                    || option.equals("body-analysis-cache")
+            )
+                body_analysis_cache = true;
             else if (false
                 || option.equals("trim-cfgs")
             ) {
@@ -1522,6 +1598,14 @@ public class Options extends OptionsBase {
     private boolean validate = false;
     public void set_validate(boolean setting) { validate = setting; }
 
+    public boolean parallel_validation() { return parallel_validation; }
+    private boolean parallel_validation = false;
+    public void set_parallel_validation(boolean setting) { parallel_validation = setting; }
+
+    public int validation_sample_percent() { return validation_sample_percent; }
+    public void set_validation_sample_percent(int setting) { validation_sample_percent = setting; }
+    private int validation_sample_percent = -1;
+
     public boolean debug() { return debug; }
     private boolean debug = false;
     public void set_debug(boolean setting) { debug = setting; }
@@ -1550,6 +1634,14 @@ public class Options extends OptionsBase {
     public void set_dotnet_nativehost_path(String setting) { dotnet_nativehost_path = setting; }
     private String dotnet_nativehost_path = "";
 
+    public String body_cache_dir() { return body_cache_dir; }
+    public void set_body_cache_dir(String setting) { body_cache_dir = setting; }
+    private String body_cache_dir = "";
+
+    public String class_path_index_dir() { return class_path_index_dir; }
+    public void set_class_path_index_dir(String setting) { class_path_index_dir = setting; }
+    private String class_path_index_dir = "";
+
     public boolean prepend_classpath() { return prepend_classpath; }
     private boolean prepend_classpath = false;
     public void set_prepend_classpath(boolean setting) { prepend_classpath = setting; }
@@ -1590,6 +1682,10 @@ public class Options extends OptionsBase {
     private boolean oaat = false;
     public void set_oaat(boolean setting) { oaat = setting; }
 
+    public boolean streaming() { return streaming; }
+    private boolean streaming = false;
+    public void set_streaming(boolean setting) { streaming = setting; }
+
     public String android_jars() { return android_jars; }
     public void set_android_jars(String setting) { android_jars = setting; }
     private String android_jars = "";
@@ -1617,6 +1713,10 @@ public class Options extends OptionsBase {
     private boolean full_resolver = false;
     public void set_full_resolver(boolean setting) { full_resolver = setting; }
 
+    public boolean concurrent_resolver() { return concurrent_resolver; }
+    private boolean concurrent_resolver = false;
+    public void set_concurrent_resolver(boolean setting) { concurrent_resolver = setting; }
+
     public boolean ignore_methodsource_error() { return ignore_methodsource_error; }
     private boolean ignore_methodsource_error = false;
     public void set_ignore_methodsource_error(boolean setting) { ignore_methodsource_error = setting; }
@@ -1661,6 +1761,10 @@ public class Options extends OptionsBase {
     private boolean drop_bodies_after_load = true;
     public void set_drop_bodies_after_load(boolean setting) { drop_bodies_after_load = setting; }
 
+    public boolean lazy_method_sources() { return lazy_method_sources; }
+    private boolean lazy_method_sources = false;
+    public void set_lazy_method_sources(boolean setting) { lazy_method_sources = setting; }
+
     public boolean native_code() { return native_code; }
     private boolean native_code = false;
     public void set_native_code(boolean setting) { native_code = setting; }
@@ -1686,6 +1790,10 @@ public class Options extends OptionsBase {
     private boolean output_jar = false;
     public void set_output_jar(boolean setting) { output_jar = setting; }
 
+    public boolean parallel_dex_output() { return parallel_dex_output; }
+    private boolean parallel_dex_output = false;
+    public void set_parallel_dex_output(boolean setting) { parallel_dex_output = setting; }
+
     public boolean hierarchy_dirs() { return hierarchy_dirs; }
     private boolean hierarchy_dirs = false;
     public void set_hierarchy_dirs(boolean setting) { hierarchy_dirs = setting; }
@@ -1780,6 +1888,14 @@ public class Options extends OptionsBase {
     private boolean omit_excepting_unit_edges = false;
     public void set_omit_excepting_unit_edges(boolean setting) { omit_excepting_unit_edges = setting; }
 
+    public boolean compact_cfgs() { return compact_cfgs; }
+    private boolean compact_cfgs = false;
+    public void set_compact_cfgs(boolean setting) { compact_cfgs = setting; }
+
+    public boolean body_analysis_cache() { return body_analysis_cache; }
+    private boolean body_analysis_cache = false;
+    public void set_body_analysis_cache(boolean setting) { body_analysis_cache = setting; }
+
     public boolean ignore_resolution_errors() { return ignore_resolution_errors; }
     private boolean ignore_resolution_errors = false;
     public void set_ignore_resolution_errors(boolean setting) { ignore_resolution_errors = setting; }
@@ -1858,6 +1974,7 @@ public class Options extends OptionsBase {
                 + padOpt("-ws, -whole-shimple", "Run in whole-shimple mode")
                 + padOpt("-fly, -on-the-fly", "Run in on-the-fly mode")
                 + padOpt("-validate", "Run internal validation on bodies")
+                + padOpt("-parallel-validation", "Run the validators of a body in parallel")
                 + padOpt("-debug", "Print various Soot debugging info")
                 + padOpt("-debug-resolver", "Print debugging info from SootResolver")
                 + padOpt("-ignore-resolving-levels", "Ignore mismatching resolving levels")
@@ -1866,6 +1983,8 @@ public class Options extends OptionsBase {
                 + padOpt("-cp ARG -soot-class-path ARG -soot-classpath ARG", "Use ARG as the classpath for finding classes.")
                 + padOpt("-soot-modulepath ARG", "Use ARG as the modulepath for finding classes.")
                 + padOpt("-dotnet-nativehost-path ARG", "Use  to locate your NativeHost Java JNI library.")
+                + padOpt("-body-cache-dir ARG", "Cache the Jimple bodies of class files in ARG")
+                + padOpt("-class-path-index-dir ARG", "Store an index of the archives on the class path in ARG")
                 + padOpt("-pp, -prepend-classpath", "Prepend the given soot classpath to the default classpath.")
                 + padOpt("-ice, -ignore-classpath-errors", "Ignores invalid entries on the Soot classpath.")
                 + padOpt("-process-multiple-dex", "Process all DEX files found in APK.")
@@ -1875,6 +1994,7 @@ public class Options extends OptionsBase {
                 + padOpt("-virtualedges-path ARG", "Path to virtual edges configuration used in call graphs")
                 + padOpt("-derive-java-version", "Java version for output and internal processing will be derived from the given input classes")
                 + padOpt("-oaat", "From the process-dir, processes one class at a time.")
+                + padOpt("-streaming", "Transforms, writes and releases application classes in a bounded parallel pipeline.")
                 + padOpt("-android-jars ARG", "Use ARG as the path for finding the android.jar file")
                 + padOpt("-force-android-jar ARG", "Force Soot to use ARG as the path for the android.jar file.")
                 + padOpt("-ast-metrics", "Compute AST Metrics if performing java to jimple")
@@ -1887,6 +2007,7 @@ public class Options extends OptionsBase {
                     + padVal("apk-class-jimple apk-c-j", "Favour APK files as Soot source, disregard Java files")
                     + padVal("dotnet", "Favour .NET assemblies files as Soot source")
                 + padOpt("-full-resolver", "Force transitive resolving of referenced classes")
+                + padOpt("-concurrent-resolver", "Locate and read referenced classes on multiple threads")
                 + padOpt("-ignore-methodsource-error", "Ignore errors from method source and return empty jimple body")
                 + padOpt("-resolve-all-dotnet-methods", "Resolve all dotnet methods, such as unsafe methods")
                 + padOpt("-allow-phantom-refs", "Allow unresolved classes; may cause errors")
@@ -1898,6 +2019,7 @@ public class Options extends OptionsBase {
                 + padOpt("-polyglot", "Use Java 1.4 Polyglot frontend instead of JastAdd")
                 + padOpt("-permissive-resolving", "Use alternative sources when classes cannot be found using the normal resolving strategy")
                 + padOpt("-drop-bodies-after-load", "Drop the method source after it has served its purpose of loading the method body")
+                + padOpt("-lazy-method-sources", "Keep only the class file for method bodies that have not been loaded yet")
                 + padOpt("-nc, -native-code", "Enables native methods to be concrete. Needed for analyzing the Java Native Interface.")
                 + "\nOutput Options:\n"
                 + padOpt("-d ARG -output-dir ARG", "Store output files in ARG")
@@ -1934,6 +2056,7 @@ public class Options extends OptionsBase {
                     + padVal("1.11 11", "Force Java 1.11 as output version (Experimental).")
                     + padVal("1.12 12", "Force Java 1.12 as output version (Experimental).")
                 + padOpt("-outjar, -output-jar", "Make output dir a Jar file instead of dir")
+                + padOpt("-parallel-dex-output", "Convert classes to dex concurrently")
                 + padOpt("-hierarchy-dirs", "Generate class hierarchy directories for Jimple/Shimple")
                 + padOpt("-xml-attributes", "Save tags to XML attributes for Eclipse")
                 + padOpt("-print-tags, -print-tags-in-output", "Print tags in output files after stmt")
@@ -1973,6 +2096,8 @@ public class Options extends OptionsBase {
                     + padVal("dalvik", "Dalvik Throw Analysis")
                     + padVal("dotnet", "Dotnet Throw Analysis")
                 + padOpt("-omit-excepting-unit-edges", "Omit CFG edges to handlers from excepting units which lack side effects")
+                + padOpt("-compact-cfgs", "Build exceptional CFGs with array-based edge storage")
+                + padOpt("-body-analysis-cache", "Share CFGs, local definitions and local uses between transformers")
                 + padOpt("-trim-cfgs", "Trim unrealizable exceptional edges from CFGs")
                 + padOpt("-ire, -ignore-resolution-errors", "Does not throw an exception when a program references an undeclared field or method.")
                 + "\nApplication Mode Options:\n"
@@ -2371,10 +2496,12 @@ public class Options extends OptionsBase {
                     + padOpt("all-reachable (false)", "Assume all methods of application classes are reachable.")
                     + padOpt("implicit-entry (true)", "Include methods called implicitly by the VM as entry points")
                     + padOpt("trim-clinit (true)", "Removes redundant static initializer calls")
+                    + padOpt("compact-storage (false)", "Stores the finished call graph in compact arrays")
                     + padOpt("reflection-log", "Uses a reflection log to resolve reflective calls.")
                     + padOpt("guards (ignore)", "Describes how to guard the program from unsound assumptions.")
                     + padOpt("types-for-invoke (false)", "Uses reaching types inferred by the pointer analysis to resolve reflective calls.")
-                    + padOpt("resolve-all-abstract-invokes (false)", "Causes methods invoked on abstract classes to be resolved even if there are no non-abstract children of the classes in the Scene.");
+                    + padOpt("resolve-all-abstract-invokes (false)", "Causes methods invoked on abstract classes to be resolved even if there are no non-abstract children of the classes in the Scene.")
+                    + padOpt("snapshot", "Updates the call graph saved in the given file instead of building it again.");
 
         if (phaseName.equals("cg.cha"))
             return "Phase " + phaseName + ":\n"
@@ -2404,12 +2531,14 @@ public class Options extends OptionsBase {
                     + padOpt("empties-as-allocs (false)", "Treat singletons for empty sets etc. as allocation sites")
                     + padOpt("simple-edges-bidirectional (false)", "Equality-based analysis between variable nodes")
                     + padOpt("on-fly-cg (true)", "Build call graph as receiver types become known")
+                    + padOpt("parallel-pag (false)", "Build the PAGs of methods on several threads")
                     + padOpt("simplify-offline (false)", "Collapse single-entry subgraphs of the PAG")
                     + padOpt("simplify-sccs (false)", "Collapse strongly-connected components of the PAG")
                     + padOpt("ignore-types-for-sccs (false)", "Ignore declared types when determining node equivalence for SCCs")
                     + padOpt("propagator", "Select propagation algorithm")
                         + padVal("iter", "Simple iterative algorithm")
                         + padVal("worklist (default)", "Fast, worklist-based algorithm")
+                        + padVal("parallel", "Worklist-based algorithm that uses several threads")
                         + padVal("cycle", "Unfinished on-the-fly cycle detection algorithm")
                         + padVal("merge", "Unfinished field reference merging algorithms")
                         + padVal("alias", "Alias-edge based algorithm")
@@ -2421,6 +2550,7 @@ public class Options extends OptionsBase {
                         + padVal("array", "Sorted array representation")
                         + padVal("heintze", "Heintze's shared bit-vector and overflow list representation")
                         + padVal("sharedlist", "Shared list representation")
+                        + padVal("roaring", "Compressed representation with array and bitmap containers")
                         + padVal("double (default)", "Double set representation for incremental propagation")
                     + padOpt("double-set-old", "Select implementation of points-to set for old part of double set")
                         + padVal("hash", "Use Java HashSet")
@@ -2429,6 +2559,7 @@ public class Options extends OptionsBase {
                         + padVal("array", "Sorted array representation")
                         + padVal("heintze", "Heintze's shared bit-vector and overflow list representation")
                         + padVal("sharedlist", "Shared list representation")
+                        + padVal("roaring", "Compressed representation with array and bitmap containers")
                     + padOpt("double-set-new", "Select implementation of points-to set for new part of double set")
                         + padVal("hash", "Use Java HashSet")
                         + padVal("bit", "Bit vector")
@@ -2436,6 +2567,7 @@ public class Options extends OptionsBase {
                         + padVal("array", "Sorted array representation")
                         + padVal("heintze", "Heintze's shared bit-vector and overflow list representation")
                         + padVal("sharedlist", "Shared list representation")
+                        + padVal("roaring", "Compressed representation with array and bitmap containers")
                     + padOpt("dump-html (false)", "Dump pointer assignment graph to HTML for debugging")
                     + padOpt("dump-pag (false)", "Dump pointer assignment graph for other solvers")
                     + padOpt("dump-solution (false)", "Dump final solution for comparison with other solvers")
@@ -2464,7 +2596,8 @@ public class Options extends OptionsBase {
                     + padOpt("geom-frac-base (40)", "Fractional parameter for precision/performance trade-off")
                     + padOpt("geom-blocking (true)", "Enable blocking strategy for recursive calls")
                     + padOpt("geom-runs (1)", "Iterations of analysis")
-                    + padOpt("geom-app-only (true)", "Processing pointers that impact pointers in application code only");
+                    + padOpt("geom-app-only (true)", "Processing pointers that impact pointers in application code only")
+                    + padOpt("geom-parallel (false)", "Solve independent pointer clusters on several threads");
 
         if (phaseName.equals("cg.paddle"))
             return "Phase " + phaseName + ":\n"
@@ -3307,10 +3440,12 @@ public class Options extends OptionsBase {
                     "all-reachable",
                     "implicit-entry",
                     "trim-clinit",
+                    "compact-storage",
                     "reflection-log",
                     "guards",
                     "types-for-invoke",
-                    "resolve-all-abstract-invokes"
+                    "resolve-all-abstract-invokes",
+                    "snapshot"
             );
 
         if (phaseName.equals("cg.cha"))
@@ -3338,6 +3473,7 @@ public class Options extends OptionsBase {
                     "empties-as-allocs",
                     "simple-edges-bidirectional",
                     "on-fly-cg",
+                    "parallel-pag",
                     "simplify-offline",
                     "simplify-sccs",
                     "ignore-types-for-sccs",
@@ -3368,7 +3504,8 @@ public class Options extends OptionsBase {
                     "geom-frac-base",
                     "geom-blocking",
                     "geom-runs",
-                    "geom-app-only"
+                    "geom-app-only",
+                    "geom-parallel"
             );
 
         if (phaseName.equals("cg.paddle"))
@@ -4037,6 +4174,7 @@ public class Options extends OptionsBase {
                     + "all-reachable:false "
                     + "implicit-entry:true "
                     + "trim-clinit:true "
+                    + "compact-storage:false "
                     + "guards:ignore "
                     + "types-for-invoke:false "
                     + "resolve-all-abstract-invokes:false ";
@@ -4065,6 +4203,7 @@ public class Options extends OptionsBase {
                     + "empties-as-allocs:false "
                     + "simple-edges-bidirectional:false "
                     + "on-fly-cg:true "
+                    + "parallel-pag:false "
                     + "simplify-offline:false "
                     + "simplify-sccs:false "
                     + "ignore-types-for-sccs:false "
@@ -4097,7 +4236,8 @@ public class Options extends OptionsBase {
                     + "geom-frac-base:40 "
                     + "geom-blocking:true "
                     + "geom-runs:1 "
-                    + "geom-app-only:true ";
+                    + "geom-app-only:true "
+                    + "geom-parallel:false ";
 
         if (phaseName.equals("cg.paddle"))
             return ""
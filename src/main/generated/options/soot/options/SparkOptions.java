@@ -236,6 +236,22 @@ public class SparkOptions {
         return soot.PhaseOptions.getBoolean(options, "on-fly-cg");
     }
 
+    /**
+     * Parallel PAG Building --
+     * Build the PAGs of methods on several threads.
+     *
+     * When this option is set to true, the pointer assignment graphs 
+     * of newly reachable methods are built on several threads. The 
+     * nodes and edges of every method are buffered and merged into the 
+     * PAG in the order of the methods, so node numbers do not depend 
+     * on thread timing. The number of threads is set with the global 
+     * num-threads option. The option is ignored together with rta, 
+     * add-tags, or a library mode.
+     */
+    public boolean parallel_pag() {
+        return soot.PhaseOptions.getBoolean(options, "parallel-pag");
+    }
+
     /**
      * Simplify Offline --
      * Collapse single-entry subgraphs of the PAG.
@@ -470,6 +486,19 @@ public class SparkOptions {
         return soot.PhaseOptions.getBoolean(options, "geom-app-only");
     }
 
+    /**
+     * Parallel refinement --
+     * Solve independent pointer clusters on several threads.
+     *
+     * When this option is true, geomPTA splits the pointers into 
+     * clusters that do not share any constraint and solves the 
+     * clusters on several threads. Every thread has its own worklist. 
+     * The number of threads is set with the global num-threads option.
+     */
+    public boolean geom_parallel() {
+        return soot.PhaseOptions.getBoolean(options, "geom-parallel");
+    }
+
     /**
      * Maximal traversal --
      * Make the analysis traverse at most this number of nodes per 
@@ -560,10 +589,11 @@ public class SparkOptions {
 
     public static final int propagator_iter = 1;
     public static final int propagator_worklist = 2;
-    public static final int propagator_cycle = 3;
-    public static final int propagator_merge = 4;
-    public static final int propagator_alias = 5;
-    public static final int propagator_none = 6;
+    public static final int propagator_parallel = 3;
+    public static final int propagator_cycle = 4;
+    public static final int propagator_merge = 5;
+    public static final int propagator_alias = 6;
+    public static final int propagator_none = 7;
 
     /**
      * Propagator --
@@ -580,6 +610,8 @@ public class SparkOptions {
             return propagator_iter;
         if (s.equalsIgnoreCase("worklist"))
             return propagator_worklist;
+        if (s.equalsIgnoreCase("parallel"))
+            return propagator_parallel;
         if (s.equalsIgnoreCase("cycle"))
             return propagator_cycle;
         if (s.equalsIgnoreCase("merge"))
@@ -598,7 +630,8 @@ public class SparkOptions {
     public static final int set_impl_array = 4;
     public static final int set_impl_heintze = 5;
     public static final int set_impl_sharedlist = 6;
-    public static final int set_impl_double = 7;
+    public static final int set_impl_roaring = 7;
+    public static final int set_impl_double = 8;
 
     /**
      * Set Implementation --
@@ -623,6 +656,8 @@ public class SparkOptions {
             return set_impl_heintze;
         if (s.equalsIgnoreCase("sharedlist"))
             return set_impl_sharedlist;
+        if (s.equalsIgnoreCase("roaring"))
+            return set_impl_roaring;
         if (s.equalsIgnoreCase("double"))
             return set_impl_double;
 
@@ -635,6 +670,7 @@ public class SparkOptions {
     public static final int double_set_old_array = 4;
     public static final int double_set_old_heintze = 5;
     public static final int double_set_old_sharedlist = 6;
+    public static final int double_set_old_roaring = 7;
 
     /**
      * Double Set Old --
@@ -662,6 +698,8 @@ public class SparkOptions {
             return double_set_old_heintze;
         if (s.equalsIgnoreCase("sharedlist"))
             return double_set_old_sharedlist;
+        if (s.equalsIgnoreCase("roaring"))
+            return double_set_old_roaring;
 
         throw new RuntimeException(String.format("Invalid value %s of phase option double-set-old", s));
     }
@@ -672,6 +710,7 @@ public class SparkOptions {
     public static final int double_set_new_array = 4;
     public static final int double_set_new_heintze = 5;
     public static final int double_set_new_sharedlist = 6;
+    public static final int double_set_new_roaring = 7;
 
     /**
      * Double Set New --
@@ -699,6 +738,8 @@ public class SparkOptions {
             return double_set_new_heintze;
         if (s.equalsIgnoreCase("sharedlist"))
             return double_set_new_sharedlist;
+        if (s.equalsIgnoreCase("roaring"))
+            return double_set_new_roaring;
 
         throw new RuntimeException(String.format("Invalid value %s of phase option double-set-new", s));
     }
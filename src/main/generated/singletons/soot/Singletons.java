@@ -188,6 +188,34 @@ public class Singletons {
     	instance_soot_toolkits_graph_ExceptionalUnitGraphFactory = null;
     }
 
+    private soot.BodyAnalysisCache instance_soot_BodyAnalysisCache;
+    public soot.BodyAnalysisCache soot_BodyAnalysisCache() {
+        if (instance_soot_BodyAnalysisCache == null) {
+	       	synchronized (this) {
+		        if (instance_soot_BodyAnalysisCache == null)
+	        		instance_soot_BodyAnalysisCache = new soot.BodyAnalysisCache(g);
+	       	}
+       	}
+        return instance_soot_BodyAnalysisCache;
+    }
+    protected void release_soot_BodyAnalysisCache() {
+    	instance_soot_BodyAnalysisCache = null;
+    }
+
+    private soot.validation.ValidationManager instance_soot_validation_ValidationManager;
+    public soot.validation.ValidationManager soot_validation_ValidationManager() {
+        if (instance_soot_validation_ValidationManager == null) {
+	       	synchronized (this) {
+		        if (instance_soot_validation_ValidationManager == null)
+	        		instance_soot_validation_ValidationManager = new soot.validation.ValidationManager(g);
+	       	}
+       	}
+        return instance_soot_validation_ValidationManager;
+    }
+    protected void release_soot_validation_ValidationManager() {
+    	instance_soot_validation_ValidationManager = null;
+    }
+
     private soot.tagkit.TagManager instance_soot_tagkit_TagManager;
     public soot.tagkit.TagManager soot_tagkit_TagManager() {
         if (instance_soot_tagkit_TagManager == null) {
@@ -846,6 +874,20 @@ public class Singletons {
     	instance_soot_jimple_Jimple = null;
     }
 
+    private soot.jimple.PersistentBodyCache instance_soot_jimple_PersistentBodyCache;
+    public soot.jimple.PersistentBodyCache soot_jimple_PersistentBodyCache() {
+        if (instance_soot_jimple_PersistentBodyCache == null) {
+	       	synchronized (this) {
+		        if (instance_soot_jimple_PersistentBodyCache == null)
+	        		instance_soot_jimple_PersistentBodyCache = new soot.jimple.PersistentBodyCache(g);
+	       	}
+       	}
+        return instance_soot_jimple_PersistentBodyCache;
+    }
+    protected void release_soot_jimple_PersistentBodyCache() {
+    	instance_soot_jimple_PersistentBodyCache = null;
+    }
+
     private soot.dava.toolkits.base.finders.LabeledBlockFinder instance_soot_dava_toolkits_base_finders_LabeledBlockFinder;
     public soot.dava.toolkits.base.finders.LabeledBlockFinder soot_dava_toolkits_base_finders_LabeledBlockFinder() {
         if (instance_soot_dava_toolkits_base_finders_LabeledBlockFinder == null) {
@@ -2442,6 +2484,20 @@ public class Singletons {
     	instance_soot_jimple_toolkits_typing_fast_BottomType = null;
     }
 
+    private soot.jimple.toolkits.typing.fast.HierarchyQueryCache instance_soot_jimple_toolkits_typing_fast_HierarchyQueryCache;
+    public soot.jimple.toolkits.typing.fast.HierarchyQueryCache soot_jimple_toolkits_typing_fast_HierarchyQueryCache() {
+        if (instance_soot_jimple_toolkits_typing_fast_HierarchyQueryCache == null) {
+	       	synchronized (this) {
+		        if (instance_soot_jimple_toolkits_typing_fast_HierarchyQueryCache == null)
+	        		instance_soot_jimple_toolkits_typing_fast_HierarchyQueryCache = new soot.jimple.toolkits.typing.fast.HierarchyQueryCache(g);
+	       	}
+       	}
+        return instance_soot_jimple_toolkits_typing_fast_HierarchyQueryCache;
+    }
+    protected void release_soot_jimple_toolkits_typing_fast_HierarchyQueryCache() {
+    	instance_soot_jimple_toolkits_typing_fast_HierarchyQueryCache = null;
+    }
+
     private soot.dexpler.TrapMinimizer instance_soot_dexpler_TrapMinimizer;
     public soot.dexpler.TrapMinimizer soot_dexpler_TrapMinimizer() {
         if (instance_soot_dexpler_TrapMinimizer == null) {
@@ -137,6 +137,7 @@ public class AbstractTrap implements Trap, Serializable {
   @Override
   public void setException(SootClass exception) {
     this.exception = exception;
+    BodyAnalysisCache.noteModification();
   }
 
   @Override
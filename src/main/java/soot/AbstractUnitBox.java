@@ -48,6 +48,7 @@ public abstract class AbstractUnitBox implements UnitBox {
 
     // Perform link
     this.unit = unit;
+    BodyAnalysisCache.noteModification();
 
     // Add this to back pointers
     if (this.unit != null) {
@@ -39,6 +39,7 @@ public abstract class AbstractValueBox extends AbstractHost implements ValueBox
     }
     if (canContainValue(value)) {
       this.value = value;
+      BodyAnalysisCache.noteModification();
     } else {
       throw new RuntimeException("Box " + this + " cannot contain value: " + value + "(" + value.getClass() + ")");
     }
@@ -55,6 +55,7 @@ import soot.validation.TrapsValidator;
 import soot.validation.UnitBoxesValidator;
 import soot.validation.UsesValidator;
 import soot.validation.ValidationException;
+import soot.validation.ValidationManager;
 import soot.validation.ValueBoxesValidator;
 
 /**
@@ -91,6 +92,11 @@ public abstract class Body extends AbstractHost implements Serializable {
    */
   protected UnitPatchingChain unitChain = new UnitPatchingChain(new HashChain<>());
 
+  /**
+   * The analysis results cached for this Body, see {@link BodyAnalysisCache}.
+   */
+  transient volatile BodyAnalysisCache.Entry analysisCache;
+
   /**
    * Lazy initialized array containing some validators in order to validate the Body.
    */
@@ -290,13 +296,24 @@ public abstract class Body extends AbstractHost implements Serializable {
    *          the list of validation errors
    */
   public void validate(List<ValidationException> exceptionList) {
+    ValidationManager.v().runValidators(this, getValidators(), exceptionList);
+  }
+
+  /**
+   * Returns the validators which {@link #validate(List)} runs on this body. Unless the debug or validation option is set,
+   * these are only the basic validators.
+   *
+   * @return the validators of this body, in the order in which they are run
+   */
+  public List<BodyValidator> getValidators() {
     final boolean runAllValidators = Options.v().debug() || Options.v().validate();
+    List<BodyValidator> validators = new ArrayList<>();
     for (BodyValidator validator : LazyValidatorsSingleton.V) {
-      if (!validator.isBasicValidator() && !runAllValidators) {
-        continue;
+      if (runAllValidators || validator.isBasicValidator()) {
+        validators.add(validator);
       }
-      validator.validate(this, exceptionList);
     }
+    return validators;
   }
 
   /**
@@ -0,0 +1,310 @@
+package soot;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.CastExpr;
+import soot.options.Options;
+import soot.util.Chain;
+
+/**
+ * Memoizes the results of intraprocedural analyses, such as control flow graphs, {@link soot.toolkits.scalar.LocalDefs}
+ * and {@link soot.toolkits.scalar.LocalUses}, per {@link Body}, so that transformers which run one after the other on an
+ * unchanged body share them instead of rebuilding them.
+ *
+ * <p>
+ * The results cached for a body are dropped as soon as the body is modified. Besides changes to the unit, trap and local
+ * chains, this covers values and branch targets that are replaced in place within units, and changed local and cast types.
+ * Results must therefore not be modified by their users.
+ * </p>
+ *
+ * <p>
+ * The cache is only used if the <code>-body-analysis-cache</code> option is set.
+ * </p>
+ */
+public class BodyAnalysisCache {
+  private static final Logger logger = LoggerFactory.getLogger(BodyAnalysisCache.class);
+
+  /**
+   * The kinds of cached results, for which separate statistics are kept.
+   */
+  public enum Kind {
+    UNIT_GRAPH, LOCAL_DEFS, LOCAL_USES
+  }
+
+  // Incremented whenever a value or a branch target is replaced within a unit, or a type within a local or an expression
+  // or the exception of a trap changes, in any body. A LongAdder does not lose increments from different threads, and does
+  // not make them contend.
+  private static final LongAdder modifications = new LongAdder();
+  // Set when the first snapshot of a body is taken. Earlier modifications cannot invalidate any result, so the setters
+  // that call noteModification() only pay for counting once the cache is in use.
+  private static volatile boolean trackModifications;
+
+  private final AtomicLong[] hits = newCounters();
+  private final AtomicLong[] misses = newCounters();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public BodyAnalysisCache(Singletons.Global g) {
+    trackModifications = false;
+  }
+
+  public static BodyAnalysisCache v() {
+    return G.v().soot_BodyAnalysisCache();
+  }
+
+  private static AtomicLong[] newCounters() {
+    AtomicLong[] counters = new AtomicLong[Kind.values().length];
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] = new AtomicLong();
+    }
+    return counters;
+  }
+
+  /**
+   * Records that the contents of a unit or a local have been modified in place. As long as this has not been called, the
+   * cache can assume that bodies whose chains are unchanged are unchanged without comparing their units.
+   */
+  public static void noteModification() {
+    if (trackModifications) {
+      modifications.increment();
+    }
+  }
+
+  /** Returns true if the cache has been enabled. */
+  public boolean isEnabled() {
+    return Options.v().body_analysis_cache();
+  }
+
+  /**
+   * Returns the result of the given kind that has been cached for the given body under the given key, or builds, caches and
+   * returns a new one if there is none or the body has been modified since it has been cached. The key must implement
+   * {@link Object#equals(Object)} and {@link Object#hashCode()}.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(Body body, Kind kind, Object key, Supplier<T> builder) {
+    final Entry entry = getEntry(body);
+    final List<Object> fullKey = Arrays.asList(kind, key);
+    synchronized (entry) {
+      if (!entry.matches(body)) {
+        if (!entry.results.isEmpty()) {
+          invalidations.incrementAndGet();
+          entry.results.clear();
+        }
+        entry.snapshot(body);
+      }
+      Object result = entry.results.get(fullKey);
+      if (result != null) {
+        hits[kind.ordinal()].incrementAndGet();
+        return (T) result;
+      }
+    }
+
+    // Build without holding the lock, as builders may request other results for the same body
+    misses[kind.ordinal()].incrementAndGet();
+    T result = builder.get();
+    synchronized (entry) {
+      // The builder itself must not modify the body, but be safe in case it did
+      if (entry.matches(body)) {
+        entry.results.put(fullKey, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns true if the given object is a result that is cached for the given body and still valid.
+   */
+  public boolean isCached(Body body, Object result) {
+    final Entry entry = body.analysisCache;
+    if (entry == null) {
+      return false;
+    }
+    synchronized (entry) {
+      return entry.matches(body) && entry.results.containsValue(result);
+    }
+  }
+
+  /**
+   * Drops all results cached for the given body.
+   */
+  public void release(Body body) {
+    body.analysisCache = null;
+  }
+
+  private static Entry getEntry(Body body) {
+    Entry entry = body.analysisCache;
+    if (entry == null) {
+      synchronized (body) {
+        entry = body.analysisCache;
+        if (entry == null) {
+          entry = new Entry();
+          body.analysisCache = entry;
+        }
+      }
+    }
+    return entry;
+  }
+
+  /** Returns the number of results of the given kind that have been taken from the cache instead of being rebuilt. */
+  public long getHits(Kind kind) {
+    return hits[kind.ordinal()].get();
+  }
+
+  /** Returns the number of results of the given kind that had to be built. */
+  public long getMisses(Kind kind) {
+    return misses[kind.ordinal()].get();
+  }
+
+  /** Returns the number of times that cached results have been dropped because their body was modified. */
+  public long getInvalidations() {
+    return invalidations.get();
+  }
+
+  public void printStatistics() {
+    StringBuilder sb = new StringBuilder("Body analysis cache:");
+    for (Kind kind : Kind.values()) {
+      sb.append(' ').append(kind.name().toLowerCase().replace('_', ' ')).append(' ').append(getHits(kind)).append('/')
+          .append(getHits(kind) + getMisses(kind)).append(" reused;");
+    }
+    sb.append(' ').append(getInvalidations()).append(" invalidations");
+    logger.info(sb.toString());
+  }
+
+  /**
+   * The results cached for one body, together with a snapshot of the parts of the body they depend on.
+   */
+  static final class Entry {
+    private final Map<List<Object>, Object> results = new HashMap<List<Object>, Object>();
+
+    private Chain<Unit> units;
+    private Chain<Trap> traps;
+    private Chain<Local> locals;
+    private long unitsModificationCount;
+    private long trapsModificationCount;
+    private long localsModificationCount;
+    // The local types, and for every unit the unit itself, the values in its boxes, the types of its casts and its branch
+    // targets
+    private Object[] contents;
+    // The value of the modification counter when the contents have last been found unchanged
+    private long modificationsSeen;
+
+    private void snapshot(Body body) {
+      units = body.getUnits();
+      traps = body.getTraps();
+      locals = body.getLocals();
+      unitsModificationCount = units.getModificationCount();
+      trapsModificationCount = traps.getModificationCount();
+      localsModificationCount = locals.getModificationCount();
+      trackModifications = true;
+      modificationsSeen = modifications.sum();
+
+      List<Object> c = new ArrayList<Object>(units.size() * 4 + locals.size());
+      for (Local l : locals) {
+        c.add(l.getType());
+      }
+      for (Unit u : units) {
+        c.add(u);
+        for (ValueBox vb : u.getUseAndDefBoxes()) {
+          Value v = vb.getValue();
+          c.add(v);
+          if (v instanceof CastExpr) {
+            c.add(((CastExpr) v).getCastType());
+          }
+        }
+        for (UnitBox ub : u.getUnitBoxes()) {
+          c.add(ub.getUnit());
+        }
+      }
+      for (Trap t : traps) {
+        c.add(t.getBeginUnit());
+        c.add(t.getEndUnit());
+        c.add(t.getHandlerUnit());
+        c.add(t.getException());
+      }
+      contents = c.toArray();
+    }
+
+    private boolean matches(Body body) {
+      if (contents == null || units != body.getUnits() || traps != body.getTraps() || locals != body.getLocals()
+          || unitsModificationCount != units.getModificationCount()
+          || trapsModificationCount != traps.getModificationCount()
+          || localsModificationCount != locals.getModificationCount()) {
+        return false;
+      }
+      final long modificationsNow = modifications.sum();
+      if (modificationsNow == modificationsSeen) {
+        return true;
+      }
+
+      // Something has been modified, but not necessarily in this body
+      final Object[] c = contents;
+      int i = 0;
+      for (Local l : locals) {
+        if (c[i++] != l.getType()) {
+          return false;
+        }
+      }
+      for (Unit u : units) {
+        if (i >= c.length || c[i++] != u) {
+          return false;
+        }
+        for (ValueBox vb : u.getUseAndDefBoxes()) {
+          Value v = vb.getValue();
+          if (i >= c.length || c[i++] != v) {
+            return false;
+          }
+          if (v instanceof CastExpr && (i >= c.length || c[i++] != ((CastExpr) v).getCastType())) {
+            return false;
+          }
+        }
+        for (UnitBox ub : u.getUnitBoxes()) {
+          if (i >= c.length || c[i++] != ub.getUnit()) {
+            return false;
+          }
+        }
+      }
+      for (Trap t : traps) {
+        if (i + 4 > c.length || c[i++] != t.getBeginUnit() || c[i++] != t.getEndUnit() || c[i++] != t.getHandlerUnit()
+            || c[i++] != t.getException()) {
+          return false;
+        }
+      }
+      if (i != c.length) {
+        return false;
+      }
+      modificationsSeen = modificationsNow;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,393 @@
+package soot;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.SourceLocator.ClassSourceType;
+
+/**
+ * Maps the names of the files in the archives of a class path to the first archive that contains them, so that looking up
+ * a file is a single hash probe instead of a search through the archives themselves. The table is an open-addressing hash
+ * table in a file that is memory-mapped. Its file name is derived from the path, size and modification time of every
+ * archive on the class path, so that a new table is built as soon as one of them changes.
+ *
+ * <p>
+ * The table is merged from the entry names of the single archives, which are stored in files of their own, keyed by the
+ * path, size and modification time of that archive alone. When an archive changes, only its entries are read again, while
+ * those of the other archives on the class path are taken from their files.
+ *
+ * <p>
+ * Directories on the class path are not indexed, since they may change without notice. {@link SourceLocator} still
+ * searches those that come before the archive found in the index.
+ */
+final class ClassPathIndex {
+  private static final Logger logger = LoggerFactory.getLogger(ClassPathIndex.class);
+
+  private static final int MAGIC = 0x53435049; // "SCPI"
+  private static final int FORMAT_VERSION = 3;
+
+  private static final String TABLE_SUFFIX = ".idx";
+  private static final String NAMES_SUFFIX = ".names";
+
+  // magic, version, number of entries, table size
+  private static final int HEADER_SIZE = 16;
+  // hash, offset of the entry or 0 for an empty slot
+  private static final int SLOT_SIZE = 8;
+  // length of the name, position of the archive among the archives on the class path
+  private static final int ENTRY_HEADER_SIZE = 4;
+
+  private final List<String> classPath;
+  private final int[] directories;
+  private final int[] archives;
+  // null if there are no archives on the class path
+  private final Path file;
+  private final ByteBuffer table;
+
+  private ClassPathIndex(List<String> classPath, int[] directories, int[] archives, Path file, ByteBuffer table) {
+    this.classPath = classPath;
+    this.directories = directories;
+    this.archives = archives;
+    this.file = file;
+    this.table = table;
+  }
+
+  /**
+   * Returns the index of the given class path. The table is mapped from the given directory if it has been stored there
+   * before, and is merged from the entries of the archives and stored otherwise.
+   */
+  static ClassPathIndex load(Path indexDir, SourceLocator locator, List<String> classPath) throws IOException {
+    final List<Integer> directories = new ArrayList<Integer>();
+    final List<Integer> archives = new ArrayList<Integer>();
+    final List<String> archiveKeys = new ArrayList<String>();
+    final StringBuilder key = new StringBuilder();
+    for (int i = 0; i < classPath.size(); i++) {
+      String path = classPath.get(i);
+      ClassSourceType cst = locator.getClassSourceType(path);
+      if (cst == ClassSourceType.zip || cst == ClassSourceType.jar) {
+        File f = new File(path);
+        String archiveKey = digest(path + '\0' + f.length() + '\0' + f.lastModified());
+        archives.add(i);
+        archiveKeys.add(archiveKey);
+        key.append(archiveKey).append('\0');
+      } else if (cst == ClassSourceType.directory) {
+        directories.add(i);
+      }
+    }
+    if (archives.isEmpty()) {
+      return new ClassPathIndex(classPath, toArray(directories), new int[0], null, null);
+    }
+    if (archives.size() > 0xffff) {
+      throw new IOException("Too many archives on the class path: " + archives.size());
+    }
+
+    Path file = indexDir.resolve(digest(key.toString()) + TABLE_SUFFIX);
+    ByteBuffer table = Files.isRegularFile(file) ? map(file) : null;
+    if (table == null) {
+      // The first archive that contains a name wins
+      Map<String, Integer> entries = new LinkedHashMap<String, Integer>();
+      for (int a = 0; a < archives.size(); a++) {
+        for (String name : loadNames(indexDir, locator, classPath.get(archives.get(a)), archiveKeys.get(a))) {
+          entries.putIfAbsent(name, a);
+        }
+      }
+      store(file, entries);
+      table = map(file);
+      if (table == null) {
+        throw new IOException("Class path index " + file + " is corrupt");
+      }
+      logger.debug("Stored index of " + archives.size() + " archives with " + entries.size() + " entries in " + file);
+    }
+    return new ClassPathIndex(classPath, toArray(directories), toArray(archives), file, table);
+  }
+
+  /**
+   * Returns the names of the entries of the given archive, from the file in the index directory if it has been stored there
+   * before, and from the archive itself otherwise.
+   */
+  private static List<String> loadNames(Path indexDir, SourceLocator locator, String path, String archiveKey)
+      throws IOException {
+    Path file = indexDir.resolve(archiveKey + NAMES_SUFFIX);
+    List<String> names = Files.isRegularFile(file) ? readNames(file) : null;
+    if (names == null) {
+      names = new ArrayList<String>();
+      for (String name : locator.getArchiveEntries(path)) {
+        if (!name.endsWith("/")) {
+          names.add(name);
+        }
+      }
+      storeNames(file, names);
+      logger.debug("Stored entries of " + path + " in " + file);
+    }
+    return names;
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    int[] a = new int[list.size()];
+    for (int i = 0; i < a.length; i++) {
+      a[i] = list.get(i);
+    }
+    return a;
+  }
+
+  /**
+   * Returns the class path this index has been built for.
+   */
+  List<String> classPath() {
+    return classPath;
+  }
+
+  /**
+   * Returns the positions of the directories on the class path in ascending order.
+   */
+  int[] directories() {
+    return directories;
+  }
+
+  /**
+   * Returns the position of the first archive on the class path that contains the given file, or -1 if no archive does.
+   *
+   * @throws IOException
+   *           if the probe runs into a slot that the table cannot contain, in which case the table is deleted so that the
+   *           next run builds it again
+   */
+  int lookup(String fileName) throws IOException {
+    if (table == null) {
+      return -1;
+    }
+    final byte[] name = fileName.getBytes(StandardCharsets.UTF_8);
+    final int hash = hash(name);
+    final int tableSize = table.getInt(12);
+    final int mask = tableSize - 1;
+    // A valid table has empty slots, but a corrupt one must not make the probe run forever
+    for (int probes = 0, slot = hash & mask; probes < tableSize; probes++, slot = (slot + 1) & mask) {
+      int pos = HEADER_SIZE + slot * SLOT_SIZE;
+      int offset = table.getInt(pos + 4);
+      if (offset == 0) {
+        return -1;
+      }
+      if (table.getInt(pos) == hash) {
+        if (offset < HEADER_SIZE + tableSize * SLOT_SIZE || offset > table.limit() - ENTRY_HEADER_SIZE) {
+          throw corrupt();
+        }
+        int length = table.getShort(offset) & 0xffff;
+        int archive = table.getShort(offset + 2) & 0xffff;
+        if (offset + ENTRY_HEADER_SIZE + length > table.limit() || archive >= archives.length) {
+          throw corrupt();
+        }
+        if (nameEquals(offset + ENTRY_HEADER_SIZE, length, name)) {
+          return archives[archive];
+        }
+      }
+    }
+    throw corrupt();
+  }
+
+  private IOException corrupt() {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // the file is no longer used in this run anyway
+    }
+    return new IOException("Class path index " + file + " is corrupt");
+  }
+
+  private boolean nameEquals(int start, int length, byte[] name) {
+    if (length != name.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (table.get(start + i) != name[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int hash(byte[] name) {
+    int h = 1;
+    for (byte b : name) {
+      h = 31 * h + b;
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private static void store(Path file, Map<String, Integer> entries) throws IOException {
+    // At most half of the slots are used, so that probe sequences stay short
+    int tableSize = Integer.highestOneBit(Math.max(8, entries.size()) * 2 - 1) << 1;
+    long size = HEADER_SIZE + (long) tableSize * SLOT_SIZE;
+    List<byte[]> names = new ArrayList<byte[]>(entries.size());
+    for (String name : entries.keySet()) {
+      byte[] bytes = toBytes(name);
+      names.add(bytes);
+      size += ENTRY_HEADER_SIZE + bytes.length;
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Class path index " + file + " would be too large");
+    }
+
+    ByteBuffer buf = ByteBuffer.allocate((int) size);
+    buf.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(names.size()).putInt(tableSize);
+    int offset = HEADER_SIZE + tableSize * SLOT_SIZE;
+    int i = 0;
+    for (int archive : entries.values()) {
+      byte[] name = names.get(i++);
+      int hash = hash(name);
+      int slot = hash & (tableSize - 1);
+      while (buf.getInt(HEADER_SIZE + slot * SLOT_SIZE + 4) != 0) {
+        slot = (slot + 1) & (tableSize - 1);
+      }
+      int pos = HEADER_SIZE + slot * SLOT_SIZE;
+      buf.putInt(pos, hash).putInt(pos + 4, offset);
+      buf.putShort(offset, (short) name.length).putShort(offset + 2, (short) archive);
+      for (int j = 0; j < name.length; j++) {
+        buf.put(offset + ENTRY_HEADER_SIZE + j, name[j]);
+      }
+      offset += ENTRY_HEADER_SIZE + name.length;
+    }
+    write(file, buf.array());
+  }
+
+  /**
+   * Maps the given table, or returns <code>null</code> if its header does not describe a table that fits into the file. The
+   * slots themselves are checked by {@link #lookup(String)} when it probes them.
+   */
+  private static ByteBuffer map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+        return null;
+      }
+      ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      final int entries = buf.getInt(8);
+      final int tableSize = buf.getInt(12);
+      if (buf.getInt(0) != MAGIC || buf.getInt(4) != FORMAT_VERSION || tableSize <= 0
+          || Integer.bitCount(tableSize) != 1 || entries < 0 || entries >= tableSize
+          || HEADER_SIZE + (long) tableSize * SLOT_SIZE > size) {
+        return null;
+      }
+      return buf;
+    }
+  }
+
+  private static void storeNames(Path file, List<String> names) throws IOException {
+    long size = 12;
+    List<byte[]> bytes = new ArrayList<byte[]>(names.size());
+    for (String name : names) {
+      byte[] b = toBytes(name);
+      bytes.add(b);
+      size += 2 + b.length;
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Archive entries " + file + " would be too large");
+    }
+    ByteBuffer buf = ByteBuffer.allocate((int) size);
+    buf.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(bytes.size());
+    for (byte[] b : bytes) {
+      buf.putShort((short) b.length).put(b);
+    }
+    write(file, buf.array());
+  }
+
+  /**
+   * Reads the names stored by {@link #storeNames(Path, List)}, or returns <code>null</code> if the file is not valid.
+   */
+  private static List<String> readNames(Path file) throws IOException {
+    ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+    if (buf.remaining() < 12 || buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+      return null;
+    }
+    final int count = buf.getInt();
+    if (count < 0 || count > buf.remaining() / 2) {
+      return null;
+    }
+    List<String> names = new ArrayList<String>(count);
+    for (int i = 0; i < count; i++) {
+      if (buf.remaining() < 2) {
+        return null;
+      }
+      int length = buf.getShort() & 0xffff;
+      if (buf.remaining() < length) {
+        return null;
+      }
+      names.add(new String(buf.array(), buf.position(), length, StandardCharsets.UTF_8));
+      buf.position(buf.position() + length);
+    }
+    return buf.hasRemaining() ? null : names;
+  }
+
+  private static byte[] toBytes(String name) throws IOException {
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > 0xffff) {
+      throw new IOException("Archive entry name too long: " + name);
+    }
+    return bytes;
+  }
+
+  private static void write(Path file, byte[] data) throws IOException {
+    // Write to a temporary file first, so that concurrent runs never read a partially written file
+    Files.createDirectories(file.getParent());
+    Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      Files.write(tmp, data);
+      try {
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  static String digest(String key) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      StringBuilder sb = new StringBuilder();
+      for (byte b : md.digest(key.getBytes(StandardCharsets.UTF_8))) {
+        sb.append(String.format("%02x", b));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -43,6 +43,14 @@ public abstract class ClassSource {
    */
   public abstract Dependencies resolve(SootClass sc);
 
+  /**
+   * Performs the part of {@link #resolve(SootClass)} that does not depend on the {@link Scene}, e.g., reading the class file
+   * from its archive. The concurrent resolver calls this method on a worker thread before the class is resolved, so
+   * implementations must neither create nor modify any {@link SootClass}. The default implementation does nothing.
+   */
+  public void prefetch() {
+  }
+
   public void close() {
   }
 }
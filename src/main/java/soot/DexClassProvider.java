@@ -24,9 +24,16 @@ package soot;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -46,6 +53,9 @@ import soot.options.Options;
 public class DexClassProvider implements ClassProvider {
   private static final Logger logger = LoggerFactory.getLogger(DexClassProvider.class);
 
+  private static final String CLASS_LIST_HEADER = "soot-dex-classes 1";
+  private static final String CLASS_LIST_SUFFIX = ".dexclasses";
+
   public static Set<String> classesOfDex(DexFile dexFile) {
     Set<String> classes = new HashSet<String>();
     for (ClassDef c : dexFile.getClasses()) {
@@ -70,27 +80,34 @@ public class DexClassProvider implements ClassProvider {
   }
 
   /**
-   * Checks whether the dex class index needs to be (re)built and triggers the build if necessary
+   * Checks whether the dex class index needs to be (re)built and triggers the build if necessary. Since classes may be looked
+   * up from several threads at once, the index is built by one thread while the others wait for it.
    */
   protected void ensureDexIndex() {
     final SourceLocator loc = SourceLocator.v();
-    Map<String, File> index = loc.dexClassIndex();
-    if (index == null) {
-      index = new HashMap<String, File>();
-      buildDexIndex(index, loc.classPath());
-      loc.setDexClassIndex(index);
+    if (loc.dexClassIndex() != null && loc.getDexClassPathExtensions() == null) {
+      return;
     }
+    synchronized (loc.dexClassIndexLock) {
+      Map<String, File> index = loc.dexClassIndex();
+      if (index == null) {
+        index = new HashMap<String, File>();
+        buildDexIndex(index, loc.classPath());
+        loc.setDexClassIndex(index);
+      }
 
-    // Process the classpath extensions
-    Set<String> extensions = loc.getDexClassPathExtensions();
-    if (extensions != null) {
-      buildDexIndex(index, new ArrayList<>(extensions));
-      loc.clearDexClassPathExtensions();
+      // Process the classpath extensions
+      Set<String> extensions = loc.getDexClassPathExtensions();
+      if (extensions != null) {
+        buildDexIndex(index, new ArrayList<>(extensions));
+        loc.clearDexClassPathExtensions();
+      }
     }
   }
 
   /**
-   * Build index of ClassName-to-File mappings.
+   * Build index of ClassName-to-File mappings. All dex sources are parsed concurrently first, the index is then filled in
+   * the order of the class path, so that the first definition of a class wins.
    *
    * @param index
    *          map to insert mappings into
@@ -98,21 +115,41 @@ public class DexClassProvider implements ClassProvider {
    *          paths to index
    */
   private void buildDexIndex(Map<String, File> index, List<String> classPath) {
+    final Path listDir = classListDir();
+    final Map<String, Set<String>> storedClasses = new HashMap<String, Set<String>>();
+    final List<File> toParse = new ArrayList<File>();
+    for (String path : classPath) {
+      File dexFile = new File(path);
+      if (dexFile.exists()) {
+        Set<String> stored = listDir == null || !dexFile.isFile() ? null : loadClassList(listDir, dexFile);
+        if (stored != null) {
+          storedClasses.put(path, stored);
+        } else {
+          toParse.add(dexFile);
+        }
+      }
+    }
+    DexFileProvider.v().preload(toParse);
+
     for (String path : classPath) {
       try {
         File dexFile = new File(path);
         if (dexFile.exists()) {
+          Set<String> stored = storedClasses.get(path);
+          if (stored != null) {
+            addToIndex(index, stored, dexFile, dexFile.getName());
+            continue;
+          }
+          Set<String> classes = listDir == null || !dexFile.isFile() ? null : new LinkedHashSet<String>();
           for (DexFileProvider.DexContainer<? extends DexFile> container : DexFileProvider.v().getDexFromSource(dexFile)) {
-            for (String className : classesOfDex(container.getBase().getDexFile())) {
-              if (!index.containsKey(className)) {
-                index.put(className, container.getFilePath());
-              } else if (Options.v().verbose()) {
-                logger.debug(String.format(
-                    "Warning: Duplicate of class '%s' found in dex file '%s' from source '%s'. Omitting class.", className,
-                    container.getDexName(), container.getFilePath().getCanonicalPath()));
-              }
+            addToIndex(index, container.getClassNames(), container.getFilePath(), container.getDexName());
+            if (classes != null) {
+              classes.addAll(container.getClassNames());
             }
           }
+          if (classes != null) {
+            storeClassList(listDir, dexFile, classes);
+          }
         }
       } catch (IOException e) {
         logger.warn("IO error while processing dex file '" + path + "'");
@@ -123,4 +160,87 @@ public class DexClassProvider implements ClassProvider {
       }
     }
   }
+
+  private static void addToIndex(Map<String, File> index, Set<String> classNames, File file, String dexName)
+      throws IOException {
+    for (String className : classNames) {
+      if (!index.containsKey(className)) {
+        index.put(className, file);
+      } else if (Options.v().verbose()) {
+        logger.debug(
+            String.format("Warning: Duplicate of class '%s' found in dex file '%s' from source '%s'. Omitting class.",
+                className, dexName, file.getCanonicalPath()));
+      }
+    }
+  }
+
+  /**
+   * Returns the directory in which the class lists of dex sources are stored, or <code>null</code> if none has been
+   * configured.
+   *
+   * @see Options#class_path_index_dir()
+   */
+  private static Path classListDir() {
+    final String dir = Options.v().class_path_index_dir();
+    return dir.isEmpty() ? null : Paths.get(dir);
+  }
+
+  /**
+   * Returns the file that stores the class list of the given dex source. The name is derived from the path, size and
+   * modification time of the source and from the options that select its dex files.
+   */
+  private static Path classListFile(Path listDir, File dexFile) throws IOException {
+    final Options opts = Options.v();
+    StringBuilder key = new StringBuilder();
+    key.append(dexFile.getCanonicalPath()).append('\0').append(dexFile.length()).append('\0')
+        .append(dexFile.lastModified());
+    key.append('\0').append(Scene.v().getAndroidAPIVersion()).append('\0').append(opts.process_multiple_dex())
+        .append('\0').append(opts.search_dex_in_archives());
+    return listDir.resolve(ClassPathIndex.digest(key.toString()) + CLASS_LIST_SUFFIX);
+  }
+
+  /**
+   * Reads the stored class list of the given dex source, or returns <code>null</code> if there is none.
+   */
+  private static Set<String> loadClassList(Path listDir, File dexFile) {
+    try {
+      Path file = classListFile(listDir, dexFile);
+      if (!Files.isRegularFile(file)) {
+        return null;
+      }
+      List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+      if (lines.isEmpty() || !CLASS_LIST_HEADER.equals(lines.get(0))) {
+        return null;
+      }
+      return new LinkedHashSet<String>(lines.subList(1, lines.size()));
+    } catch (IOException | RuntimeException e) {
+      logger.debug("Cannot read the class list of dex file '" + dexFile + "': " + e);
+      return null;
+    }
+  }
+
+  private static void storeClassList(Path listDir, File dexFile, Set<String> classes) {
+    try {
+      Path file = classListFile(listDir, dexFile);
+      List<String> lines = new ArrayList<String>(classes.size() + 1);
+      lines.add(CLASS_LIST_HEADER);
+      lines.addAll(classes);
+
+      // Write to a temporary file first, so that concurrent runs never read a partially written list
+      Files.createDirectories(listDir);
+      Path tmp = Files.createTempFile(listDir, file.getFileName().toString(), ".tmp");
+      try {
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        try {
+          Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Cannot store the class list of dex file '" + dexFile + "' in " + listDir + ": " + e);
+    }
+  }
 }
@@ -1,8 +1,5 @@
 package soot;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
-
 /*-
  * #%L
  * Soot - a J*va Optimization Framework
@@ -26,16 +23,21 @@ import com.google.common.collect.Table;
  */
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import soot.dotnet.types.DotNetBasicTypes;
 import soot.jimple.spark.internal.TypeManager;
@@ -59,7 +61,16 @@ public class FastHierarchy {
   protected static final int USE_INTERVALS_BOUNDARY = 100;
   private final boolean isDotNet = Options.v().src_prec() == Options.src_prec_dotnet;
 
-  protected Table<SootClass, NumberedString, SootMethod> typeToVtbl = HashBasedTable.create();
+  /**
+   * Caches the results of method dispatch, including failed lookups. The cache is cleared whenever the
+   * {@link Scene#modifyHierarchy() hierarchy is modified} or a method is added to a class.
+   */
+  protected final Map<DispatchKey, Object> dispatchCache = new ConcurrentHashMap<DispatchKey, Object>();
+  private final LongAdder dispatchCacheHits = new LongAdder();
+  private final LongAdder dispatchCacheMisses = new LongAdder();
+
+  /** Stands for a failed lookup in the dispatch cache, since the map cannot hold null values. */
+  private static final Object NO_TARGET = new Object();
 
   /**
    * This map holds all key,value pairs such that value.getSuperclass() == key. This is one of the three maps that hold the
@@ -706,7 +717,15 @@ public class FastHierarchy {
       }
     }
 
-    return ret;
+    // The subclasses and implementers are visited in the order of identity hashes, and methods with the same subsignature
+    // have the same hash code. The methods are therefore sorted so that the call graph does not depend on that order.
+    if (ret.size() < 2) {
+      return ret;
+    }
+    List<SootMethod> sorted = new ArrayList<>(ret);
+    Comparator<SootMethod> byClass = Comparator.comparing(sm -> sm.getDeclaringClass().getName());
+    sorted.sort(byClass.thenComparing(SootMethod::getSubSignature));
+    return new LinkedHashSet<>(sorted);
   }
 
   /**
@@ -880,13 +899,26 @@ public class FastHierarchy {
       methodSignature = subsignature;
     }
 
-    {
-      SootMethod resolvedMethod = typeToVtbl.get(baseType, methodSignature);
-      if (resolvedMethod != null) {
-        return resolvedMethod;
-      }
+    final DispatchKey key = new DispatchKey(baseType, declaringClass, methodSignature, allowAbstract);
+    final Object cached = dispatchCache.get(key);
+    if (cached != null) {
+      dispatchCacheHits.increment();
+      return cached == NO_TARGET ? null : (SootMethod) cached;
     }
+    dispatchCacheMisses.increment();
+    final SootMethod resolved = findMethod(baseType, declaringClass, name, parameterTypes, returnType, allowAbstract,
+        ignoreList, methodSignature);
+    dispatchCache.put(key, resolved == null ? NO_TARGET : resolved);
+    return resolved;
+  }
 
+  /**
+   * Searches for the target of a method dispatch without consulting the cache, see
+   * {@link #resolveMethod(SootClass, SootClass, String, List, Type, boolean, Set, NumberedString)}.
+   */
+  private SootMethod findMethod(final SootClass baseType, final SootClass declaringClass, final String name,
+      final List<Type> parameterTypes, final Type returnType, final boolean allowAbstract, final Set<SootClass> ignoreList,
+      final NumberedString subsignature) {
     // When there is no proper dispatch found, we simply return null to let the caller decide what to do
     SootMethod candidate = null;
     boolean calleeExist = declaringClass.getMethodUnsafe(subsignature) != null;
@@ -898,10 +930,6 @@ public class FastHierarchy {
             candidate = null;
             break;
           }
-
-          if (!candidate.isAbstract()) {
-            typeToVtbl.put(baseType, methodSignature, candidate);
-          }
           return candidate;
         }
       }
@@ -948,9 +976,6 @@ public class FastHierarchy {
       ignoreList.addAll(interfaceIgnoreList);
     }
 
-    if (candidate != null) {
-      typeToVtbl.put(baseType, methodSignature, candidate);
-    }
     return candidate;
   }
 
@@ -1019,6 +1044,88 @@ public class FastHierarchy {
     return candidate;
   }
 
+  /**
+   * Discards the cached results of method dispatch on the given classes and on all of their subtypes. This needs to be
+   * called when the methods of these classes have changed, but their supertypes are still the same.
+   *
+   * @param classes
+   *          the classes whose methods have changed
+   */
+  public void invalidateDispatch(final Collection<SootClass> classes) {
+    dispatchCache.keySet().removeIf(key -> {
+      for (SootClass c : classes) {
+        // A class that was added after the hierarchy was built has no interval, so it is compared on its own
+        if (key.baseType == c || canStoreClass(key.baseType, c)) {
+          return true;
+        }
+      }
+      return false;
+    });
+  }
+
+  /**
+   * Discards all cached results of method dispatch.
+   */
+  public void clearDispatchCache() {
+    if (!dispatchCache.isEmpty()) {
+      dispatchCache.clear();
+    }
+  }
+
+  /**
+   * Returns the number of method dispatches that have been answered from the cache.
+   */
+  public long getDispatchCacheHits() {
+    return dispatchCacheHits.sum();
+  }
+
+  /**
+   * Returns the number of method dispatches that had to search the hierarchy.
+   */
+  public long getDispatchCacheMisses() {
+    return dispatchCacheMisses.sum();
+  }
+
+  /**
+   * The key of a cached method dispatch. The result depends on the declaring class of the called method, since it decides
+   * which methods are visible, and on whether abstract methods are acceptable targets.
+   */
+  protected static final class DispatchKey {
+    final SootClass baseType;
+    final SootClass declaringClass;
+    final NumberedString subsignature;
+    final boolean allowAbstract;
+    private final int hashCode;
+
+    DispatchKey(SootClass baseType, SootClass declaringClass, NumberedString subsignature, boolean allowAbstract) {
+      this.baseType = baseType;
+      this.declaringClass = declaringClass;
+      this.subsignature = subsignature;
+      this.allowAbstract = allowAbstract;
+      int h = 31 * baseType.getType().getNumber() + subsignature.getNumber();
+      h = 31 * h + System.identityHashCode(declaringClass);
+      this.hashCode = allowAbstract ? ~h : h;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof DispatchKey)) {
+        return false;
+      }
+      DispatchKey other = (DispatchKey) o;
+      return baseType == other.baseType && declaringClass == other.declaringClass && subsignature == other.subsignature
+          && allowAbstract == other.allowAbstract;
+    }
+  }
+
   /**
    * Gets the direct subclasses of a given class. The class needs to be resolved at least at the HIERARCHY level.
    *
@@ -31,6 +31,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import soot.dava.internal.SET.SETBasicBlock;
 import soot.dava.internal.SET.SETNode;
@@ -59,7 +60,11 @@ public class G extends Singletons {
   }
 
   public static void reset() {
+    G old = objectGetter.getG();
     objectGetter.reset();
+    if (old != objectGetter.getG()) {
+      old.shutdownExecutors();
+    }
   }
 
   private static GlobalObjectGetter objectGetter = new GlobalObjectGetter() {
@@ -90,6 +95,30 @@ public class G extends Singletons {
   public class Global {
   }
 
+  private final List<ExecutorService> executors = new ArrayList<ExecutorService>();
+
+  /**
+   * Ties the given thread pool to this instance, so that it is shut down as soon as {@link #reset()} replaces the instance.
+   */
+  public <T extends ExecutorService> T registerExecutor(T executor) {
+    synchronized (executors) {
+      executors.add(executor);
+    }
+    return executor;
+  }
+
+  /**
+   * Shuts down all thread pools that have been registered with this instance. Tasks that have not started yet are dropped.
+   */
+  public void shutdownExecutors() {
+    synchronized (executors) {
+      for (ExecutorService executor : executors) {
+        executor.shutdownNow();
+      }
+      executors.clear();
+    }
+  }
+
   public int SETNodeLabel_uniqueId = 0;
   public HashMap<SETNode, SETBasicBlock> SETBasicBlock_binding = new HashMap<SETNode, SETBasicBlock>();
   public boolean ASTAnalysis_modified;
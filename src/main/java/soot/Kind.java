@@ -22,6 +22,9 @@ package soot;
  * #L%
  */
 
+import java.util.HashMap;
+import java.util.Map;
+
 import soot.util.Numberable;
 
 /**
@@ -31,6 +34,8 @@ import soot.util.Numberable;
  */
 public final class Kind implements Numberable {
 
+  private static final Map<String, Kind> BY_NAME = new HashMap<String, Kind>();
+
   public static final Kind INVALID = new Kind("INVALID");
   /**
    * Due to explicit invokestatic instruction.
@@ -106,6 +111,14 @@ public final class Kind implements Numberable {
 
   private Kind(String name) {
     this.name = name;
+    BY_NAME.put(name, this);
+  }
+
+  /**
+   * Returns the kind with the given {@link #name()}, or null if there is none.
+   */
+  public static Kind forName(String name) {
+    return BY_NAME.get(name);
   }
 
   public String name() {
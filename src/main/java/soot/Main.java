@@ -34,9 +34,11 @@ import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.util.Date;
 
+import soot.jimple.PersistentBodyCache;
 import soot.options.CGOptions;
 import soot.options.Options;
 import soot.toolkits.astmetrics.ClassData;
+import soot.toolkits.exceptions.ThrowableSet;
 
 /**
  * Main class for Soot; provides Soot's command-line user interface.
@@ -264,7 +266,7 @@ public class Main {
       }
 
       PackManager.v().runPacks();
-      if (!Options.v().oaat()) {
+      if (!Options.v().oaat() && !PackManager.v().isStreaming()) {
         PackManager.v().writeOutput();
       }
 
@@ -273,6 +275,13 @@ public class Main {
       // Print out time stats.
       if (Options.v().time()) {
         Timers.v().printProfilingInformation();
+        if (PersistentBodyCache.v().isEnabled()) {
+          PersistentBodyCache.v().printStatistics();
+        }
+        if (BodyAnalysisCache.v().isEnabled()) {
+          BodyAnalysisCache.v().printStatistics();
+        }
+        ThrowableSet.Manager.v().printInstrumentation();
       }
 
     } catch (CompilationDeathException e) {
@@ -24,21 +24,32 @@ import heros.solver.CountingThreadPoolExecutor;
  * #L%
  */
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
@@ -140,6 +151,7 @@ import soot.toolkits.scalar.UnusedLocalEliminator;
 import soot.util.EscapedWriter;
 import soot.util.JasminOutputStream;
 import soot.util.PhaseDumper;
+import soot.validation.ValidationManager;
 import soot.xml.TagCollector;
 import soot.xml.XMLPrinter;
 
@@ -422,10 +434,34 @@ public class PackManager {
     if (Options.v().oaat()) {
       runPacksForOneClassAtATime();
     } else {
+      if (Options.v().streaming() && !isStreaming()) {
+        logger.warn("Streaming body packs are not supported for this output format or in interactive mode, ignoring.");
+      }
       runPacksNormally();
     }
   }
 
+  /**
+   * Returns whether {@link #runPacks()} writes the output itself, in which case {@link #writeOutput()} must not be called
+   * afterwards.
+   */
+  public boolean isStreaming() {
+    if (!Options.v().streaming() || Options.v().oaat() || Options.v().interactive_mode()) {
+      return false;
+    }
+    // The XML and template printers keep the class being printed in a singleton, so they cannot write concurrently
+    switch (Options.v().output_format()) {
+      case Options.output_format_dava:
+      case Options.output_format_dex:
+      case Options.output_format_force_dex:
+      case Options.output_format_xml:
+      case Options.output_format_template:
+        return false;
+      default:
+        return true;
+    }
+  }
+
   private void runPacksForOneClassAtATime() {
     if (Options.v().src_prec() == Options.src_prec_class && Options.v().keep_line_number()) {
       LineNumberAdder.v().internalTransform("", null);
@@ -499,6 +535,10 @@ public class PackManager {
     if (Options.v().whole_program() || Options.v().whole_shimple()) {
       runWholeProgramPacks();
     }
+    if (isStreaming()) {
+      runPacksStreaming();
+      return;
+    }
     retrieveAllBodies();
 
     // Create tags from all values we only have in code assignments now
@@ -529,6 +569,153 @@ public class PackManager {
     runBodyPacks(reachableClasses());
   }
 
+  /**
+   * Runs the body packs on all application classes and writes them out in a pipeline. A class is transformed, written and
+   * released in one go, and new classes are only admitted while few enough classes are in flight. Bodies are loaded
+   * lazily, so the peak memory consumption depends on the number of threads rather than on the size of the program.
+   *
+   * Loading and transforming bodies can add application classes, e.g. for lambda expressions. Those classes are streamed
+   * once the classes that existed before have been written. Methods that a body transformation adds to a class that has
+   * already been written are not part of the output, so transformations that do so need the normal, non-streaming mode.
+   * Whole-program transformations are not affected, since the whole-program packs have run to completion before the first
+   * class is written.
+   */
+  private void runPacksStreaming() {
+    setupJAR();
+    if (Options.v().verbose()) {
+      PhaseDumper.v().dumpBefore("output");
+    }
+
+    int threadNum = Options.v().num_threads();
+    if (threadNum < 1) {
+      threadNum = Runtime.getRuntime().availableProcessors();
+    }
+    final Semaphore admitted = new Semaphore(2 * threadNum);
+    CountingThreadPoolExecutor executor
+        = new CountingThreadPoolExecutor(threadNum, threadNum, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
+    final Set<SootClass> streamed = new HashSet<SootClass>();
+    try {
+      for (List<SootClass> round = newClasses(streamed); !round.isEmpty(); round = newClasses(streamed)) {
+        if (!streamRound(round, executor, admitted)) {
+          break;
+        }
+      }
+      executor.shutdown();
+    } catch (InterruptedException e) {
+      // Something went horribly wrong
+      throw new RuntimeException("Could not wait for pack threads to finish: " + e.getMessage(), e);
+    }
+
+    // If something went wrong, we tell the world
+    Throwable exception = executor.getException();
+    if (exception != null) {
+      if (exception instanceof RuntimeException) {
+        throw (RuntimeException) exception;
+      } else {
+        throw new RuntimeException(exception);
+      }
+    }
+
+    tearDownJAR();
+    if (Options.v().verbose()) {
+      PhaseDumper.v().dumpAfter("output");
+    }
+  }
+
+  /**
+   * Returns the application classes that have not been streamed yet, and marks them as streamed.
+   */
+  private List<SootClass> newClasses(Set<SootClass> streamed) {
+    List<SootClass> classes = new ArrayList<SootClass>();
+    for (Iterator<SootClass> it = reachableClasses(); it.hasNext();) {
+      SootClass c = it.next();
+      if (streamed.add(c)) {
+        classes.add(c);
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * Streams the given classes and waits until all of them have been written. Returns <code>false</code> if a task has
+   * failed and the executor has been shut down.
+   */
+  private boolean streamRound(List<SootClass> classes, CountingThreadPoolExecutor executor, final Semaphore admitted)
+      throws InterruptedException {
+    for (final SootClass c : classes) {
+      // A failing task shuts the executor down and drops the queued classes, which then never return their permits
+      while (!admitted.tryAcquire(1, TimeUnit.SECONDS)) {
+        if (executor.isShutdown()) {
+          return false;
+        }
+      }
+      if (executor.isShutdown()) {
+        return false;
+      }
+      try {
+        executor.execute(() -> {
+          try {
+            streamClass(c);
+          } finally {
+            admitted.release();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        return false;
+      }
+    }
+
+    // Wait till all classes have been written
+    executor.awaitCompletion();
+    return !executor.isShutdown();
+  }
+
+  /**
+   * Transforms, writes and releases a single class for {@link #runPacksStreaming()}.
+   */
+  private void streamClass(SootClass c) {
+    // ConstantInitializerToTagTransformer needs the body of <clinit>
+    // note: a snapshot, since phantom methods can be added during resolution
+    for (SootMethod m : new ArrayList<SootMethod>(c.getMethods())) {
+      if (m.isConcrete()) {
+        m.retrieveActiveBody();
+      }
+    }
+
+    // Create tags from all values we only have in code assignments now
+    if (Options.v().validate()) {
+      c.validate();
+    }
+    if (!c.isPhantom) {
+      ConstantInitializerToTagTransformer.v().transformClass(c, true);
+    }
+
+    runBodyPacks(c);
+    InnerClassTagAggregator.v().aggregateClass(c);
+
+    final JarOutputStream jar = jarFile;
+    if (jar == null) {
+      writeClass(c);
+    } else {
+      final int format = Options.v().output_format();
+      if (prepareForOutput(c, format)) {
+        // All classes share the same output stream, so only the serialization runs concurrently
+        byte[] contents = serializeClass(c, format);
+        synchronized (jar) {
+          writeJarEntry(getOutputFileName(c, format), contents);
+        }
+      }
+    }
+    if (Options.v().xml_attributes() && Options.v().output_format() == Options.output_format_jimple) {
+      processXMLForClass(c);
+    }
+
+    if (!Options.v().no_writeout_body_releasing()) {
+      releaseBodies(c);
+    }
+  }
+
   public JarOutputStream getJarFile() {
     return jarFile;
   }
@@ -667,12 +854,14 @@ public class PackManager {
   }
 
   protected void writeOutput(Iterator<SootClass> classes) {
-    // If we're writing individual class files, we can write them
-    // concurrently. Otherwise, we need to synchronize for not destroying
-    // the shared output stream.
-    int threadNum = Options.v().output_format() == Options.output_format_class && jarFile == null
-        ? Runtime.getRuntime().availableProcessors()
-        : 1;
+    final int format = Options.v().output_format();
+    // Most printers keep no global state, so we can serialize classes concurrently. Jar entries
+    // are appended by a single writer since they share the output stream.
+    int threadNum = canPrintConcurrently(format) ? Runtime.getRuntime().availableProcessors() : 1;
+    if (jarFile != null && format != Options.output_format_dex && format != Options.output_format_force_dex) {
+      writeOutputToJar(classes, format, threadNum);
+      return;
+    }
     CountingThreadPoolExecutor executor
         = new CountingThreadPoolExecutor(threadNum, threadNum, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
 
@@ -701,6 +890,64 @@ public class PackManager {
     }
   }
 
+  /**
+   * Returns whether classes can be printed in the given format from several threads at once. The XML, template and Dava
+   * printers keep the state of the class being printed in singletons. The dex printer interns all classes into a shared
+   * pool unless <code>-parallel-dex-output</code> is set.
+   */
+  private static boolean canPrintConcurrently(int format) {
+    switch (format) {
+      case Options.output_format_dex:
+      case Options.output_format_force_dex:
+        return Options.v().parallel_dex_output();
+      case Options.output_format_xml:
+      case Options.output_format_template:
+      case Options.output_format_dava:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Serializes the classes on <code>threadNum</code> threads and appends them to the output jar in the order of the
+   * iterator. Only a bounded number of serialized classes waits to be written at any time.
+   */
+  private void writeOutputToJar(Iterator<SootClass> classes, int format, int threadNum) {
+    final ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+    final Deque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+    final Deque<String> pendingNames = new ArrayDeque<String>();
+    try {
+      while (classes.hasNext() || !pending.isEmpty()) {
+        // Keep the threads busy while the head of the queue is written
+        while (classes.hasNext() && pending.size() < 4 * threadNum) {
+          final SootClass c = classes.next();
+          if (!prepareForOutput(c, format)) {
+            continue;
+          }
+          pendingNames.add(getOutputFileName(c, format));
+          pending.add(executor.submit(() -> serializeClass(c, format)));
+        }
+        if (!pending.isEmpty()) {
+          writeJarEntry(pendingNames.poll(), pending.poll().get());
+        }
+      }
+    } catch (InterruptedException e) {
+      // Something went horribly wrong
+      throw new RuntimeException("Could not wait for writer threads to finish: " + e.getMessage(), e);
+    } catch (ExecutionException e) {
+      // If something went wrong, we tell the world
+      Throwable exception = e.getCause();
+      if (exception instanceof RuntimeException) {
+        throw (RuntimeException) exception;
+      } else {
+        throw new RuntimeException(exception);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private void tearDownJAR() {
     try {
       if (jarFile != null) {
@@ -799,36 +1046,19 @@ public class PackManager {
         fileName = fileName + ".gz";
       }
 
-      PrintWriter writerOut = null;
-      try {
-        OutputStream streamOut;
-        if (jarFile != null) {
-          jarFile.putNextEntry(new JarEntry(fileName.replace('\\', '/')));
-          streamOut = jarFile;
-        } else {
-          streamOut = new FileOutputStream(fileName);
-        }
-        if (Options.v().gzip()) {
-          streamOut = new GZIPOutputStream(streamOut);
-        }
-        writerOut = new PrintWriter(new OutputStreamWriter(streamOut));
-      } catch (IOException e) {
-        throw new CompilationDeathException("Cannot output file " + fileName, e);
-      }
-
       logger.debug("Generating " + fileName + "... ");
 
-      DavaPrinter.v().printTo(s, writerOut);
-
-      try {
-        writerOut.flush();
-        if (jarFile == null) {
-          writerOut.close();
-        } else {
-          jarFile.closeEntry();
+      // Dava keeps the package of the class being printed in a singleton, so we cannot print concurrently
+      if (jarFile != null) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        printDavaClass(s, bytes);
+        writeJarEntry(fileName, bytes.toByteArray());
+      } else {
+        try (OutputStream streamOut = new FileOutputStream(fileName)) {
+          printDavaClass(s, streamOut);
+        } catch (IOException e) {
+          throw new CompilationDeathException("Cannot output file " + fileName, e);
         }
-      } catch (IOException e) {
-        throw new CompilationDeathException("Cannot close output file " + fileName);
       }
     } // going through all classes
 
@@ -853,6 +1083,24 @@ public class PackManager {
     }
   }
 
+  private void printDavaClass(SootClass c, OutputStream out) {
+    try {
+      OutputStream streamOut = out;
+      GZIPOutputStream gzipOut = null;
+      if (Options.v().gzip()) {
+        streamOut = gzipOut = new GZIPOutputStream(streamOut);
+      }
+      PrintWriter writerOut = new PrintWriter(new OutputStreamWriter(streamOut));
+      DavaPrinter.v().printTo(c, writerOut);
+      writerOut.flush();
+      if (gzipOut != null) {
+        gzipOut.finish();
+      }
+    } catch (IOException e) {
+      throw new CompilationDeathException("Cannot output class " + c.getName(), e);
+    }
+  }
+
   @SuppressWarnings("fallthrough")
   private void runBodyPacks(SootClass c) {
     final int format = Options.v().output_format();
@@ -967,7 +1215,7 @@ public class PackManager {
         getPack("jtp").apply(body);
 
         if (Options.v().validate()) {
-          body.validate();
+          ValidationManager.v().validateOrThrow(body, "jtp");
         }
         getPack("jop").apply(body);
         getPack("jap").apply(body);
@@ -985,6 +1233,8 @@ public class PackManager {
         } else if (produceBaf) {
           m.setActiveBody(convertJimpleBodyToBaf(m));
         }
+        // The body packs are done, so nothing will reuse the cached analyses
+        BodyAnalysisCache.v().release(m.getActiveBody());
       }
     }
 
@@ -1030,65 +1280,110 @@ public class PackManager {
     getPack("bop").apply(bafBody);
     getPack("tag").apply(bafBody);
     if (Options.v().validate()) {
-      bafBody.validate();
+      ValidationManager.v().validateOrThrow(bafBody, "tag");
     }
     return bafBody;
   }
 
   protected void writeClass(SootClass c) {
     final int format = Options.v().output_format();
+    if (!prepareForOutput(c, format)) {
+      return;
+    }
+
+    String fileName = getOutputFileName(c, format);
+    if (jarFile != null) {
+      writeJarEntry(fileName, serializeClass(c, format));
+      return;
+    }
+
+    new File(fileName).getParentFile().mkdirs();
+    logger.debug("Writing to " + fileName);
+    try (OutputStream streamOut = new FileOutputStream(fileName)) {
+      printClass(c, format, streamOut);
+    } catch (IOException e) {
+      throw new CompilationDeathException("Cannot output file " + fileName, e);
+    }
+  }
+
+  /**
+   * Does the per-class work that has to happen before the given class can be printed. Returns <code>false</code> if the
+   * class is not written by {@link #writeClass(SootClass)} at all.
+   */
+  private boolean prepareForOutput(SootClass c, int format) {
     switch (format) {
       case Options.output_format_none:
       case Options.output_format_dava:
-        return;
+        return false;
       case Options.output_format_dex:
       case Options.output_format_force_dex:
         // just add the class to the dex printer, writing is done after
         // adding all classes
         dexPrinter.add(c);
-        return;
+        return false;
       case Options.output_format_jimple:
         // Create code assignments for those values we only have in code assignments
         if (!c.isPhantom) {
           ConstantValueToInitializerTransformer.v().transformClass(c);
         }
-        break;
+        return true;
       default:
-        break;
+        return true;
     }
+  }
 
+  private String getOutputFileName(SootClass c, int format) {
     String fileName = SourceLocator.v().getFileNameFor(c, format);
-    if (Options.v().gzip()) {
-      fileName = fileName + ".gz";
+    return Options.v().gzip() ? fileName + ".gz" : fileName;
+  }
+
+  /**
+   * Prints the given class in the given format into a byte array, as it would be written to the output file.
+   */
+  private byte[] serializeClass(SootClass c, int format) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      printClass(c, format, bytes);
+    } catch (IOException e) {
+      throw new CompilationDeathException("Cannot output class " + c.getName(), e);
     }
+    return bytes.toByteArray();
+  }
 
-    OutputStream streamOut = null;
-    PrintWriter writerOut = null;
+  /**
+   * Adds an entry with the given contents to the output jar. The caller must make sure that entries are not written
+   * concurrently.
+   */
+  private void writeJarEntry(String fileName, byte[] contents) {
+    // Fix path delimiters according to ZIP specification
+    fileName = fileName.replace("\\", "/");
+    logger.debug("Writing to " + fileName);
     try {
-      if (jarFile != null) {
-        // Fix path delimiters according to ZIP specification
-        fileName = fileName.replace("\\", "/");
-        JarEntry entry = new JarEntry(fileName);
-        entry.setMethod(ZipEntry.DEFLATED);
-        jarFile.putNextEntry(entry);
-        streamOut = jarFile;
-      } else {
-        new File(fileName).getParentFile().mkdirs();
-        streamOut = new FileOutputStream(fileName);
-      }
-      if (Options.v().gzip()) {
-        streamOut = new GZIPOutputStream(streamOut);
-      }
-      if (format == Options.output_format_class) {
-        if (Options.v().jasmin_backend()) {
-          streamOut = new JasminOutputStream(streamOut);
-        }
-      }
-      writerOut = new PrintWriter(new OutputStreamWriter(streamOut));
-      logger.debug("Writing to " + fileName);
+      JarEntry entry = new JarEntry(fileName);
+      entry.setMethod(ZipEntry.DEFLATED);
+      jarFile.putNextEntry(entry);
+      jarFile.write(contents);
+      jarFile.closeEntry();
     } catch (IOException e) {
       throw new CompilationDeathException("Cannot output file " + fileName, e);
     }
+  }
+
+  /**
+   * Prints the given class in the given format to the given stream, which is flushed but not closed.
+   */
+  private void printClass(SootClass c, int format, OutputStream out) throws IOException {
+    OutputStream streamOut = out;
+    GZIPOutputStream gzipOut = null;
+    if (Options.v().gzip()) {
+      streamOut = gzipOut = new GZIPOutputStream(streamOut);
+    }
+    if (format == Options.output_format_class) {
+      if (Options.v().jasmin_backend()) {
+        streamOut = new JasminOutputStream(streamOut);
+      }
+    }
+    PrintWriter writerOut = new PrintWriter(new OutputStreamWriter(streamOut));
 
     if (Options.v().xml_attributes()) {
       Printer.v().setOption(Printer.ADD_JIMPLE_LN);
@@ -1132,16 +1427,9 @@ public class PackManager {
         throw new RuntimeException();
     }
 
-    try {
-      writerOut.flush();
-      if (jarFile == null) {
-        streamOut.close();
-        writerOut.close();
-      } else {
-        jarFile.closeEntry();
-      }
-    } catch (IOException e) {
-      throw new CompilationDeathException("Cannot close output file " + fileName);
+    writerOut.flush();
+    if (gzipOut != null) {
+      gzipOut.finish();
     }
   }
 
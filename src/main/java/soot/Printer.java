@@ -45,8 +45,9 @@ public class Printer {
 
   public static final int USE_ABBREVIATIONS = 0x0001, ADD_JIMPLE_LN = 0x0010;
 
-  private int options = 0;
-  private int jimpleLnNum = 0; // actual line number
+  private volatile int options = 0;
+  // actual line number, per thread so that classes can be printed concurrently
+  private final ThreadLocal<int[]> jimpleLnNum = ThreadLocal.withInitial(() -> new int[1]);
   private Function<Body, LabeledUnitPrinter> customUnitPrinter;
   private Function<SootClass, String> customClassSignaturePrinter;
   private Function<SootMethod, String> customMethodSignaturePrinter;
@@ -66,24 +67,24 @@ public class Printer {
     return (options & ADD_JIMPLE_LN) != 0;
   }
 
-  public void setOption(int opt) {
+  public synchronized void setOption(int opt) {
     options |= opt;
   }
 
-  public void clearOption(int opt) {
+  public synchronized void clearOption(int opt) {
     options &= ~opt;
   }
 
   public int getJimpleLnNum() {
-    return jimpleLnNum;
+    return jimpleLnNum.get()[0];
   }
 
   public void setJimpleLnNum(int newVal) {
-    jimpleLnNum = newVal;
+    jimpleLnNum.get()[0] = newVal;
   }
 
   public void incJimpleLnNum() {
-    jimpleLnNum++;
+    jimpleLnNum.get()[0]++;
     // logger.debug("jimple Ln Num: " + jimpleLnNum);
   }
 
@@ -65,6 +65,7 @@ import soot.javaToJimple.DefaultLocalGenerator;
 import soot.jimple.spark.internal.ClientAccessibilityOracle;
 import soot.jimple.spark.internal.PublicAndProtectedAccessibility;
 import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.CompactCallGraph;
 import soot.jimple.toolkits.callgraph.ContextSensitiveCallGraph;
 import soot.jimple.toolkits.callgraph.ReachableMethods;
 import soot.jimple.toolkits.pointer.DumbPointerAnalysis;
@@ -76,8 +77,8 @@ import soot.options.Options;
 import soot.toolkits.exceptions.PedanticThrowAnalysis;
 import soot.toolkits.exceptions.ThrowAnalysis;
 import soot.toolkits.exceptions.UnitThrowAnalysis;
-import soot.util.ArrayNumberer;
 import soot.util.Chain;
+import soot.util.ConcurrentArrayNumberer;
 import soot.util.HashChain;
 import soot.util.IterableNumberer;
 import soot.util.NumberedString;
@@ -103,7 +104,7 @@ public class Scene {
   protected Chain<SootClass> libraryClasses = new HashChain<SootClass>();
   protected Chain<SootClass> phantomClasses = new HashChain<SootClass>();
 
-  protected IterableNumberer<Type> typeNumberer = new ArrayNumberer<Type>();
+  protected IterableNumberer<Type> typeNumberer = new ConcurrentArrayNumberer<Type>();
   protected StringNumberer subSigNumberer = new StringNumberer();
 
   protected Hierarchy activeHierarchy;
@@ -803,11 +804,27 @@ public class Scene {
   protected synchronized void modifyHierarchy() {
     this.stateCount++;
     this.activeHierarchy = null;
+    // Someone may still hold on to the old hierarchy, make sure they do not see stale dispatch results
+    FastHierarchy fh = this.activeFastHierarchy;
+    if (fh != null) {
+      fh.clearDispatchCache();
+    }
     this.activeFastHierarchy = null;
     this.activeSideEffectAnalysis = null;
     this.activePointsToAnalysis = null;
   }
 
+  /**
+   * Discards the dispatch results of the active fast hierarchy, if there is one, that may change when a method is added to
+   * the given class. Adding a method does not change the hierarchy itself.
+   */
+  void invalidateDispatch(SootClass c) {
+    FastHierarchy fh = this.activeFastHierarchy;
+    if (fh != null) {
+      fh.invalidateDispatch(Collections.singleton(c));
+    }
+  }
+
   /**
    * Adds the given class to the Scene. This method marks the given class as a library class and invalidates the class
    * hierarchy.
@@ -1191,13 +1208,10 @@ public class Scene {
   public SootClass getSootClassUnsafe(String className, boolean phantomNonExist) {
     RefType type = nameToClass.get(className);
     if (type != null) {
-      synchronized (type) {
-        if (type.hasSootClass()) {
-          SootClass tsc = type.getSootClass();
-          if (tsc != null) {
-            return tsc;
-          }
-        }
+      // The class of a type is volatile, so it can be read without locking the type
+      SootClass tsc = type.sootClass;
+      if (tsc != null) {
+        return tsc;
       }
     }
 
@@ -2219,6 +2233,9 @@ public class Scene {
    * @return A new callgraph empty object
    */
   public CallGraph internalMakeCallGraph() {
+    if (new CGOptions(PhaseOptions.v().getPhaseOptions("cg")).compact_storage()) {
+      return new CompactCallGraph();
+    }
     return new CallGraph();
   }
 
@@ -687,6 +687,9 @@ public class SootClass extends AbstractHost {
     this.methodList.add(m);
     m.setDeclared(true);
     m.setDeclaringClass(this);
+
+    // The new method may override methods that previous dispatches on this class or its subtypes resolved to
+    Scene.v().invalidateDispatch(this);
   }
 
   public synchronized SootMethod getOrAddMethod(SootMethod m) {
@@ -708,6 +711,8 @@ public class SootClass extends AbstractHost {
     this.methodList.add(m);
     m.setDeclared(true);
     m.setDeclaringClass(this);
+
+    Scene.v().invalidateDispatch(this);
     return m;
   }
 
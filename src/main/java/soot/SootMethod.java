@@ -944,7 +944,9 @@ public class SootMethod extends AbstractHost implements ClassMember, MethodOrMet
   }
 
   public boolean isValidResolve(SootMethodRef ref) {
-    return (this.isStatic() == ref.isStatic()) && Objects.equals(this.getDeclaringClass(), ref.getDeclaringClass())
+    // A method that has been removed from its class is never a valid target
+    return this.isDeclared() && (this.isStatic() == ref.isStatic())
+        && Objects.equals(this.getDeclaringClass(), ref.getDeclaringClass())
         && Objects.equals(this.getName(), ref.getName()) && Objects.equals(this.getReturnType(), ref.getReturnType())
         && Objects.equals(this.getParameterTypes(), ref.getParameterTypes());
   }
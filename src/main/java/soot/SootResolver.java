@@ -26,9 +26,18 @@ package soot;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +56,9 @@ import soot.util.MultiMap;
 public class SootResolver {
   private static final Logger logger = LoggerFactory.getLogger(SootResolver.class);
 
+  /** Number of classes per prefetch thread whose class sources are read ahead of the resolver. */
+  private static final int PREFETCH_BATCH_PER_THREAD = 32;
+
   /** Maps each resolved class to a list of all references in it. */
   protected MultiMap<SootClass, Type> classToTypesSignature = new ConcurrentHashMultiMap<SootClass, Type>();
 
@@ -57,6 +69,16 @@ public class SootResolver {
   @SuppressWarnings("unchecked")
   private final Deque<SootClass>[] worklist = new Deque[4];
 
+  /**
+   * Class sources that the concurrent resolver has already located (and possibly read) for classes that are still waiting
+   * on the worklist. An empty value records that the class could not be found on the class path.
+   */
+  private final Map<SootClass, Optional<ClassSource>> prefetchedSources
+      = new ConcurrentHashMap<SootClass, Optional<ClassSource>>();
+
+  /** Work-stealing pool used to prefetch class sources, created on first use and shut down when {@link G} is reset. */
+  private ForkJoinPool prefetchPool = null;
+
   private Program program = null;
 
   public SootResolver(Singletons.Global g) {
@@ -165,51 +187,166 @@ public class SootResolver {
     }
   }
 
+  /**
+   * Returns the number of threads to use for prefetching class sources, or 0 if classes must be looked up and read on the
+   * resolving thread only.
+   */
+  protected int concurrentResolverThreads() {
+    final Options opts = Options.v();
+    if (!opts.concurrent_resolver() || opts.polyglot() || ModuleUtil.module_mode()) {
+      return 0;
+    }
+    switch (opts.src_prec()) {
+      case Options.src_prec_class:
+      case Options.src_prec_only_class:
+      case Options.src_prec_jimple:
+        break;
+      default:
+        // The other class providers build shared indices or ASTs during the lookup
+        return 0;
+    }
+    int threadNum = opts.num_threads();
+    if (threadNum < 1) {
+      threadNum = Runtime.getRuntime().availableProcessors();
+    }
+    return threadNum > 1 ? threadNum : 0;
+  }
+
   /** Resolve all classes on toResolveWorklist. */
   protected void processResolveWorklist() {
     final Scene scene = Scene.v();
     final boolean resolveEverything = resolveEverything();
     final boolean no_bodies_for_excluded = Options.v().no_bodies_for_excluded();
-    for (int i = SootClass.BODIES; i >= SootClass.HIERARCHY; i--) {
-      Deque<SootClass> currWorklist = worklist[i];
-      while (!currWorklist.isEmpty()) {
-        SootClass sc = currWorklist.pop();
-        if (resolveEverything) {
-          // Whole program mode
-          boolean onlySignatures
-              = sc.isPhantom() || (no_bodies_for_excluded && scene.isExcluded(sc) && !scene.isBasicClass(sc.getName()));
-          if (onlySignatures) {
-            bringToSignatures(sc);
-            sc.setPhantomClass();
-            for (SootMethod m : sc.getMethods()) {
-              m.setPhantom(true);
-            }
-            for (SootField f : sc.getFields()) {
-              f.setPhantom(true);
-            }
-          } else {
-            bringToBodies(sc);
+    final int prefetchThreads = concurrentResolverThreads();
+    try {
+      for (int i = SootClass.BODIES; i >= SootClass.HIERARCHY; i--) {
+        Deque<SootClass> currWorklist = worklist[i];
+        // Number of entries at the head of the worklist whose class sources have already been prefetched. Since the
+        // worklist is processed in FIFO order, the classes are still resolved in exactly the sequential order.
+        int prefetchedAhead = 0;
+        while (!currWorklist.isEmpty()) {
+          if (prefetchThreads > 0 && prefetchedAhead <= 0) {
+            prefetchedAhead = prefetchClassSources(currWorklist, prefetchThreads);
           }
-        } else { // No transitive
-          switch (i) {
-            case SootClass.BODIES:
-              bringToBodies(sc);
-              break;
-            case SootClass.SIGNATURES:
+          prefetchedAhead--;
+          SootClass sc = currWorklist.pop();
+          if (resolveEverything) {
+            // Whole program mode
+            boolean onlySignatures
+                = sc.isPhantom() || (no_bodies_for_excluded && scene.isExcluded(sc) && !scene.isBasicClass(sc.getName()));
+            if (onlySignatures) {
               bringToSignatures(sc);
-              break;
-            case SootClass.HIERARCHY:
-              bringToHierarchy(sc);
-              break;
+              sc.setPhantomClass();
+              for (SootMethod m : sc.getMethods()) {
+                m.setPhantom(true);
+              }
+              for (SootField f : sc.getFields()) {
+                f.setPhantom(true);
+              }
+            } else {
+              bringToBodies(sc);
+            }
+          } else { // No transitive
+            switch (i) {
+              case SootClass.BODIES:
+                bringToBodies(sc);
+                break;
+              case SootClass.SIGNATURES:
+                bringToSignatures(sc);
+                break;
+              case SootClass.HIERARCHY:
+                bringToHierarchy(sc);
+                break;
+            }
           }
         }
+        // The ArrayDeque can grow particularly large but the implementation will
+        // never shrink the backing array, leaving a possibly large memory leak.
+        worklist[i] = new ArrayDeque<SootClass>(0);
+      }
+    } finally {
+      if (!prefetchedSources.isEmpty()) {
+        discardPrefetchedSources();
       }
-      // The ArrayDeque can grow particularly large but the implementation will
-      // never shrink the backing array, leaving a possibly large memory leak.
-      worklist[i] = new ArrayDeque<SootClass>(0);
     }
   }
 
+  /**
+   * Locates and reads the class sources for the classes at the head of the given worklist on the prefetch pool. Classes are
+   * only looked up, the {@link Scene} is not modified.
+   *
+   * @return the number of worklist entries that have been covered
+   */
+  private int prefetchClassSources(Deque<SootClass> currWorklist, int threadNum) {
+    final int batchSize = threadNum * PREFETCH_BATCH_PER_THREAD;
+    final Set<SootClass> batch = new LinkedHashSet<SootClass>();
+    int covered = 0;
+    for (Iterator<SootClass> it = currWorklist.iterator(); it.hasNext() && batch.size() < batchSize;) {
+      SootClass sc = it.next();
+      covered++;
+      if (sc.resolvingLevel() < SootClass.HIERARCHY && !prefetchedSources.containsKey(sc)) {
+        batch.add(sc);
+      }
+    }
+    if (batch.size() < 2) {
+      // Not worth handing off to the pool
+      return covered;
+    }
+
+    // The class path and the class providers are initialized lazily on the first lookup,
+    // so the first class is always looked up on the current thread.
+    Iterator<SootClass> it = batch.iterator();
+    prefetchClassSource(it.next());
+
+    List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(batch.size() - 1);
+    while (it.hasNext()) {
+      final SootClass sc = it.next();
+      tasks.add(() -> {
+        prefetchClassSource(sc);
+        return null;
+      });
+    }
+    getPrefetchPool(threadNum).invokeAll(tasks);
+    return covered;
+  }
+
+  private void prefetchClassSource(SootClass sc) {
+    ClassSource is = null;
+    try {
+      is = SourceLocator.v().getClassSource(sc.getName());
+      if (is != null) {
+        is.prefetch();
+      }
+    } catch (RuntimeException e) {
+      // Leave the class to the sequential lookup, which reports the
+      // error when (and if) the class is actually resolved.
+      if (is != null) {
+        is.close();
+      }
+      return;
+    }
+    prefetchedSources.put(sc, Optional.ofNullable(is));
+  }
+
+  private synchronized ForkJoinPool getPrefetchPool(int threadNum) {
+    if (prefetchPool == null || prefetchPool.getParallelism() != threadNum) {
+      if (prefetchPool != null) {
+        prefetchPool.shutdown();
+      }
+      prefetchPool = G.v().registerExecutor(new ForkJoinPool(threadNum));
+    }
+    return prefetchPool;
+  }
+
+  private void discardPrefetchedSources() {
+    for (Optional<ClassSource> is : prefetchedSources.values()) {
+      if (is.isPresent()) {
+        is.get().close();
+      }
+    }
+    prefetchedSources.clear();
+  }
+
   protected void addToResolveWorklist(Type type, int level) {
     // We go from Type -> SootClass directly, since RefType.getSootClass
     // calls makeClassRef anyway
@@ -247,7 +384,10 @@ public class SootResolver {
   protected void bringToHierarchyUnchecked(SootClass sc) {
     String className = sc.getName();
     ClassSource is;
-    if (ModuleUtil.module_mode()) {
+    Optional<ClassSource> prefetched = prefetchedSources.remove(sc);
+    if (prefetched != null) {
+      is = prefetched.orElse(null);
+    } else if (ModuleUtil.module_mode()) {
       is = ModulePathSourceLocator.v().getClassSource(className,
           com.google.common.base.Optional.fromNullable(sc.moduleName));
     } else {
@@ -398,6 +538,36 @@ public class SootResolver {
     reResolve(cl, SootClass.HIERARCHY);
   }
 
+  /**
+   * Discards the members, supertypes, and tags of an already resolved class and resolves it again from its class source at
+   * the same level, e.g. after its class file has changed. The {@link SootClass} object itself is kept, so types and
+   * references that point to the class remain valid, but all of its methods and fields are replaced by new objects.
+   *
+   * @param sc
+   *          the class to reload
+   */
+  public void reload(SootClass sc) {
+    final int level = sc.resolvingLevel();
+    for (SootMethod m : new ArrayList<SootMethod>(sc.getMethods())) {
+      sc.removeMethod(m);
+    }
+    for (SootField f : new ArrayList<SootField>(sc.getFields())) {
+      sc.removeField(f);
+    }
+    for (SootClass iface : new ArrayList<SootClass>(sc.getInterfaces())) {
+      sc.removeInterface(iface);
+    }
+    sc.setSuperclass(null);
+    sc.setOuterClass(null);
+    sc.setModifiers(0);
+    sc.removeAllTags();
+    classToTypesSignature.remove(sc);
+    classToTypesHierarchy.remove(sc);
+
+    sc.setResolvingLevel(SootClass.DANGLING);
+    Scene.v().forceResolve(sc.getName(), level);
+  }
+
   public Program getProgram() {
     if (program == null) {
       initializeProgram();
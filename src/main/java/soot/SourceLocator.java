@@ -34,6 +34,7 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -75,9 +76,9 @@ public class SourceLocator {
   private static final Logger logger = LoggerFactory.getLogger(SourceLocator.class);
 
   protected final Set<ClassLoader> additionalClassLoaders = new HashSet<ClassLoader>();
-  protected List<ClassProvider> classProviders;
-  protected List<String> classPath;
-  protected List<String> sourcePath;
+  protected volatile List<ClassProvider> classProviders;
+  protected volatile List<String> classPath;
+  protected volatile List<String> sourcePath;
   protected boolean java9Mode = false;
 
   /**
@@ -90,7 +91,10 @@ public class SourceLocator {
    * The index that maps classes to the files they are defined in. This is necessary because a dex file can hold multiple
    * classes.
    */
-  private Map<String, File> dexClassIndex;
+  private volatile Map<String, File> dexClassIndex;
+
+  /** Held while the {@link #dexClassIndex} is built or extended. */
+  final Object dexClassIndexLock = new Object();
 
   // NOTE: Capacity here is based on the number of paths where classes are
   // loaded from. This is typically quite small. However, the maximum
@@ -161,10 +165,15 @@ public class SourceLocator {
   public SourceLocator(Singletons.Global g) {
   }
 
+  private volatile ClassPathIndex classPathIndex;
+  private volatile boolean classPathIndexFailed;
+
   public void invalidateCaches() {
     archivePathToZip.invalidateAll();
     archivePathToEntriesCache.invalidateAll();
     pathToSourceType.invalidateAll();
+    classPathIndex = null;
+    classPathIndexFailed = false;
   }
 
   public static SourceLocator v() {
@@ -219,13 +228,22 @@ public class SourceLocator {
 
   /**
    * Given a class name, uses the soot-class-path to return a ClassSource for the given class.
+   *
+   * <p>
+   * This method may be called from several threads at once, e.g., by the concurrent resolver. The class path and the class
+   * providers are set up once under the lock of this locator, and the path and archive caches are thread-safe. The class
+   * path, the class providers and the additional class loaders must not be changed while lookups are running.
    */
   public ClassSource getClassSource(String className) {
-    if (classPath == null) {
-      classPath = explodeClassPath(Scene.v().getSootClassPath());
-    }
-    if (classProviders == null) {
-      setupClassProviders();
+    if (classPath == null || classProviders == null) {
+      synchronized (this) {
+        if (classPath == null) {
+          classPath = explodeClassPath(Scene.v().getSootClassPath());
+        }
+        if (classProviders == null) {
+          setupClassProviders();
+        }
+      }
     }
     JarException ex = null;
     for (ClassProvider cp : classProviders) {
@@ -380,7 +398,7 @@ public class SourceLocator {
       // Get the dex file from an apk
       try {
         for (DexFileProvider.DexContainer<? extends DexFile> dex : DexFileProvider.v().getDexFromSource(new File(aPath))) {
-          classes.addAll(DexClassProvider.classesOfDex(dex.getBase().getDexFile()));
+          classes.addAll(dex.getClassNames());
         }
       } catch (IOException e) {
         throw new CompilationDeathException("Error reading dex source", e);
@@ -402,7 +420,7 @@ public class SourceLocator {
       // we might have dex files inside the archive
       try {
         for (DexFileProvider.DexContainer<? extends DexFile> dex : DexFileProvider.v().getDexFromSource(new File(aPath))) {
-          classes.addAll(DexClassProvider.classesOfDex(dex.getBase().getDexFile()));
+          classes.addAll(dex.getClassNames());
         }
       } catch (CompilationDeathException e) {
         // There might be cases where there is no dex file within a JAR or ZIP file...
@@ -483,7 +501,7 @@ public class SourceLocator {
           } else if (fileName.endsWith(".dex")) {
             try {
               for (DexFileProvider.DexContainer<? extends DexFile> dex : DexFileProvider.v().getDexFromSource(element)) {
-                classes.addAll(DexClassProvider.classesOfDex(dex.getBase().getDexFile()));
+                classes.addAll(dex.getClassNames());
               }
             } catch (IOException e) {
               /* Ignore unreadable files */
@@ -683,6 +701,30 @@ public class SourceLocator {
    * Searches for a file with the given name in the exploded classPath.
    */
   public IFoundFile lookupInClassPath(String fileName) {
+    final List<String> classPath = this.classPath;
+    ClassPathIndex index = getClassPathIndex(classPath);
+    if (index != null) {
+      final int archive;
+      try {
+        archive = index.lookup(fileName);
+      } catch (IOException e) {
+        logger.warn("Cannot use the class path index any more, searching the class path instead", e);
+        classPathIndexFailed = true;
+        return lookupInClassPath(fileName);
+      }
+      // Only directories that come before the archive with the file can shadow it
+      for (int dir : index.directories()) {
+        if (archive >= 0 && dir > archive) {
+          break;
+        }
+        IFoundFile ret = lookupInDir(classPath.get(dir), fileName);
+        if (ret != null) {
+          return ret;
+        }
+      }
+      return archive < 0 ? null : new FoundFile(classPath.get(archive), fileName);
+    }
+
     for (String dir : classPath) {
       IFoundFile ret = null;
       ClassSourceType cst = getClassSourceType(dir);
@@ -698,20 +740,53 @@ public class SourceLocator {
     return null;
   }
 
-  protected IFoundFile lookupInDir(String dir, String fileName) {
-    File f = new File(dir, fileName);
-    return (f.exists() && f.canRead()) ? new FoundFile(f) : null;
+  /**
+   * Returns the index of the archives on the given class path if a class path index directory has been configured, and
+   * <code>null</code> otherwise or if the index cannot be used.
+   */
+  private ClassPathIndex getClassPathIndex(List<String> classPath) {
+    final String indexDir = Options.v().class_path_index_dir();
+    if (indexDir.isEmpty() || classPathIndexFailed) {
+      return null;
+    }
+    ClassPathIndex index = this.classPathIndex;
+    if (index == null || index.classPath() != classPath) {
+      synchronized (this) {
+        index = this.classPathIndex;
+        if (index == null || index.classPath() != classPath) {
+          try {
+            index = ClassPathIndex.load(Paths.get(indexDir), this, classPath);
+          } catch (IOException | RuntimeException e) {
+            logger.warn("Cannot use the class path index in " + indexDir + ", searching the class path instead", e);
+            classPathIndexFailed = true;
+            return null;
+          }
+          this.classPathIndex = index;
+        }
+      }
+    }
+    return index;
   }
 
-  protected IFoundFile lookupInArchive(String archivePath, String fileName) {
-    Set<String> entryNames = null;
+  /**
+   * Returns the names of all entries of the given archive.
+   */
+  Set<String> getArchiveEntries(String archivePath) {
     try {
-      entryNames = archivePathToEntriesCache.get(archivePath);
+      return archivePathToEntriesCache.get(archivePath);
     } catch (Exception e) {
       throw new RuntimeException(
           "Error: Failed to retrieve the archive entries list for the archive at path '" + archivePath + "'.", e);
     }
-    return entryNames.contains(fileName) ? new FoundFile(archivePath, fileName) : null;
+  }
+
+  protected IFoundFile lookupInDir(String dir, String fileName) {
+    File f = new File(dir, fileName);
+    return (f.exists() && f.canRead()) ? new FoundFile(f) : null;
+  }
+
+  protected IFoundFile lookupInArchive(String archivePath, String fileName) {
+    return getArchiveEntries(archivePath).contains(fileName) ? new FoundFile(archivePath, fileName) : null;
   }
 
   /**
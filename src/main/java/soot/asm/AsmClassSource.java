@@ -29,9 +29,13 @@ import org.objectweb.asm.ClassReader;
 
 import soot.ClassSource;
 import soot.IFoundFile;
+import soot.MethodSource;
 import soot.SootClass;
+import soot.SootMethod;
 import soot.SootResolver;
 import soot.javaToJimple.IInitialResolver.Dependencies;
+import soot.jimple.PersistentBodyCache;
+import soot.options.Options;
 
 /**
  * ASM class source implementation.
@@ -42,6 +46,9 @@ public class AsmClassSource extends ClassSource {
 
   protected IFoundFile foundFile;
 
+  /** Contents of the class file if they have already been read by {@link #prefetch()}. */
+  protected byte[] classBytes;
+
   /**
    * Constructs a new ASM class source.
    * 
@@ -58,14 +65,53 @@ public class AsmClassSource extends ClassSource {
     this.foundFile = foundFile;
   }
 
+  @Override
+  public void prefetch() {
+    if (classBytes != null || foundFile == null) {
+      return;
+    }
+    try (InputStream d = foundFile.inputStream()) {
+      classBytes = d.readAllBytes();
+    } catch (IOException e) {
+      throw new RuntimeException("Error: Failed to read class source.", e);
+    } finally {
+      close();
+    }
+  }
+
   @Override
   public Dependencies resolve(SootClass sc) {
     InputStream d = null;
     try {
-      d = foundFile.inputStream();
-      ClassReader clsr = new ClassReader(d);
-      SootClassBuilder scb = new SootClassBuilder(sc);
+      final PersistentBodyCache bodyCache = PersistentBodyCache.v();
+      final boolean lazy = Options.v().lazy_method_sources();
+      byte[] bytes = classBytes;
+      classBytes = null;
+      if (bytes == null && (bodyCache.isEnabled() || lazy)) {
+        // The cache is keyed by the hash of the class file, and lazy method sources read their code from it
+        d = foundFile.inputStream();
+        bytes = d.readAllBytes();
+      }
+      ClassReader clsr;
+      if (bytes != null) {
+        clsr = new ClassReader(bytes);
+      } else {
+        d = foundFile.inputStream();
+        clsr = new ClassReader(d);
+      }
+      SootClassBuilder scb = new SootClassBuilder(sc, lazy ? bytes : null);
       clsr.accept(scb, ClassReader.SKIP_FRAMES);
+      if (bytes != null && bodyCache.isEnabled()) {
+        PersistentBodyCache.ClassKey classKey = bodyCache.classKey(bytes);
+        for (SootMethod m : sc.getMethods()) {
+          // Lambda bootstraps create classes while the body is built, so these bodies are never cached
+          MethodSource ms = m.getSource();
+          if ((ms instanceof AsmMethodSource && !((AsmMethodSource) ms).hasInvokeDynamic())
+              || (ms instanceof LazyAsmMethodSource && !((LazyAsmMethodSource) ms).hasInvokeDynamic())) {
+            bodyCache.attach(m, classKey);
+          }
+        }
+      }
       Dependencies deps = new Dependencies();
       deps.typesToSignature.addAll(scb.deps);
       // add the outer class information, could not be called in the builder, since sc needs to be
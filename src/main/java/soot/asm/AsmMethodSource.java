@@ -98,6 +98,7 @@ import static org.objectweb.asm.Opcodes.ILOAD;
 import static org.objectweb.asm.Opcodes.IMUL;
 import static org.objectweb.asm.Opcodes.INEG;
 import static org.objectweb.asm.Opcodes.INSTANCEOF;
+import static org.objectweb.asm.Opcodes.INVOKEDYNAMIC;
 import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
 import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
 import static org.objectweb.asm.Opcodes.INVOKESTATIC;
@@ -344,6 +345,20 @@ public class AsmMethodSource implements MethodSource {
     this.module = module;
   }
 
+  /**
+   * Returns whether the bytecode of this method contains an <code>invokedynamic</code> instruction.
+   */
+  boolean hasInvokeDynamic() {
+    if (instructions != null) {
+      for (AbstractInsnNode insn : instructions) {
+        if (insn.getOpcode() == INVOKEDYNAMIC) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   private StackFrame getFrame(AbstractInsnNode insn) {
     StackFrame frame = frames.get(insn);
     if (frame == null) {
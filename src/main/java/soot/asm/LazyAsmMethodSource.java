@@ -0,0 +1,111 @@
+package soot.asm;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.JSRInlinerAdapter;
+
+import soot.Body;
+import soot.MethodSource;
+import soot.SootMethod;
+
+/**
+ * A method source for the ASM front end that only refers to the bytes of the class file. The instructions of the method are
+ * read again whenever the body is needed, and are dropped as soon as the body has been created, so a body that has been
+ * released can be created again. The class file is shared by all methods of the class. With
+ * {@link soot.options.Options#drop_bodies_after_load()}, methods drop their source once the body has been loaded, and the
+ * class file can be collected when the bodies of all its methods have been loaded.
+ *
+ * @see soot.options.Options#lazy_method_sources()
+ */
+public class LazyAsmMethodSource implements MethodSource {
+
+  private final byte[] classBytes;
+  private final String name;
+  private final String desc;
+  private final String module;
+  private final boolean invokeDynamic;
+
+  /**
+   * @param classBytes
+   *          the contents of the class file that declares the method
+   * @param name
+   *          the name of the method in the class file
+   * @param desc
+   *          the descriptor of the method in the class file
+   * @param module
+   *          the module of the class, or null
+   * @param invokeDynamic
+   *          whether the bytecode of the method contains an <code>invokedynamic</code> instruction
+   */
+  public LazyAsmMethodSource(byte[] classBytes, String name, String desc, String module, boolean invokeDynamic) {
+    this.classBytes = classBytes;
+    this.name = name;
+    this.desc = desc;
+    this.module = module;
+    this.invokeDynamic = invokeDynamic;
+  }
+
+  /**
+   * Returns whether the bytecode of this method contains an <code>invokedynamic</code> instruction.
+   */
+  boolean hasInvokeDynamic() {
+    return invokeDynamic;
+  }
+
+  @Override
+  public Body getBody(SootMethod m, String phaseName) {
+    JSRInlinerAdapter mn = readMethod();
+    if (mn == null) {
+      throw new RuntimeException("Method " + name + desc + " not found in the class file of " + m);
+    }
+    return new AsmMethodSource(mn.maxLocals, mn.instructions, mn.localVariables, mn.tryCatchBlocks, module).getBody(m,
+        phaseName);
+  }
+
+  /**
+   * Reads the instructions of this method from the class file. The code of all other methods is skipped.
+   */
+  private JSRInlinerAdapter readMethod() {
+    final JSRInlinerAdapter[] result = new JSRInlinerAdapter[1];
+    new ClassReader(classBytes).accept(new ClassVisitor(Opcodes.ASM9) {
+      @Override
+      public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+        if (result[0] != null || !LazyAsmMethodSource.this.name.equals(name)
+            || !LazyAsmMethodSource.this.desc.equals(desc)) {
+          return null;
+        }
+        return result[0] = new JSRInlinerAdapter(null, access, name, desc, signature, exceptions);
+      }
+    }, ClassReader.SKIP_FRAMES);
+    return result[0];
+  }
+
+  @Override
+  public String toString() {
+    return name + desc;
+  }
+}
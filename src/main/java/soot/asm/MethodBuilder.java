@@ -69,6 +69,7 @@ public class MethodBuilder extends JSRInlinerAdapter {
   private final SootClassBuilder scb;
   private final String[] parameterNames;
   private final Map<Integer, Integer> slotToParameter;
+  private boolean invokeDynamic;
 
   public MethodBuilder(SootMethod method, SootClassBuilder scb, String desc, String[] ex) {
     super(Opcodes.ASM6, null, method.getModifiers(), method.getName(), desc, null, ex);
@@ -293,8 +294,14 @@ public class MethodBuilder extends JSRInlinerAdapter {
       method.addTag(new ParamNamesTag(parameterNames));
     }
     if (method.isConcrete()) {
-      method.setSource(
-          createAsmMethodSource(maxLocals, instructions, localVariables, tryCatchBlocks, scb.getKlass().moduleName));
+      final byte[] classBytes = scb.getClassBytes();
+      if (classBytes != null) {
+        // The instructions visited here are only needed for the dependencies and are read again when the body is loaded
+        method.setSource(createLazyAsmMethodSource(classBytes, desc, invokeDynamic, scb.getKlass().moduleName));
+      } else {
+        method.setSource(
+            createAsmMethodSource(maxLocals, instructions, localVariables, tryCatchBlocks, scb.getKlass().moduleName));
+      }
     }
   }
 
@@ -303,6 +310,11 @@ public class MethodBuilder extends JSRInlinerAdapter {
     return new AsmMethodSource(maxLocals, instructions, localVariables, tryCatchBlocks, moduleName);
   }
 
+  protected MethodSource createLazyAsmMethodSource(byte[] classBytes, String desc, boolean invokeDynamic,
+      String moduleName) {
+    return new LazyAsmMethodSource(classBytes, name, desc, moduleName, invokeDynamic);
+  }
+
   /**
    * Gets whether the given array is fully empty, i.e., contains only <code>null</code> values
    * 
@@ -328,6 +340,7 @@ public class MethodBuilder extends JSRInlinerAdapter {
   public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
       Object... bootstrapMethodArguments) {
     super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+    invokeDynamic = true;
 
     // convert info on bootstrap method
     String bsmClsName = AsmUtil.toQualifiedName(bootstrapMethodHandle.getOwner());
@@ -71,6 +71,7 @@ public class SootClassBuilder extends ClassVisitor {
 
   protected final SootClass klass;
   protected final Set<Type> deps;
+  protected final byte[] classBytes;
   protected TagBuilder tb;
 
   /**
@@ -80,9 +81,23 @@ public class SootClassBuilder extends ClassVisitor {
    *          Soot class to build.
    */
   protected SootClassBuilder(SootClass klass) {
+    this(klass, null);
+  }
+
+  /**
+   * Constructs a new builder for the given {@link SootClass} whose methods read their instructions from the given class file
+   * when their bodies are loaded.
+   *
+   * @param klass
+   *          Soot class to build.
+   * @param classBytes
+   *          contents of the class file, or null to keep the instructions of every method in memory.
+   */
+  protected SootClassBuilder(SootClass klass, byte[] classBytes) {
     super(Opcodes.ASM9);
     this.klass = klass;
     this.deps = new HashSet<>();
+    this.classBytes = classBytes;
   }
 
   private TagBuilder getTagBuilder() {
@@ -97,6 +112,10 @@ public class SootClassBuilder extends ClassVisitor {
     return klass;
   }
 
+  protected byte[] getClassBytes() {
+    return classBytes;
+  }
+
   protected void addDep(String s) {
     addDep(makeRefType(AsmUtil.baseTypeName(s)));
   }
@@ -25,6 +25,7 @@ package soot.baf.internal;
 import java.util.Collections;
 import java.util.List;
 
+import soot.BodyAnalysisCache;
 import soot.Local;
 import soot.Type;
 import soot.UnitPrinter;
@@ -90,6 +91,7 @@ public class BafLocal implements Local {
   @Override
   public void setType(Type t) {
     this.type = t;
+    BodyAnalysisCache.noteModification();
   }
 
   @Override
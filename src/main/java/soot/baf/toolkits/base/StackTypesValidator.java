@@ -120,9 +120,9 @@ import soot.baf.UshrInst;
 import soot.baf.VirtualInvokeInst;
 import soot.baf.XorInst;
 import soot.jimple.IdentityRef;
-import soot.toolkits.exceptions.PedanticThrowAnalysis;
-import soot.toolkits.graph.ExceptionalUnitGraphFactory;
+import soot.toolkits.graph.UnitGraph;
 import soot.toolkits.scalar.ForwardFlowAnalysis;
+import soot.validation.BodyValidationContext;
 import soot.validation.BodyValidator;
 import soot.validation.ValidationException;
 
@@ -150,9 +150,14 @@ public enum StackTypesValidator implements BodyValidator {
 
   @Override
   public void validate(Body body, List<ValidationException> exceptions) {
+    validate(body, new BodyValidationContext(body), exceptions);
+  }
+
+  @Override
+  public void validate(Body body, BodyValidationContext context, List<ValidationException> exceptions) {
     assert (body instanceof BafBody);
 
-    VMStateAnalysis a = new VMStateAnalysis((BafBody) body, exceptions);
+    VMStateAnalysis a = new VMStateAnalysis((BafBody) body, context.getExceptionalUnitGraph(), exceptions);
 
     // Scan through all Units in the body and make sure the stack types
     // and local types are valid for the semantics of each Unit.
@@ -326,8 +331,8 @@ public enum StackTypesValidator implements BodyValidator {
     //
     protected final BitArray initFlow;
 
-    public VMStateAnalysis(BafBody body, List<ValidationException> exceptions) {
-      super(ExceptionalUnitGraphFactory.createExceptionalUnitGraph(body, PedanticThrowAnalysis.v(), false));
+    public VMStateAnalysis(BafBody body, UnitGraph graph, List<ValidationException> exceptions) {
+      super(graph);
       this.exceptions = exceptions;
       this.opStacks = OpStackCalculator.calculateStacks(body);
       assert (opStacks.keySet().equals(new HashSet<>(body.getUnits())));
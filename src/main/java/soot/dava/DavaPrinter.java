@@ -59,6 +59,7 @@ import soot.tagkit.StringConstantValueTag;
 import soot.tagkit.Tag;
 import soot.util.Chain;
 import soot.util.IterableSet;
+import soot.validation.ValidationManager;
 
 public class DavaPrinter {
 
@@ -405,7 +406,7 @@ public class DavaPrinter {
    *          a PrintWriter instance to print to.
    */
   private void printTo(Body b, PrintWriter out) {
-    b.validate();
+    ValidationManager.v().validateOrThrow(b, "dava");
 
     out.println("    " + b.getMethod().getDavaDeclaration());
     if (Options.v().print_tags_in_output()) {
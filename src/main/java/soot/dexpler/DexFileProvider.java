@@ -36,6 +36,11 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.jf.dexlib2.DexFileFactory;
 import org.jf.dexlib2.Opcodes;
@@ -47,6 +52,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import soot.CompilationDeathException;
+import soot.DexClassProvider;
 import soot.G;
 import soot.Scene;
 import soot.Singletons;
@@ -92,7 +98,9 @@ public class DexFileProvider {
   /**
    * Mapping of filesystem file (apk, dex, etc.) to mapping of dex name to dex file
    */
-  private final Map<String, Map<String, DexContainer<? extends DexFile>>> dexMap = new HashMap<>();
+  private final Map<String, Map<String, DexContainer<? extends DexFile>>> dexMap = new ConcurrentHashMap<>();
+
+  private ForkJoinPool loaderPool = null;
 
   public DexFileProvider(Singletons.Global g) {
   }
@@ -161,6 +169,37 @@ public class DexFileProvider {
     throw new CompilationDeathException("Dex file with name '" + dexName + "' not found in " + dexSource);
   }
 
+  /**
+   * Parses the given dex sources concurrently, so that later calls to {@link #getDexFromSource(File)} find them in the
+   * index. Directories are left to {@link #getDexFromSource(File)}. Sources that cannot be parsed are skipped here and
+   * reported when they are requested.
+   *
+   * @param dexSources
+   *          Paths to jar, apk, dex or odex files
+   */
+  public void preload(List<File> dexSources) {
+    List<File> toLoad = new ArrayList<>();
+    Set<String> keys = new HashSet<>();
+    for (File dexSource : dexSources) {
+      if (!dexSource.isFile()) {
+        continue;
+      }
+      try {
+        for (File theSource : allSourcesFromFile(dexSource)) {
+          String key = theSource.getCanonicalPath();
+          if (!dexMap.containsKey(key) && keys.add(key)) {
+            toLoad.add(theSource);
+          }
+        }
+      } catch (IOException e) {
+        // Reported when the source is requested
+      }
+    }
+    if (toLoad.size() > 1) {
+      loadIntoIndex(toLoad, false);
+    }
+  }
+
   private List<File> allSourcesFromFile(File dexSource) throws IOException {
     if (dexSource.isDirectory()) {
       List<File> dexFiles = getAllDexFilesInDirectory(dexSource);
@@ -183,18 +222,91 @@ public class DexFileProvider {
   }
 
   private void updateIndex(List<File> dexSources) throws IOException {
+    List<File> missing = new ArrayList<>();
     for (File theSource : dexSources) {
-      String key = theSource.getCanonicalPath();
-      Map<String, DexContainer<? extends DexFile>> dexFiles = dexMap.get(key);
-      if (dexFiles == null) {
+      if (!dexMap.containsKey(theSource.getCanonicalPath())) {
+        missing.add(theSource);
+      }
+    }
+    loadIntoIndex(missing, true);
+  }
+
+  /**
+   * Parses the given dex sources and adds them to the index. Several sources are parsed concurrently.
+   *
+   * @param report
+   *          whether to throw an exception for a source that cannot be parsed, otherwise it is skipped
+   */
+  private void loadIntoIndex(List<File> dexSources, boolean report) {
+    List<Callable<Void>> tasks = new ArrayList<>(dexSources.size());
+    for (File theSource : dexSources) {
+      tasks.add(() -> {
         try {
-          dexFiles = mappingForFile(theSource);
-          dexMap.put(key, dexFiles);
+          dexMap.putIfAbsent(theSource.getCanonicalPath(), mappingForFile(theSource));
         } catch (IOException e) {
-          throw new CompilationDeathException("Error parsing dex source", e);
+          if (report) {
+            throw new CompilationDeathException("Error parsing dex source", e);
+          }
+        } catch (RuntimeException e) {
+          if (report) {
+            throw e;
+          }
+        }
+        return null;
+      });
+    }
+    invokeAll(tasks);
+  }
+
+  /**
+   * Runs the given tasks on the loader pool, or on the current thread if there is only one task or only one thread, and
+   * returns their results in the order of the tasks.
+   */
+  private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+    List<T> results = new ArrayList<>(tasks.size());
+    int threadNum = Options.v().num_threads();
+    if (threadNum < 1) {
+      threadNum = Runtime.getRuntime().availableProcessors();
+    }
+    try {
+      if (tasks.size() < 2 || threadNum < 2) {
+        for (Callable<T> task : tasks) {
+          results.add(task.call());
+        }
+      } else {
+        for (Future<T> f : getLoaderPool(threadNum).invokeAll(tasks)) {
+          results.add(f.get());
         }
       }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while loading dex files", e);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    return results;
+  }
+
+  private synchronized ForkJoinPool getLoaderPool(int threadNum) {
+    // A fork-join pool, since the dex files of an archive are parsed from within the tasks that load several archives.
+    // The pool lives as long as this provider, i.e., until G.reset() shuts it down.
+    if (loaderPool == null || loaderPool.getParallelism() != threadNum) {
+      if (loaderPool != null) {
+        loaderPool.shutdown();
+      }
+      loaderPool = G.v().registerExecutor(new ForkJoinPool(threadNum));
     }
+    return loaderPool;
   }
 
   /**
@@ -223,15 +335,42 @@ public class DexFileProvider {
 
     Map<String, DexContainer<? extends DexFile>> dexMap = new HashMap<>(dexFileCount);
 
+    // In multi dex mode, the class names of all accepted dex files are read concurrently. Rejected files yield null.
+    List<DexContainer<? extends DexFile>> containers = null;
+    if (multiple_dex) {
+      List<Callable<DexContainer<? extends DexFile>>> tasks = new ArrayList<>(dexFileCount);
+      for (String entryName : dexEntryNameList) {
+        tasks.add(() -> {
+          DexEntry<? extends DexFile> entry = dexContainer.getEntry(entryName);
+          if (!acceptFile(entry)) {
+            return null;
+          }
+          DexContainer<? extends DexFile> container = new DexContainer<>(entry, deriveDexName(entryName), dexSourceFile);
+          container.getClassNames();
+          return container;
+        });
+      }
+      containers = invokeAll(tasks);
+    }
+
     // report found dex files and add to list.
     // We do this in reverse order to make sure that we add the first entry if there is no classes.dex file in single dex
     // mode
     ListIterator<String> entryNameIterator = dexEntryNameList.listIterator(dexFileCount);
     while (entryNameIterator.hasPrevious()) {
+      final int index = entryNameIterator.previousIndex();
       String entryName = entryNameIterator.previous();
-      DexEntry<? extends DexFile> entry = dexContainer.getEntry(entryName);
-      if (!acceptFile(entry)) {
-        continue;
+      DexEntry<? extends DexFile> entry;
+      if (containers != null) {
+        if (containers.get(index) == null) {
+          continue;
+        }
+        entry = containers.get(index).getBase();
+      } else {
+        entry = dexContainer.getEntry(entryName);
+        if (!acceptFile(entry)) {
+          continue;
+        }
       }
 
       entryName = deriveDexName(entryName);
@@ -239,7 +378,7 @@ public class DexFileProvider {
           entry.getDexFile().getClasses().size(), dexSourceFile.getCanonicalPath()));
 
       if (multiple_dex) {
-        dexMap.put(entryName, new DexContainer<>(entry, entryName, dexSourceFile));
+        dexMap.put(entryName, containers.get(index));
       } else if (dexMap.isEmpty() && (entryName.equals("classes.dex") || !entryNameIterator.hasPrevious())) {
         // We prefer to have classes.dex in single dex mode.
         // If we haven't found a classes.dex until the last element, take the last!
@@ -253,6 +392,10 @@ public class DexFileProvider {
     return Collections.unmodifiableMap(dexMap);
   }
 
+  /**
+   * Decides whether the given dex file of a source is loaded. The dex files are filtered before their classes are read. In
+   * multi dex mode, this method is called from several loader threads at once.
+   */
   protected boolean acceptFile(DexEntry<? extends DexFile> entry) {
     return true;
   }
@@ -285,6 +428,7 @@ public class DexFileProvider {
     private final DexEntry<T> base;
     private final String name;
     private final File filePath;
+    private volatile Set<String> classNames;
 
     public DexContainer(DexEntry<T> base, String name, File filePath) {
       this.base = base;
@@ -303,6 +447,17 @@ public class DexFileProvider {
     public File getFilePath() {
       return filePath;
     }
+
+    /**
+     * Returns the names of all classes defined in this dex file. The names are read once and shared by all callers.
+     */
+    public Set<String> getClassNames() {
+      Set<String> names = classNames;
+      if (names == null) {
+        classNames = names = Collections.unmodifiableSet(DexClassProvider.classesOfDex(base.getDexFile()));
+      }
+      return names;
+    }
   }
 
 }
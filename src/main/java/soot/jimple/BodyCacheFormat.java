@@ -0,0 +1,1046 @@
+package soot.jimple;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import soot.ArrayType;
+import soot.Body;
+import soot.BooleanConstant;
+import soot.BooleanType;
+import soot.ByteType;
+import soot.CharType;
+import soot.DoubleType;
+import soot.FloatType;
+import soot.IntType;
+import soot.Local;
+import soot.LongType;
+import soot.NullType;
+import soot.RefType;
+import soot.Scene;
+import soot.ShortType;
+import soot.SootClass;
+import soot.SootFieldRef;
+import soot.SootMethod;
+import soot.SootMethodRef;
+import soot.SootResolver;
+import soot.Trap;
+import soot.Type;
+import soot.Unit;
+import soot.UnitBox;
+import soot.UnknownType;
+import soot.Value;
+import soot.ValueBox;
+import soot.VoidType;
+import soot.tagkit.BytecodeOffsetTag;
+import soot.tagkit.Host;
+import soot.tagkit.JimpleLineNumberTag;
+import soot.tagkit.LineNumberTag;
+import soot.tagkit.PositionTag;
+import soot.tagkit.SourceLineNumberTag;
+import soot.tagkit.SourceLnPosTag;
+import soot.tagkit.Tag;
+
+/**
+ * The binary encoding of the {@link JimpleBody}s in the {@link PersistentBodyCache}. A record starts with a table of all
+ * strings it uses, followed by the locals, the units and the traps of the body. Values, types and references are written as
+ * a kind byte followed by their operands; locals, units and strings are referred to by their index. Integers that are
+ * usually small are written as variable-length quantities. The tags of the body, its units and their value boxes are written
+ * as well, as long as they are of exactly one of the position and line number tag classes that the front ends attach.
+ * Bodies that contain any other tag, including a subclass of these, or a value that has no encoding here are rejected with
+ * an {@link UnsupportedBodyException}.
+ *
+ * <p>
+ * References to classes, methods and fields are written by name and recreated through the {@link Scene} when the body is
+ * read, the same way a front end creates them.
+ */
+final class BodyCacheFormat {
+
+  /** Thrown by {@link #write(Body, DataOutputStream)} for bodies this format cannot represent. */
+  static final class UnsupportedBodyException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedBodyException(String message) {
+      super(message);
+    }
+  }
+
+  private static final byte TYPE_VOID = 0;
+  private static final byte TYPE_BOOLEAN = 1;
+  private static final byte TYPE_BYTE = 2;
+  private static final byte TYPE_CHAR = 3;
+  private static final byte TYPE_SHORT = 4;
+  private static final byte TYPE_INT = 5;
+  private static final byte TYPE_LONG = 6;
+  private static final byte TYPE_FLOAT = 7;
+  private static final byte TYPE_DOUBLE = 8;
+  private static final byte TYPE_NULL = 9;
+  private static final byte TYPE_UNKNOWN = 10;
+  private static final byte TYPE_REF = 11;
+  private static final byte TYPE_ARRAY = 12;
+
+  private static final byte VALUE_LOCAL = 0;
+  private static final byte VALUE_INT = 1;
+  private static final byte VALUE_LONG = 2;
+  private static final byte VALUE_FLOAT = 3;
+  private static final byte VALUE_DOUBLE = 4;
+  private static final byte VALUE_STRING = 5;
+  private static final byte VALUE_CLASS = 6;
+  private static final byte VALUE_NULL = 7;
+  private static final byte VALUE_BOOLEAN = 8;
+  private static final byte VALUE_METHOD_HANDLE = 9;
+  private static final byte VALUE_METHOD_TYPE = 10;
+  private static final byte VALUE_BINOP = 11;
+  private static final byte VALUE_NEG = 12;
+  private static final byte VALUE_LENGTH = 13;
+  private static final byte VALUE_CAST = 14;
+  private static final byte VALUE_INSTANCE_OF = 15;
+  private static final byte VALUE_NEW = 16;
+  private static final byte VALUE_NEW_ARRAY = 17;
+  private static final byte VALUE_NEW_MULTI_ARRAY = 18;
+  private static final byte VALUE_STATIC_INVOKE = 19;
+  private static final byte VALUE_VIRTUAL_INVOKE = 20;
+  private static final byte VALUE_SPECIAL_INVOKE = 21;
+  private static final byte VALUE_INTERFACE_INVOKE = 22;
+  private static final byte VALUE_DYNAMIC_INVOKE = 23;
+  private static final byte VALUE_INSTANCE_FIELD = 24;
+  private static final byte VALUE_STATIC_FIELD = 25;
+  private static final byte VALUE_ARRAY_REF = 26;
+  private static final byte VALUE_PARAMETER = 27;
+  private static final byte VALUE_THIS = 28;
+  private static final byte VALUE_CAUGHT_EXCEPTION = 29;
+
+  private static final byte STMT_ASSIGN = 0;
+  private static final byte STMT_IDENTITY = 1;
+  private static final byte STMT_INVOKE = 2;
+  private static final byte STMT_RETURN = 3;
+  private static final byte STMT_RETURN_VOID = 4;
+  private static final byte STMT_GOTO = 5;
+  private static final byte STMT_IF = 6;
+  private static final byte STMT_TABLE_SWITCH = 7;
+  private static final byte STMT_LOOKUP_SWITCH = 8;
+  private static final byte STMT_THROW = 9;
+  private static final byte STMT_ENTER_MONITOR = 10;
+  private static final byte STMT_EXIT_MONITOR = 11;
+  private static final byte STMT_NOP = 12;
+  private static final byte STMT_BREAKPOINT = 13;
+  private static final byte STMT_RET = 14;
+
+  private static final byte TAG_LINE_NUMBER = 0;
+  private static final byte TAG_BYTECODE_OFFSET = 1;
+  private static final byte TAG_SOURCE_LN_POS = 2;
+  private static final byte TAG_JIMPLE_LINE_NUMBER = 3;
+  private static final byte TAG_SOURCE_LINE_NUMBER = 4;
+  private static final byte TAG_POSITION = 5;
+
+  /** The binary operators in the order of their encoding. */
+  private static final List<Class<? extends BinopExpr>> BINOPS = Arrays.asList(AddExpr.class, AndExpr.class,
+      CmpExpr.class, CmpgExpr.class, CmplExpr.class, DivExpr.class, EqExpr.class, GeExpr.class, GtExpr.class, LeExpr.class,
+      LtExpr.class, MulExpr.class, NeExpr.class, OrExpr.class, RemExpr.class, ShlExpr.class, ShrExpr.class, SubExpr.class,
+      UshrExpr.class, XorExpr.class);
+
+  private BodyCacheFormat() {
+  }
+
+  /**
+   * Writes the given body to the given stream.
+   *
+   * @throws UnsupportedBodyException
+   *           if the body contains a value, type or tag that has no encoding
+   */
+  static void write(Body b, DataOutputStream out) throws IOException {
+    Writer w = new Writer(b);
+    w.writeBody(b);
+
+    out.writeInt(w.strings.size());
+    for (String s : w.strings.keySet()) {
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(out, bytes.length);
+      out.write(bytes);
+    }
+    w.buffer.writeTo(out);
+  }
+
+  /** Reads a body of the given method from the given stream. */
+  static JimpleBody read(SootMethod m, DataInputStream in) throws IOException {
+    final int stringCount = in.readInt();
+    if (stringCount < 0) {
+      throw new IOException("Invalid string table size " + stringCount);
+    }
+    String[] strings = new String[stringCount];
+    for (int i = 0; i < stringCount; i++) {
+      byte[] bytes = new byte[readVarInt(in)];
+      in.readFully(bytes);
+      strings[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return new Reader(in, strings).readBody(m);
+  }
+
+  private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      out.writeByte((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static int readVarInt(DataInputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          throw new IOException("Invalid length " + value);
+        }
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable-length integer");
+  }
+
+  private static final class Writer {
+    final Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+    final Map<Local, Integer> locals = new HashMap<Local, Integer>();
+    final Map<Unit, Integer> units = new HashMap<Unit, Integer>();
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(buffer);
+
+    Writer(Body b) {
+      for (Local l : b.getLocals()) {
+        locals.put(l, locals.size());
+      }
+      for (Unit u : b.getUnits()) {
+        units.put(u, units.size());
+      }
+    }
+
+    void writeBody(Body b) throws IOException {
+      writeTags(b);
+      writeVarInt(out, b.getLocalCount());
+      for (Local l : b.getLocals()) {
+        writeString(l.getName());
+        writeType(l.getType());
+      }
+      writeVarInt(out, b.getUnits().size());
+      for (Unit u : b.getUnits()) {
+        writeStmt((Stmt) u);
+        writeTags(u);
+        List<ValueBox> boxes = u.getUseAndDefBoxes();
+        int tagged = 0;
+        for (ValueBox vb : boxes) {
+          if (!vb.getTags().isEmpty()) {
+            tagged++;
+          }
+        }
+        writeVarInt(out, tagged);
+        for (int i = 0; tagged > 0; i++) {
+          ValueBox vb = boxes.get(i);
+          if (!vb.getTags().isEmpty()) {
+            writeVarInt(out, i);
+            writeTags(vb);
+            tagged--;
+          }
+        }
+      }
+      writeVarInt(out, b.getTraps().size());
+      for (Trap t : b.getTraps()) {
+        writeString(t.getException().getName());
+        writeUnit(t.getBeginUnit());
+        writeUnit(t.getEndUnit());
+        writeUnit(t.getHandlerUnit());
+      }
+    }
+
+    void writeStmt(Stmt s) throws IOException {
+      if (s instanceof AssignStmt) {
+        AssignStmt as = (AssignStmt) s;
+        out.writeByte(STMT_ASSIGN);
+        writeValue(as.getLeftOp());
+        writeValue(as.getRightOp());
+      } else if (s instanceof IdentityStmt) {
+        IdentityStmt is = (IdentityStmt) s;
+        out.writeByte(STMT_IDENTITY);
+        writeValue(is.getLeftOp());
+        writeValue(is.getRightOp());
+      } else if (s instanceof InvokeStmt) {
+        out.writeByte(STMT_INVOKE);
+        writeValue(((InvokeStmt) s).getInvokeExpr());
+      } else if (s instanceof ReturnStmt) {
+        out.writeByte(STMT_RETURN);
+        writeValue(((ReturnStmt) s).getOp());
+      } else if (s instanceof ReturnVoidStmt) {
+        out.writeByte(STMT_RETURN_VOID);
+      } else if (s instanceof GotoStmt) {
+        out.writeByte(STMT_GOTO);
+        writeUnit(((GotoStmt) s).getTarget());
+      } else if (s instanceof IfStmt) {
+        IfStmt is = (IfStmt) s;
+        out.writeByte(STMT_IF);
+        writeValue(is.getCondition());
+        writeUnit(is.getTarget());
+      } else if (s instanceof TableSwitchStmt) {
+        TableSwitchStmt ts = (TableSwitchStmt) s;
+        out.writeByte(STMT_TABLE_SWITCH);
+        writeValue(ts.getKey());
+        out.writeInt(ts.getLowIndex());
+        out.writeInt(ts.getHighIndex());
+        writeUnits(ts.getTargets());
+        writeUnit(ts.getDefaultTarget());
+      } else if (s instanceof LookupSwitchStmt) {
+        LookupSwitchStmt ls = (LookupSwitchStmt) s;
+        out.writeByte(STMT_LOOKUP_SWITCH);
+        writeValue(ls.getKey());
+        List<IntConstant> lookupValues = ls.getLookupValues();
+        writeVarInt(out, lookupValues.size());
+        for (IntConstant c : lookupValues) {
+          out.writeInt(c.value);
+        }
+        writeUnits(ls.getTargets());
+        writeUnit(ls.getDefaultTarget());
+      } else if (s instanceof ThrowStmt) {
+        out.writeByte(STMT_THROW);
+        writeValue(((ThrowStmt) s).getOp());
+      } else if (s instanceof EnterMonitorStmt) {
+        out.writeByte(STMT_ENTER_MONITOR);
+        writeValue(((EnterMonitorStmt) s).getOp());
+      } else if (s instanceof ExitMonitorStmt) {
+        out.writeByte(STMT_EXIT_MONITOR);
+        writeValue(((ExitMonitorStmt) s).getOp());
+      } else if (s instanceof NopStmt) {
+        out.writeByte(STMT_NOP);
+      } else if (s instanceof BreakpointStmt) {
+        out.writeByte(STMT_BREAKPOINT);
+      } else if (s instanceof RetStmt) {
+        out.writeByte(STMT_RET);
+        writeValue(((RetStmt) s).getStmtAddress());
+      } else {
+        throw new UnsupportedBodyException("Unsupported statement " + s.getClass().getName());
+      }
+    }
+
+    void writeValue(Value v) throws IOException {
+      if (v instanceof Local) {
+        Integer index = locals.get(v);
+        if (index == null) {
+          throw new UnsupportedBodyException("Undeclared local " + v);
+        }
+        out.writeByte(VALUE_LOCAL);
+        writeVarInt(out, index);
+      } else if (v instanceof Constant) {
+        writeConstant((Constant) v);
+      } else if (v instanceof BinopExpr) {
+        out.writeByte(VALUE_BINOP);
+        out.writeByte(binopIndex((BinopExpr) v));
+        writeValue(((BinopExpr) v).getOp1());
+        writeValue(((BinopExpr) v).getOp2());
+      } else if (v instanceof NegExpr) {
+        out.writeByte(VALUE_NEG);
+        writeValue(((NegExpr) v).getOp());
+      } else if (v instanceof LengthExpr) {
+        out.writeByte(VALUE_LENGTH);
+        writeValue(((LengthExpr) v).getOp());
+      } else if (v instanceof CastExpr) {
+        CastExpr ce = (CastExpr) v;
+        out.writeByte(VALUE_CAST);
+        writeValue(ce.getOp());
+        writeType(ce.getCastType());
+      } else if (v instanceof InstanceOfExpr) {
+        InstanceOfExpr ie = (InstanceOfExpr) v;
+        out.writeByte(VALUE_INSTANCE_OF);
+        writeValue(ie.getOp());
+        writeType(ie.getCheckType());
+      } else if (v instanceof NewExpr) {
+        out.writeByte(VALUE_NEW);
+        writeType(((NewExpr) v).getBaseType());
+      } else if (v instanceof NewArrayExpr) {
+        NewArrayExpr ne = (NewArrayExpr) v;
+        out.writeByte(VALUE_NEW_ARRAY);
+        writeType(ne.getBaseType());
+        writeValue(ne.getSize());
+      } else if (v instanceof NewMultiArrayExpr) {
+        NewMultiArrayExpr ne = (NewMultiArrayExpr) v;
+        out.writeByte(VALUE_NEW_MULTI_ARRAY);
+        writeType(ne.getBaseType());
+        writeValues(ne.getSizes());
+      } else if (v instanceof InvokeExpr) {
+        writeInvoke((InvokeExpr) v);
+      } else if (v instanceof InstanceFieldRef) {
+        InstanceFieldRef fr = (InstanceFieldRef) v;
+        out.writeByte(VALUE_INSTANCE_FIELD);
+        writeValue(fr.getBase());
+        writeFieldRef(fr.getFieldRef());
+      } else if (v instanceof StaticFieldRef) {
+        out.writeByte(VALUE_STATIC_FIELD);
+        writeFieldRef(((StaticFieldRef) v).getFieldRef());
+      } else if (v instanceof ArrayRef) {
+        ArrayRef ar = (ArrayRef) v;
+        out.writeByte(VALUE_ARRAY_REF);
+        writeValue(ar.getBase());
+        writeValue(ar.getIndex());
+      } else if (v instanceof ParameterRef) {
+        ParameterRef pr = (ParameterRef) v;
+        out.writeByte(VALUE_PARAMETER);
+        writeType(pr.getType());
+        writeVarInt(out, pr.getIndex());
+      } else if (v instanceof ThisRef) {
+        out.writeByte(VALUE_THIS);
+        writeType(((ThisRef) v).getType());
+      } else if (v instanceof CaughtExceptionRef) {
+        out.writeByte(VALUE_CAUGHT_EXCEPTION);
+      } else {
+        throw new UnsupportedBodyException("Unsupported value " + v.getClass().getName());
+      }
+    }
+
+    void writeConstant(Constant c) throws IOException {
+      // Subclasses of the numeric constants (e.g. the unsigned ones) have no encoding of their own
+      final Class<?> cls = c.getClass();
+      if (cls == IntConstant.class) {
+        out.writeByte(VALUE_INT);
+        out.writeInt(((IntConstant) c).value);
+      } else if (cls == BooleanConstant.class) {
+        out.writeByte(VALUE_BOOLEAN);
+        out.writeBoolean(((BooleanConstant) c).value != 0);
+      } else if (cls == LongConstant.class) {
+        out.writeByte(VALUE_LONG);
+        out.writeLong(((LongConstant) c).value);
+      } else if (cls == FloatConstant.class) {
+        out.writeByte(VALUE_FLOAT);
+        out.writeInt(Float.floatToRawIntBits(((FloatConstant) c).value));
+      } else if (cls == DoubleConstant.class) {
+        out.writeByte(VALUE_DOUBLE);
+        out.writeLong(Double.doubleToRawLongBits(((DoubleConstant) c).value));
+      } else if (cls == StringConstant.class) {
+        out.writeByte(VALUE_STRING);
+        writeString(((StringConstant) c).value);
+      } else if (cls == ClassConstant.class) {
+        out.writeByte(VALUE_CLASS);
+        writeString(((ClassConstant) c).value);
+      } else if (cls == NullConstant.class) {
+        out.writeByte(VALUE_NULL);
+      } else if (cls == MethodHandle.class) {
+        MethodHandle mh = (MethodHandle) c;
+        out.writeByte(VALUE_METHOD_HANDLE);
+        writeVarInt(out, mh.getKind());
+        out.writeBoolean(mh.isFieldRef());
+        if (mh.isFieldRef()) {
+          writeFieldRef(mh.getFieldRef());
+        } else {
+          writeMethodRef(mh.getMethodRef());
+        }
+      } else if (cls == MethodType.class) {
+        MethodType mt = (MethodType) c;
+        out.writeByte(VALUE_METHOD_TYPE);
+        writeTypes(mt.getParameterTypes());
+        writeType(mt.getReturnType());
+      } else {
+        throw new UnsupportedBodyException("Unsupported constant " + cls.getName());
+      }
+    }
+
+    void writeInvoke(InvokeExpr ie) throws IOException {
+      if (ie instanceof StaticInvokeExpr) {
+        out.writeByte(VALUE_STATIC_INVOKE);
+      } else if (ie instanceof VirtualInvokeExpr) {
+        out.writeByte(VALUE_VIRTUAL_INVOKE);
+      } else if (ie instanceof SpecialInvokeExpr) {
+        out.writeByte(VALUE_SPECIAL_INVOKE);
+      } else if (ie instanceof InterfaceInvokeExpr) {
+        out.writeByte(VALUE_INTERFACE_INVOKE);
+      } else if (ie instanceof DynamicInvokeExpr) {
+        DynamicInvokeExpr die = (DynamicInvokeExpr) ie;
+        out.writeByte(VALUE_DYNAMIC_INVOKE);
+        writeMethodRef(die.getBootstrapMethodRef());
+        writeValues(die.getBootstrapArgs());
+        writeVarInt(out, die.getHandleTag());
+      } else {
+        throw new UnsupportedBodyException("Unsupported invoke " + ie.getClass().getName());
+      }
+      if (ie instanceof InstanceInvokeExpr) {
+        writeValue(((InstanceInvokeExpr) ie).getBase());
+      }
+      writeMethodRef(ie.getMethodRef());
+      writeValues(ie.getArgs());
+    }
+
+    void writeMethodRef(SootMethodRef ref) throws IOException {
+      writeString(ref.getDeclaringClass().getName());
+      writeString(ref.getName());
+      writeTypes(ref.getParameterTypes());
+      writeType(ref.getReturnType());
+      out.writeBoolean(ref.isStatic());
+    }
+
+    void writeFieldRef(SootFieldRef ref) throws IOException {
+      writeString(ref.declaringClass().getName());
+      writeString(ref.name());
+      writeType(ref.type());
+      out.writeBoolean(ref.isStatic());
+    }
+
+    void writeType(Type t) throws IOException {
+      if (t == VoidType.v()) {
+        out.writeByte(TYPE_VOID);
+      } else if (t == BooleanType.v()) {
+        out.writeByte(TYPE_BOOLEAN);
+      } else if (t == ByteType.v()) {
+        out.writeByte(TYPE_BYTE);
+      } else if (t == CharType.v()) {
+        out.writeByte(TYPE_CHAR);
+      } else if (t == ShortType.v()) {
+        out.writeByte(TYPE_SHORT);
+      } else if (t == IntType.v()) {
+        out.writeByte(TYPE_INT);
+      } else if (t == LongType.v()) {
+        out.writeByte(TYPE_LONG);
+      } else if (t == FloatType.v()) {
+        out.writeByte(TYPE_FLOAT);
+      } else if (t == DoubleType.v()) {
+        out.writeByte(TYPE_DOUBLE);
+      } else if (t == NullType.v()) {
+        out.writeByte(TYPE_NULL);
+      } else if (t == UnknownType.v()) {
+        out.writeByte(TYPE_UNKNOWN);
+      } else if (t != null && t.getClass() == RefType.class) {
+        out.writeByte(TYPE_REF);
+        writeString(((RefType) t).getClassName());
+      } else if (t != null && t.getClass() == ArrayType.class) {
+        ArrayType at = (ArrayType) t;
+        out.writeByte(TYPE_ARRAY);
+        writeType(at.baseType);
+        writeVarInt(out, at.numDimensions);
+      } else {
+        throw new UnsupportedBodyException("Unsupported type " + t);
+      }
+    }
+
+    void writeTags(Host h) throws IOException {
+      List<Tag> tags = h.getTags();
+      writeVarInt(out, tags.size());
+      for (Tag t : tags) {
+        // Subclasses carry more than these encodings keep, e.g. the file name of a SourceLnNamePosTag, so they are rejected
+        final Class<?> c = t.getClass();
+        if (c == LineNumberTag.class) {
+          out.writeByte(TAG_LINE_NUMBER);
+          out.writeInt(((LineNumberTag) t).getLineNumber());
+        } else if (c == BytecodeOffsetTag.class) {
+          out.writeByte(TAG_BYTECODE_OFFSET);
+          out.writeInt(((BytecodeOffsetTag) t).getBytecodeOffset());
+        } else if (c == SourceLnPosTag.class) {
+          SourceLnPosTag st = (SourceLnPosTag) t;
+          out.writeByte(TAG_SOURCE_LN_POS);
+          out.writeInt(st.startLn());
+          out.writeInt(st.endLn());
+          out.writeInt(st.startPos());
+          out.writeInt(st.endPos());
+        } else if (c == JimpleLineNumberTag.class) {
+          JimpleLineNumberTag jt = (JimpleLineNumberTag) t;
+          out.writeByte(TAG_JIMPLE_LINE_NUMBER);
+          out.writeInt(jt.getStartLineNumber());
+          out.writeInt(jt.getEndLineNumber());
+        } else if (c == SourceLineNumberTag.class) {
+          SourceLineNumberTag st = (SourceLineNumberTag) t;
+          out.writeByte(TAG_SOURCE_LINE_NUMBER);
+          out.writeInt(st.getStartLineNumber());
+          out.writeInt(st.getEndLineNumber());
+        } else if (c == PositionTag.class) {
+          PositionTag pt = (PositionTag) t;
+          out.writeByte(TAG_POSITION);
+          out.writeInt(pt.getStartOffset());
+          out.writeInt(pt.getEndOffset());
+        } else {
+          throw new UnsupportedBodyException("Unsupported tag " + t.getName());
+        }
+      }
+    }
+
+    void writeValues(List<? extends Value> values) throws IOException {
+      writeVarInt(out, values.size());
+      for (Value v : values) {
+        writeValue(v);
+      }
+    }
+
+    void writeTypes(List<Type> types) throws IOException {
+      writeVarInt(out, types.size());
+      for (Type t : types) {
+        writeType(t);
+      }
+    }
+
+    void writeUnits(List<Unit> targets) throws IOException {
+      writeVarInt(out, targets.size());
+      for (Unit u : targets) {
+        writeUnit(u);
+      }
+    }
+
+    void writeUnit(Unit u) throws IOException {
+      Integer index = units.get(u);
+      if (index == null) {
+        throw new UnsupportedBodyException("Reference to a unit outside the body");
+      }
+      writeVarInt(out, index);
+    }
+
+    void writeString(String s) throws IOException {
+      Integer index = strings.get(s);
+      if (index == null) {
+        index = strings.size();
+        strings.put(s, index);
+      }
+      writeVarInt(out, index);
+    }
+
+    static int binopIndex(BinopExpr e) throws IOException {
+      for (int i = 0; i < BINOPS.size(); i++) {
+        if (BINOPS.get(i).isInstance(e)) {
+          return i;
+        }
+      }
+      throw new UnsupportedBodyException("Unsupported operator " + e.getClass().getName());
+    }
+  }
+
+  private static final class Reader {
+    final DataInputStream in;
+    final String[] strings;
+    final Jimple jimple = Jimple.v();
+    Local[] locals;
+    Unit[] units;
+    /** The unit boxes whose targets are set once all units have been read, with the indices of their targets. */
+    final List<UnitBox> pendingBoxes = new ArrayList<UnitBox>();
+    final List<Integer> pendingTargets = new ArrayList<Integer>();
+
+    Reader(DataInputStream in, String[] strings) {
+      this.in = in;
+      this.strings = strings;
+    }
+
+    JimpleBody readBody(SootMethod m) throws IOException {
+      JimpleBody b = jimple.newBody(m);
+      readTags(b);
+
+      locals = new Local[readVarInt(in)];
+      for (int i = 0; i < locals.length; i++) {
+        String name = readString();
+        locals[i] = jimple.newLocal(name, readType());
+        b.getLocals().add(locals[i]);
+      }
+
+      units = new Unit[readVarInt(in)];
+      for (int i = 0; i < units.length; i++) {
+        Unit u = readStmt();
+        readTags(u);
+        List<ValueBox> boxes = u.getUseAndDefBoxes();
+        for (int tagged = readVarInt(in); tagged > 0; tagged--) {
+          int index = readVarInt(in);
+          if (index >= boxes.size()) {
+            throw new IOException("Invalid value box " + index);
+          }
+          readTags(boxes.get(index));
+        }
+        units[i] = u;
+        b.getUnits().add(u);
+      }
+      for (int i = 0; i < pendingBoxes.size(); i++) {
+        pendingBoxes.get(i).setUnit(units[pendingTargets.get(i)]);
+      }
+
+      for (int i = readVarInt(in); i > 0; i--) {
+        SootClass exception = SootResolver.v().makeClassRef(readString());
+        Unit begin = units[readUnitIndex()];
+        Unit end = units[readUnitIndex()];
+        Unit handler = units[readUnitIndex()];
+        b.getTraps().add(jimple.newTrap(exception, begin, end, handler));
+      }
+      return b;
+    }
+
+    Stmt readStmt() throws IOException {
+      final byte kind = in.readByte();
+      switch (kind) {
+        case STMT_ASSIGN: {
+          Value left = readValue();
+          return jimple.newAssignStmt(left, readValue());
+        }
+        case STMT_IDENTITY: {
+          Value left = readValue();
+          return jimple.newIdentityStmt(left, readValue());
+        }
+        case STMT_INVOKE:
+          return jimple.newInvokeStmt(readValue());
+        case STMT_RETURN:
+          return jimple.newReturnStmt(readValue());
+        case STMT_RETURN_VOID:
+          return jimple.newReturnVoidStmt();
+        case STMT_GOTO: {
+          GotoStmt s = jimple.newGotoStmt((Unit) null);
+          readTarget(s.getTargetBox());
+          return s;
+        }
+        case STMT_IF: {
+          IfStmt s = jimple.newIfStmt(readValue(), (Unit) null);
+          readTarget(s.getTargetBox());
+          return s;
+        }
+        case STMT_TABLE_SWITCH: {
+          Value key = readValue();
+          int low = in.readInt();
+          int high = in.readInt();
+          TableSwitchStmt s = jimple.newTableSwitchStmt(key, low, high, nullUnits(readVarInt(in)), null);
+          readTargets(s);
+          return s;
+        }
+        case STMT_LOOKUP_SWITCH: {
+          Value key = readValue();
+          List<IntConstant> lookupValues = new ArrayList<IntConstant>();
+          for (int i = readVarInt(in); i > 0; i--) {
+            lookupValues.add(IntConstant.v(in.readInt()));
+          }
+          LookupSwitchStmt s = jimple.newLookupSwitchStmt(key, lookupValues, nullUnits(readVarInt(in)), null);
+          readTargets(s);
+          return s;
+        }
+        case STMT_THROW:
+          return jimple.newThrowStmt(readValue());
+        case STMT_ENTER_MONITOR:
+          return jimple.newEnterMonitorStmt(readValue());
+        case STMT_EXIT_MONITOR:
+          return jimple.newExitMonitorStmt(readValue());
+        case STMT_NOP:
+          return jimple.newNopStmt();
+        case STMT_BREAKPOINT:
+          return jimple.newBreakpointStmt();
+        case STMT_RET:
+          return jimple.newRetStmt(readValue());
+        default:
+          throw new IOException("Unexpected statement kind " + kind);
+      }
+    }
+
+    Value readValue() throws IOException {
+      final byte kind = in.readByte();
+      switch (kind) {
+        case VALUE_LOCAL: {
+          int index = readVarInt(in);
+          if (index >= locals.length) {
+            throw new IOException("Invalid local " + index);
+          }
+          return locals[index];
+        }
+        case VALUE_INT:
+          return IntConstant.v(in.readInt());
+        case VALUE_LONG:
+          return LongConstant.v(in.readLong());
+        case VALUE_FLOAT:
+          return FloatConstant.v(Float.intBitsToFloat(in.readInt()));
+        case VALUE_DOUBLE:
+          return DoubleConstant.v(Double.longBitsToDouble(in.readLong()));
+        case VALUE_STRING:
+          return StringConstant.v(readString());
+        case VALUE_CLASS:
+          return ClassConstant.v(readString());
+        case VALUE_NULL:
+          return NullConstant.v();
+        case VALUE_BOOLEAN:
+          return BooleanConstant.v(in.readBoolean());
+        case VALUE_METHOD_HANDLE: {
+          int handleKind = readVarInt(in);
+          return in.readBoolean() ? MethodHandle.v(readFieldRef(), handleKind)
+              : MethodHandle.v(readMethodRef(), handleKind);
+        }
+        case VALUE_METHOD_TYPE: {
+          List<Type> parameterTypes = readTypes();
+          return MethodType.v(parameterTypes, readType());
+        }
+        case VALUE_BINOP:
+          return readBinop(in.readUnsignedByte());
+        case VALUE_NEG:
+          return jimple.newNegExpr(readValue());
+        case VALUE_LENGTH:
+          return jimple.newLengthExpr(readValue());
+        case VALUE_CAST: {
+          Value op = readValue();
+          return jimple.newCastExpr(op, readType());
+        }
+        case VALUE_INSTANCE_OF: {
+          Value op = readValue();
+          return jimple.newInstanceOfExpr(op, readType());
+        }
+        case VALUE_NEW:
+          return jimple.newNewExpr(cast(readType(), RefType.class));
+        case VALUE_NEW_ARRAY: {
+          Type baseType = readType();
+          return jimple.newNewArrayExpr(baseType, readValue());
+        }
+        case VALUE_NEW_MULTI_ARRAY: {
+          ArrayType type = cast(readType(), ArrayType.class);
+          return jimple.newNewMultiArrayExpr(type, readValues());
+        }
+        case VALUE_STATIC_INVOKE: {
+          SootMethodRef ref = readMethodRef();
+          return jimple.newStaticInvokeExpr(ref, readValues());
+        }
+        case VALUE_VIRTUAL_INVOKE: {
+          Local base = cast(readValue(), Local.class);
+          SootMethodRef ref = readMethodRef();
+          return jimple.newVirtualInvokeExpr(base, ref, readValues());
+        }
+        case VALUE_SPECIAL_INVOKE: {
+          Local base = cast(readValue(), Local.class);
+          SootMethodRef ref = readMethodRef();
+          return jimple.newSpecialInvokeExpr(base, ref, readValues());
+        }
+        case VALUE_INTERFACE_INVOKE: {
+          Local base = cast(readValue(), Local.class);
+          SootMethodRef ref = readMethodRef();
+          return jimple.newInterfaceInvokeExpr(base, ref, readValues());
+        }
+        case VALUE_DYNAMIC_INVOKE: {
+          SootMethodRef bootstrapRef = readMethodRef();
+          List<Value> bootstrapArgs = readValues();
+          int tag = readVarInt(in);
+          SootMethodRef ref = readMethodRef();
+          return jimple.newDynamicInvokeExpr(bootstrapRef, bootstrapArgs, ref, tag, readValues());
+        }
+        case VALUE_INSTANCE_FIELD: {
+          Value base = readValue();
+          return jimple.newInstanceFieldRef(base, readFieldRef());
+        }
+        case VALUE_STATIC_FIELD:
+          return jimple.newStaticFieldRef(readFieldRef());
+        case VALUE_ARRAY_REF: {
+          Value base = readValue();
+          return jimple.newArrayRef(base, readValue());
+        }
+        case VALUE_PARAMETER: {
+          Type type = readType();
+          return jimple.newParameterRef(type, readVarInt(in));
+        }
+        case VALUE_THIS:
+          return jimple.newThisRef(cast(readType(), RefType.class));
+        case VALUE_CAUGHT_EXCEPTION:
+          return jimple.newCaughtExceptionRef();
+        default:
+          throw new IOException("Unexpected value kind " + kind);
+      }
+    }
+
+    Value readBinop(int op) throws IOException {
+      Value op1 = readValue();
+      Value op2 = readValue();
+      switch (op) {
+        case 0:
+          return jimple.newAddExpr(op1, op2);
+        case 1:
+          return jimple.newAndExpr(op1, op2);
+        case 2:
+          return jimple.newCmpExpr(op1, op2);
+        case 3:
+          return jimple.newCmpgExpr(op1, op2);
+        case 4:
+          return jimple.newCmplExpr(op1, op2);
+        case 5:
+          return jimple.newDivExpr(op1, op2);
+        case 6:
+          return jimple.newEqExpr(op1, op2);
+        case 7:
+          return jimple.newGeExpr(op1, op2);
+        case 8:
+          return jimple.newGtExpr(op1, op2);
+        case 9:
+          return jimple.newLeExpr(op1, op2);
+        case 10:
+          return jimple.newLtExpr(op1, op2);
+        case 11:
+          return jimple.newMulExpr(op1, op2);
+        case 12:
+          return jimple.newNeExpr(op1, op2);
+        case 13:
+          return jimple.newOrExpr(op1, op2);
+        case 14:
+          return jimple.newRemExpr(op1, op2);
+        case 15:
+          return jimple.newShlExpr(op1, op2);
+        case 16:
+          return jimple.newShrExpr(op1, op2);
+        case 17:
+          return jimple.newSubExpr(op1, op2);
+        case 18:
+          return jimple.newUshrExpr(op1, op2);
+        case 19:
+          return jimple.newXorExpr(op1, op2);
+        default:
+          throw new IOException("Unexpected operator " + op);
+      }
+    }
+
+    SootMethodRef readMethodRef() throws IOException {
+      SootClass declaringClass = SootResolver.v().makeClassRef(readString());
+      String name = readString();
+      List<Type> parameterTypes = readTypes();
+      Type returnType = readType();
+      return Scene.v().makeMethodRef(declaringClass, name, parameterTypes, returnType, in.readBoolean());
+    }
+
+    SootFieldRef readFieldRef() throws IOException {
+      SootClass declaringClass = SootResolver.v().makeClassRef(readString());
+      String name = readString();
+      Type type = readType();
+      return Scene.v().makeFieldRef(declaringClass, name, type, in.readBoolean());
+    }
+
+    Type readType() throws IOException {
+      final byte kind = in.readByte();
+      switch (kind) {
+        case TYPE_VOID:
+          return VoidType.v();
+        case TYPE_BOOLEAN:
+          return BooleanType.v();
+        case TYPE_BYTE:
+          return ByteType.v();
+        case TYPE_CHAR:
+          return CharType.v();
+        case TYPE_SHORT:
+          return ShortType.v();
+        case TYPE_INT:
+          return IntType.v();
+        case TYPE_LONG:
+          return LongType.v();
+        case TYPE_FLOAT:
+          return FloatType.v();
+        case TYPE_DOUBLE:
+          return DoubleType.v();
+        case TYPE_NULL:
+          return NullType.v();
+        case TYPE_UNKNOWN:
+          return UnknownType.v();
+        case TYPE_REF:
+          return RefType.v(readString());
+        case TYPE_ARRAY: {
+          Type baseType = readType();
+          return ArrayType.v(baseType, readVarInt(in));
+        }
+        default:
+          throw new IOException("Unexpected type kind " + kind);
+      }
+    }
+
+    void readTags(Host h) throws IOException {
+      for (int i = readVarInt(in); i > 0; i--) {
+        final byte kind = in.readByte();
+        switch (kind) {
+          case TAG_LINE_NUMBER:
+            h.addTag(new LineNumberTag(in.readInt()));
+            break;
+          case TAG_BYTECODE_OFFSET:
+            h.addTag(new BytecodeOffsetTag(in.readInt()));
+            break;
+          case TAG_SOURCE_LN_POS:
+            h.addTag(new SourceLnPosTag(in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+            break;
+          case TAG_JIMPLE_LINE_NUMBER:
+            h.addTag(new JimpleLineNumberTag(in.readInt(), in.readInt()));
+            break;
+          case TAG_SOURCE_LINE_NUMBER:
+            h.addTag(new SourceLineNumberTag(in.readInt(), in.readInt()));
+            break;
+          case TAG_POSITION:
+            h.addTag(new PositionTag(in.readInt(), in.readInt()));
+            break;
+          default:
+            throw new IOException("Unexpected tag kind " + kind);
+        }
+      }
+    }
+
+    List<Value> readValues() throws IOException {
+      final int size = readVarInt(in);
+      List<Value> values = new ArrayList<Value>(Math.min(size, 256));
+      for (int i = 0; i < size; i++) {
+        values.add(readValue());
+      }
+      return values;
+    }
+
+    List<Type> readTypes() throws IOException {
+      final int size = readVarInt(in);
+      List<Type> types = new ArrayList<Type>(Math.min(size, 256));
+      for (int i = 0; i < size; i++) {
+        types.add(readType());
+      }
+      return types;
+    }
+
+    void readTargets(SwitchStmt s) throws IOException {
+      for (int i = 0, e = s.getTargets().size(); i < e; i++) {
+        readTarget(s.getTargetBox(i));
+      }
+      readTarget(s.getDefaultTargetBox());
+    }
+
+    void readTarget(UnitBox box) throws IOException {
+      pendingBoxes.add(box);
+      pendingTargets.add(readUnitIndex());
+    }
+
+    int readUnitIndex() throws IOException {
+      int index = readVarInt(in);
+      if (index >= units.length) {
+        throw new IOException("Invalid unit " + index);
+      }
+      return index;
+    }
+
+    String readString() throws IOException {
+      int index = readVarInt(in);
+      if (index >= strings.length) {
+        throw new IOException("Invalid string " + index);
+      }
+      return strings[index];
+    }
+
+    static List<Unit> nullUnits(int size) {
+      return Arrays.asList(new Unit[size]);
+    }
+
+    static <T> T cast(Object o, Class<T> cls) throws IOException {
+      if (!cls.isInstance(o)) {
+        throw new IOException("Expected a " + cls.getSimpleName() + " but found " + o);
+      }
+      return cls.cast(o);
+    }
+  }
+}
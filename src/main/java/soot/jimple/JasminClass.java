@@ -74,6 +74,7 @@ import soot.toolkits.scalar.FastColorer;
 import soot.toolkits.scalar.LocalDefs;
 import soot.toolkits.scalar.LocalUses;
 import soot.util.Chain;
+import soot.validation.ValidationManager;
 
 /*
  * TODO This is the right JasminClass
@@ -132,7 +133,7 @@ public class JasminClass extends AbstractJasminClass {
     }
 
     StmtBody body = (StmtBody) activeBody;
-    body.validate();
+    ValidationManager.v().validateOrThrow(body, "jasmin");
 
     // if(body == null)
 
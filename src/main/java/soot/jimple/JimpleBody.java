@@ -118,20 +118,18 @@ public class JimpleBody extends StmtBody {
   }
 
   /**
-   * Validates the jimple body and saves a list of all validation errors
-   *
-   * @param exceptionList
-   *          the list of validation errors
+   * Returns the validators of a body followed by those specific to jimple bodies.
    */
   @Override
-  public void validate(List<ValidationException> exceptionList) {
-    super.validate(exceptionList);
+  public List<BodyValidator> getValidators() {
+    final List<BodyValidator> validators = super.getValidators();
     final boolean runAllValidators = Options.v().debug() || Options.v().validate();
     for (BodyValidator validator : LazyValidatorsSingleton.V) {
       if (runAllValidators || validator.isBasicValidator()) {
-        validator.validate(this, exceptionList);
+        validators.add(validator);
       }
     }
+    return validators;
   }
 
   public void validateIdentityStatements() {
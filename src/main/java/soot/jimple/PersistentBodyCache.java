@@ -0,0 +1,462 @@
+package soot.jimple;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.Body;
+import soot.G;
+import soot.IFoundFile;
+import soot.MethodSource;
+import soot.PackManager;
+import soot.PhaseOptions;
+import soot.Singletons;
+import soot.SootMethod;
+import soot.SourceLocator;
+import soot.Transform;
+import soot.jimple.BodyCacheFormat.UnsupportedBodyException;
+import soot.options.Options;
+
+/**
+ * An on-disk cache for the {@link JimpleBody}s that the <tt>jb</tt> pack produces. Each method is stored in its own file
+ * whose name is derived from the hash of the class file the method was loaded from, from the options that influence
+ * <tt>jb</tt> and from the method's subsignature. Whenever the class file or one of these options changes, the file name
+ * changes as well, so stale entries are never read.
+ *
+ * <p>
+ * Since <tt>jb</tt> also consults the classes a body refers to, the file name further depends on the hashes of the class
+ * files of these classes and of their superclasses and interfaces, see {@link ClassKey}. A change to any other class on the
+ * class path leaves the entry valid.
+ *
+ * <p>
+ * An entry holds the body in the binary encoding of {@link BodyCacheFormat}, which is read back without going through the
+ * Jimple parser. Bodies that carry tags other than the position and line number tags of the front ends are never cached,
+ * since their tags would be lost on the way.
+ *
+ * @see Options#body_cache_dir()
+ */
+public class PersistentBodyCache {
+  private static final Logger logger = LoggerFactory.getLogger(PersistentBodyCache.class);
+
+  private static final int MAGIC = 0x4a424331; // "JBC1"
+  private static final int FORMAT_VERSION = 2;
+
+  private static final String ENTRY_SUFFIX = ".jbc";
+
+  // The tags of the constant pool entries that refer to classes
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+  private static final int CONSTANT_METHOD_TYPE = 16;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong stores = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong loadNanos = new AtomicLong();
+  private final AtomicLong buildNanos = new AtomicLong();
+
+  private volatile String optionsKey;
+
+  // The hashes of the class files on the class path, each combined with the hashes of its superclass and interfaces
+  private final Map<String, String> classStamps = new ConcurrentHashMap<String, String>();
+
+  public PersistentBodyCache(Singletons.Global g) {
+  }
+
+  public static PersistentBodyCache v() {
+    return G.v().soot_jimple_PersistentBodyCache();
+  }
+
+  /** Returns true if a cache directory has been configured. */
+  public boolean isEnabled() {
+    return !Options.v().body_cache_dir().isEmpty();
+  }
+
+  /** Computes the key under which the bodies of the class with the given class file are stored. */
+  public ClassKey classKey(byte[] classBytes) {
+    return new ClassKey(digest(classBytes), referencedClasses(classBytes));
+  }
+
+  /**
+   * Replaces the method source of the given method by a source that consults this cache before it builds a body. Callers
+   * must only attach methods whose body construction has no side effects on the {@link soot.Scene}, since these are not
+   * replayed when the body is loaded from the cache.
+   *
+   * @param m
+   *          the method whose source to wrap
+   * @param classKey
+   *          the key of the class file the method was loaded from, see {@link #classKey(byte[])}
+   */
+  public void attach(SootMethod m, ClassKey classKey) {
+    MethodSource ms = m.getSource();
+    if (ms != null && !(ms instanceof CachingMethodSource)) {
+      m.setSource(new CachingMethodSource(classKey, ms));
+    }
+  }
+
+  /** Returns the number of bodies that have been loaded from the cache. */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /** Returns the number of bodies that had to be built because they were not in the cache. */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /** Returns the number of bodies that have been written to the cache. */
+  public long getStores() {
+    return stores.get();
+  }
+
+  /** Returns the number of cache entries that could not be read or written. */
+  public long getFailures() {
+    return failures.get();
+  }
+
+  /** Prints the hit rate and the time spent on loading and building bodies. */
+  public void printStatistics() {
+    long h = hits.get();
+    long m = misses.get();
+    double loadMs = h == 0 ? 0 : loadNanos.get() / 1e6 / h;
+    double buildMs = m == 0 ? 0 : buildNanos.get() / 1e6 / m;
+    logger.info(String.format(
+        "Body cache: %d hits, %d misses, %d stores, %d failures; %.3f ms per loaded body, %.3f ms per built body", h, m,
+        stores.get(), failures.get(), loadMs, buildMs));
+  }
+
+  private Body getBody(CachingMethodSource source, SootMethod m, String phaseName) {
+    final Path entry = entryPath(source.classKey, m);
+    long start = System.nanoTime();
+    Body b = load(entry, m);
+    if (b != null) {
+      loadNanos.addAndGet(System.nanoTime() - start);
+      hits.incrementAndGet();
+      return b;
+    }
+
+    misses.incrementAndGet();
+    start = System.nanoTime();
+    b = source.delegate.getBody(m, phaseName);
+    buildNanos.addAndGet(System.nanoTime() - start);
+    if (b instanceof JimpleBody) {
+      store(entry, m, b);
+    }
+    return b;
+  }
+
+  private Body load(Path entry, SootMethod m) {
+    if (!Files.isRegularFile(entry)) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !m.getSubSignature().equals(in.readUTF())) {
+        throw new IOException("Unexpected header");
+      }
+      JimpleBody b = BodyCacheFormat.read(m, in);
+      if (in.read() != -1) {
+        throw new IOException("Trailing data");
+      }
+      return b;
+    } catch (Exception e) {
+      // The entry is unusable, build the body from scratch instead
+      failures.incrementAndGet();
+      logger.debug("Discarding body cache entry for " + m.getSignature() + ": " + e);
+      try {
+        Files.deleteIfExists(entry);
+      } catch (IOException ignore) {
+        // will be overwritten later
+      }
+      return null;
+    }
+  }
+
+  private void store(Path entry, SootMethod m, Body b) {
+    final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(data)) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeUTF(m.getSubSignature());
+      BodyCacheFormat.write(b, out);
+    } catch (UnsupportedBodyException e) {
+      logger.debug("Not caching body of " + m.getSignature() + ": " + e.getMessage());
+      return;
+    } catch (IOException | RuntimeException e) {
+      failures.incrementAndGet();
+      logger.debug("Could not encode body of " + m.getSignature() + " for the body cache: " + e);
+      return;
+    }
+
+    Path tmp = null;
+    try {
+      Files.createDirectories(entry.getParent());
+      tmp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+      try (OutputStream out = Files.newOutputStream(tmp)) {
+        data.writeTo(out);
+      }
+      // Another thread or process may store the same entry concurrently, both write the same content
+      Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      stores.incrementAndGet();
+    } catch (IOException | RuntimeException e) {
+      failures.incrementAndGet();
+      logger.debug("Could not store body of " + m.getSignature() + " in the body cache: " + e);
+      if (tmp != null) {
+        try {
+          Files.deleteIfExists(tmp);
+        } catch (IOException ignore) {
+          // nothing left to do
+        }
+      }
+    }
+  }
+
+  private Path entryPath(ClassKey classKey, SootMethod m) {
+    String key = digest(
+        (classKey.get() + '/' + getOptionsKey() + '/' + m.getSubSignature()).getBytes(StandardCharsets.UTF_8));
+    return Paths.get(Options.v().body_cache_dir(), key.substring(0, 2), key + ENTRY_SUFFIX);
+  }
+
+  /** Returns a digest of all options that affect the bodies produced by <tt>jb</tt>. */
+  private String getOptionsKey() {
+    String key = optionsKey;
+    if (key == null) {
+      final Options opts = Options.v();
+      final PhaseOptions phaseOpts = PhaseOptions.v();
+      StringBuilder sb = new StringBuilder();
+      sb.append(FORMAT_VERSION);
+      // The classes of the runtime image are not stamped, see classStamp
+      sb.append(";java.version=").append(System.getProperty("java.version"));
+      sb.append(";keep-line-number=").append(opts.keep_line_number());
+      sb.append(";keep-offset=").append(opts.keep_offset());
+      sb.append(";throw-analysis=").append(opts.throw_analysis());
+      sb.append(";check-init-throw-analysis=").append(opts.check_init_throw_analysis());
+      sb.append(";omit-excepting-unit-edges=").append(opts.omit_excepting_unit_edges());
+      sb.append(";wrong-staticness=").append(opts.wrong_staticness());
+      sb.append(";field-type-mismatches=").append(opts.field_type_mismatches());
+      sb.append(";jb=").append(new TreeMap<String, String>(phaseOpts.getPhaseOptions("jb")));
+      for (Transform t : PackManager.v().getPack("jb")) {
+        sb.append(';').append(t.getPhaseName()).append('=');
+        sb.append(new TreeMap<String, String>(phaseOpts.getPhaseOptions(t)));
+      }
+      optionsKey = key = digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    return key;
+  }
+
+  /**
+   * Returns the names of the classes that the given class file refers to in its constant pool and in the signatures of its
+   * methods, except the class itself.
+   */
+  private static Set<String> referencedClasses(byte[] classBytes) {
+    final Set<String> names = new TreeSet<String>();
+    final ClassReader cr = new ClassReader(classBytes);
+    final char[] buf = new char[cr.getMaxStringLength()];
+    for (int i = 1; i < cr.getItemCount(); i++) {
+      // The offsets point behind the tag byte of the constant, and are 0 for the unused slots after longs and doubles
+      int offset = cr.getItem(i);
+      if (offset == 0) {
+        continue;
+      }
+      switch (cr.readByte(offset - 1)) {
+        case CONSTANT_CLASS:
+          addInternalName(names, cr.readUTF8(offset, buf));
+          break;
+        case CONSTANT_NAME_AND_TYPE:
+          addDescriptor(names, cr.readUTF8(offset + 2, buf));
+          break;
+        case CONSTANT_METHOD_TYPE:
+          addDescriptor(names, cr.readUTF8(offset, buf));
+          break;
+        default:
+          break;
+      }
+    }
+    // The parameter types of the methods of the class are not necessarily in the constant pool as part of a NameAndType
+    cr.accept(new ClassVisitor(Opcodes.ASM9) {
+      @Override
+      public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        addDescriptor(names, descriptor);
+        return null;
+      }
+    }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    names.remove(cr.getClassName().replace('/', '.'));
+    return names;
+  }
+
+  private static void addInternalName(Set<String> names, String internalName) {
+    if (internalName.startsWith("[")) {
+      addDescriptor(names, internalName);
+    } else {
+      names.add(internalName.replace('/', '.'));
+    }
+  }
+
+  private static void addDescriptor(Set<String> names, String descriptor) {
+    if (descriptor.startsWith("(")) {
+      for (org.objectweb.asm.Type t : org.objectweb.asm.Type.getArgumentTypes(descriptor)) {
+        addType(names, t);
+      }
+      addType(names, org.objectweb.asm.Type.getReturnType(descriptor));
+    } else {
+      addType(names, org.objectweb.asm.Type.getType(descriptor));
+    }
+  }
+
+  private static void addType(Set<String> names, org.objectweb.asm.Type t) {
+    if (t.getSort() == org.objectweb.asm.Type.ARRAY) {
+      t = t.getElementType();
+    }
+    if (t.getSort() == org.objectweb.asm.Type.OBJECT) {
+      names.add(t.getClassName());
+    }
+  }
+
+  /**
+   * Returns a stamp of the class file of the given class, which covers the file itself and, recursively, the class files of
+   * its superclass and interfaces. Classes that are not on the class path have a constant stamp: they are either part of the
+   * runtime image, which the Java version in the options key covers, or phantom.
+   */
+  private String classStamp(String className, Set<String> visiting) {
+    String stamp = classStamps.get(className);
+    if (stamp != null) {
+      return stamp;
+    }
+    if (!visiting.add(className)) {
+      // A circular hierarchy, which the front end rejects anyway
+      return "";
+    }
+    IFoundFile file = SourceLocator.v().lookupInClassPath(className.replace('.', '/') + ".class");
+    if (file == null) {
+      stamp = "-";
+    } else {
+      try (InputStream in = file.inputStream()) {
+        byte[] bytes = in.readAllBytes();
+        ClassReader cr = new ClassReader(bytes);
+        StringBuilder sb = new StringBuilder(digest(bytes));
+        String superName = cr.getSuperName();
+        if (superName != null) {
+          sb.append(';').append(classStamp(superName.replace('/', '.'), visiting));
+        }
+        for (String i : cr.getInterfaces()) {
+          sb.append(';').append(classStamp(i.replace('/', '.'), visiting));
+        }
+        stamp = digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+      } catch (IOException | RuntimeException e) {
+        // Never reuse entries built against a class we cannot stamp
+        stamp = "?" + System.nanoTime();
+      } finally {
+        file.close();
+      }
+    }
+    visiting.remove(className);
+    String old = classStamps.putIfAbsent(className, stamp);
+    return old == null ? stamp : old;
+  }
+
+  /** Returns the SHA-256 hash of the given data as a hexadecimal string. */
+  public static String digest(byte[] data) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+      StringBuilder sb = new StringBuilder(hash.length * 2);
+      for (byte x : hash) {
+        sb.append(Character.forDigit((x >> 4) & 0xf, 16)).append(Character.forDigit(x & 0xf, 16));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * The key of the bodies of one class. A body depends on its class file and on the classes that <tt>jb</tt> resolves while
+   * it builds and types the body: the classes the class file refers to, and their superclasses and interfaces. The stamps of
+   * these classes are computed when the first body of the class is looked up, since most classes of a library never have
+   * their bodies built.
+   */
+  public final class ClassKey {
+    private final String classDigest;
+    private final Set<String> referencedClasses;
+    private volatile String key;
+
+    ClassKey(String classDigest, Set<String> referencedClasses) {
+      this.classDigest = classDigest;
+      this.referencedClasses = referencedClasses;
+    }
+
+    String get() {
+      String k = key;
+      if (k == null) {
+        StringBuilder sb = new StringBuilder(classDigest);
+        for (String name : referencedClasses) {
+          sb.append(';').append(name).append('=').append(classStamp(name, new HashSet<String>()));
+        }
+        key = k = digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+      }
+      return k;
+    }
+  }
+
+  /** Consults the cache before delegating to the original method source. */
+  private class CachingMethodSource implements MethodSource {
+    final ClassKey classKey;
+    final MethodSource delegate;
+
+    CachingMethodSource(ClassKey classKey, MethodSource delegate) {
+      this.classKey = classKey;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Body getBody(SootMethod m, String phaseName) {
+      return PersistentBodyCache.this.getBody(this, m, phaseName);
+    }
+  }
+}
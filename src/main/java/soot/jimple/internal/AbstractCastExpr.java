@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import soot.ArrayType;
+import soot.BodyAnalysisCache;
 import soot.RefType;
 import soot.Type;
 import soot.Unit;
@@ -124,6 +125,7 @@ public abstract class AbstractCastExpr implements CastExpr, ConvertToBaf {
   @Override
   public void setCastType(Type castType) {
     this.type = castType;
+    BodyAnalysisCache.noteModification();
   }
 
   @Override
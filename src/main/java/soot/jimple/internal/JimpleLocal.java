@@ -25,6 +25,7 @@ package soot.jimple.internal;
 import java.util.Collections;
 import java.util.List;
 
+import soot.BodyAnalysisCache;
 import soot.Local;
 import soot.Type;
 import soot.Unit;
@@ -97,6 +98,7 @@ public class JimpleLocal implements Local, ConvertToBaf {
   @Override
   public void setType(Type t) {
     this.type = t;
+    BodyAnalysisCache.noteModification();
   }
 
   @Override
@@ -24,6 +24,7 @@ package soot.jimple.spark.builder;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +36,7 @@ import soot.jimple.spark.geom.geomPA.GeomPointsTo;
 import soot.jimple.spark.internal.SparkNativeHelper;
 import soot.jimple.spark.pag.MethodPAG;
 import soot.jimple.spark.pag.PAG;
+import soot.jimple.spark.pag.ParallelMethodPAGBuilder;
 import soot.jimple.spark.solver.OnFlyCallGraph;
 import soot.jimple.toolkits.callgraph.CallGraphBuilder;
 import soot.jimple.toolkits.callgraph.Edge;
@@ -99,8 +101,22 @@ public class ContextInsensitiveBuilder {
       cgb.build();
       reachables = cgb.reachables();
     }
-    for (final SootClass c : new ArrayList<>(Scene.v().getClasses())) {
-      handleClass(c);
+    ParallelMethodPAGBuilder parallelBuilder = pag.parallelBuilder();
+    if (parallelBuilder == null) {
+      for (final SootClass c : new ArrayList<>(Scene.v().getClasses())) {
+        handleClass(c);
+      }
+    } else {
+      List<SootMethod> methods = new ArrayList<>();
+      for (final SootClass c : new ArrayList<>(Scene.v().getClasses())) {
+        handleClass(c, methods);
+      }
+      parallelBuilder.build(methods, (i, mpag, error) -> {
+        if (error != null) {
+          throw error instanceof RuntimeException ? (RuntimeException) error : new RuntimeException(error);
+        }
+        mpag.addToPAG(null);
+      });
     }
     while (callEdges.hasNext()) {
       Edge e = callEdges.next();
@@ -127,6 +143,14 @@ public class ContextInsensitiveBuilder {
   /* End of public methods. */
   /* End of package methods. */
   protected void handleClass(SootClass c) {
+    handleClass(c, null);
+  }
+
+  /**
+   * Counts the reachable methods of the class and builds their PAGs. If a list is given, the methods are added to it instead,
+   * so that their PAGs are built in parallel.
+   */
+  protected void handleClass(SootClass c, List<SootMethod> methods) {
     boolean incedClasses = false;
     if (c.isConcrete() || Scene.v().getFastHierarchy().getSubclassesOf(c).stream().anyMatch(SootClass::isConcrete)) {
       for (SootMethod m : c.getMethods()) {
@@ -135,9 +159,13 @@ public class ContextInsensitiveBuilder {
         }
         totalMethods++;
         if (reachables.contains(m)) {
-          MethodPAG mpag = MethodPAG.v(pag, m);
-          mpag.build();
-          mpag.addToPAG(null);
+          if (methods != null) {
+            methods.add(m);
+          } else {
+            MethodPAG mpag = MethodPAG.v(pag, m);
+            mpag.build();
+            mpag.addToPAG(null);
+          }
           analyzedMethods++;
           if (!incedClasses) {
             incedClasses = true;
@@ -194,6 +194,7 @@ public class FullSensitiveNode extends IVarAbstraction {
 
   @Override
   public boolean add_points_to_3(AllocNode obj, long I1, long I2, long L) {
+    final RectangleNode pres = candidateFigure();
     pres.I1 = I1;
     pres.I2 = I2;
     pres.L = L;
@@ -203,6 +204,7 @@ public class FullSensitiveNode extends IVarAbstraction {
 
   @Override
   public boolean add_points_to_4(AllocNode obj, long I1, long I2, long L1, long L2) {
+    final RectangleNode pres = candidateFigure();
     pres.I1 = I1;
     pres.I2 = I2;
     pres.L = L1;
@@ -213,6 +215,7 @@ public class FullSensitiveNode extends IVarAbstraction {
 
   @Override
   public boolean add_simple_constraint_3(IVarAbstraction qv, long I1, long I2, long L) {
+    final RectangleNode pres = candidateFigure();
     pres.I1 = I1;
     pres.I2 = I2;
     pres.L = L;
@@ -222,6 +225,7 @@ public class FullSensitiveNode extends IVarAbstraction {
 
   @Override
   public boolean add_simple_constraint_4(IVarAbstraction qv, long I1, long I2, long L1, long L2) {
+    final RectangleNode pres = candidateFigure();
     pres.I1 = I1;
     pres.I2 = I2;
     pres.L = L1;
@@ -678,6 +682,7 @@ public class FullSensitiveNode extends IVarAbstraction {
    * A non-interface public function. It adds the points-to tuple to the geometric manager.
    */
   private boolean addPointsTo(int code, AllocNode obj) {
+    final RectangleNode pres = candidateFigure();
     GeometricManager gm = pt_objs.get(obj);
 
     if (gm == null) {
@@ -701,6 +706,7 @@ public class FullSensitiveNode extends IVarAbstraction {
    * A non-interface public function. It adds the flows-to tuple to the geometric manager.
    */
   private boolean addFlowsTo(int code, IVarAbstraction qv) {
+    final RectangleNode pres = candidateFigure();
     GeometricManager gm = flowto.get(qv);
 
     if (gm == null) {
@@ -741,6 +747,7 @@ public class FullSensitiveNode extends IVarAbstraction {
    * Implement the inference rules when the input points-to figure is a one-to-one mapping.
    */
   private static int infer_pts_is_one_to_one(SegmentNode pts, SegmentNode pe, int code) {
+    final RectangleNode pres = candidateFigure();
     long interI, interJ;
 
     // The left-end is the larger one
@@ -774,6 +781,7 @@ public class FullSensitiveNode extends IVarAbstraction {
    * Implement the inference rules when the input points-to figure is a many-to-many mapping.
    */
   private static int infer_pts_is_many_to_many(RectangleNode pts, SegmentNode pe, int code) {
+    final RectangleNode pres = candidateFigure();
     long interI, interJ;
 
     // The left-end is the larger one
@@ -838,6 +846,7 @@ public class FullSensitiveNode extends IVarAbstraction {
    * The last parameter code can only be 1-1 and many-1
    */
   private static boolean instantiateLoadConstraint(FullSensitiveNode objn, FullSensitiveNode qn, SegmentNode pts, int code) {
+    final RectangleNode pres = candidateFigure();
     int ret_type = GeometricManager.Undefined_Mapping;
 
     if ((code >> 8) == GeometricManager.ONE_TO_ONE) {
@@ -887,6 +896,7 @@ public class FullSensitiveNode extends IVarAbstraction {
   // code can only be 1-1 and 1-many
   private static boolean instantiateStoreConstraint(FullSensitiveNode qn, FullSensitiveNode objn, SegmentNode pts,
       int code) {
+    final RectangleNode pres = candidateFigure();
     int ret_type = GeometricManager.Undefined_Mapping;
 
     if ((code >> 8) == GeometricManager.ONE_TO_ONE) {
@@ -28,16 +28,24 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -81,6 +89,7 @@ import soot.jimple.spark.sets.PointsToSetInternal;
 import soot.jimple.toolkits.callgraph.CallGraph;
 import soot.jimple.toolkits.callgraph.Edge;
 import soot.jimple.toolkits.callgraph.VirtualCalls;
+import soot.options.Options;
 import soot.options.SparkOptions;
 import soot.toolkits.scalar.Pair;
 import soot.util.queue.ChunkedQueue;
@@ -177,6 +186,8 @@ public class GeomPointsTo extends PAG {
   private boolean hasExecuted = false;
   // Prepare necessary structures when first time ddSolve is called
   private boolean ddPrepared = false;
+  // The number of threads that solve the clusters of pointers, 1 for the sequential solver
+  protected int numThreads = 1;
 
   // -------------------Constructors--------------------
   public GeomPointsTo(final SparkOptions opts) {
@@ -255,14 +266,14 @@ public class GeomPointsTo extends PAG {
     }
 
     // Then, we set the worklist
-    switch (opts.geom_worklist()) {
-      case SparkOptions.geom_worklist_FIFO:
-        worklist = new FIFO_Worklist();
-        break;
+    worklist = createWorklist();
 
-      case SparkOptions.geom_worklist_PQ:
-        worklist = new PQ_Worklist();
-        break;
+    // The clusters of pointers are solved on several threads if the user asks for it
+    if (opts.geom_parallel()) {
+      numThreads = Options.v().num_threads();
+      if (numThreads < 1) {
+        numThreads = Runtime.getRuntime().availableProcessors();
+      }
     }
 
     // We dump the processing statistics to an external file if needed by the user
@@ -341,6 +352,21 @@ public class GeomPointsTo extends PAG {
         + "> encoding.");
   }
 
+  /**
+   * Create an empty worklist with the selection strategy specified by the user.
+   */
+  private IWorklist createWorklist() {
+    switch (opts.geom_worklist()) {
+      case SparkOptions.geom_worklist_FIFO:
+        return new FIFO_Worklist();
+
+      case SparkOptions.geom_worklist_PQ:
+        return new PQ_Worklist();
+    }
+
+    return null;
+  }
+
   /**
    * Read in the program facts generated by SPARK. We also construct our own call graph and pointer variables.
    */
@@ -463,8 +489,10 @@ public class GeomPointsTo extends PAG {
     // The address constraints, new obj -> p
     for (Object object : allocSources()) {
       IVarAbstraction obj = makeInternalNode((AllocNode) object);
-      Node[] succs = allocLookup((AllocNode) object);
-      for (Node element0 : succs) {
+      int n = alloc.targetCount((AllocNode) object);
+      int[] succs = alloc.targetNumbers((AllocNode) object);
+      for (int i = 0; i < n; i++) {
+        VarNode element0 = alloc.target(succs[i]);
         PlainConstraint cons = new PlainConstraint();
         IVarAbstraction p = makeInternalNode(element0);
         cons.expr.setPair(obj, p);
@@ -477,8 +505,10 @@ public class GeomPointsTo extends PAG {
     Pair<Node, Node> intercall = new Pair<Node, Node>();
     for (Object object : simpleSources()) {
       IVarAbstraction p = makeInternalNode((VarNode) object);
-      Node[] succs = simpleLookup((VarNode) object);
-      for (Node element0 : succs) {
+      int n = simple.targetCount((VarNode) object);
+      int[] succs = simple.targetNumbers((VarNode) object);
+      for (int i = 0; i < n; i++) {
+        VarNode element0 = simple.target(succs[i]);
         PlainConstraint cons = new PlainConstraint();
         IVarAbstraction q = makeInternalNode(element0);
         cons.expr.setPair(p, q);
@@ -495,8 +525,10 @@ public class GeomPointsTo extends PAG {
     for (Object object : loadSources()) {
       FieldRefNode frn = (FieldRefNode) object;
       IVarAbstraction p = makeInternalNode(frn.getBase());
-      Node[] succs = loadLookup(frn);
-      for (Node element0 : succs) {
+      int n = load.targetCount(frn);
+      int[] succs = load.targetNumbers(frn);
+      for (int i = 0; i < n; i++) {
+        VarNode element0 = load.target(succs[i]);
         PlainConstraint cons = new PlainConstraint();
         IVarAbstraction q = makeInternalNode(element0);
         cons.f = frn.getField();
@@ -509,10 +541,11 @@ public class GeomPointsTo extends PAG {
     // The store constraints, p -> q.f
     for (Object object : storeSources()) {
       IVarAbstraction p = makeInternalNode((VarNode) object);
-      Node[] succs = storeLookup((VarNode) object);
-      for (Node element0 : succs) {
+      int n = store.targetCount((VarNode) object);
+      int[] succs = store.targetNumbers((VarNode) object);
+      for (int i = 0; i < n; i++) {
         PlainConstraint cons = new PlainConstraint();
-        FieldRefNode frn = (FieldRefNode) element0;
+        FieldRefNode frn = store.target(succs[i]);
         IVarAbstraction q = makeInternalNode(frn.getBase());
         cons.f = frn.getField();
         cons.expr.setPair(p, q);
@@ -885,6 +918,11 @@ public class GeomPointsTo extends PAG {
    * We iteratively update the call graph and the constraints list until our demand is satisfied
    */
   private void solveConstraints() {
+    if (isParallel()) {
+      solveConstraintsInParallel();
+      return;
+    }
+
     IWorklist ptaList = worklist;
 
     while (ptaList.has_job()) {
@@ -895,6 +933,101 @@ public class GeomPointsTo extends PAG {
     }
   }
 
+  /**
+   * Solve the clusters of pointers computed by the offline processor on several threads. Since no constraint crosses the
+   * boundary of a cluster, the results of the clusters need no merging. Every thread has its own worklist and figure cache.
+   */
+  private void solveConstraintsInParallel() {
+    final int n_groups = numThreads;
+    final int[] group = offlineProcessor.partitionClusters(n_groups);
+    final IWorklist[] lists = new IWorklist[n_groups];
+    final int[] n_pointers = new int[n_groups];
+    final long[] n_propagations = new long[n_groups];
+    final long[] times = new long[n_groups];
+
+    for (int i = 0; i < n_groups; ++i) {
+      lists[i] = createWorklist();
+      lists[i].initialize(pointers.size());
+    }
+    for (int i = 0; i < group.length; ++i) {
+      ++n_pointers[group[i]];
+    }
+
+    // The flow graph generator has put the initial pointers into the shared worklist
+    while (worklist.has_job()) {
+      IVarAbstraction pn = worklist.next();
+      lists[group[pn.id]].push(pn);
+    }
+
+    // The hierarchy is built lazily, so we build it before the threads read it
+    Scene.v().getActiveHierarchy();
+
+    List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(n_groups);
+    for (int i = 0; i < n_groups; ++i) {
+      final int g = i;
+      tasks.add(new Callable<Void>() {
+        @Override
+        public Void call() {
+          long begin = System.nanoTime();
+          IWorklist ptaList = lists[g];
+
+          try {
+            while (ptaList.has_job()) {
+              IVarAbstraction pn = ptaList.next();
+              pn.do_before_propagation();
+              pn.propagate(GeomPointsTo.this, ptaList);
+              pn.do_after_propagation();
+              ++n_propagations[g];
+            }
+          } finally {
+            ptaList.clear();
+            IFigureManager.cleanCache();
+            times[g] = System.nanoTime() - begin;
+          }
+
+          return null;
+        }
+      });
+    }
+
+    long begin = System.nanoTime();
+    IFigureManager.setParallel(true);
+    ExecutorService executor = Executors.newFixedThreadPool(n_groups);
+    try {
+      for (Future<Void> f : executor.invokeAll(tasks)) {
+        f.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("[Geom] Interrupted while solving the clusters of pointers", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    } finally {
+      executor.shutdownNow();
+      try {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      IFigureManager.setParallel(false);
+    }
+    long end = System.nanoTime();
+
+    ps.printf("[Geom] Solved %d clusters (largest: %d pointers) on %d threads in %.2f s\n", offlineProcessor.n_clusters,
+        offlineProcessor.max_cluster_size, n_groups, (double) (end - begin) / 1e9);
+    for (int i = 0; i < n_groups; ++i) {
+      ps.printf("[Geom]   Thread %d: %d pointers, %d propagations, %.2f s\n", i, n_pointers[i], n_propagations[i],
+          (double) times[i] / 1e9);
+    }
+  }
+
   /**
    * Obtain the set of possible call targets at given @param callsite.
    */
@@ -1665,10 +1798,17 @@ public class GeomPointsTo extends PAG {
     return worklist;
   }
 
+  /**
+   * Are the clusters of pointers solved on several threads?
+   */
+  public boolean isParallel() {
+    return numThreads > 1;
+  }
+
   /**
    * Obtain the internal representation of an object field.
    */
-  public IVarAbstraction findInstanceField(AllocNode obj, SparkField field) {
+  public synchronized IVarAbstraction findInstanceField(AllocNode obj, SparkField field) {
     AllocDotField af = findAllocDotField(obj, field);
     return consG.get(af);
   }
@@ -1676,7 +1816,7 @@ public class GeomPointsTo extends PAG {
   /**
    * Obtain or create an internal representation of an object field.
    */
-  public IVarAbstraction findAndInsertInstanceField(AllocNode obj, SparkField field) {
+  public synchronized IVarAbstraction findAndInsertInstanceField(AllocNode obj, SparkField field) {
     AllocDotField af = findAllocDotField(obj, field);
     IVarAbstraction pn = null;
 
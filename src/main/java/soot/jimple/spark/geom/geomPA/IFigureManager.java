@@ -33,8 +33,31 @@ import soot.jimple.spark.geom.dataRep.SegmentNode;
  */
 public abstract class IFigureManager {
   // We implement an internal memory manager here
-  private static SegmentNode segHeader = null;
-  private static SegmentNode rectHeader = null;
+  private static final FigureCache sharedCache = new FigureCache();
+  // While clusters of pointers are solved in parallel, every thread has its own free lists
+  private static final ThreadLocal<FigureCache> threadCache = ThreadLocal.withInitial(FigureCache::new);
+  private static boolean parallel = false;
+
+  private static class FigureCache {
+    SegmentNode segHeader = null;
+    SegmentNode rectHeader = null;
+  }
+
+  /**
+   * Switch between the shared free lists and those of the current thread. Must only be called while no figures are
+   * allocated, i.e., before the solver threads are started and after they have finished.
+   */
+  static void setParallel(boolean p) {
+    parallel = p;
+  }
+
+  static boolean isParallel() {
+    return parallel;
+  }
+
+  private static FigureCache cache() {
+    return parallel ? threadCache.get() : sharedCache;
+  }
 
   /**
    * Generate a segment node from our own cache.
@@ -42,11 +65,12 @@ public abstract class IFigureManager {
    * @return
    */
   protected static SegmentNode getSegmentNode() {
+    final FigureCache c = cache();
     SegmentNode ret = null;
 
-    if (segHeader != null) {
-      ret = segHeader;
-      segHeader = ret.next;
+    if (c.segHeader != null) {
+      ret = c.segHeader;
+      c.segHeader = ret.next;
       ret.next = null;
       ret.is_new = true;
     } else {
@@ -62,11 +86,12 @@ public abstract class IFigureManager {
    * @return
    */
   protected static RectangleNode getRectangleNode() {
+    final FigureCache c = cache();
     RectangleNode ret = null;
 
-    if (rectHeader != null) {
-      ret = (RectangleNode) rectHeader;
-      rectHeader = ret.next;
+    if (c.rectHeader != null) {
+      ret = (RectangleNode) c.rectHeader;
+      c.rectHeader = ret.next;
       ret.next = null;
       ret.is_new = true;
     } else {
@@ -83,9 +108,10 @@ public abstract class IFigureManager {
    * @return
    */
   protected static SegmentNode reclaimSegmentNode(SegmentNode p) {
+    final FigureCache c = cache();
     SegmentNode q = p.next;
-    p.next = segHeader;
-    segHeader = p;
+    p.next = c.segHeader;
+    c.segHeader = p;
     return q;
   }
 
@@ -96,18 +122,24 @@ public abstract class IFigureManager {
    * @return
    */
   protected static SegmentNode reclaimRectangleNode(SegmentNode p) {
+    final FigureCache c = cache();
     SegmentNode q = p.next;
-    p.next = rectHeader;
-    rectHeader = p;
+    p.next = c.rectHeader;
+    c.rectHeader = p;
     return q;
   }
 
   /**
-   * We return the cached memory to garbage collector.
+   * We return the cached memory to garbage collector. While solving in parallel, only the memory of the current thread is
+   * returned.
    */
   public static void cleanCache() {
-    segHeader = null;
-    rectHeader = null;
+    if (parallel) {
+      threadCache.remove();
+    } else {
+      sharedCache.segHeader = null;
+      sharedCache.rectHeader = null;
+    }
   }
 
   // Get the information of the figures
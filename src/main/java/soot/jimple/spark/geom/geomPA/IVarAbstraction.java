@@ -47,8 +47,15 @@ public abstract class IVarAbstraction implements Numberable {
   protected static IFigureManager stubManager = null;
   // This is used to indicate the corresponding object should be removed
   protected static IFigureManager deadManager = null;
-  // A temporary rectangle holds the candidate figure
+  /**
+   * A temporary rectangle holds the candidate figure.
+   *
+   * @deprecated not safe while clusters of pointers are solved in parallel, use {@link #candidateFigure()} instead
+   */
+  @Deprecated
   protected static RectangleNode pres = null;
+  // The candidate figures of the threads that solve clusters of pointers in parallel
+  private static final ThreadLocal<RectangleNode> candidate = ThreadLocal.withInitial(RectangleNode::new);
 
   // Corresponding SPARK node
   public Node me;
@@ -70,6 +77,13 @@ public abstract class IVarAbstraction implements Numberable {
     parent = this;
   }
 
+  /**
+   * Obtain the temporary rectangle that holds the candidate figure. While solving in parallel, every thread has its own.
+   */
+  protected static RectangleNode candidateFigure() {
+    return IFigureManager.isParallel() ? candidate.get() : pres;
+  }
+
   /**
    * Used by ordering the nodes in priority worklist.
    */
@@ -23,6 +23,7 @@ package soot.jimple.spark.geom.geomPA;
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -70,6 +71,8 @@ public class OfflineProcessor {
   Deque<Integer> queue;
   int pre_cnt;
   int n_var;
+  // The clusters of pointers that can be solved independently, only computed for the parallel refinement
+  int n_clusters, max_cluster_size;
 
   public OfflineProcessor(GeomPointsTo pta) {
     int2var = pta.pointers;
@@ -189,6 +192,13 @@ public class OfflineProcessor {
      */
     buildImpactGraph();
     computeWeightsForPts();
+
+    /*
+     * Partition the pointers for the parallel refinement.
+     */
+    if (geomPTA.isParallel()) {
+      computeClusters();
+    }
   }
 
   public void destroy() {
@@ -615,6 +625,122 @@ public class OfflineProcessor {
     }
   }
 
+  /**
+   * Partition the pointers into the weakly connected components of the constraint graph. The base pointer of a complex
+   * constraint is put into the same cluster as the other side and the instance fields it may dereference, because its
+   * propagation adds flow edges to them. Hence, the propagation of a pointer never touches a pointer of another cluster.
+   * Prerequisite: computeWeightsForPts, since the union-find arrays are reused.
+   */
+  protected void computeClusters() {
+    for (int i = 0; i < n_var; ++i) {
+      rep[i] = i;
+      repsize[i] = 1;
+    }
+
+    for (PlainConstraint cons : geomPTA.constraints) {
+      if (!cons.isActive) {
+        continue;
+      }
+
+      final IVarAbstraction lhs = cons.getLHS();
+      final IVarAbstraction rhs = cons.getRHS();
+
+      switch (cons.type) {
+        case Constants.NEW_CONS:
+          // The objects are only read during the propagation
+          break;
+
+        case Constants.ASSIGN_CONS:
+          merge_nodes(lhs.getRepresentative().id, rhs.getRepresentative().id);
+          break;
+
+        // rhs = lhs.f
+        case Constants.LOAD_CONS:
+          merge_nodes(lhs.getRepresentative().id, rhs.getRepresentative().id);
+          mergeInstanceFields(lhs, cons.f);
+          break;
+
+        // rhs.f = lhs
+        case Constants.STORE_CONS:
+          merge_nodes(lhs.getRepresentative().id, rhs.getRepresentative().id);
+          mergeInstanceFields(rhs, cons.f);
+          break;
+      }
+    }
+
+    n_clusters = max_cluster_size = 0;
+    for (int i = 0; i < n_var; ++i) {
+      if (rep[i] == i) {
+        ++n_clusters;
+        if (repsize[i] > max_cluster_size) {
+          max_cluster_size = repsize[i];
+        }
+      }
+    }
+  }
+
+  private void mergeInstanceFields(IVarAbstraction base, final SparkField field) {
+    final IVarAbstraction rep = base.getRepresentative();
+
+    if (!rep.hasPTResult()) {
+      base.getWrappedNode().getP2Set().forall(new P2SetVisitor() {
+        @Override
+        public void visit(Node n) {
+          mergeInstanceField(rep, (AllocNode) n, field);
+        }
+      });
+    } else {
+      // Use geom
+      for (AllocNode o : rep.get_all_points_to_objects()) {
+        mergeInstanceField(rep, o, field);
+      }
+    }
+  }
+
+  private void mergeInstanceField(IVarAbstraction rep, AllocNode obj, SparkField field) {
+    IVarAbstraction padf = geomPTA.findInstanceField(obj, field);
+    if (padf == null || !padf.reachable()) {
+      return;
+    }
+    merge_nodes(rep.id, padf.getRepresentative().id);
+  }
+
+  /**
+   * Distribute the clusters to the given number of groups, such that every group has about the same number of pointers.
+   * Prerequisite: computeClusters
+   *
+   * @return the group of every pointer, indexed by the pointer id
+   */
+  public int[] partitionClusters(int n_groups) {
+    // Place the largest clusters first
+    Integer[] roots = new Integer[n_clusters];
+    for (int i = 0, k = 0; i < n_var; ++i) {
+      if (rep[i] == i) {
+        roots[k++] = i;
+      }
+    }
+    Arrays.sort(roots, (a, b) -> repsize[b] - repsize[a]);
+
+    int[] load = new int[n_groups];
+    for (int r : roots) {
+      int g = 0;
+      for (int j = 1; j < n_groups; ++j) {
+        if (load[j] < load[g]) {
+          g = j;
+        }
+      }
+      load[g] += repsize[r];
+      // The group is kept in count[] for the root
+      count[r] = g;
+    }
+
+    int[] group = new int[n_var];
+    for (int i = 0; i < n_var; ++i) {
+      group[i] = count[find_parent(i)];
+    }
+    return group;
+  }
+
   private off_graph_edge add_graph_edge(int s, int t) {
     off_graph_edge e = new off_graph_edge();
 
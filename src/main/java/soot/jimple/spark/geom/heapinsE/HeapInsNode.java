@@ -187,6 +187,7 @@ public class HeapInsNode extends IVarAbstraction {
 
   @Override
   public boolean add_points_to_3(AllocNode obj, long I1, long I2, long L) {
+    final RectangleNode pres = candidateFigure();
     int code = 0;
 
     pres.I1 = I1;
@@ -209,6 +210,7 @@ public class HeapInsNode extends IVarAbstraction {
 
   @Override
   public boolean add_simple_constraint_3(IVarAbstraction qv, long I1, long I2, long L) {
+    final RectangleNode pres = candidateFigure();
     int code = 0;
 
     pres.I1 = I1;
@@ -663,6 +665,7 @@ public class HeapInsNode extends IVarAbstraction {
   }
 
   private boolean addPointsTo(int code, AllocNode obj) {
+    final RectangleNode pres = candidateFigure();
     HeapInsIntervalManager im = pt_objs.get(obj);
 
     if (im == null) {
@@ -683,6 +686,7 @@ public class HeapInsNode extends IVarAbstraction {
   }
 
   private boolean addFlowsTo(int code, HeapInsNode qv) {
+    final RectangleNode pres = candidateFigure();
     HeapInsIntervalManager im = flowto.get(qv);
 
     if (im == null) {
@@ -696,6 +700,7 @@ public class HeapInsNode extends IVarAbstraction {
 
   // Apply the inference rules
   private static boolean add_new_points_to_tuple(SegmentNode pts, SegmentNode pe, AllocNode obj, HeapInsNode qn) {
+    final RectangleNode pres = candidateFigure();
     long interI, interJ;
     int code = 0;
 
@@ -180,6 +180,7 @@ public class PtInsNode extends IVarAbstraction {
 
   @Override
   public boolean add_points_to_3(AllocNode obj, long I1, long I2, long L) {
+    final RectangleNode pres = candidateFigure();
     int code = 0;
 
     pres.I1 = I1;
@@ -202,6 +203,7 @@ public class PtInsNode extends IVarAbstraction {
 
   @Override
   public boolean add_simple_constraint_3(IVarAbstraction qv, long I1, long I2, long L) {
+    final RectangleNode pres = candidateFigure();
     int code = 0;
 
     pres.I1 = I1;
@@ -653,6 +655,7 @@ public class PtInsNode extends IVarAbstraction {
   }
 
   private boolean addPointsTo(int code, AllocNode obj) {
+    final RectangleNode pres = candidateFigure();
     PtInsIntervalManager im = pt_objs.get(obj);
 
     if (im == null) {
@@ -673,6 +676,7 @@ public class PtInsNode extends IVarAbstraction {
   }
 
   private boolean addFlowsTo(int code, PtInsNode qv) {
+    final RectangleNode pres = candidateFigure();
     PtInsIntervalManager im = flowto.get(qv);
 
     if (im == null) {
@@ -686,6 +690,7 @@ public class PtInsNode extends IVarAbstraction {
 
   // Implement the pointer assignment inference rules
   private static boolean add_new_points_to_tuple(SegmentNode pts, SegmentNode pe, AllocNode obj, PtInsNode qn) {
+    final RectangleNode pres = candidateFigure();
     long interI, interJ;
     int code = 0;
 
@@ -112,6 +112,42 @@ public final class TypeManager {
     if (type == null) {
       return null;
     }
+    updateTypeMasks();
+    BitVector ret = (BitVector) typeMask.get(type);
+    if (ret == null && fh != null && type instanceof RefType) {
+      // If we have a phantom class and have no type mask, we assume that
+      // it is not cast-compatible to anything
+      SootClass curClass = ((RefType) type).getSootClass();
+      if (curClass.isPhantom()) {
+        return new BitVector();
+      } else {
+        // Scan through the hierarchy. We might have a phantom class higher up
+        while (curClass.hasSuperclass()) {
+          curClass = curClass.getSuperclass();
+          if (type instanceof RefType && curClass.isPhantom()) {
+            return new BitVector();
+          }
+        }
+        logger.warn("Type mask not found for type " + type
+            + ". This is casued by a cast operation to a type which is a phantom class "
+            + "and no type mask was found. This may affect the precision of the point-to set.");
+        BitVector soundOverApproxRet = new BitVector();
+        for (int i = 0; i <= 63; i++) {
+          soundOverApproxRet.set(i);
+        }
+        return soundOverApproxRet;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Adds the allocation nodes that have been created since the last update to the type masks.
+   */
+  final public void updateTypeMasks() {
+    if (allocNodeListener == null) {
+      return;
+    }
     final Scene sc = Scene.v();
     while (allocNodeListener.hasNext()) {
       AllocNode n = allocNodeListener.next();
@@ -144,32 +180,6 @@ public final class TypeManager {
 
       }
     }
-    BitVector ret = (BitVector) typeMask.get(type);
-    if (ret == null && fh != null && type instanceof RefType) {
-      // If we have a phantom class and have no type mask, we assume that
-      // it is not cast-compatible to anything
-      SootClass curClass = ((RefType) type).getSootClass();
-      if (curClass.isPhantom()) {
-        return new BitVector();
-      } else {
-        // Scan through the hierarchy. We might have a phantom class higher up
-        while (curClass.hasSuperclass()) {
-          curClass = curClass.getSuperclass();
-          if (type instanceof RefType && curClass.isPhantom()) {
-            return new BitVector();
-          }
-        }
-        logger.warn("Type mask not found for type " + type
-            + ". This is casued by a cast operation to a type which is a phantom class "
-            + "and no type mask was found. This may affect the precision of the point-to set.");
-        BitVector soundOverApproxRet = new BitVector();
-        for (int i = 0; i <= 63; i++) {
-          soundOverApproxRet.set(i);
-        }
-        return soundOverApproxRet;
-      }
-    }
-    return ret;
   }
 
   final public void clearTypeMask() {
@@ -63,6 +63,7 @@ import soot.jimple.spark.pag.FieldRefNode;
 import soot.jimple.spark.pag.GlobalVarNode;
 import soot.jimple.spark.pag.LocalVarNode;
 import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.NumberedEdgeMap;
 import soot.jimple.spark.pag.PAG;
 import soot.jimple.spark.pag.SparkField;
 import soot.jimple.spark.pag.VarNode;
@@ -625,9 +626,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
       boolean handle(VarNode curNode) {
         assert curNode.getP2Set().contains(badLoc);
         visited.add(curNode);
-        Node[] newEdges = pag.allocInvLookup(curNode);
-        for (int i = 0; i < newEdges.length; i++) {
-          AllocNode alloc = (AllocNode) newEdges[i];
+        NumberedEdgeMap<VarNode, AllocNode> allocInvEdges = pag.allocInvEdges();
+        int numNewEdges = allocInvEdges.targetCount(curNode);
+        int[] newEdges = allocInvEdges.targetNumbers(curNode);
+        for (int i = 0; i < numNewEdges; i++) {
+          AllocNode alloc = allocInvEdges.target(newEdges[i]);
           if (alloc.equals(badLoc)) {
             dotGraph.addNew(alloc, curNode);
             return true;
@@ -644,9 +647,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
             return true;
           }
         }
-        Node[] loadEdges = pag.loadInvLookup(curNode);
-        for (int i = 0; i < loadEdges.length; i++) {
-          FieldRefNode frNode = (FieldRefNode) loadEdges[i];
+        NumberedEdgeMap<VarNode, FieldRefNode> loadInvEdges = pag.loadInvEdges();
+        int numLoadEdges = loadInvEdges.targetCount(curNode);
+        int[] loadEdges = loadInvEdges.targetNumbers(curNode);
+        for (int i = 0; i < numLoadEdges; i++) {
+          FieldRefNode frNode = loadInvEdges.target(loadEdges[i]);
           SparkField field = frNode.getField();
           VarNode base = frNode.getBase();
           PointsToSetInternal baseP2Set = base.getP2Set();
@@ -1018,9 +1023,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
       Propagator<VarAndContext> p = new Propagator<VarAndContext>(marked, worklist);
       AllocNode alloc = allocAndContext.alloc;
       ImmutableStack<Integer> allocContext = allocAndContext.context;
-      Node[] newBarNodes = pag.allocLookup(alloc);
-      for (int i = 0; i < newBarNodes.length; i++) {
-        VarNode v = (VarNode) newBarNodes[i];
+      NumberedEdgeMap<AllocNode, VarNode> allocEdges = pag.allocEdges();
+      int numNewBarNodes = allocEdges.targetCount(alloc);
+      int[] newBarNodes = allocEdges.targetNumbers(alloc);
+      for (int i = 0; i < numNewBarNodes; i++) {
+        VarNode v = allocEdges.target(newBarNodes[i]);
         p.prop(new VarAndContext(v, allocContext));
       }
       while (!worklist.isEmpty()) {
@@ -1071,9 +1078,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
         }
         // putfield_bars
         Set<VarNode> matchTargets = vMatches.vMatchLookup(curVar);
-        Node[] pfTargets = pag.storeLookup(curVar);
-        for (int i = 0; i < pfTargets.length; i++) {
-          FieldRefNode frNode = (FieldRefNode) pfTargets[i];
+        NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
+        int numPfTargets = storeEdges.targetCount(curVar);
+        int[] pfTargets = storeEdges.targetNumbers(curVar);
+        for (int i = 0; i < numPfTargets; i++) {
+          FieldRefNode frNode = storeEdges.target(pfTargets[i]);
           final VarNode storeBase = frNode.getBase();
           SparkField field = frNode.getField();
           // Pair<VarNode, FieldRefNode> putfield = new Pair<VarNode,
@@ -1178,9 +1187,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
       Propagator<VarAndContext> p = new Propagator<VarAndContext>(marked, worklist);
       AllocNode alloc = allocAndContext.alloc;
       ImmutableStack<Integer> allocContext = allocAndContext.context;
-      Node[] newBarNodes = pag.allocLookup(alloc);
-      for (int i = 0; i < newBarNodes.length; i++) {
-        VarNode v = (VarNode) newBarNodes[i];
+      NumberedEdgeMap<AllocNode, VarNode> allocEdges = pag.allocEdges();
+      int numNewBarNodes = allocEdges.targetCount(alloc);
+      int[] newBarNodes = allocEdges.targetNumbers(alloc);
+      for (int i = 0; i < numNewBarNodes; i++) {
+        VarNode v = allocEdges.target(newBarNodes[i]);
         ret.add(v);
         p.prop(new VarAndContext(v, allocContext));
       }
@@ -1230,9 +1241,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
         }
         // putfield_bars
         Set<VarNode> matchTargets = vMatches.vMatchLookup(curVar);
-        Node[] pfTargets = pag.storeLookup(curVar);
-        for (int i = 0; i < pfTargets.length; i++) {
-          FieldRefNode frNode = (FieldRefNode) pfTargets[i];
+        NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
+        int numPfTargets = storeEdges.targetCount(curVar);
+        int[] pfTargets = storeEdges.targetNumbers(curVar);
+        for (int i = 0; i < numPfTargets; i++) {
+          FieldRefNode frNode = storeEdges.target(pfTargets[i]);
           final VarNode storeBase = frNode.getBase();
           SparkField field = frNode.getField();
           // Pair<VarNode, FieldRefNode> putfield = new Pair<VarNode,
@@ -1331,9 +1344,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
     p.prop(source);
     while (!worklist.isEmpty()) {
       VarNode curNode = worklist.pop();
-      Node[] assignSources = pag.simpleInvLookup(curNode);
-      for (int i = 0; i < assignSources.length; i++) {
-        VarNode assignSrc = (VarNode) assignSources[i];
+      NumberedEdgeMap<VarNode, VarNode> simpleInvEdges = pag.simpleInvEdges();
+      int numAssignSources = simpleInvEdges.targetCount(curNode);
+      int[] assignSources = simpleInvEdges.targetNumbers(curNode);
+      for (int i = 0; i < numAssignSources; i++) {
+        VarNode assignSrc = simpleInvEdges.target(assignSources[i]);
         if (assignSrc.getP2Set().hasNonEmptyIntersection(allocs)) {
           p.prop(assignSrc);
         }
@@ -1365,9 +1380,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
       }
       VarNode v = varAndContext.var;
       ImmutableStack<Integer> callingContext = varAndContext.context;
-      Node[] newEdges = pag.allocInvLookup(v);
-      for (int i = 0; i < newEdges.length; i++) {
-        AllocNode allocNode = (AllocNode) newEdges[i];
+      NumberedEdgeMap<VarNode, AllocNode> allocInvEdges = pag.allocInvEdges();
+      int numNewEdges = allocInvEdges.targetCount(v);
+      int[] newEdges = allocInvEdges.targetNumbers(v);
+      for (int i = 0; i < numNewEdges; i++) {
+        AllocNode allocNode = allocInvEdges.target(newEdges[i]);
         h.handleAlloc(allocNode, varAndContext);
         if (h.terminate()) {
           return;
@@ -1433,9 +1450,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
         }
       }
       Set<VarNode> matchSources = vMatches.vMatchInvLookup(v);
-      Node[] loads = pag.loadInvLookup(v);
-      for (int i = 0; i < loads.length; i++) {
-        FieldRefNode frNode = (FieldRefNode) loads[i];
+      NumberedEdgeMap<VarNode, FieldRefNode> loadInvEdges = pag.loadInvEdges();
+      int numLoads = loadInvEdges.targetCount(v);
+      int[] loads = loadInvEdges.targetNumbers(v);
+      for (int i = 0; i < numLoads; i++) {
+        FieldRefNode frNode = loadInvEdges.target(loads[i]);
         final VarNode loadBase = frNode.getBase();
         SparkField field = frNode.getField();
         // Pair<VarNode, FieldRefNode> getfield = new Pair<VarNode,
@@ -1615,9 +1634,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
       // }
       // continue;
       // }
-      Node[] newNodes = pag.allocInvLookup(curVar);
-      for (int i = 0; i < newNodes.length; i++) {
-        AllocNode allocNode = (AllocNode) newNodes[i];
+      NumberedEdgeMap<VarNode, AllocNode> allocInvEdges = pag.allocInvEdges();
+      int numNewNodes = allocInvEdges.targetCount(curVar);
+      int[] newNodes = allocInvEdges.targetNumbers(curVar);
+      for (int i = 0; i < numNewNodes; i++) {
+        AllocNode allocNode = allocInvEdges.target(newNodes[i]);
         for (SootMethod method : getCallTargetsForType(allocNode.getType(), invokedMethod, receiverType, allTargets)) {
           callSiteToResolvedTargets.put(callSiteAndContext, method);
         }
@@ -1657,9 +1678,11 @@ public final class DemandCSPointsTo implements PointsToAnalysis {
       // TODO respect heuristic
       Set<VarNode> matchSources = vMatches.vMatchInvLookup(curVar);
       final boolean oneMatch = matchSources.size() == 1;
-      Node[] loads = pag.loadInvLookup(curVar);
-      for (int i = 0; i < loads.length; i++) {
-        FieldRefNode frNode = (FieldRefNode) loads[i];
+      NumberedEdgeMap<VarNode, FieldRefNode> loadInvEdges = pag.loadInvEdges();
+      int numLoads = loadInvEdges.targetCount(curVar);
+      int[] loads = loadInvEdges.targetNumbers(curVar);
+      for (int i = 0; i < numLoads; i++) {
+        FieldRefNode frNode = loadInvEdges.target(loads[i]);
         final VarNode loadBase = frNode.getBase();
         SparkField field = frNode.getField();
         for (Pair<VarNode, VarNode> store : fieldToStores.get(field)) {
@@ -84,7 +84,9 @@ public class AllocNode extends Node implements Context {
     if (newExpr instanceof ContextVarNode) {
       throw new RuntimeException();
     }
-    pag.getAllocNodeNumberer().add(this);
+    if (!pag.defersNumbering()) {
+      pag.getAllocNodeNumberer().add(this);
+    }
   }
 
   /** Registers a AllocDotField as having this node as its base. */
@@ -102,6 +104,11 @@ public class AllocNode extends Node implements Context {
     return new HashSet<AllocDotField>(fields.values());
   }
 
+  /** Sets the method of this node to the one of the first method PAG that uses it, after a parallel build. */
+  void setMethod(SootMethod m) {
+    this.method = m;
+  }
+
   /* End of package methods. */
 
   protected Object newExpr;
@@ -66,7 +66,9 @@ public class FieldRefNode extends ValNode {
     this.base = base;
     this.field = field;
     base.addField(this, field);
-    pag.getFieldRefNodeNumberer().add(this);
+    if (!pag.defersNumbering()) {
+      pag.getFieldRefNodeNumberer().add(this);
+    }
   }
 
   /* End of package methods. */
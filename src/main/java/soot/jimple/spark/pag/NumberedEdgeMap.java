@@ -0,0 +1,331 @@
+package soot.jimple.spark.pag;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import soot.util.ArrayNumberer;
+
+/**
+ * One edge relation of the pointer assignment graph. The nodes are stored as their numbers: the targets of a source are kept
+ * in a growable int array at the number of the source, so the relation needs neither map entries nor node arrays. The
+ * targets can be iterated without allocation:
+ *
+ * <pre>
+ * int n = edges.targetCount(src);
+ * int[] targets = edges.targetNumbers(src);
+ * for (int i = 0; i &lt; n; i++) {
+ *   VarNode target = edges.target(targets[i]);
+ * }
+ * </pre>
+ *
+ * The array of a source is only appended to, or replaced by a new array, so a loop like the one above is not disturbed by
+ * edges that are added meanwhile. Sources with many targets get a hash index to detect duplicate edges.
+ *
+ * @param <K>
+ *          the type of the source nodes
+ * @param <V>
+ *          the type of the target nodes
+ */
+public class NumberedEdgeMap<K extends Node, V extends Node> {
+  // Sources with more targets get a hash index
+  private static final int INDEX_THRESHOLD = 16;
+  private static final int[] EMPTY_ROW = new int[0];
+
+  private final ArrayNumberer<K> sources;
+  private final ArrayNumberer<V> targets;
+
+  private int[][] rows = new int[64][];
+  private int[] sizes = new int[64];
+  private int[][] indexes = new int[64][];
+  private int numSources = 0;
+  // Nodes have been merged, and the rows may still contain the nodes that were replaced
+  private boolean merged = false;
+
+  private final Set<K> sourceSet = new AbstractSet<K>() {
+    @Override
+    public Iterator<K> iterator() {
+      return new Iterator<K>() {
+        int cur = 0;
+
+        private void advance() {
+          while (cur < sizes.length && sizes[cur] == 0) {
+            cur++;
+          }
+        }
+
+        @Override
+        public boolean hasNext() {
+          advance();
+          return cur < sizes.length;
+        }
+
+        @Override
+        public K next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return sources.get(cur++);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return numSources;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Node)) {
+        return false;
+      }
+      int src = ((Node) o).getNumber();
+      return src < sizes.length && sizes[src] > 0 && sources.get(src) == o;
+    }
+  };
+
+  public NumberedEdgeMap(ArrayNumberer<K> sources, ArrayNumberer<V> targets) {
+    this.sources = sources;
+    this.targets = targets;
+  }
+
+  /** Adds an edge, returning false if it was already there. */
+  public boolean add(K source, V target) {
+    return add(source.getNumber(), target.getNumber());
+  }
+
+  private boolean add(int src, int tgt) {
+    if (src == 0 || tgt == 0) {
+      throw new RuntimeException("Edge between unnumbered nodes " + sources.get(src) + " and " + targets.get(tgt));
+    }
+    if (src >= sizes.length) {
+      int length = Math.max(sizes.length * 2, src + 1);
+      rows = Arrays.copyOf(rows, length);
+      sizes = Arrays.copyOf(sizes, length);
+      indexes = Arrays.copyOf(indexes, length);
+    }
+    int[] row = rows[src];
+    int size = sizes[src];
+    if (indexes[src] != null) {
+      if (!insert(src, tgt)) {
+        return false;
+      }
+    } else {
+      for (int i = 0; i < size; i++) {
+        if (row[i] == tgt) {
+          return false;
+        }
+      }
+    }
+    if (row == null) {
+      rows[src] = row = new int[2];
+      numSources++;
+    } else if (size == row.length) {
+      rows[src] = row = Arrays.copyOf(row, size * 2);
+    }
+    row[size] = tgt;
+    sizes[src] = ++size;
+    if (size > INDEX_THRESHOLD && indexes[src] == null) {
+      indexes[src] = new int[Integer.highestOneBit(size) << 2];
+      for (int i = 0; i < size; i++) {
+        insert(src, row[i]);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Inserts the target into the hash index of the source, returning false if it was already there.
+   */
+  private boolean insert(int src, int tgt) {
+    int[] index = indexes[src];
+    if (2 * (sizes[src] + 1) > index.length) {
+      int[] old = index;
+      indexes[src] = index = new int[old.length * 2];
+      for (int t : old) {
+        if (t != 0) {
+          insert(index, t);
+        }
+      }
+    }
+    return insert(index, tgt);
+  }
+
+  private static boolean insert(int[] index, int tgt) {
+    int mask = index.length - 1;
+    for (int i = (tgt * 0x9E3779B9) >>> 7 & mask;; i = (i + 1) & mask) {
+      if (index[i] == tgt) {
+        return false;
+      }
+      if (index[i] == 0) {
+        index[i] = tgt;
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of targets of the source. The entries of {@link #targetNumbers(Node)} beyond this count are not
+   * valid.
+   */
+  public int targetCount(K source) {
+    int src = source.getNumber();
+    if (src >= sizes.length) {
+      return 0;
+    }
+    if (merged) {
+      replaceMerged(source);
+    }
+    return sizes[src];
+  }
+
+  /**
+   * Returns the numbers of the targets of the source, which {@link #target(int)} turns into nodes. The array belongs to this
+   * map and must not be modified.
+   */
+  public int[] targetNumbers(K source) {
+    int src = source.getNumber();
+    if (src >= sizes.length) {
+      return EMPTY_ROW;
+    }
+    if (merged) {
+      replaceMerged(source);
+    }
+    int[] row = rows[src];
+    return row == null ? EMPTY_ROW : row;
+  }
+
+  /** Returns the target node with the given number. */
+  public V target(int number) {
+    return targets.get(number);
+  }
+
+  /** Returns the targets of the source in a new array. */
+  public Node[] targetArray(K source) {
+    int n = targetCount(source);
+    if (n == 0) {
+      return PAG.EMPTY_NODE_ARRAY;
+    }
+    int[] row = targetNumbers(source);
+    Node[] ret = new Node[n];
+    for (int i = 0; i < n; i++) {
+      ret[i] = targets.get(row[i]);
+    }
+    return ret;
+  }
+
+  /** Returns a view of the sources that have at least one target. */
+  public Set<K> sources() {
+    return sourceSet;
+  }
+
+  /**
+   * Records that nodes have been merged. Until {@link #replaceAllMerged()} is called, the targets of each source are replaced
+   * by their representatives when they are accessed.
+   */
+  public void markMerged() {
+    merged = true;
+  }
+
+  /**
+   * Moves the targets of the source from, which has been merged into the source into, to that source.
+   */
+  public void mergeSources(K into, K from) {
+    int src = from.getNumber();
+    if (src >= sizes.length || sizes[src] == 0) {
+      return;
+    }
+    int[] row = rows[src];
+    int size = sizes[src];
+    clearRow(src);
+    for (int i = 0; i < size; i++) {
+      add(into.getNumber(), row[i]);
+    }
+    merged = true;
+  }
+
+  /**
+   * Replaces the targets of all sources by their representatives, and drops the edges that have become self-loops.
+   */
+  public void replaceAllMerged() {
+    if (!merged) {
+      return;
+    }
+    for (int src = 1; src < sizes.length; src++) {
+      if (sizes[src] > 0) {
+        replaceMerged(sources.get(src));
+      }
+    }
+    merged = false;
+  }
+
+  /**
+   * Replaces the targets of the source by their representatives, dropping duplicates and the source itself. The row is only
+   * rebuilt, in a new array, if one of its targets has been merged.
+   */
+  private void replaceMerged(K source) {
+    final int src = source.getNumber();
+    final int[] row = rows[src];
+    final int size = sizes[src];
+    int i = 0;
+    for (; i < size; i++) {
+      Node rep = targets.get(row[i]).getReplacement();
+      if (rep != targets.get(row[i]) || rep == source) {
+        break;
+      }
+    }
+    if (i == size) {
+      return;
+    }
+    clearRow(src);
+    for (int j = 0; j < size; j++) {
+      Node rep = targets.get(row[j]).getReplacement();
+      if (rep != source) {
+        add(src, rep.getNumber());
+      }
+    }
+  }
+
+  private void clearRow(int src) {
+    if (rows[src] != null) {
+      numSources--;
+    }
+    rows[src] = null;
+    sizes[src] = 0;
+    indexes[src] = null;
+  }
+
+  /** Removes all edges. */
+  public void clear() {
+    rows = new int[64][];
+    sizes = new int[64];
+    indexes = new int[64][];
+    numSources = 0;
+    merged = false;
+  }
+}
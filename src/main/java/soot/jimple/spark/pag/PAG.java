@@ -32,6 +32,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,6 +77,7 @@ import soot.jimple.spark.sets.HybridPointsToSet;
 import soot.jimple.spark.sets.P2SetFactory;
 import soot.jimple.spark.sets.P2SetVisitor;
 import soot.jimple.spark.sets.PointsToSetInternal;
+import soot.jimple.spark.sets.RoaringPointsToSet;
 import soot.jimple.spark.sets.SharedHybridSet;
 import soot.jimple.spark.sets.SharedListSet;
 import soot.jimple.spark.sets.SortedArraySet;
@@ -91,6 +93,7 @@ import soot.jimple.toolkits.callgraph.VirtualEdgesSummaries.VirtualEdgeSource;
 import soot.jimple.toolkits.callgraph.VirtualEdgesSummaries.VirtualEdgeTarget;
 import soot.jimple.toolkits.pointer.util.NativeMethodDriver;
 import soot.options.CGOptions;
+import soot.options.Options;
 import soot.options.SparkOptions;
 import soot.tagkit.LinkTag;
 import soot.tagkit.StringTag;
@@ -120,6 +123,18 @@ public class PAG implements PointsToAnalysis {
       throw new RuntimeException("Incompatible options rta:true and on-fly-cg:true for cg.spark. Use -p cg-"
           + ".spark on-fly-cg:false when using RTA.");
     }
+    if (opts.parallel_pag() && !opts.rta() && !opts.add_tags() && cgOpts.library() == CGOptions.library_disabled) {
+      int numThreads = Options.v().num_threads();
+      if (numThreads < 1) {
+        numThreads = Runtime.getRuntime().availableProcessors();
+      }
+      parallelBuilder = new ParallelMethodPAGBuilder(this, numThreads);
+    }
+    valToLocalVarNode = newNodeMap();
+    valToGlobalVarNode = newNodeMap();
+    valToAllocNode = newNodeMap();
+    localToNodeMap = newNodeMap();
+    newInstToNodeMap = newNodeMap();
     typeManager = new TypeManager(this);
     if (!opts.ignore_types()) {
       typeManager.setFastHierarchy(() -> Scene.v().getOrMakeFastHierarchy());
@@ -148,6 +163,9 @@ public class PAG implements PointsToAnalysis {
       case SparkOptions.set_impl_bit:
         setFactory = BitPointsToSet.getFactory();
         break;
+      case SparkOptions.set_impl_roaring:
+        setFactory = RoaringPointsToSet.getFactory();
+        break;
       case SparkOptions.set_impl_double:
         P2SetFactory oldF;
         P2SetFactory newF;
@@ -170,6 +188,9 @@ public class PAG implements PointsToAnalysis {
           case SparkOptions.double_set_old_bit:
             oldF = BitPointsToSet.getFactory();
             break;
+          case SparkOptions.double_set_old_roaring:
+            oldF = RoaringPointsToSet.getFactory();
+            break;
           default:
             throw new RuntimeException();
         }
@@ -192,6 +213,9 @@ public class PAG implements PointsToAnalysis {
           case SparkOptions.double_set_new_bit:
             newF = BitPointsToSet.getFactory();
             break;
+          case SparkOptions.double_set_new_roaring:
+            newF = RoaringPointsToSet.getFactory();
+            break;
           default:
             throw new RuntimeException();
         }
@@ -280,24 +304,13 @@ public class PAG implements PointsToAnalysis {
     return setFactory;
   }
 
-  private <K extends Node> void lookupInMap(Map<K, Object> map) {
-    for (K object : map.keySet()) {
-      lookup(map, object);
-    }
-  }
-
   public void cleanUpMerges() {
     if (opts.verbose()) {
       logger.debug("Cleaning up graph for merged nodes");
     }
-    lookupInMap(simple);
-    lookupInMap(alloc);
-    lookupInMap(store);
-    lookupInMap(load);
-    lookupInMap(simpleInv);
-    lookupInMap(allocInv);
-    lookupInMap(storeInv);
-    lookupInMap(loadInv);
+    for (NumberedEdgeMap<?, ?> m : edgeMaps()) {
+      m.replaceAllMerged();
+    }
 
     somethingMerged = false;
     if (opts.verbose()) {
@@ -306,19 +319,19 @@ public class PAG implements PointsToAnalysis {
   }
 
   public boolean doAddSimpleEdge(VarNode from, VarNode to) {
-    return addToMap(simple, from, to) | addToMap(simpleInv, to, from);
+    return simple.add(from, to) | simpleInv.add(to, from);
   }
 
   public boolean doAddStoreEdge(VarNode from, FieldRefNode to) {
-    return addToMap(store, from, to) | addToMap(storeInv, to, from);
+    return store.add(from, to) | storeInv.add(to, from);
   }
 
   public boolean doAddLoadEdge(FieldRefNode from, VarNode to) {
-    return addToMap(load, from, to) | addToMap(loadInv, to, from);
+    return load.add(from, to) | loadInv.add(to, from);
   }
 
   public boolean doAddAllocEdge(AllocNode from, VarNode to) {
-    return addToMap(alloc, from, to) | addToMap(allocInv, to, from);
+    return alloc.add(from, to) | allocInv.add(to, from);
   }
 
   public boolean doAddNewInstanceEdge(VarNode from, NewInstanceNode to) {
@@ -340,72 +353,67 @@ public class PAG implements PointsToAnalysis {
       ofcg().mergedWith(n1, n2);
     }
 
-    Map[] maps = { simple, alloc, store, load, simpleInv, allocInv, storeInv, loadInv };
-    for (Map<Node, Object> m : maps) {
-      if (!m.keySet().contains(n2)) {
-        continue;
-      }
-
-      Object[] os = { m.get(n1), m.get(n2) };
-      int size1 = getSize(os[0]);
-      int size2 = getSize(os[1]);
-      if (size1 == 0) {
-        if (os[1] != null) {
-          m.put(n1, os[1]);
-        }
-      } else if (size2 == 0) {
-        // nothing needed
-      } else if (os[0] instanceof HashSet) {
-        if (os[1] instanceof HashSet) {
-          ((HashSet) os[0]).addAll((HashSet) os[1]);
-        } else {
-          Node[] ar = (Node[]) os[1];
-          for (Node element0 : ar) {
-            ((HashSet<Node>) os[0]).add(element0);
-          }
-        }
-      } else if (os[1] instanceof HashSet) {
-        Node[] ar = (Node[]) os[0];
-        for (Node element0 : ar) {
-          ((HashSet<Node>) os[1]).add(element0);
-        }
-        m.put(n1, os[1]);
-      } else if (size1 * size2 < 1000) {
-        Node[] a1 = (Node[]) os[0];
-        Node[] a2 = (Node[]) os[1];
-        Node[] ret = new Node[size1 + size2];
-        System.arraycopy(a1, 0, ret, 0, a1.length);
-        int j = a1.length;
-        outer: for (Node rep : a2) {
-          for (int k = 0; k < j; k++) {
-            if (rep == ret[k]) {
-              continue outer;
-            }
-          }
-          ret[j++] = rep;
-        }
-        Node[] newArray = new Node[j];
-        System.arraycopy(ret, 0, newArray, 0, j);
-        m.put(n1, ret = newArray);
-      } else {
-        HashSet<Node> s = new HashSet<Node>(size1 + size2);
-        for (Object o : os) {
-          if (o == null) {
-            continue;
-          }
-          if (o instanceof Set) {
-            s.addAll((Set<Node>) o);
-          } else {
-            Node[] ar = (Node[]) o;
-            for (Node element1 : ar) {
-              s.add(element1);
-            }
-          }
-        }
-        m.put(n1, s);
-      }
-      m.remove(n2);
+    for (NumberedEdgeMap<?, ?> m : edgeMaps()) {
+      m.markMerged();
     }
+    if (n2 instanceof VarNode) {
+      VarNode v1 = (VarNode) n1;
+      VarNode v2 = (VarNode) n2;
+      simple.mergeSources(v1, v2);
+      store.mergeSources(v1, v2);
+      simpleInv.mergeSources(v1, v2);
+      allocInv.mergeSources(v1, v2);
+      loadInv.mergeSources(v1, v2);
+    } else if (n2 instanceof FieldRefNode) {
+      load.mergeSources((FieldRefNode) n1, (FieldRefNode) n2);
+      storeInv.mergeSources((FieldRefNode) n1, (FieldRefNode) n2);
+    } else if (n2 instanceof AllocNode) {
+      alloc.mergeSources((AllocNode) n1, (AllocNode) n2);
+    }
+  }
+
+  /** Returns the simple edges, keyed by their sources. */
+  public NumberedEdgeMap<VarNode, VarNode> simpleEdges() {
+    return simple;
+  }
+
+  /** Returns the allocation edges, keyed by their sources. */
+  public NumberedEdgeMap<AllocNode, VarNode> allocEdges() {
+    return alloc;
+  }
+
+  /** Returns the store edges, keyed by their sources. */
+  public NumberedEdgeMap<VarNode, FieldRefNode> storeEdges() {
+    return store;
+  }
+
+  /** Returns the load edges, keyed by their sources. */
+  public NumberedEdgeMap<FieldRefNode, VarNode> loadEdges() {
+    return load;
+  }
+
+  /** Returns the simple edges, keyed by their targets. */
+  public NumberedEdgeMap<VarNode, VarNode> simpleInvEdges() {
+    return simpleInv;
+  }
+
+  /** Returns the allocation edges, keyed by their targets. */
+  public NumberedEdgeMap<VarNode, AllocNode> allocInvEdges() {
+    return allocInv;
+  }
+
+  /** Returns the store edges, keyed by their targets. */
+  public NumberedEdgeMap<FieldRefNode, VarNode> storeInvEdges() {
+    return storeInv;
+  }
+
+  /** Returns the load edges, keyed by their targets. */
+  public NumberedEdgeMap<VarNode, FieldRefNode> loadInvEdges() {
+    return loadInv;
+  }
+
+  private NumberedEdgeMap<?, ?>[] edgeMaps() {
+    return new NumberedEdgeMap<?, ?>[] { simple, alloc, store, load, simpleInv, allocInv, storeInv, loadInv };
   }
 
   protected final static Node[] EMPTY_NODE_ARRAY = new Node[0];
@@ -471,23 +479,23 @@ public class PAG implements PointsToAnalysis {
   }
 
   public Node[] simpleLookup(VarNode key) {
-    return lookup(simple, key);
+    return simple.targetArray(key);
   }
 
   public Node[] simpleInvLookup(VarNode key) {
-    return lookup(simpleInv, key);
+    return simpleInv.targetArray(key);
   }
 
   public Node[] loadLookup(FieldRefNode key) {
-    return lookup(load, key);
+    return load.targetArray(key);
   }
 
   public Node[] loadInvLookup(VarNode key) {
-    return lookup(loadInv, key);
+    return loadInv.targetArray(key);
   }
 
   public Node[] storeLookup(VarNode key) {
-    return lookup(store, key);
+    return store.targetArray(key);
   }
 
   public Node[] newInstanceLookup(VarNode key) {
@@ -499,31 +507,31 @@ public class PAG implements PointsToAnalysis {
   }
 
   public Node[] storeInvLookup(FieldRefNode key) {
-    return lookup(storeInv, key);
+    return storeInv.targetArray(key);
   }
 
   public Node[] allocLookup(AllocNode key) {
-    return lookup(alloc, key);
+    return alloc.targetArray(key);
   }
 
   public Node[] allocInvLookup(VarNode key) {
-    return lookup(allocInv, key);
+    return allocInv.targetArray(key);
   }
 
   public Set<VarNode> simpleSources() {
-    return simple.keySet();
+    return simple.sources();
   }
 
   public Set<AllocNode> allocSources() {
-    return alloc.keySet();
+    return alloc.sources();
   }
 
   public Set<VarNode> storeSources() {
-    return store.keySet();
+    return store.sources();
   }
 
   public Set<FieldRefNode> loadSources() {
-    return load.keySet();
+    return load.sources();
   }
 
   public Set<VarNode> newInstanceSources() {
@@ -535,61 +543,51 @@ public class PAG implements PointsToAnalysis {
   }
 
   public Set<VarNode> simpleInvSources() {
-    return simpleInv.keySet();
+    return simpleInv.sources();
   }
 
   public Set<VarNode> allocInvSources() {
-    return allocInv.keySet();
+    return allocInv.sources();
   }
 
   public Set<FieldRefNode> storeInvSources() {
-    return storeInv.keySet();
+    return storeInv.sources();
   }
 
   public Set<VarNode> loadInvSources() {
-    return loadInv.keySet();
+    return loadInv.sources();
   }
 
   public Iterator<VarNode> simpleSourcesIterator() {
-    return simple.keySet().iterator();
+    return simple.sources().iterator();
   }
 
   public Iterator<AllocNode> allocSourcesIterator() {
-    return alloc.keySet().iterator();
+    return alloc.sources().iterator();
   }
 
   public Iterator<VarNode> storeSourcesIterator() {
-    return store.keySet().iterator();
+    return store.sources().iterator();
   }
 
   public Iterator<FieldRefNode> loadSourcesIterator() {
-    return load.keySet().iterator();
+    return load.sources().iterator();
   }
 
   public Iterator<VarNode> simpleInvSourcesIterator() {
-    return simpleInv.keySet().iterator();
+    return simpleInv.sources().iterator();
   }
 
   public Iterator<VarNode> allocInvSourcesIterator() {
-    return allocInv.keySet().iterator();
+    return allocInv.sources().iterator();
   }
 
   public Iterator<FieldRefNode> storeInvSourcesIterator() {
-    return storeInv.keySet().iterator();
+    return storeInv.sources().iterator();
   }
 
   public Iterator<VarNode> loadInvSourcesIterator() {
-    return loadInv.keySet().iterator();
-  }
-
-  static private int getSize(Object set) {
-    if (set instanceof Set) {
-      return ((Set<?>) set).size();
-    } else if (set == null) {
-      return 0;
-    } else {
-      return ((Object[]) set).length;
-    }
+    return loadInv.sources().iterator();
   }
 
   protected P2SetFactory setFactory;
@@ -630,9 +628,13 @@ public class PAG implements PointsToAnalysis {
     if (newExpr instanceof NewExpr) {
       // Do we need to create a new allocation node?
       if (ret == null) {
-        valToAllocNode.put(newExpr, ret = new AllocNode(this, newExpr, type, m));
-        newAllocNodes.add(ret);
-        addNodeTag(ret, m);
+        AllocNode an = new AllocNode(this, newExpr, type, m);
+        ret = valToAllocNode.putIfAbsent(newExpr, an);
+        if (ret == null) {
+          ret = an;
+          announceAllocNode(ret);
+          addNodeTag(ret, m);
+        }
       }
       // For a normal "new" expression, there may only be one type
       else if (!(ret.getType().equals(type))) {
@@ -641,40 +643,60 @@ public class PAG implements PointsToAnalysis {
     }
     // Check for reflective allocation sites
     else {
-      ret = valToReflAllocNode.get(newExpr, type);
-      if (ret == null) {
-        valToReflAllocNode.put(newExpr, type, ret = new AllocNode(this, newExpr, type, m));
-        newAllocNodes.add(ret);
-        addNodeTag(ret, m);
+      synchronized (valToReflAllocNode) {
+        ret = valToReflAllocNode.get(newExpr, type);
+        if (ret == null) {
+          valToReflAllocNode.put(newExpr, type, ret = new AllocNode(this, newExpr, type, m));
+          announceAllocNode(ret);
+          addNodeTag(ret, m);
+        }
       }
     }
-    return ret;
+    return touch(ret, m);
   }
 
   public AllocNode makeStringConstantNode(String s) {
     if (opts.types_for_sites() || opts.vta()) {
       return makeAllocNode(RefType.v("java.lang.String"), RefType.v("java.lang.String"), null);
     }
-    StringConstantNode ret = (StringConstantNode) valToAllocNode.get(s);
+    AllocNode ret = valToAllocNode.get(s);
     if (ret == null) {
-      valToAllocNode.put(s, ret = new StringConstantNode(this, s));
-      newAllocNodes.add(ret);
-      addNodeTag(ret, null);
+      StringConstantNode scn = new StringConstantNode(this, s);
+      ret = valToAllocNode.putIfAbsent(s, scn);
+      if (ret == null) {
+        ret = scn;
+        announceAllocNode(ret);
+        addNodeTag(ret, null);
+      }
     }
-    return ret;
+    return touch(ret, null);
   }
 
   public AllocNode makeClassConstantNode(ClassConstant cc) {
     if (opts.types_for_sites() || opts.vta()) {
       return makeAllocNode(RefType.v("java.lang.Class"), RefType.v("java.lang.Class"), null);
     }
-    ClassConstantNode ret = (ClassConstantNode) valToAllocNode.get(cc);
+    AllocNode ret = valToAllocNode.get(cc);
     if (ret == null) {
-      valToAllocNode.put(cc, ret = new ClassConstantNode(this, cc));
-      newAllocNodes.add(ret);
-      addNodeTag(ret, null);
+      ClassConstantNode ccn = new ClassConstantNode(this, cc);
+      ret = valToAllocNode.putIfAbsent(cc, ccn);
+      if (ret == null) {
+        ret = ccn;
+        announceAllocNode(ret);
+        addNodeTag(ret, null);
+      }
+    }
+    return touch(ret, null);
+  }
+
+  /**
+   * Hands a new allocation node to the listeners. While method PAGs are built in parallel, this is deferred until the node
+   * is numbered.
+   */
+  private void announceAllocNode(AllocNode an) {
+    if (buffer() == null) {
+      newAllocNodes.add(an);
     }
-    return ret;
   }
 
   ChunkedQueue<AllocNode> newAllocNodes = new ChunkedQueue<AllocNode>();
@@ -711,24 +733,28 @@ public class PAG implements PointsToAnalysis {
     }
     GlobalVarNode ret = valToGlobalVarNode.get(value);
     if (ret == null) {
-      valToGlobalVarNode.put(value, ret = new GlobalVarNode(this, value, type));
+      GlobalVarNode gvn = new GlobalVarNode(this, value, type);
+      ret = valToGlobalVarNode.putIfAbsent(value, gvn);
+      if (ret == null) {
+        ret = gvn;
 
-      // if library mode is activated, add allocation of every possible
-      // type to accessible fields
-      if (cgOpts.library() != CGOptions.library_disabled) {
-        if (value instanceof SootField) {
-          SootField sf = (SootField) value;
+        // if library mode is activated, add allocation of every possible
+        // type to accessible fields
+        if (cgOpts.library() != CGOptions.library_disabled) {
+          if (value instanceof SootField) {
+            SootField sf = (SootField) value;
 
-          if (accessibilityOracle.isAccessible(sf)) {
-            type.apply(new SparkLibraryHelper(this, ret, null));
+            if (accessibilityOracle.isAccessible(sf)) {
+              type.apply(new SparkLibraryHelper(this, ret, null));
+            }
           }
         }
+        addNodeTag(ret, null);
       }
-      addNodeTag(ret, null);
     } else if (!(ret.getType().equals(type))) {
       throw new RuntimeException("Value " + value + " of type " + type + " previously had type " + ret.getType());
     }
-    return ret;
+    return touch(ret);
   }
 
   /**
@@ -743,29 +769,40 @@ public class PAG implements PointsToAnalysis {
       Local val = (Local) value;
       LocalVarNode ret = localToNodeMap.get(val);
       if (ret == null) {
-        localToNodeMap.put((Local) value, ret = new LocalVarNode(this, value, type, method));
-        addNodeTag(ret, method);
+        LocalVarNode lvn = new LocalVarNode(this, value, type, method);
+        ret = localToNodeMap.putIfAbsent(val, lvn);
+        if (ret == null) {
+          ret = lvn;
+          addNodeTag(ret, method);
+        }
       } else if (!(ret.getType().equals(type))) {
         throw new RuntimeException("Value " + value + " of type " + type + " previously had type " + ret.getType());
       }
-      return ret;
+      return touch(ret);
     }
     LocalVarNode ret = valToLocalVarNode.get(value);
     if (ret == null) {
-      valToLocalVarNode.put(value, ret = new LocalVarNode(this, value, type, method));
-      addNodeTag(ret, method);
+      LocalVarNode lvn = new LocalVarNode(this, value, type, method);
+      ret = valToLocalVarNode.putIfAbsent(value, lvn);
+      if (ret == null) {
+        ret = lvn;
+        addNodeTag(ret, method);
+      }
     } else if (!(ret.getType().equals(type))) {
       throw new RuntimeException("Value " + value + " of type " + type + " previously had type " + ret.getType());
     }
-    return ret;
+    return touch(ret);
   }
 
   public NewInstanceNode makeNewInstanceNode(Value value, Type type, SootMethod method) {
     NewInstanceNode node = newInstToNodeMap.get(value);
     if (node == null) {
-      node = new NewInstanceNode(this, value, type);
-      newInstToNodeMap.put(value, node);
-      addNodeTag(node, method);
+      NewInstanceNode nin = new NewInstanceNode(this, value, type);
+      node = newInstToNodeMap.putIfAbsent(value, nin);
+      if (node == null) {
+        node = nin;
+        addNodeTag(node, method);
+      }
     }
     return node;
   }
@@ -857,6 +894,16 @@ public class PAG implements PointsToAnalysis {
    * Finds or creates the FieldRefNode for base variable base and field field, of type type.
    */
   public FieldRefNode makeFieldRefNode(VarNode base, SparkField field) {
+    // Global variables are shared by the methods whose PAGs are built in parallel
+    if (buffer() != null) {
+      synchronized (base) {
+        return touch(doMakeFieldRefNode(base, field));
+      }
+    }
+    return touch(doMakeFieldRefNode(base, field));
+  }
+
+  private FieldRefNode doMakeFieldRefNode(VarNode base, SparkField field) {
     FieldRefNode ret = base.dot(field);
     if (ret == null) {
       ret = new FieldRefNode(this, base, field);
@@ -963,6 +1010,11 @@ public class PAG implements PointsToAnalysis {
 
   /** Adds an edge to the graph, returning false if it was already there. */
   public boolean addEdge(Node from, Node to) {
+    ParallelMethodPAGBuilder.Buffer buffer = buffer();
+    if (buffer != null) {
+      buffer.addEdge(from, to);
+      return true;
+    }
     from = from.getReplacement();
     to = to.getReplacement();
     if (from instanceof VarNode) {
@@ -1015,9 +1067,106 @@ public class PAG implements PointsToAnalysis {
    * Adds the base of a dereference to the list of dereferenced variables.
    */
   public void addDereference(VarNode base) {
+    ParallelMethodPAGBuilder.Buffer buffer = buffer();
+    if (buffer != null) {
+      buffer.addDereference(base);
+      return;
+    }
     dereferences.add(base);
   }
 
+  /**
+   * Returns the builder that builds method PAGs in parallel, or null if they are built one after the other.
+   *
+   * @see SparkOptions#parallel_pag()
+   */
+  public ParallelMethodPAGBuilder parallelBuilder() {
+    return parallelBuilder;
+  }
+
+  /**
+   * Returns the buffer of the method whose PAG is built on the current thread, or null if the current thread does not build
+   * a method PAG in parallel.
+   */
+  ParallelMethodPAGBuilder.Buffer buffer() {
+    return parallelBuilder == null ? null : parallelBuilder.currentBuffer();
+  }
+
+  /**
+   * Is the numbering of new nodes deferred to the merge of the method PAG that is built on the current thread?
+   */
+  boolean defersNumbering() {
+    return buffer() != null;
+  }
+
+  /**
+   * Records that the method PAG built on the current thread uses the node, so that it is numbered when that method PAG is
+   * merged. On the calling thread, a node that a method PAG not merged yet has created is numbered right away, as a
+   * sequential build would have created it here.
+   */
+  private <N extends Node> N touch(N n) {
+    if (parallelBuilder != null && n.getNumber() == 0) {
+      ParallelMethodPAGBuilder.Buffer buffer = parallelBuilder.currentBuffer();
+      if (buffer != null) {
+        buffer.touch(n);
+      } else {
+        numberDeferredNode(n, null);
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Records that the method PAG built on the current thread uses the allocation node, which it would have created for the
+   * method m.
+   */
+  private AllocNode touch(AllocNode an, SootMethod m) {
+    if (parallelBuilder != null && an.getNumber() == 0) {
+      ParallelMethodPAGBuilder.Buffer buffer = parallelBuilder.currentBuffer();
+      if (buffer != null) {
+        buffer.touch(an, m);
+      } else {
+        numberDeferredNode(an, m);
+      }
+    }
+    return an;
+  }
+
+  /**
+   * Numbers a node that was created while method PAGs were built in parallel, as its constructor would have done. An
+   * allocation node gets the method m that the first method PAG using it asked for. Global and local variables may be keyed
+   * by allocation nodes, whose hash code is their number; these entries are moved to the new hash code.
+   */
+  void numberDeferredNode(Node n, SootMethod m) {
+    if (n instanceof VarNode) {
+      VarNode vn = (VarNode) n;
+      varNodeNumberer.add(vn);
+      vn.setFinishingNumber(++maxFinishNumber);
+    } else if (n instanceof FieldRefNode) {
+      fieldRefNodeNumberer.add((FieldRefNode) n);
+    } else if (n instanceof AllocNode) {
+      AllocNode an = (AllocNode) n;
+      an.setMethod(m);
+      GlobalVarNode gvn = valToGlobalVarNode.remove(an);
+      LocalVarNode lvn = valToLocalVarNode.remove(an);
+      allocNodeNumberer.add(an);
+      if (gvn != null) {
+        valToGlobalVarNode.put(an, gvn);
+      }
+      if (lvn != null) {
+        valToLocalVarNode.put(an, lvn);
+      }
+      newAllocNodes.add(an);
+    }
+  }
+
+  /**
+   * Creates a map from values to nodes, which must be thread-safe if method PAGs are built in parallel.
+   */
+  private <K, V> Map<K, V> newNodeMap() {
+    return parallelBuilder == null ? new HashMap<K, V>(1000) : new ConcurrentHashMap<K, V>(1000);
+  }
+
   /** Returns list of dereferences variables. */
   public List<VarNode> getDereferences() {
     return dereferences;
@@ -1536,14 +1685,9 @@ public class PAG implements PointsToAnalysis {
    * Delete all the assignment edges.
    */
   public void cleanPAG() {
-    simple.clear();
-    load.clear();
-    store.clear();
-    alloc.clear();
-    simpleInv.clear();
-    loadInv.clear();
-    storeInv.clear();
-    allocInv.clear();
+    for (NumberedEdgeMap<?, ?> m : edgeMaps()) {
+      m.clear();
+    }
   }
 
   /* End of package methods. */
@@ -1552,17 +1696,21 @@ public class PAG implements PointsToAnalysis {
   protected CGOptions cgOpts;
   protected ClientAccessibilityOracle accessibilityOracle = Scene.v().getClientAccessibilityOracle();
 
-  protected Map<VarNode, Object> simple = new HashMap<VarNode, Object>();
-  protected Map<FieldRefNode, Object> load = new HashMap<FieldRefNode, Object>();
-  protected Map<VarNode, Object> store = new HashMap<VarNode, Object>();
-  protected Map<AllocNode, Object> alloc = new HashMap<AllocNode, Object>();
+  protected final NumberedEdgeMap<VarNode, VarNode> simple = new NumberedEdgeMap<>(varNodeNumberer, varNodeNumberer);
+  protected final NumberedEdgeMap<FieldRefNode, VarNode> load
+      = new NumberedEdgeMap<>(fieldRefNodeNumberer, varNodeNumberer);
+  protected final NumberedEdgeMap<VarNode, FieldRefNode> store
+      = new NumberedEdgeMap<>(varNodeNumberer, fieldRefNodeNumberer);
+  protected final NumberedEdgeMap<AllocNode, VarNode> alloc = new NumberedEdgeMap<>(allocNodeNumberer, varNodeNumberer);
   protected Map<VarNode, Object> newInstance = new HashMap<VarNode, Object>();
   protected Map<NewInstanceNode, Object> assignInstance = new HashMap<NewInstanceNode, Object>();
 
-  protected Map<VarNode, Object> simpleInv = new HashMap<VarNode, Object>();
-  protected Map<VarNode, Object> loadInv = new HashMap<VarNode, Object>();
-  protected Map<FieldRefNode, Object> storeInv = new HashMap<FieldRefNode, Object>();
-  protected Map<VarNode, Object> allocInv = new HashMap<VarNode, Object>();
+  protected final NumberedEdgeMap<VarNode, VarNode> simpleInv = new NumberedEdgeMap<>(varNodeNumberer, varNodeNumberer);
+  protected final NumberedEdgeMap<VarNode, FieldRefNode> loadInv
+      = new NumberedEdgeMap<>(varNodeNumberer, fieldRefNodeNumberer);
+  protected final NumberedEdgeMap<FieldRefNode, VarNode> storeInv
+      = new NumberedEdgeMap<>(fieldRefNodeNumberer, varNodeNumberer);
+  protected final NumberedEdgeMap<VarNode, AllocNode> allocInv = new NumberedEdgeMap<>(varNodeNumberer, allocNodeNumberer);
   protected Map<NewInstanceNode, Object> newInstanceInv = new HashMap<NewInstanceNode, Object>();
   protected Map<VarNode, Object> assignInstanceInv = new HashMap<VarNode, Object>();
 
@@ -1585,15 +1733,16 @@ public class PAG implements PointsToAnalysis {
 
   private boolean runGeomPTA = false;
   protected MultiMap<Pair<Node, Node>, Edge> assign2edges = new HashMultiMap<>();
-  private final Map<Object, LocalVarNode> valToLocalVarNode = new HashMap<>(1000);
-  private final Map<Object, GlobalVarNode> valToGlobalVarNode = new HashMap<>(1000);
-  private final Map<Object, AllocNode> valToAllocNode = new HashMap<>(1000);
+  private final Map<Object, LocalVarNode> valToLocalVarNode;
+  private final Map<Object, GlobalVarNode> valToGlobalVarNode;
+  private final Map<Object, AllocNode> valToAllocNode;
   private final Table<Object, Type, AllocNode> valToReflAllocNode = HashBasedTable.create();
   private OnFlyCallGraph ofcg;
   private final ArrayList<VarNode> dereferences = new ArrayList<VarNode>();
   protected TypeManager typeManager;
-  protected Map<Local, LocalVarNode> localToNodeMap = new HashMap<>();
-  private final Map<Value, NewInstanceNode> newInstToNodeMap = new HashMap<>();
+  protected Map<Local, LocalVarNode> localToNodeMap;
+  private final Map<Value, NewInstanceNode> newInstToNodeMap;
+  private ParallelMethodPAGBuilder parallelBuilder;
   public int maxFinishNumber = 0;
   private Map<Node, Tag> nodeToTag;
   private final GlobalNodeFactory nodeFactory = new GlobalNodeFactory(this);
@@ -0,0 +1,248 @@
+package soot.jimple.spark.pag;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.EntryPoints;
+import soot.SootMethod;
+
+/**
+ * Builds the PAGs of several methods on several threads. Every method PAG is built into a buffer: its nodes are created but
+ * not numbered, and the edges and dereferences that it adds to the PAG directly are kept in the buffer. The buffers are then
+ * merged into the PAG on the calling thread in the order of the methods. A node is numbered when the first method PAG that
+ * uses it is merged, so the numbers are the same as if the methods had been built one after the other, whatever the
+ * scheduling of the threads.
+ *
+ * The bodies of the methods are retrieved and native methods are simulated on the calling thread.
+ *
+ * @see soot.options.SparkOptions#parallel_pag()
+ */
+public class ParallelMethodPAGBuilder {
+  private static final Logger logger = LoggerFactory.getLogger(ParallelMethodPAGBuilder.class);
+
+  // Smaller batches of methods are built on the calling thread
+  private static final int MIN_PARALLEL_METHODS = 16;
+
+  /**
+   * Receives the method PAGs in the order of the methods, once they have been merged into the PAG.
+   */
+  public interface MergeListener {
+    /**
+     * Called when the PAG of the method at the given index has been merged into the PAG.
+     *
+     * @param error
+     *          the exception thrown while building the method PAG, or null
+     */
+    void merged(int index, MethodPAG mpag, Exception error);
+  }
+
+  /**
+   * The nodes that a method PAG uses, in the order of their first use, and the edges and dereferences that it adds to the PAG
+   * directly.
+   */
+  static class Buffer {
+    private final List<Node> nodes = new ArrayList<Node>();
+    private final Map<AllocNode, SootMethod> allocMethods = new IdentityHashMap<AllocNode, SootMethod>();
+    private final List<Node> edges = new ArrayList<Node>();
+    private final List<VarNode> dereferences = new ArrayList<VarNode>();
+
+    void touch(Node n) {
+      if (n.getNumber() == 0) {
+        nodes.add(n);
+      }
+    }
+
+    void touch(AllocNode an, SootMethod m) {
+      if (an.getNumber() == 0 && !allocMethods.containsKey(an)) {
+        allocMethods.put(an, m);
+        nodes.add(an);
+      }
+    }
+
+    void addEdge(Node from, Node to) {
+      edges.add(from);
+      edges.add(to);
+    }
+
+    void addDereference(VarNode base) {
+      dereferences.add(base);
+    }
+  }
+
+  protected final PAG pag;
+  protected final int numThreads;
+
+  // The buffer of the method PAG that is built on the current thread
+  private final ThreadLocal<Buffer> current = new ThreadLocal<Buffer>();
+
+  public ParallelMethodPAGBuilder(PAG pag, int numThreads) {
+    this.pag = pag;
+    this.numThreads = numThreads;
+  }
+
+  Buffer currentBuffer() {
+    return current.get();
+  }
+
+  /**
+   * Builds the PAGs of the given methods, and merges them into the PAG in the order of the list. The listener is called after
+   * each method PAG has been merged, and before the next one is merged.
+   */
+  public void build(List<SootMethod> methods, MergeListener listener) {
+    final int n = methods.size();
+    if (numThreads < 2 || n < MIN_PARALLEL_METHODS) {
+      for (int i = 0; i < n; i++) {
+        MethodPAG mpag = MethodPAG.v(pag, methods.get(i));
+        Exception error = null;
+        try {
+          mpag.build();
+        } catch (Exception e) {
+          error = e;
+        }
+        listener.merged(i, mpag, error);
+      }
+      return;
+    }
+
+    final MethodPAG[] mpags = new MethodPAG[n];
+    final Buffer[] buffers = new Buffer[n];
+    final Exception[] errors = new Exception[n];
+    final boolean[] onCallingThread = new boolean[n];
+
+    // Creating a method PAG already makes the nodes of the parameters, so they go into the buffer of the method
+    Set<MethodPAG> scheduled = Collections.newSetFromMap(new IdentityHashMap<MethodPAG, Boolean>());
+    List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < n; i++) {
+      final SootMethod m = methods.get(i);
+      final Buffer buffer = buffers[i] = new Buffer();
+      current.set(buffer);
+      try {
+        mpags[i] = MethodPAG.v(pag, m);
+      } finally {
+        current.remove();
+      }
+      final MethodPAG mpag = mpags[i];
+      if (mpag.hasBeenBuilt || !scheduled.add(mpag)) {
+        continue;
+      }
+      if (m.isNative() || !m.isConcrete() || m.isPhantom()) {
+        onCallingThread[i] = true;
+        continue;
+      }
+      try {
+        m.retrieveActiveBody();
+      } catch (Exception e) {
+        // Building the method PAG on the calling thread reports the same exception
+        onCallingThread[i] = true;
+        continue;
+      }
+      final int index = i;
+      tasks.add(new Callable<Void>() {
+        @Override
+        public Void call() {
+          current.set(buffer);
+          try {
+            mpag.build();
+          } catch (Exception e) {
+            errors[index] = e;
+          } finally {
+            current.remove();
+          }
+          return null;
+        }
+      });
+    }
+
+    // The entry points are created lazily, and every method PAG reads them
+    EntryPoints.v().implicit();
+
+    long begin = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(numThreads, Math.max(tasks.size(), 1)));
+    try {
+      for (Future<Void> f : executor.invokeAll(tasks)) {
+        f.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("[Spark] Interrupted while building method PAGs", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    } finally {
+      executor.shutdown();
+    }
+    if (pag.getOpts().verbose()) {
+      logger.debug(String.format("[Spark] Built %d method PAGs on %d threads in %.2f s", tasks.size(), numThreads,
+          (System.nanoTime() - begin) / 1e9));
+    }
+
+    for (int i = 0; i < n; i++) {
+      merge(buffers[i]);
+      if (onCallingThread[i]) {
+        try {
+          mpags[i].build();
+        } catch (Exception e) {
+          errors[i] = e;
+        }
+      }
+      listener.merged(i, mpags[i], errors[i]);
+    }
+  }
+
+  /**
+   * Numbers the new nodes of a method PAG and adds its edges and dereferences to the PAG.
+   */
+  private void merge(Buffer buffer) {
+    for (Node n : buffer.nodes) {
+      if (n.getNumber() == 0) {
+        pag.numberDeferredNode(n, buffer.allocMethods.get(n));
+      }
+    }
+    for (int i = 0; i < buffer.edges.size(); i += 2) {
+      pag.addEdge(buffer.edges.get(i), buffer.edges.get(i + 1));
+    }
+    for (VarNode base : buffer.dereferences) {
+      pag.addDereference(base);
+    }
+  }
+}
@@ -42,7 +42,7 @@ public class Parm implements SparkField {
     method = m;
   }
 
-  public static Parm v(SootMethod m, int index) {
+  public static synchronized Parm v(SootMethod m, int index) {
     Pair<SootMethod, Integer> p = new Pair<SootMethod, Integer>(m, new Integer(index));
     Parm ret = (Parm) G.v().Parm_pairToElement.get(p);
     if (ret == null) {
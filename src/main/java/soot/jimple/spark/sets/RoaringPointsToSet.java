@@ -0,0 +1,463 @@
+package soot.jimple.spark.sets;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import soot.PointsToSet;
+import soot.Type;
+import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.PAG;
+import soot.util.BitVector;
+
+/**
+ * Compressed implementation of points-to set in the style of roaring bitmaps. The numbers of the nodes are split into
+ * chunks of 2^16 by their upper 16 bits, and each non-empty chunk is stored in a container that holds the lower 16 bits:
+ * a sorted <code>char[]</code> for chunks with up to 4096 nodes, and a 1024-word <code>long[]</code> bitmap for larger
+ * ones. Unlike {@link BitPointsToSet} and {@link HybridPointsToSet}, the memory used by a large set does not depend on the
+ * total number of allocation nodes, and unions of two sets work container by container.
+ */
+public final class RoaringPointsToSet extends PointsToSetInternal {
+
+  /** The largest number of nodes that is kept in an array container. */
+  private static final int ARRAY_LIMIT = 4096;
+  private static final int BITMAP_WORDS = 1024;
+
+  private static final char[] NO_KEYS = new char[0];
+  private static final char[][] NO_ARRAYS = new char[0][];
+  private static final long[][] NO_BITMAPS = new long[0][];
+  private static final int[] NO_CARDINALITIES = new int[0];
+
+  public RoaringPointsToSet(Type type, PAG pag) {
+    super(type);
+    this.pag = pag;
+  }
+
+  /** Returns true if this set contains no run-time objects. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Adds contents of other into this set, returns true if this set changed.
+   */
+  public boolean addAll(PointsToSetInternal other, PointsToSetInternal exclude) {
+    if ((other != null && !(other instanceof RoaringPointsToSet))
+        || (exclude != null && !(exclude instanceof RoaringPointsToSet))) {
+      return super.addAll(other, exclude);
+    }
+    if (other == null || other == this) {
+      return false;
+    }
+    return nativeAddAll((RoaringPointsToSet) other, (RoaringPointsToSet) exclude);
+  }
+
+  /** Calls v's visit method on all nodes in this set. */
+  public boolean forall(P2SetVisitor v) {
+    for (int i = 0; i < numContainers; i++) {
+      final int base = keys[i] << 16;
+      final long[] bits = bitmaps[i];
+      if (bits == null) {
+        final char[] lows = arrays[i];
+        for (int j = 0, card = cardinalities[i]; j < card; j++) {
+          v.visit(pag.getAllocNodeNumberer().get(base | lows[j]));
+        }
+      } else {
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+          for (long word = bits[w]; word != 0; word &= word - 1) {
+            v.visit(pag.getAllocNodeNumberer().get(base | (w << 6) | Long.numberOfTrailingZeros(word)));
+          }
+        }
+      }
+    }
+    return v.getReturnValue();
+  }
+
+  /** Adds n to this set, returns true if n was not already in this set. */
+  public boolean add(Node n) {
+    if (pag.getTypeManager().castNeverFails(n.getType(), type)) {
+      return fastAdd(n.getNumber());
+    }
+    return false;
+  }
+
+  /** Returns true iff the set contains n. */
+  public boolean contains(Node n) {
+    final int number = n.getNumber();
+    final int i = findContainer((char) (number >>> 16));
+    return i >= 0 && containsLow(i, (char) number);
+  }
+
+  /** Returns true if this set shares some objects with other. */
+  public boolean hasNonEmptyIntersection(PointsToSet other) {
+    if (!(other instanceof RoaringPointsToSet)) {
+      return super.hasNonEmptyIntersection(other);
+    }
+    final RoaringPointsToSet o = (RoaringPointsToSet) other;
+    for (int i = 0; i < numContainers; i++) {
+      final int j = o.findContainer(keys[i]);
+      if (j < 0) {
+        continue;
+      }
+      if (bitmaps[i] != null && o.bitmaps[j] != null) {
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+          if ((bitmaps[i][w] & o.bitmaps[j][w]) != 0) {
+            return true;
+          }
+        }
+      } else if (bitmaps[i] == null) {
+        for (int k = 0, card = cardinalities[i]; k < card; k++) {
+          if (o.containsLow(j, arrays[i][k])) {
+            return true;
+          }
+        }
+      } else {
+        for (int k = 0, card = o.cardinalities[j]; k < card; k++) {
+          if (containsLow(i, o.arrays[j][k])) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  public static P2SetFactory getFactory() {
+    return new P2SetFactory() {
+      public PointsToSetInternal newSet(Type type, PAG pag) {
+        return new RoaringPointsToSet(type, pag);
+      }
+    };
+  }
+
+  /* End of public methods. */
+  /* End of package methods. */
+
+  private boolean nativeAddAll(RoaringPointsToSet other, RoaringPointsToSet exclude) {
+    final BitVector mask = getBitMask(other, pag);
+    boolean ret = false;
+    for (int i = 0; i < other.numContainers; i++) {
+      final char key = other.keys[i];
+      final int base = key << 16;
+      final int e = (exclude == null ? -1 : exclude.findContainer(key));
+      if (other.bitmaps[i] != null) {
+        long[] bits = other.bitmaps[i];
+        if (mask != null || e >= 0) {
+          bits = filter(bits, base, exclude, e, mask);
+        }
+        ret = orBitmap(key, bits) | ret;
+      } else {
+        char[] lows = other.arrays[i];
+        int card = other.cardinalities[i];
+        if (mask != null || e >= 0) {
+          final char[] filtered = new char[card];
+          int n = 0;
+          for (int j = 0; j < card; j++) {
+            final char low = lows[j];
+            if ((e < 0 || !exclude.containsLow(e, low)) && (mask == null || mask.get(base | low))) {
+              filtered[n++] = low;
+            }
+          }
+          lows = filtered;
+          card = n;
+        }
+        ret = orArray(key, lows, card) | ret;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Returns a copy of the given bitmap container that only keeps the nodes that are not in the container e of exclude and
+   * that are in mask.
+   */
+  private static long[] filter(long[] bits, int base, RoaringPointsToSet exclude, int e, BitVector mask) {
+    final long[] ret = new long[BITMAP_WORDS];
+    final long[] ebits = (e < 0 ? null : exclude.bitmaps[e]);
+    final int maskOffset = base >>> 6;
+    for (int w = 0; w < BITMAP_WORDS; w++) {
+      long word = bits[w];
+      if (ebits != null) {
+        word &= ~ebits[w];
+      }
+      if (mask != null && word != 0) {
+        word &= mask.getWord(maskOffset + w);
+      }
+      ret[w] = word;
+    }
+    if (e >= 0 && ebits == null) {
+      final char[] elows = exclude.arrays[e];
+      for (int j = 0, card = exclude.cardinalities[e]; j < card; j++) {
+        ret[elows[j] >>> 6] &= ~(1L << elows[j]);
+      }
+    }
+    return ret;
+  }
+
+  /** Adds the lower bits in the given bitmap to the container with the given key. */
+  private boolean orBitmap(char key, long[] bits) {
+    int i = findContainer(key);
+    if (i < 0) {
+      final int card = cardinality(bits);
+      if (card == 0) {
+        return false;
+      }
+      i = insertContainer(-i - 1, key);
+      if (card > ARRAY_LIMIT) {
+        bitmaps[i] = Arrays.copyOf(bits, BITMAP_WORDS);
+      } else {
+        arrays[i] = toArray(bits, card);
+      }
+      cardinalities[i] = card;
+      size += card;
+      return true;
+    }
+    int added = 0;
+    if (bitmaps[i] != null) {
+      final long[] mine = bitmaps[i];
+      for (int w = 0; w < BITMAP_WORDS; w++) {
+        final long word = bits[w] & ~mine[w];
+        if (word != 0) {
+          mine[w] |= word;
+          added += Long.bitCount(word);
+        }
+      }
+    } else {
+      final char[] lows = arrays[i];
+      final int card = cardinalities[i];
+      final int bitsCard = cardinality(bits);
+      added = bitsCard;
+      for (int j = 0; j < card; j++) {
+        if ((bits[lows[j] >>> 6] & (1L << lows[j])) != 0) {
+          added--;
+        }
+      }
+      if (added == 0) {
+        return false;
+      }
+      if (card + added > ARRAY_LIMIT) {
+        final long[] mine = toBitmap(lows, card);
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+          mine[w] |= bits[w];
+        }
+        bitmaps[i] = mine;
+        arrays[i] = null;
+      } else {
+        final char[] merged = new char[card + added];
+        union(lows, card, toArray(bits, bitsCard), bitsCard, merged);
+        arrays[i] = merged;
+      }
+    }
+    cardinalities[i] += added;
+    size += added;
+    return added > 0;
+  }
+
+  /** Adds the first n sorted lower bits in the given array to the container with the given key. */
+  private boolean orArray(char key, char[] lows, int n) {
+    if (n == 0) {
+      return false;
+    }
+    int i = findContainer(key);
+    if (i < 0) {
+      i = insertContainer(-i - 1, key);
+      arrays[i] = Arrays.copyOf(lows, n);
+      cardinalities[i] = n;
+      size += n;
+      return true;
+    }
+    int added = 0;
+    if (bitmaps[i] != null) {
+      final long[] mine = bitmaps[i];
+      for (int j = 0; j < n; j++) {
+        final long bit = 1L << lows[j];
+        if ((mine[lows[j] >>> 6] & bit) == 0) {
+          mine[lows[j] >>> 6] |= bit;
+          added++;
+        }
+      }
+    } else {
+      final char[] mine = arrays[i];
+      final int card = cardinalities[i];
+      final char[] merged = new char[card + n];
+      final int mergedCard = union(mine, card, lows, n, merged);
+      added = mergedCard - card;
+      if (added == 0) {
+        return false;
+      }
+      if (mergedCard > ARRAY_LIMIT) {
+        bitmaps[i] = toBitmap(merged, mergedCard);
+        arrays[i] = null;
+      } else {
+        arrays[i] = merged;
+      }
+    }
+    cardinalities[i] += added;
+    size += added;
+    return added > 0;
+  }
+
+  /**
+   * Merges the first na elements of a and the first nb elements of b, which are both sorted, into ret and returns the
+   * number of distinct elements.
+   */
+  private static int union(char[] a, int na, char[] b, int nb, char[] ret) {
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < na && j < nb) {
+      if (a[i] < b[j]) {
+        ret[k++] = a[i++];
+      } else if (a[i] > b[j]) {
+        ret[k++] = b[j++];
+      } else {
+        ret[k++] = a[i++];
+        j++;
+      }
+    }
+    while (i < na) {
+      ret[k++] = a[i++];
+    }
+    while (j < nb) {
+      ret[k++] = b[j++];
+    }
+    return k;
+  }
+
+  private boolean fastAdd(int number) {
+    final char key = (char) (number >>> 16);
+    final char low = (char) number;
+    int i = findContainer(key);
+    if (i < 0) {
+      i = insertContainer(-i - 1, key);
+      arrays[i] = new char[4];
+    }
+    if (bitmaps[i] != null) {
+      final long[] bits = bitmaps[i];
+      final long bit = 1L << low;
+      if ((bits[low >>> 6] & bit) != 0) {
+        return false;
+      }
+      bits[low >>> 6] |= bit;
+    } else {
+      char[] lows = arrays[i];
+      final int card = cardinalities[i];
+      int pos = Arrays.binarySearch(lows, 0, card, low);
+      if (pos >= 0) {
+        return false;
+      }
+      pos = -pos - 1;
+      if (card >= ARRAY_LIMIT) {
+        final long[] bits = toBitmap(lows, card);
+        bits[low >>> 6] |= 1L << low;
+        bitmaps[i] = bits;
+        arrays[i] = null;
+      } else {
+        if (card == lows.length) {
+          lows = arrays[i] = Arrays.copyOf(lows, Math.min(ARRAY_LIMIT, Math.max(4, card * 2)));
+        }
+        System.arraycopy(lows, pos, lows, pos + 1, card - pos);
+        lows[pos] = low;
+      }
+    }
+    cardinalities[i]++;
+    size++;
+    return true;
+  }
+
+  private boolean containsLow(int i, char low) {
+    if (bitmaps[i] != null) {
+      return (bitmaps[i][low >>> 6] & (1L << low)) != 0;
+    }
+    return Arrays.binarySearch(arrays[i], 0, cardinalities[i], low) >= 0;
+  }
+
+  private int findContainer(char key) {
+    return Arrays.binarySearch(keys, 0, numContainers, key);
+  }
+
+  /** Inserts an empty container for key at position pos and returns pos. */
+  private int insertContainer(int pos, char key) {
+    if (numContainers == keys.length) {
+      final int capacity = Math.max(1, numContainers * 2);
+      keys = Arrays.copyOf(keys, capacity);
+      arrays = Arrays.copyOf(arrays, capacity);
+      bitmaps = Arrays.copyOf(bitmaps, capacity);
+      cardinalities = Arrays.copyOf(cardinalities, capacity);
+    }
+    final int moved = numContainers - pos;
+    System.arraycopy(keys, pos, keys, pos + 1, moved);
+    System.arraycopy(arrays, pos, arrays, pos + 1, moved);
+    System.arraycopy(bitmaps, pos, bitmaps, pos + 1, moved);
+    System.arraycopy(cardinalities, pos, cardinalities, pos + 1, moved);
+    keys[pos] = key;
+    arrays[pos] = null;
+    bitmaps[pos] = null;
+    cardinalities[pos] = 0;
+    numContainers++;
+    return pos;
+  }
+
+  private static int cardinality(long[] bits) {
+    int ret = 0;
+    for (long word : bits) {
+      ret += Long.bitCount(word);
+    }
+    return ret;
+  }
+
+  private static char[] toArray(long[] bits, int card) {
+    final char[] ret = new char[card];
+    int k = 0;
+    for (int w = 0; w < BITMAP_WORDS; w++) {
+      for (long word = bits[w]; word != 0; word &= word - 1) {
+        ret[k++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+      }
+    }
+    return ret;
+  }
+
+  private static long[] toBitmap(char[] lows, int card) {
+    final long[] ret = new long[BITMAP_WORDS];
+    for (int j = 0; j < card; j++) {
+      ret[lows[j] >>> 6] |= 1L << lows[j];
+    }
+    return ret;
+  }
+
+  private final PAG pag;
+  /** The upper 16 bits of the node numbers in each container, in ascending order. */
+  private char[] keys = NO_KEYS;
+  /** The sorted lower 16 bits of each array container, or null for bitmap containers. */
+  private char[][] arrays = NO_ARRAYS;
+  /** The lower 16 bits of each bitmap container, or null for array containers. */
+  private long[][] bitmaps = NO_BITMAPS;
+  private int[] cardinalities = NO_CARDINALITIES;
+  private int numContainers = 0;
+  private int size = 0;
+}
@@ -25,10 +25,14 @@ import org.slf4j.LoggerFactory;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.List;
+
 import soot.Context;
 import soot.Local;
 import soot.MethodOrMethodContext;
 import soot.Scene;
+import soot.SootMethod;
 import soot.Type;
 import soot.jimple.IntConstant;
 import soot.jimple.NewArrayExpr;
@@ -38,6 +42,7 @@ import soot.jimple.spark.pag.ArrayElement;
 import soot.jimple.spark.pag.MethodPAG;
 import soot.jimple.spark.pag.Node;
 import soot.jimple.spark.pag.PAG;
+import soot.jimple.spark.pag.ParallelMethodPAGBuilder;
 import soot.jimple.spark.pag.StringConstantNode;
 import soot.jimple.spark.pag.VarNode;
 import soot.jimple.spark.sets.P2SetVisitor;
@@ -109,36 +114,62 @@ public class OnFlyCallGraph {
 
   private void processReachables() {
     reachableMethods.update();
-    while (reachablesReader.hasNext()) {
-      MethodOrMethodContext m = reachablesReader.next();
-      if (m == null) {
-        continue;
-      }
+    ParallelMethodPAGBuilder parallelBuilder = pag.parallelBuilder();
+    if (parallelBuilder != null) {
+      processReachablesInParallel(parallelBuilder);
+      return;
+    }
+    final List<MethodOrMethodContext> batch = new ArrayList<MethodOrMethodContext>();
+    reachablesReader.drainTo(batch);
+    for (MethodOrMethodContext m : batch) {
       MethodPAG mpag = MethodPAG.v(pag, m.method());
       try {
         mpag.build();
       } catch (Exception e) {
-        String msg = String.format("An error occurred while processing %s in callgraph", mpag.getMethod());
-        if (Options.v().allow_cg_errors()) {
-          logger.error(msg, e);
-        } else {
-          throw new RuntimeException(msg, e);
-        }
+        handleBuildError(mpag, e);
       }
       mpag.addToPAG(m.context());
     }
   }
 
+  /**
+   * Builds the PAGs of the new reachable methods in parallel, and adds them to the PAG in the order in which the methods
+   * became reachable.
+   */
+  private void processReachablesInParallel(ParallelMethodPAGBuilder parallelBuilder) {
+    final List<MethodOrMethodContext> batch = new ArrayList<MethodOrMethodContext>();
+    final List<SootMethod> methods = new ArrayList<SootMethod>();
+    reachablesReader.drainTo(batch);
+    for (MethodOrMethodContext m : batch) {
+      methods.add(m.method());
+    }
+    parallelBuilder.build(methods, (i, mpag, error) -> {
+      if (error != null) {
+        handleBuildError(mpag, error);
+      }
+      mpag.addToPAG(batch.get(i).context());
+    });
+  }
+
+  private void handleBuildError(MethodPAG mpag, Exception e) {
+    String msg = String.format("An error occurred while processing %s in callgraph", mpag.getMethod());
+    if (Options.v().allow_cg_errors()) {
+      logger.error(msg, e);
+    } else {
+      throw new RuntimeException(msg, e);
+    }
+  }
+
   private void processCallEdges() {
-    while (callEdges.hasNext()) {
-      Edge e = callEdges.next();
-      if (e == null) {
-        continue;
+    final List<Edge> edges = new ArrayList<Edge>();
+    while (callEdges.drainTo(edges) > 0) {
+      for (Edge e : edges) {
+        MethodPAG amp = MethodPAG.v(pag, e.tgt());
+        amp.build();
+        amp.addToPAG(e.tgtCtxt());
+        pag.addCallTarget(e);
       }
-      MethodPAG amp = MethodPAG.v(pag, e.tgt());
-      amp.build();
-      amp.addToPAG(e.tgtCtxt());
-      pag.addCallTarget(e);
+      edges.clear();
     }
   }
 
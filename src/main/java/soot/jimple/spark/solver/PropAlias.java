@@ -40,6 +40,7 @@ import soot.jimple.spark.pag.ClassConstantNode;
 import soot.jimple.spark.pag.FieldRefNode;
 import soot.jimple.spark.pag.NewInstanceNode;
 import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.NumberedEdgeMap;
 import soot.jimple.spark.pag.PAG;
 import soot.jimple.spark.pag.SparkField;
 import soot.jimple.spark.pag.VarNode;
@@ -135,9 +136,11 @@ public class PropAlias extends Propagator {
         if (set.isEmpty()) {
           continue;
         }
-        Node[] targets = pag.loadLookup(src);
-        for (Node element0 : targets) {
-          VarNode target = (VarNode) element0;
+        final NumberedEdgeMap<FieldRefNode, VarNode> loadEdges = pag.loadEdges();
+        final int numTargets = loadEdges.targetCount(src);
+        final int[] targets = loadEdges.targetNumbers(src);
+        for (int i = 0; i < numTargets; i++) {
+          VarNode target = loadEdges.target(targets[i]);
           if (target.makeP2Set().addAll(set, null)) {
             addToWorklist(target);
           }
@@ -156,10 +159,13 @@ public class PropAlias extends Propagator {
    */
   protected boolean handleAllocNode(AllocNode src) {
     boolean ret = false;
-    Node[] targets = pag.allocLookup(src);
-    for (Node element : targets) {
+    final NumberedEdgeMap<AllocNode, VarNode> edges = pag.allocEdges();
+    final int n = edges.targetCount(src);
+    final int[] targets = edges.targetNumbers(src);
+    for (int i = 0; i < n; i++) {
+      VarNode element = edges.target(targets[i]);
       if (element.makeP2Set().add(src)) {
-        addToWorklist((VarNode) element);
+        addToWorklist(element);
         ret = true;
       }
     }
@@ -253,17 +259,22 @@ public class PropAlias extends Propagator {
       }
     }
 
-    Node[] simpleTargets = pag.simpleLookup(src);
-    for (Node element : simpleTargets) {
+    final NumberedEdgeMap<VarNode, VarNode> simpleEdges = pag.simpleEdges();
+    final int numSimpleTargets = simpleEdges.targetCount(src);
+    final int[] simpleTargets = simpleEdges.targetNumbers(src);
+    for (int i = 0; i < numSimpleTargets; i++) {
+      VarNode element = simpleEdges.target(simpleTargets[i]);
       if (element.makeP2Set().addAll(newP2Set, null)) {
-        addToWorklist((VarNode) element);
+        addToWorklist(element);
         ret = true;
       }
     }
 
-    Node[] storeTargets = pag.storeLookup(src);
-    for (Node element : storeTargets) {
-      final FieldRefNode fr = (FieldRefNode) element;
+    final NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
+    final int numStoreTargets = storeEdges.targetCount(src);
+    final int[] storeTargets = storeEdges.targetNumbers(src);
+    for (int i = 0; i < numStoreTargets; i++) {
+      final FieldRefNode fr = storeEdges.target(storeTargets[i]);
       if (fr.makeP2Set().addAll(newP2Set, null)) {
         fieldRefWorkList.add(fr);
         ret = true;
@@ -35,6 +35,7 @@ import soot.jimple.spark.pag.AllocDotField;
 import soot.jimple.spark.pag.AllocNode;
 import soot.jimple.spark.pag.FieldRefNode;
 import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.NumberedEdgeMap;
 import soot.jimple.spark.pag.PAG;
 import soot.jimple.spark.pag.VarNode;
 import soot.jimple.spark.sets.P2SetVisitor;
@@ -81,11 +82,13 @@ public class PropCycle extends Propagator {
       if (verbose) {
         logger.debug("Processing stores");
       }
+      final NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
       for (Object object : pag.storeSources()) {
         final VarNode src = (VarNode) object;
-        Node[] targets = pag.storeLookup(src);
-        for (Node element0 : targets) {
-          final FieldRefNode target = (FieldRefNode) element0;
+        final int numTargets = storeEdges.targetCount(src);
+        final int[] targets = storeEdges.targetNumbers(src);
+        for (int i = 0; i < numTargets; i++) {
+          final FieldRefNode target = storeEdges.target(targets[i]);
           changed = target.getBase().makeP2Set().forall(new P2SetVisitor() {
             public final void visit(Node n) {
               AllocDotField nDotF = pag.makeAllocDotField((AllocNode) n, target.getField());
@@ -131,23 +134,29 @@ public class PropCycle extends Propagator {
 
     path.add(v);
     if (v.getP2Set().isEmpty()) {
-      Node[] srcs = pag.allocInvLookup(v);
-      for (Node element : srcs) {
-        ret = v.makeP2Set().add(element) | ret;
+      final NumberedEdgeMap<VarNode, AllocNode> edges = pag.allocInvEdges();
+      final int n = edges.targetCount(v);
+      final int[] srcs = edges.targetNumbers(v);
+      for (int i = 0; i < n; i++) {
+        ret = v.makeP2Set().add(edges.target(srcs[i])) | ret;
       }
     }
     {
-      Node[] srcs = pag.simpleInvLookup(v);
-      for (Node element : srcs) {
-        VarNode src = (VarNode) element;
+      final NumberedEdgeMap<VarNode, VarNode> edges = pag.simpleInvEdges();
+      final int n = edges.targetCount(v);
+      final int[] srcs = edges.targetNumbers(v);
+      for (int i = 0; i < n; i++) {
+        VarNode src = edges.target(srcs[i]);
         ret = computeP2Set(src, path) | ret;
         ret = v.makeP2Set().addAll(src.getP2Set(), null) | ret;
       }
     }
     {
-      Node[] srcs = pag.loadInvLookup(v);
-      for (Node element : srcs) {
-        final FieldRefNode src = (FieldRefNode) element;
+      final NumberedEdgeMap<VarNode, FieldRefNode> edges = pag.loadInvEdges();
+      final int n = edges.targetCount(v);
+      final int[] srcs = edges.targetNumbers(v);
+      for (int i = 0; i < n; i++) {
+        final FieldRefNode src = edges.target(srcs[i]);
         ret = src.getBase().getP2Set().forall(new P2SetVisitor() {
           public final void visit(Node n) {
             AllocNode an = (AllocNode) n;
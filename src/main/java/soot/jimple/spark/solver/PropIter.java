@@ -37,6 +37,7 @@ import soot.jimple.spark.pag.ClassConstantNode;
 import soot.jimple.spark.pag.FieldRefNode;
 import soot.jimple.spark.pag.NewInstanceNode;
 import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.NumberedEdgeMap;
 import soot.jimple.spark.pag.PAG;
 import soot.jimple.spark.pag.SparkField;
 import soot.jimple.spark.pag.VarNode;
@@ -119,9 +120,11 @@ public class PropIter extends Propagator {
    */
   protected boolean handleAllocNode(AllocNode src) {
     boolean ret = false;
-    Node[] targets = pag.allocLookup(src);
-    for (Node element : targets) {
-      ret = element.makeP2Set().add(src) | ret;
+    final NumberedEdgeMap<AllocNode, VarNode> edges = pag.allocEdges();
+    final int n = edges.targetCount(src);
+    final int[] targets = edges.targetNumbers(src);
+    for (int i = 0; i < n; i++) {
+      ret = edges.target(targets[i]).makeP2Set().add(src) | ret;
     }
     return ret;
   }
@@ -132,9 +135,11 @@ public class PropIter extends Propagator {
     if (srcSet.isEmpty()) {
       return false;
     }
-    Node[] simpleTargets = pag.simpleLookup(src);
-    for (Node element : simpleTargets) {
-      ret = element.makeP2Set().addAll(srcSet, null) | ret;
+    final NumberedEdgeMap<VarNode, VarNode> simpleEdges = pag.simpleEdges();
+    final int numSimpleTargets = simpleEdges.targetCount(src);
+    final int[] simpleTargets = simpleEdges.targetNumbers(src);
+    for (int i = 0; i < numSimpleTargets; i++) {
+      ret = simpleEdges.target(simpleTargets[i]).makeP2Set().addAll(srcSet, null) | ret;
     }
 
     Node[] newInstances = pag.newInstanceLookup(src);
@@ -151,9 +156,11 @@ public class PropIter extends Propagator {
     if (srcSet.isEmpty()) {
       return false;
     }
-    Node[] storeTargets = pag.storeLookup(src);
-    for (Node element : storeTargets) {
-      final FieldRefNode fr = (FieldRefNode) element;
+    final NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
+    final int numStoreTargets = storeEdges.targetCount(src);
+    final int[] storeTargets = storeEdges.targetNumbers(src);
+    for (int i = 0; i < numStoreTargets; i++) {
+      final FieldRefNode fr = storeEdges.target(storeTargets[i]);
       final SparkField f = fr.getField();
       ret = fr.getBase().getP2Set().forall(new P2SetVisitor() {
         public final void visit(Node n) {
@@ -169,7 +176,9 @@ public class PropIter extends Propagator {
 
   protected boolean handleLoads(FieldRefNode src) {
     boolean ret = false;
-    final Node[] loadTargets = pag.loadLookup(src);
+    final NumberedEdgeMap<FieldRefNode, VarNode> loadEdges = pag.loadEdges();
+    final int numLoadTargets = loadEdges.targetCount(src);
+    final int[] loadTargets = loadEdges.targetNumbers(src);
     final SparkField f = src.getField();
     ret = src.getBase().getP2Set().forall(new P2SetVisitor() {
       public final void visit(Node n) {
@@ -181,8 +190,8 @@ public class PropIter extends Propagator {
         if (set.isEmpty()) {
           return;
         }
-        for (Node element : loadTargets) {
-          VarNode target = (VarNode) element;
+        for (int i = 0; i < numLoadTargets; i++) {
+          VarNode target = loadEdges.target(loadTargets[i]);
           if (target.makeP2Set().addAll(set, null)) {
             returnValue = true;
           }
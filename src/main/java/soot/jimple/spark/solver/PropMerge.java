@@ -32,6 +32,7 @@ import soot.jimple.spark.pag.AllocDotField;
 import soot.jimple.spark.pag.AllocNode;
 import soot.jimple.spark.pag.FieldRefNode;
 import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.NumberedEdgeMap;
 import soot.jimple.spark.pag.PAG;
 import soot.jimple.spark.pag.SparkField;
 import soot.jimple.spark.pag.VarNode;
@@ -81,22 +82,26 @@ public class PropMerge extends Propagator {
       if (verbose) {
         logger.debug("Now handling field references");
       }
+      final NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
       for (Object object : pag.storeSources()) {
         final VarNode src = (VarNode) object;
-        Node[] storeTargets = pag.storeLookup(src);
-        for (Node element0 : storeTargets) {
-          final FieldRefNode fr = (FieldRefNode) element0;
+        final int numStoreTargets = storeEdges.targetCount(src);
+        final int[] storeTargets = storeEdges.targetNumbers(src);
+        for (int i = 0; i < numStoreTargets; i++) {
+          final FieldRefNode fr = storeEdges.target(storeTargets[i]);
           fr.makeP2Set().addAll(src.getP2Set(), null);
         }
       }
+      final NumberedEdgeMap<FieldRefNode, VarNode> loadEdges = pag.loadEdges();
       for (Object object : pag.loadSources()) {
         final FieldRefNode src = (FieldRefNode) object;
         if (src != src.getReplacement()) {
           throw new RuntimeException("shouldn't happen");
         }
-        Node[] targets = pag.loadLookup(src);
-        for (Node element0 : targets) {
-          VarNode target = (VarNode) element0;
+        final int numTargets = loadEdges.targetCount(src);
+        final int[] targets = loadEdges.targetNumbers(src);
+        for (int i = 0; i < numTargets; i++) {
+          VarNode target = loadEdges.target(targets[i]);
           if (target.makeP2Set().addAll(src.getP2Set(), null)) {
             varNodeWorkList.add(target);
           }
@@ -113,8 +118,11 @@ public class PropMerge extends Propagator {
    */
   protected boolean handleAllocNode(AllocNode src) {
     boolean ret = false;
-    Node[] targets = pag.allocLookup(src);
-    for (Node element : targets) {
+    final NumberedEdgeMap<AllocNode, VarNode> edges = pag.allocEdges();
+    final int n = edges.targetCount(src);
+    final int[] targets = edges.targetNumbers(src);
+    for (int i = 0; i < n; i++) {
+      VarNode element = edges.target(targets[i]);
       if (element.makeP2Set().add(src)) {
         varNodeWorkList.add(element);
         ret = true;
@@ -141,17 +149,22 @@ public class PropMerge extends Propagator {
       return false;
     }
 
-    Node[] simpleTargets = pag.simpleLookup(src);
-    for (Node element : simpleTargets) {
+    final NumberedEdgeMap<VarNode, VarNode> simpleEdges = pag.simpleEdges();
+    final int numSimpleTargets = simpleEdges.targetCount(src);
+    final int[] simpleTargets = simpleEdges.targetNumbers(src);
+    for (int i = 0; i < numSimpleTargets; i++) {
+      VarNode element = simpleEdges.target(simpleTargets[i]);
       if (element.makeP2Set().addAll(newP2Set, null)) {
         varNodeWorkList.add(element);
         ret = true;
       }
     }
 
-    Node[] storeTargets = pag.storeLookup(src);
-    for (Node element : storeTargets) {
-      final FieldRefNode fr = (FieldRefNode) element;
+    final NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
+    final int numStoreTargets = storeEdges.targetCount(src);
+    final int[] storeTargets = storeEdges.targetNumbers(src);
+    for (int i = 0; i < numStoreTargets; i++) {
+      final FieldRefNode fr = storeEdges.target(storeTargets[i]);
       if (fr.makeP2Set().addAll(newP2Set, null)) {
         ret = true;
       }
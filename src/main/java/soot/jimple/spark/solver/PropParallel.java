@@ -0,0 +1,529 @@
+package soot.jimple.spark.solver;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.Type;
+import soot.jimple.spark.pag.AllocDotField;
+import soot.jimple.spark.pag.AllocNode;
+import soot.jimple.spark.pag.ClassConstantNode;
+import soot.jimple.spark.pag.FieldRefNode;
+import soot.jimple.spark.pag.NewInstanceNode;
+import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.NumberedEdgeMap;
+import soot.jimple.spark.pag.PAG;
+import soot.jimple.spark.pag.SparkField;
+import soot.jimple.spark.pag.VarNode;
+import soot.jimple.spark.sets.P2SetVisitor;
+import soot.jimple.spark.sets.PointsToSetInternal;
+import soot.options.Options;
+import soot.options.SparkOptions;
+import soot.util.queue.QueueReader;
+
+/**
+ * Propagates points-to sets along pointer assignment graph using a worklist that is processed by several threads. It
+ * computes the same fixed point as {@link PropWorklist}.
+ *
+ * <p>
+ * The worklist is processed in rounds. At the start of each round, the on-the-fly call graph is updated with the new
+ * points-to information of all nodes in the worklist, and the new part of each of their points-to sets is taken out as a
+ * private snapshot. The snapshots are then propagated in parallel. A union locks the node whose set it modifies, and the
+ * node whose set it reads if that set may be modified concurrently. Two locks are always taken in the same global order.
+ * Everything that modifies the call graph, the edges of the pointer assignment graph, or creates new allocation nodes runs
+ * on the calling thread between the parallel phases. The edges are therefore read without locking while the workers run,
+ * and a field node is created under the lock of its base object only.
+ */
+public class PropParallel extends Propagator {
+  private static final Logger logger = LoggerFactory.getLogger(PropParallel.class);
+
+  /** The smallest number of work items handed to a single task. */
+  private static final int MIN_CHUNK_SIZE = 64;
+
+  protected final Set<VarNode> varNodeWorkList = ConcurrentHashMap.newKeySet();
+  protected final PAG pag;
+  protected final int numThreads;
+  protected OnFlyCallGraph ofcg;
+  private ForkJoinPool pool;
+  private boolean ignoreErrors;
+
+  public PropParallel(PAG pag) {
+    this(pag, Options.v().num_threads());
+  }
+
+  /**
+   * @param numThreads
+   *          the number of threads to use, or a number smaller than one to use one thread per available processor
+   */
+  public PropParallel(PAG pag, int numThreads) {
+    this.pag = pag;
+    if (numThreads < 1) {
+      numThreads = Runtime.getRuntime().availableProcessors();
+    }
+    if (numThreads > 1 && usesSharedSets(pag.getOpts())) {
+      logger.warn("The selected points-to set implementation shares state between sets; propagating on one thread");
+      numThreads = 1;
+    }
+    this.numThreads = numThreads;
+  }
+
+  /** Actually does the propagation. */
+  @Override
+  public void propagate() {
+    ofcg = pag.getOnFlyCallGraph();
+    // Lookups rewrite the edges of merged nodes, which must not happen while the workers read them
+    pag.cleanUpMerges();
+    new TopoSorter(pag, false).sort();
+    ignoreErrors = Options.v().allow_cg_errors();
+    pool = new ForkJoinPool(numThreads);
+    try {
+      for (AllocNode object : pag.allocSources()) {
+        try {
+          handleAllocNode(object);
+        } catch (RuntimeException e) {
+          handleError(e);
+        }
+      }
+
+      boolean verbose = pag.getOpts().verbose();
+      do {
+        while (!varNodeWorkList.isEmpty()) {
+          if (verbose) {
+            logger.debug("Worklist has " + varNodeWorkList.size() + " nodes.");
+          }
+          propagateRound();
+        }
+        if (verbose) {
+          logger.debug("Now handling field references");
+        }
+        propagateStores();
+        propagateLoads();
+      } while (!varNodeWorkList.isEmpty());
+    } finally {
+      pool.shutdown();
+      pool = null;
+    }
+  }
+
+  /* End of public methods. */
+  /* End of package methods. */
+
+  /**
+   * Returns true if the points-to sets selected by the given options share mutable state with each other.
+   */
+  private static boolean usesSharedSets(SparkOptions opts) {
+    switch (opts.set_impl()) {
+      case SparkOptions.set_impl_heintze:
+      case SparkOptions.set_impl_sharedlist:
+        return true;
+      case SparkOptions.set_impl_double:
+        return opts.double_set_old() == SparkOptions.double_set_old_heintze
+            || opts.double_set_old() == SparkOptions.double_set_old_sharedlist
+            || opts.double_set_new() == SparkOptions.double_set_new_heintze
+            || opts.double_set_new() == SparkOptions.double_set_new_sharedlist;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Propagates new points-to information of node src to all its successors.
+   */
+  protected boolean handleAllocNode(AllocNode src) {
+    boolean ret = false;
+    final NumberedEdgeMap<AllocNode, VarNode> edges = pag.allocEdges();
+    final int n = edges.targetCount(src);
+    final int[] targets = edges.targetNumbers(src);
+    for (int i = 0; i < n; i++) {
+      VarNode element = edges.target(targets[i]);
+      if (element.makeP2Set().add(src)) {
+        varNodeWorkList.add(element);
+        ret = true;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Processes all nodes that are currently in the worklist.
+   */
+  private void propagateRound() {
+    // Keeps the order of PropWorklist for the sequential parts
+    final TreeSet<VarNode> batch = new TreeSet<VarNode>(varNodeWorkList);
+    varNodeWorkList.removeAll(batch);
+    for (VarNode src : batch) {
+      if (src.getReplacement() != src) {
+        throw new RuntimeException("Got bad node " + src + " with rep " + src.getReplacement());
+      }
+    }
+
+    if (ofcg != null) {
+      updateCallGraph(batch);
+    }
+    // The points-to sets only read the type masks while they are modified concurrently
+    pag.getTypeManager().updateTypeMasks();
+
+    // Everything that is added from now on is propagated in a later round
+    final List<VarNode> nodes = new ArrayList<VarNode>(batch.size());
+    final List<PointsToSetInternal> newSets = new ArrayList<PointsToSetInternal>(batch.size());
+    for (VarNode src : batch) {
+      PointsToSetInternal p2set = src.getP2Set();
+      PointsToSetInternal newP2Set = p2set.getNewSet();
+      if (newP2Set.isEmpty()) {
+        continue;
+      }
+      if (newP2Set == p2set) {
+        // The set does not track new elements separately, so it must be copied
+        newP2Set = pag.getSetFactory().newSet(src.getType(), pag);
+        newP2Set.addAll(p2set, null);
+      }
+      nodes.add(src);
+      newSets.add(newP2Set);
+      p2set.flushNew();
+    }
+
+    final List<Integer> indices = new ArrayList<Integer>(nodes.size());
+    for (int i = 0; i < nodes.size(); i++) {
+      indices.add(i);
+    }
+    forEachParallel(indices, i -> handleVarNode(nodes.get(i), newSets.get(i)));
+  }
+
+  /**
+   * Informs the on-the-fly call graph about the new points-to information of the given nodes, and propagates along the
+   * edges that this adds to the pointer assignment graph.
+   */
+  private void updateCallGraph(Iterable<VarNode> batch) {
+    final QueueReader<Node> addedEdges = pag.edgeReader();
+    for (VarNode src : batch) {
+      if (!src.getP2Set().getNewSet().isEmpty()) {
+        try {
+          ofcg.updatedNode(src);
+        } catch (RuntimeException e) {
+          handleError(e);
+        }
+      }
+    }
+    ofcg.build();
+
+    while (addedEdges.hasNext()) {
+      Node addedSrc = addedEdges.next();
+      Node addedTgt = addedEdges.next();
+      if (addedSrc instanceof VarNode) {
+        VarNode edgeSrc = (VarNode) addedSrc.getReplacement();
+        if (addedTgt instanceof VarNode) {
+          VarNode edgeTgt = (VarNode) addedTgt.getReplacement();
+          if (edgeTgt.makeP2Set().addAll(edgeSrc.getP2Set(), null)) {
+            varNodeWorkList.add(edgeTgt);
+          }
+        } else if (addedTgt instanceof NewInstanceNode) {
+          NewInstanceNode edgeTgt = (NewInstanceNode) addedTgt.getReplacement();
+          if (edgeTgt.makeP2Set().addAll(edgeSrc.getP2Set(), null)) {
+            for (Node element : pag.assignInstanceLookup(edgeTgt)) {
+              varNodeWorkList.add((VarNode) element);
+            }
+          }
+        }
+      } else if (addedSrc instanceof AllocNode) {
+        VarNode edgeTgt = (VarNode) addedTgt.getReplacement();
+        if (edgeTgt.makeP2Set().add(addedSrc)) {
+          varNodeWorkList.add(edgeTgt);
+        }
+      } else if (addedSrc instanceof NewInstanceNode && addedTgt instanceof VarNode) {
+        final NewInstanceNode edgeSrc = (NewInstanceNode) addedSrc.getReplacement();
+        final VarNode edgeTgt = (VarNode) addedTgt.getReplacement();
+        addedSrc.getP2Set().forall(new P2SetVisitor() {
+
+          @Override
+          public void visit(Node n) {
+            if (n instanceof ClassConstantNode) {
+              ClassConstantNode ccn = (ClassConstantNode) n;
+              Type ccnType = ccn.getClassConstant().toSootType();
+
+              // If the referenced class has not been loaded, we do this now
+              SootClass targetClass = ((RefType) ccnType).getSootClass();
+              if (targetClass.resolvingLevel() == SootClass.DANGLING) {
+                Scene.v().forceResolve(targetClass.getName(), SootClass.SIGNATURES);
+              }
+
+              // We can only create alloc nodes for types that we know
+              edgeTgt.makeP2Set().add(pag.makeAllocNode(edgeSrc.getValue(), ccnType, ccn.getMethod()));
+              varNodeWorkList.add(edgeTgt);
+            }
+          }
+        });
+        edgeTgt.makeP2Set().add(addedSrc);
+      }
+    }
+  }
+
+  /**
+   * Propagates the new points-to information newP2Set of node src to all its successors.
+   */
+  protected void handleVarNode(final VarNode src, final PointsToSetInternal newP2Set) {
+    final NumberedEdgeMap<VarNode, VarNode> simpleEdges = pag.simpleEdges();
+    final int numSimpleTargets = simpleEdges.targetCount(src);
+    final int[] simpleTargets = simpleEdges.targetNumbers(src);
+    for (int i = 0; i < numSimpleTargets; i++) {
+      VarNode element = simpleEdges.target(simpleTargets[i]);
+      if (union(element, newP2Set)) {
+        varNodeWorkList.add(element);
+      }
+    }
+
+    final NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
+    final int numStoreTargets = storeEdges.targetCount(src);
+    final int[] storeTargets = storeEdges.targetNumbers(src);
+    for (int i = 0; i < numStoreTargets; i++) {
+      final FieldRefNode fr = storeEdges.target(storeTargets[i]);
+      for (AllocNode n : allocNodes(fr.getBase())) {
+        union(makeAllocDotField(n, fr.getField()), newP2Set);
+      }
+    }
+
+    final NumberedEdgeMap<FieldRefNode, VarNode> storeInvEdges = pag.storeInvEdges();
+    final NumberedEdgeMap<FieldRefNode, VarNode> loadEdges = pag.loadEdges();
+    for (final FieldRefNode fr : src.getAllFieldRefs()) {
+      final int numStoreSources = storeInvEdges.targetCount(fr);
+      final int[] storeSources = storeInvEdges.targetNumbers(fr);
+      final int numLoadTargets = loadEdges.targetCount(fr);
+      final int[] loadTargets = loadEdges.targetNumbers(fr);
+      if (numStoreSources == 0 && numLoadTargets == 0) {
+        continue;
+      }
+      final SparkField field = fr.getField();
+      for (AllocNode n : allocNodes(newP2Set)) {
+        Node nDotF = makeAllocDotField(n, field).getReplacement();
+        for (int i = 0; i < numStoreSources; i++) {
+          union(nDotF, storeInvEdges.target(storeSources[i]));
+        }
+        for (int i = 0; i < numLoadTargets; i++) {
+          VarNode element = loadEdges.target(loadTargets[i]);
+          if (union(element, nDotF)) {
+            varNodeWorkList.add(element);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Propagates the points-to sets of all store sources into the fields of the objects their bases point to.
+   */
+  private void propagateStores() {
+    final boolean reportArrayStores = ofcg != null;
+    final Queue<Object[]> arrayStores = new ConcurrentLinkedQueue<Object[]>();
+    final NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
+    forEachParallel(new ArrayList<VarNode>(pag.storeSources()), src -> {
+      final int numTargets = storeEdges.targetCount(src);
+      final int[] targets = storeEdges.targetNumbers(src);
+      for (int i = 0; i < numTargets; i++) {
+        final FieldRefNode target = storeEdges.target(targets[i]);
+        for (AllocNode n : allocNodes(target.getBase())) {
+          AllocDotField nDotF = makeAllocDotField(n, target.getField());
+          if (reportArrayStores) {
+            arrayStores.add(new Object[] { nDotF, src });
+          }
+          union(nDotF, src);
+        }
+      }
+    });
+    for (Object[] pair : arrayStores) {
+      ofcg.updatedFieldRef((AllocDotField) pair[0], ((VarNode) pair[1]).getP2Set());
+    }
+  }
+
+  /**
+   * Propagates the new points-to information of all fields of objects into the load targets. Only the targets are modified
+   * here, so the fields can be read without locking.
+   */
+  private void propagateLoads() {
+    final Set<AllocDotField> nodesToFlush = ConcurrentHashMap.newKeySet();
+    final NumberedEdgeMap<FieldRefNode, VarNode> loadEdges = pag.loadEdges();
+    forEachParallel(new ArrayList<FieldRefNode>(pag.loadSources()), src -> {
+      final int numLoadTargets = loadEdges.targetCount(src);
+      if (numLoadTargets == 0) {
+        return;
+      }
+      final int[] loadTargets = loadEdges.targetNumbers(src);
+      for (AllocNode n : allocNodes(src.getBase())) {
+        AllocDotField nDotF = makeAllocDotField(n, src.getField());
+        PointsToSetInternal newP2Set = nDotF.getP2Set().getNewSet();
+        if (!newP2Set.isEmpty()) {
+          for (int i = 0; i < numLoadTargets; i++) {
+            VarNode element = loadEdges.target(loadTargets[i]);
+            if (union(element, newP2Set)) {
+              varNodeWorkList.add(element);
+            }
+          }
+          nodesToFlush.add(nDotF);
+        }
+      }
+    });
+    for (AllocDotField nDotF : nodesToFlush) {
+      nDotF.getP2Set().flushNew();
+    }
+  }
+
+  /**
+   * Adds the given set, which is not modified concurrently, to the points-to set of target.
+   */
+  private static boolean union(Node target, PointsToSetInternal set) {
+    synchronized (target) {
+      return target.makeP2Set().addAll(set, null);
+    }
+  }
+
+  /**
+   * Adds the points-to set of source to the points-to set of target.
+   */
+  private static boolean union(Node target, Node source) {
+    if (target == source) {
+      return false;
+    }
+    final boolean targetFirst = lockOrder(target, source) < 0;
+    synchronized (targetFirst ? target : source) {
+      synchronized (targetFirst ? source : target) {
+        return target.makeP2Set().addAll(source.getP2Set(), null);
+      }
+    }
+  }
+
+  /**
+   * Orders the nodes whose sets are modified concurrently, i.e., variable nodes before field nodes, each by number.
+   */
+  private static int lockOrder(Node a, Node b) {
+    int kindA = a instanceof VarNode ? 0 : 1;
+    int kindB = b instanceof VarNode ? 0 : 1;
+    if (kindA != kindB) {
+      return kindA - kindB;
+    }
+    return Integer.compare(a.getNumber(), b.getNumber());
+  }
+
+  /**
+   * Returns the allocation nodes in the points-to set of the given node.
+   */
+  private static List<AllocNode> allocNodes(Node node) {
+    synchronized (node) {
+      return allocNodes(node.getP2Set());
+    }
+  }
+
+  private static List<AllocNode> allocNodes(PointsToSetInternal set) {
+    final List<AllocNode> ret = new ArrayList<AllocNode>();
+    set.forall(new P2SetVisitor() {
+      @Override
+      public void visit(Node n) {
+        ret.add((AllocNode) n);
+      }
+    });
+    return ret;
+  }
+
+  /**
+   * Finds or creates the field node of the given object. The fields of an object are guarded by the object, and only the
+   * rare creation of a new field node, which numbers it in the {@link PAG}, takes the lock of the graph.
+   */
+  private AllocDotField makeAllocDotField(AllocNode n, SparkField field) {
+    synchronized (n) {
+      AllocDotField ret = n.dot(field);
+      if (ret == null) {
+        synchronized (pag) {
+          ret = pag.makeAllocDotField(n, field);
+        }
+      }
+      return ret;
+    }
+  }
+
+  private <T> void forEachParallel(List<T> items, Consumer<T> action) {
+    if (items.isEmpty()) {
+      return;
+    }
+    final int chunkSize = Math.max(MIN_CHUNK_SIZE, (items.size() + 4 * numThreads - 1) / (4 * numThreads));
+    if (items.size() <= chunkSize) {
+      forEach(items, action);
+      return;
+    }
+    final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+    for (int start = 0; start < items.size(); start += chunkSize) {
+      final List<T> chunk = items.subList(start, Math.min(items.size(), start + chunkSize));
+      tasks.add(() -> {
+        forEach(chunk, action);
+        return null;
+      });
+    }
+    try {
+      for (Future<Void> f : pool.invokeAll(tasks)) {
+        f.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+  }
+
+  private <T> void forEach(List<T> items, Consumer<T> action) {
+    for (T item : items) {
+      try {
+        action.accept(item);
+      } catch (RuntimeException e) {
+        handleError(e);
+      }
+    }
+  }
+
+  private void handleError(RuntimeException e) {
+    if (ignoreErrors) {
+      logger.error("An error occurred during SPARK parallel propagation; continuing", e);
+    } else {
+      throw e;
+    }
+  }
+}
@@ -40,6 +40,7 @@ import soot.jimple.spark.pag.AllocNode;
 import soot.jimple.spark.pag.ClassConstantNode;
 import soot.jimple.spark.pag.FieldRefNode;
 import soot.jimple.spark.pag.NewInstanceNode;
+import soot.jimple.spark.pag.NumberedEdgeMap;
 import soot.jimple.spark.pag.Node;
 import soot.jimple.spark.pag.PAG;
 import soot.jimple.spark.pag.SparkField;
@@ -101,10 +102,12 @@ public class PropWorklist extends Propagator {
       if (verbose) {
         logger.debug("Now handling field references");
       }
+      final NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
       for (VarNode src : pag.storeSources()) {
-        Node[] targets = pag.storeLookup(src);
-        for (Node element0 : targets) {
-          final FieldRefNode target = (FieldRefNode) element0;
+        final int numTargets = storeEdges.targetCount(src);
+        final int[] targets = storeEdges.targetNumbers(src);
+        for (int i = 0; i < numTargets; i++) {
+          final FieldRefNode target = storeEdges.target(targets[i]);
           target.getBase().makeP2Set().forall(new P2SetVisitor() {
             public final void visit(Node n) {
               AllocDotField nDotF = pag.makeAllocDotField((AllocNode) n, target.getField());
@@ -152,10 +155,13 @@ public class PropWorklist extends Propagator {
    */
   protected boolean handleAllocNode(AllocNode src) {
     boolean ret = false;
-    Node[] targets = pag.allocLookup(src);
-    for (Node element : targets) {
+    final NumberedEdgeMap<AllocNode, VarNode> edges = pag.allocEdges();
+    final int n = edges.targetCount(src);
+    final int[] targets = edges.targetNumbers(src);
+    for (int i = 0; i < n; i++) {
+      VarNode element = edges.target(targets[i]);
       if (element.makeP2Set().add(src)) {
-        varNodeWorkList.add((VarNode) element);
+        varNodeWorkList.add(element);
         ret = true;
       }
     }
@@ -252,10 +258,13 @@ public class PropWorklist extends Propagator {
       }
     }
 
-    Node[] simpleTargets = pag.simpleLookup(src);
-    for (Node element : simpleTargets) {
+    final NumberedEdgeMap<VarNode, VarNode> simpleEdges = pag.simpleEdges();
+    final int numSimpleTargets = simpleEdges.targetCount(src);
+    final int[] simpleTargets = simpleEdges.targetNumbers(src);
+    for (int i = 0; i < numSimpleTargets; i++) {
+      VarNode element = simpleEdges.target(simpleTargets[i]);
       if (element.makeP2Set().addAll(newP2Set, null)) {
-        varNodeWorkList.add((VarNode) element);
+        varNodeWorkList.add(element);
         if (element == src) {
           flush = false;
         }
@@ -263,9 +272,11 @@ public class PropWorklist extends Propagator {
       }
     }
 
-    Node[] storeTargets = pag.storeLookup(src);
-    for (Node element : storeTargets) {
-      final FieldRefNode fr = (FieldRefNode) element;
+    final NumberedEdgeMap<VarNode, FieldRefNode> storeEdges = pag.storeEdges();
+    final int numStoreTargets = storeEdges.targetCount(src);
+    final int[] storeTargets = storeEdges.targetNumbers(src);
+    for (int i = 0; i < numStoreTargets; i++) {
+      final FieldRefNode fr = storeEdges.target(storeTargets[i]);
       final SparkField f = fr.getField();
       ret = fr.getBase().getP2Set().forall(new P2SetVisitor() {
         public final void visit(Node n) {
@@ -279,29 +290,33 @@ public class PropWorklist extends Propagator {
 
     final HashSet<Node[]> storesToPropagate = new HashSet<Node[]>();
     final HashSet<Node[]> loadsToPropagate = new HashSet<Node[]>();
+    final NumberedEdgeMap<FieldRefNode, VarNode> storeInvEdges = pag.storeInvEdges();
+    final NumberedEdgeMap<FieldRefNode, VarNode> loadEdges = pag.loadEdges();
     for (final FieldRefNode fr : src.getAllFieldRefs()) {
       final SparkField field = fr.getField();
-      final Node[] storeSources = pag.storeInvLookup(fr);
-      if (storeSources.length > 0) {
+      final int numStoreSources = storeInvEdges.targetCount(fr);
+      final int[] storeSources = storeInvEdges.targetNumbers(fr);
+      if (numStoreSources > 0) {
         newP2Set.forall(new P2SetVisitor() {
           public final void visit(Node n) {
             AllocDotField nDotF = pag.makeAllocDotField((AllocNode) n, field);
-            for (Node element : storeSources) {
-              Node[] pair = { element, nDotF.getReplacement() };
+            for (int i = 0; i < numStoreSources; i++) {
+              Node[] pair = { storeInvEdges.target(storeSources[i]), nDotF.getReplacement() };
               storesToPropagate.add(pair);
             }
           }
         });
       }
 
-      final Node[] loadTargets = pag.loadLookup(fr);
-      if (loadTargets.length > 0) {
+      final int numLoadTargets = loadEdges.targetCount(fr);
+      final int[] loadTargets = loadEdges.targetNumbers(fr);
+      if (numLoadTargets > 0) {
         newP2Set.forall(new P2SetVisitor() {
           public final void visit(Node n) {
             AllocDotField nDotF = pag.makeAllocDotField((AllocNode) n, field);
             if (nDotF != null) {
-              for (Node element : loadTargets) {
-                Node[] pair = { nDotF.getReplacement(), element };
+              for (int i = 0; i < numLoadTargets; i++) {
+                Node[] pair = { nDotF.getReplacement(), loadEdges.target(loadTargets[i]) };
                 loadsToPropagate.add(pair);
               }
             }
@@ -334,10 +349,12 @@ public class PropWorklist extends Propagator {
    * Propagates new points-to information of node src to all its successors.
    */
   protected final void handleFieldRefNode(FieldRefNode src, final HashSet<Object[]> edgesToPropagate) {
-    final Node[] loadTargets = pag.loadLookup(src);
-    if (loadTargets.length == 0) {
+    final NumberedEdgeMap<FieldRefNode, VarNode> loadEdges = pag.loadEdges();
+    final int numLoadTargets = loadEdges.targetCount(src);
+    if (numLoadTargets == 0) {
       return;
     }
+    final int[] loadTargets = loadEdges.targetNumbers(src);
     final SparkField field = src.getField();
 
     src.getBase().getP2Set().forall(new P2SetVisitor() {
@@ -347,8 +364,8 @@ public class PropWorklist extends Propagator {
         if (nDotF != null) {
           PointsToSetInternal p2Set = nDotF.getP2Set();
           if (!p2Set.getNewSet().isEmpty()) {
-            for (Node element : loadTargets) {
-              Object[] pair = { p2Set, element };
+            for (int i = 0; i < numLoadTargets; i++) {
+              Object[] pair = { p2Set, loadEdges.target(loadTargets[i]) };
               edgesToPropagate.add(pair);
             }
           }
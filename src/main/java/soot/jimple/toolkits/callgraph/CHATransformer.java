@@ -27,6 +27,7 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import soot.FastHierarchy;
 import soot.G;
 import soot.Scene;
 import soot.SceneTransformer;
@@ -54,6 +55,8 @@ public class CHATransformer extends SceneTransformer {
     cg.build();
     if (options.verbose()) {
       logger.debug("Number of reachable methods: " + Scene.v().getReachableMethods().size());
+      FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+      logger.debug("Dispatch cache hits: " + fh.getDispatchCacheHits() + ", misses: " + fh.getDispatchCacheMisses());
     }
   }
 }
@@ -1,7 +1,6 @@
 package soot.jimple.toolkits.callgraph;
 
 import java.util.Collection;
-import java.util.HashSet;
 
 /*-
  * #%L
@@ -25,9 +24,11 @@ import java.util.HashSet;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -37,7 +38,7 @@ import soot.MethodOrMethodContext;
 import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.Stmt;
-import soot.util.queue.ChunkedQueue;
+import soot.util.queue.ConcurrentChunkedQueue;
 import soot.util.queue.QueueReader;
 
 /**
@@ -48,8 +49,8 @@ import soot.util.queue.QueueReader;
  */
 public class CallGraph implements Iterable<Edge> {
   protected Set<Edge> edges = new LinkedHashSet<Edge>();
-  protected ChunkedQueue<Edge> stream = new ChunkedQueue<Edge>();
-  protected QueueReader<Edge> reader = stream.reader();
+  // Listeners read the edges added before them from the edge set, so the stream only keeps the chunks they have not read
+  protected ConcurrentChunkedQueue<Edge> stream = new ConcurrentChunkedQueue<Edge>();
   protected Map<MethodOrMethodContext, Edge> srcMethodToEdge = new LinkedHashMap<MethodOrMethodContext, Edge>();
   protected Map<Unit, Edge> srcUnitToEdge = new LinkedHashMap<Unit, Edge>();
   protected Map<MethodOrMethodContext, Edge> tgtToEdge = new LinkedHashMap<MethodOrMethodContext, Edge>();
@@ -64,7 +65,14 @@ public class CallGraph implements Iterable<Edge> {
     }
 
     stream.add(e);
+    linkEdge(e);
+    return true;
+  }
 
+  /**
+   * Inserts the given edge into the lists of edges by source unit, by source method, and by target method.
+   */
+  protected void linkEdge(Edge e) {
     Edge position = srcUnitToEdge.get(e.srcUnit());
     if (position == null) {
       srcUnitToEdge.put(e.srcUnit(), e);
@@ -85,7 +93,6 @@ public class CallGraph implements Iterable<Edge> {
       position = dummy;
     }
     e.insertAfterByTgt(position);
-    return true;
   }
 
   /**
@@ -96,21 +103,14 @@ public class CallGraph implements Iterable<Edge> {
    * @return True if at least one edge has been removed, otherwise false
    */
   public boolean removeAllEdgesOutOf(Unit u) {
-    boolean hasRemoved = false;
-    Set<Edge> edgesToRemove = new HashSet<>();
-    for (QueueReader<Edge> edgeRdr = listener(); edgeRdr.hasNext();) {
-      Edge e = edgeRdr.next();
-      if (e != null && e.srcUnit() == u) {
-        e.remove();
-        removeEdge(e, false);
-        edgesToRemove.add(e);
-        hasRemoved = true;
-      }
+    List<Edge> edgesToRemove = new ArrayList<Edge>();
+    for (Iterator<Edge> it = edgesOutOf(u); it.hasNext();) {
+      edgesToRemove.add(it.next());
     }
-    if (hasRemoved) {
-      reader.remove(edgesToRemove);
+    for (Edge e : edgesToRemove) {
+      removeEdge(e);
     }
-    return hasRemoved;
+    return !edgesToRemove.isEmpty();
   }
 
   /**
@@ -158,6 +158,17 @@ public class CallGraph implements Iterable<Edge> {
     if (!edges.remove(e)) {
       return false;
     }
+    unlinkEdge(e);
+    // Edge.remove() has marked the edge as invalid, and readers of the edge stream skip invalid edges, so there is
+    // nothing left to do for removeInEdgeList
+    return true;
+  }
+
+  /**
+   * Removes the given edge, which has already been taken out of the edge set, from the lists of edges by source unit, by
+   * source method, and by target method.
+   */
+  protected void unlinkEdge(Edge e) {
     e.remove();
 
     if (srcUnitToEdge.get(e.srcUnit()) == e) {
@@ -183,11 +194,6 @@ public class CallGraph implements Iterable<Edge> {
         tgtToEdge.remove(e.getTgt());
       }
     }
-    // This is an linear operation, so we want to avoid it if possible.
-    if (removeInEdgeList) {
-      reader.remove(e);
-    }
-    return true;
   }
 
   /**
@@ -198,14 +204,18 @@ public class CallGraph implements Iterable<Edge> {
    * @return whether the removal was successful.
    */
   public boolean removeEdges(Collection<Edge> edges) {
-    if (!this.edges.removeAll(edges)) {
-      return false;
-    }
+    // Unlink all edges before invalidating any of them, since invalidating an edge clears its endpoints, which the
+    // iterators over the linked edges compare against
+    List<Edge> removed = new ArrayList<Edge>(edges.size());
     for (Edge e : edges) {
-      removeEdge(e, false);
+      if (removeEdge(e, false)) {
+        removed.add(e);
+      }
     }
-    reader.remove(edges);
-    return true;
+    for (Edge e : removed) {
+      e.invalidate();
+    }
+    return !removed.isEmpty();
   }
 
   /**
@@ -379,9 +389,12 @@ public class CallGraph implements Iterable<Edge> {
   /**
    * Returns a QueueReader object containing all edges added so far, and which will be informed of any new edges that are
    * later added to the graph.
+   *
+   * The edges added so far are read from the edge stream as long as it still holds all of them, and are copied from the
+   * edge set otherwise. The stream drops the chunks that all of its listeners have read.
    */
   public QueueReader<Edge> listener() {
-    return reader.clone();
+    return stream.reader(edges);
   }
 
   /**
@@ -394,11 +407,8 @@ public class CallGraph implements Iterable<Edge> {
   @Override
   public String toString() {
     StringBuilder out = new StringBuilder();
-    for (QueueReader<Edge> reader = listener(); reader.hasNext();) {
-      Edge e = reader.next();
-      if (e != null) {
-        out.append(e.toString()).append('\n');
-      }
+    for (Edge e : this) {
+      out.append(e.toString()).append('\n');
     }
     return out.toString();
   }
@@ -410,8 +420,31 @@ public class CallGraph implements Iterable<Edge> {
     return edges.size();
   }
 
+  /**
+   * Returns an iterator over all edges in the order in which they were added. Its remove() removes the edge from the call
+   * graph.
+   */
   @Override
   public Iterator<Edge> iterator() {
-    return edges.iterator();
+    final Iterator<Edge> it = edges.iterator();
+    return new Iterator<Edge>() {
+      private Edge last;
+
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public Edge next() {
+        return last = it.next();
+      }
+
+      @Override
+      public void remove() {
+        it.remove();
+        unlinkEdge(last);
+      }
+    };
   }
 }
@@ -87,6 +87,17 @@ public class CallGraphBuilder {
     this.ofcgb = createCGBuilder(makeContextManager(cg), reachables);
   }
 
+  /**
+   * This constructor adds the edges out of the given reachable methods to the given call graph, using the given
+   * PointsToAnalysis to resolve virtual calls. Unlike the other constructors, it leaves the call graph of the Scene alone.
+   */
+  public CallGraphBuilder(PointsToAnalysis pa, CallGraph cg, ReachableMethods reachables) {
+    this.pa = pa;
+    this.cg = cg;
+    this.reachables = reachables;
+    this.ofcgb = createCGBuilder(makeContextManager(cg), reachables);
+  }
+
   protected OnFlyCallGraphBuilder createCGBuilder(ContextManager cm, ReachableMethods reachables2) {
     return new OnFlyCallGraphBuilder(cm, reachables);
   }
@@ -22,9 +22,16 @@ package soot.jimple.toolkits.callgraph;
  * #L%
  */
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import soot.EntryPoints;
 import soot.PhaseOptions;
 import soot.RadioScenePack;
@@ -38,6 +45,10 @@ import soot.options.CGOptions;
  * has been built.
  */
 public class CallGraphPack extends RadioScenePack {
+  private static final Logger logger = LoggerFactory.getLogger(CallGraphPack.class);
+
+  // Set while the call graph is updated from a snapshot, which runs this pack again if it cannot update it incrementally
+  private boolean updatingSnapshot;
 
   public CallGraphPack(String name) {
     super(name);
@@ -58,7 +69,11 @@ public class CallGraphPack extends RadioScenePack {
       }
     }
 
-    super.internalApply();
+    if (options.snapshot().isEmpty() || updatingSnapshot) {
+      super.internalApply();
+    } else {
+      applyWithSnapshot(Paths.get(options.snapshot()));
+    }
 
     if (options.trim_clinit()) {
       ClinitElimTransformer trimmer = new ClinitElimTransformer();
@@ -70,5 +85,43 @@ public class CallGraphPack extends RadioScenePack {
         }
       }
     }
+
+    if (options.compact_storage() && Scene.v().hasCallGraph()) {
+      CallGraph cg = Scene.v().getCallGraph();
+      if (cg instanceof CompactCallGraph) {
+        ((CompactCallGraph) cg).freeze();
+      }
+    }
+  }
+
+  /**
+   * Restores the call graph from the given snapshot and updates it for the classes that have changed since, or builds it
+   * from scratch if there is no usable snapshot. The new call graph is saved in the snapshot afterwards.
+   */
+  private void applyWithSnapshot(Path snapshot) {
+    IncrementalCallGraphUpdater updater = null;
+    if (Files.isRegularFile(snapshot)) {
+      try {
+        updater = IncrementalCallGraphUpdater.load(snapshot);
+      } catch (IOException | RuntimeException e) {
+        logger.warn("Cannot restore the call graph from " + snapshot + ", building it from scratch: " + e.getMessage());
+      }
+    }
+    if (updater == null) {
+      super.internalApply();
+      updater = new IncrementalCallGraphUpdater();
+    } else {
+      updatingSnapshot = true;
+      try {
+        updater.update();
+      } finally {
+        updatingSnapshot = false;
+      }
+    }
+    try {
+      updater.save(snapshot);
+    } catch (IOException e) {
+      logger.warn("Cannot save the call graph to " + snapshot + ": " + e.getMessage());
+    }
   }
 }
@@ -0,0 +1,429 @@
+package soot.jimple.toolkits.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+
+import soot.Kind;
+import soot.MethodOrMethodContext;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.util.queue.QueueReader;
+
+/**
+ * A call graph that can be frozen into a compact, read-only representation. While it is being built, it behaves exactly
+ * like a {@link CallGraph}. Once {@link #freeze()} has been called, the edges are kept in a single array and the edges by
+ * source unit, source method, and target method are stored in CSR-style <code>int[]</code> arrays. These are indexed by the
+ * numbers of the units and methods in two open-addressing tables, one for the units and one for the methods, which are
+ * shared by the edges by source and by target. This drops the hash set and the three hash maps of the linked
+ * representation, and the links between the edges.
+ *
+ * <p>
+ * Querying a frozen graph returns the edges of each unit or method in the order in which they were added. Modifying a
+ * frozen graph transparently converts it back into the linked representation first.
+ */
+public class CompactCallGraph extends CallGraph {
+
+  private Edge[] frozenEdges;
+
+  private Numbering units;
+  private int[] unitOffsets;
+  private int[] unitEdges;
+
+  private Numbering methods;
+  private int[] srcOffsets;
+  private int[] srcEdges;
+  private int[] tgtOffsets;
+  private int[] tgtEdges;
+
+  /**
+   * Converts this call graph into its compact representation. Does nothing if the call graph is already frozen.
+   */
+  public void freeze() {
+    if (isFrozen()) {
+      return;
+    }
+    final Edge[] all = edges.toArray(new Edge[edges.size()]);
+
+    units = new Numbering();
+    methods = new Numbering();
+    final int[] unitOf = new int[all.length];
+    final int[] srcOf = new int[all.length];
+    final int[] tgtOf = new int[all.length];
+    for (int i = 0; i < all.length; i++) {
+      Edge e = all[i];
+      unitOf[i] = units.add(e.srcUnit());
+      srcOf[i] = methods.add(e.getSrc());
+      tgtOf[i] = methods.add(e.getTgt());
+    }
+    units.trim();
+    methods.trim();
+
+    unitOffsets = offsets(unitOf, units.size());
+    unitEdges = fill(unitOf, unitOffsets);
+    srcOffsets = offsets(srcOf, methods.size());
+    srcEdges = fill(srcOf, srcOffsets);
+    tgtOffsets = offsets(tgtOf, methods.size());
+    tgtEdges = fill(tgtOf, tgtOffsets);
+    frozenEdges = all;
+
+    // Release the linked representation
+    for (Edge e : all) {
+      e.unlink();
+    }
+    edges = new LinkedHashSet<Edge>();
+    srcMethodToEdge = new LinkedHashMap<MethodOrMethodContext, Edge>();
+    srcUnitToEdge = new LinkedHashMap<Unit, Edge>();
+    tgtToEdge = new LinkedHashMap<MethodOrMethodContext, Edge>();
+    dummy = new Edge(null, null, null, Kind.INVALID);
+  }
+
+  /**
+   * Returns true iff this call graph is currently in its compact representation.
+   */
+  public boolean isFrozen() {
+    return frozenEdges != null;
+  }
+
+  /**
+   * Converts a frozen call graph back into the linked representation, so that it can be modified.
+   */
+  protected void thaw() {
+    final Edge[] all = frozenEdges;
+    if (all == null) {
+      return;
+    }
+    frozenEdges = null;
+    units = methods = null;
+    unitOffsets = unitEdges = null;
+    srcOffsets = srcEdges = tgtOffsets = tgtEdges = null;
+
+    // Listeners take the edges added before them from the edge set, so it is refilled along with the lookup structures
+    for (Edge e : all) {
+      edges.add(e);
+      linkEdge(e);
+    }
+  }
+
+  /**
+   * Computes the start of the edges of each key, with one extra entry that marks the end of the last key.
+   */
+  private static int[] offsets(int[] keyOf, int numKeys) {
+    final int[] offsets = new int[numKeys + 2];
+    for (int key : keyOf) {
+      offsets[key + 1]++;
+    }
+    for (int i = 1; i < offsets.length; i++) {
+      offsets[i] += offsets[i - 1];
+    }
+    return offsets;
+  }
+
+  /**
+   * Lists the edge indices grouped by key, keeping the insertion order within each key.
+   */
+  private static int[] fill(int[] keyOf, int[] offsets) {
+    final int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+    final int[] result = new int[keyOf.length];
+    for (int i = 0; i < keyOf.length; i++) {
+      result[next[keyOf[i]]++] = i;
+    }
+    return result;
+  }
+
+  /**
+   * Numbers objects from 1 in the order in which they are added, and reserves 0 for null. The numbers are kept in an
+   * open-addressing table of <code>int</code>s, so no entry objects or boxed numbers are created.
+   */
+  private static final class Numbering {
+    private Object[] objects = new Object[16];
+    private int[] table = new int[32];
+    private int size = 0;
+
+    /** Returns the number of the object, numbering it if it has no number yet. */
+    int add(Object o) {
+      if (o == null) {
+        return 0;
+      }
+      final int mask = table.length - 1;
+      for (int i = hash(o) & mask;; i = (i + 1) & mask) {
+        int n = table[i];
+        if (n == 0) {
+          if (++size == objects.length) {
+            objects = Arrays.copyOf(objects, 2 * objects.length);
+          }
+          objects[size] = o;
+          table[i] = size;
+          if (2 * size > table.length) {
+            rehash();
+          }
+          return size;
+        }
+        if (objects[n].equals(o)) {
+          return n;
+        }
+      }
+    }
+
+    /** Returns the number of the object, or -1 if it has none. */
+    int find(Object o) {
+      if (o == null) {
+        return 0;
+      }
+      final int mask = table.length - 1;
+      for (int i = hash(o) & mask;; i = (i + 1) & mask) {
+        int n = table[i];
+        if (n == 0) {
+          return -1;
+        }
+        if (objects[n].equals(o)) {
+          return n;
+        }
+      }
+    }
+
+    Object get(int number) {
+      return objects[number];
+    }
+
+    int size() {
+      return size;
+    }
+
+    /** Drops the unused capacity once all objects have been added. */
+    void trim() {
+      objects = Arrays.copyOf(objects, size + 1);
+    }
+
+    private void rehash() {
+      table = new int[2 * table.length];
+      final int mask = table.length - 1;
+      for (int n = 1; n <= size; n++) {
+        int i = hash(objects[n]) & mask;
+        while (table[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        table[i] = n;
+      }
+    }
+
+    private static int hash(Object o) {
+      int h = o.hashCode() * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+  }
+
+  private Iterator<Edge> frozenIterator(int key, int[] offsets, int[] edgeIndices) {
+    if (key < 0) {
+      return Collections.emptyIterator();
+    }
+    return new FrozenEdgeIterator(frozenEdges, edgeIndices, offsets[key], offsets[key + 1]);
+  }
+
+  private static class FrozenEdgeIterator implements Iterator<Edge> {
+    private final Edge[] all;
+    private final int[] edgeIndices;
+    private final int end;
+    private int position;
+
+    FrozenEdgeIterator(Edge[] all, int[] edgeIndices, int start, int end) {
+      this.all = all;
+      this.edgeIndices = edgeIndices;
+      this.position = start;
+      this.end = end;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return position < end;
+    }
+
+    @Override
+    public Edge next() {
+      if (position >= end) {
+        throw new NoSuchElementException();
+      }
+      return all[edgeIndices[position++]];
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Override
+  public boolean addEdge(Edge e) {
+    thaw();
+    return super.addEdge(e);
+  }
+
+  @Override
+  public boolean removeAllEdgesOutOf(Unit u) {
+    thaw();
+    return super.removeAllEdgesOutOf(u);
+  }
+
+  @Override
+  public boolean swapEdgesOutOf(Stmt out, Stmt in) {
+    thaw();
+    return super.swapEdgesOutOf(out, in);
+  }
+
+  @Override
+  public boolean removeEdge(Edge e, boolean removeInEdgeList) {
+    thaw();
+    return super.removeEdge(e, removeInEdgeList);
+  }
+
+  @Override
+  public boolean removeEdges(Collection<Edge> edges) {
+    thaw();
+    return super.removeEdges(edges);
+  }
+
+  @Override
+  public boolean isEntryMethod(SootMethod method) {
+    if (!isFrozen()) {
+      return super.isEntryMethod(method);
+    }
+    int number = methods.find(method);
+    return number < 0 || tgtOffsets[number] == tgtOffsets[number + 1];
+  }
+
+  @Override
+  public Edge findEdge(Unit u, SootMethod callee) {
+    if (!isFrozen()) {
+      return super.findEdge(u, callee);
+    }
+    for (Iterator<Edge> it = edgesOutOf(u); it.hasNext();) {
+      Edge e = it.next();
+      if (e.tgt() == callee) {
+        return e;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Iterator<MethodOrMethodContext> sourceMethods() {
+    if (!isFrozen()) {
+      return super.sourceMethods();
+    }
+    final Numbering numbering = methods;
+    final int[] offsets = srcOffsets;
+    return new Iterator<MethodOrMethodContext>() {
+      // The methods are numbered as sources and as targets, so skip those without outgoing edges
+      private int number = advance(0);
+
+      private int advance(int from) {
+        int n = from;
+        while (n <= numbering.size() && offsets[n] == offsets[n + 1]) {
+          n++;
+        }
+        return n;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return number <= numbering.size();
+      }
+
+      @Override
+      public MethodOrMethodContext next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        MethodOrMethodContext m = (MethodOrMethodContext) numbering.get(number);
+        number = advance(number + 1);
+        return m;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Override
+  public Iterator<Edge> edgesOutOf(Unit u) {
+    if (!isFrozen()) {
+      return super.edgesOutOf(u);
+    }
+    if (u == null) {
+      throw new RuntimeException();
+    }
+    return frozenIterator(units.find(u), unitOffsets, unitEdges);
+  }
+
+  @Override
+  public Iterator<Edge> edgesOutOf(MethodOrMethodContext m) {
+    if (!isFrozen()) {
+      return super.edgesOutOf(m);
+    }
+    if (m == null) {
+      throw new RuntimeException();
+    }
+    return frozenIterator(methods.find(m), srcOffsets, srcEdges);
+  }
+
+  @Override
+  public Iterator<Edge> edgesInto(MethodOrMethodContext m) {
+    if (!isFrozen()) {
+      return super.edgesInto(m);
+    }
+    if (m == null) {
+      throw new RuntimeException();
+    }
+    return frozenIterator(methods.find(m), tgtOffsets, tgtEdges);
+  }
+
+  @Override
+  public QueueReader<Edge> listener() {
+    if (!isFrozen()) {
+      return super.listener();
+    }
+    return stream.reader(Arrays.asList(frozenEdges));
+  }
+
+  @Override
+  public int size() {
+    return isFrozen() ? frozenEdges.length : super.size();
+  }
+
+  @Override
+  public Iterator<Edge> iterator() {
+    if (!isFrozen()) {
+      return super.iterator();
+    }
+    return Collections.unmodifiableList(Arrays.asList(frozenEdges)).iterator();
+  }
+}
@@ -267,6 +267,13 @@ public class Edge implements Invalidable {
     nextByTgt = other;
   }
 
+  /**
+   * Resets the links of this edge without touching its neighbours, for when the whole list it belongs to is dropped.
+   */
+  void unlink() {
+    nextByUnit = prevByUnit = nextBySrc = prevBySrc = nextByTgt = prevByTgt = this;
+  }
+
   void remove() {
     invalid = true;
     nextByUnit.prevByUnit = prevByUnit;
@@ -45,6 +45,13 @@ public class Filter implements Iterator<Edge> {
     return this;
   }
 
+  /**
+   * Returns true iff the given edge passes this filter.
+   */
+  public boolean accepts(Edge e) {
+    return pred.want(e);
+  }
+
   private void advance() {
     while (source.hasNext()) {
       next = source.next();
@@ -0,0 +1,704 @@
+package soot.jimple.toolkits.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.FastHierarchy;
+import soot.IFoundFile;
+import soot.Kind;
+import soot.MethodOrMethodContext;
+import soot.Modifier;
+import soot.PackManager;
+import soot.PhaseOptions;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.SootResolver;
+import soot.SourceLocator;
+import soot.Transform;
+import soot.Unit;
+import soot.jimple.PersistentBodyCache;
+import soot.jimple.Stmt;
+import soot.jimple.toolkits.pointer.DumbPointerAnalysis;
+import soot.options.CGOptions;
+import soot.options.CHAOptions;
+import soot.options.Options;
+
+/**
+ * Updates the call graph of the {@link Scene} after some classes have changed, without building it again from scratch.
+ * The updater takes a snapshot of the class files of a set of classes when it is created, and
+ * {@link #findModifiedClasses()} compares the class files on the class path with that snapshot.
+ *
+ * <p>
+ * {@link #update(Collection)} reloads the modified classes in place and recomputes only the edges out of the methods whose
+ * call sites may now have different targets: the methods of the modified classes, the callers of their old methods, and the
+ * callers of the methods in supertypes that a changed implementation may override. Methods that become reachable through
+ * the new edges are processed as well. Only the transitive callees of the methods that lost an incoming edge are checked
+ * for whether they are still reachable, and the edges out of those that are not are removed. The work is thus bounded by
+ * the changed methods, their callers, and their callees, rather than by the size of the program. The
+ * {@link FastHierarchy} and the {@link ReachableMethods} of the Scene are kept, and only the dispatch cache of the
+ * hierarchy is invalidated.
+ *
+ * <p>
+ * The edges are recomputed with Class Hierarchy Analysis, so the update is only incremental if the call graph was built by
+ * cg.cha. If it was built by another algorithm, or if the supertypes or static initializers of a modified class have
+ * changed, the whole call graph pack is run again instead.
+ *
+ * <p>
+ * {@link #save(Path)} writes the snapshot together with the call graph to a file, and {@link #load(Path)} restores both in
+ * a later run, so that the call graph of a program that is analyzed again after a small change can be updated instead of
+ * built from scratch. The <tt>snapshot</tt> option of the <tt>cg</tt> phase does this automatically.
+ */
+public class IncrementalCallGraphUpdater {
+  private static final Logger logger = LoggerFactory.getLogger(IncrementalCallGraphUpdater.class);
+
+  private static final String CLINIT = "void <clinit>()";
+  private static final int DISPATCH_MODIFIERS
+      = Modifier.PUBLIC | Modifier.PROTECTED | Modifier.PRIVATE | Modifier.STATIC | Modifier.ABSTRACT;
+
+  private static final int MAGIC = 0x49434731; // "ICG1"
+  private static final int FORMAT_VERSION = 1;
+
+  private final Map<SootClass, String> snapshot = new HashMap<SootClass, String>();
+
+  // The supertypes and dispatch modifiers of the classes when the call graph was saved, see load(Path). The classes of the
+  // Scene have been loaded from the new class files already, so the next update needs these instead.
+  private final Map<SootClass, List<String>> savedSupertypes = new HashMap<SootClass, List<String>>();
+  private final Map<SootClass, Map<String, Integer>> savedDispatch = new HashMap<SootClass, Map<String, Integer>>();
+  // The other ends of the saved edges into and out of methods that do not exist anymore, see load(Path)
+  private final Set<SootMethod> savedCallers = new HashSet<SootMethod>();
+  private final Set<SootMethod> savedCallees = new HashSet<SootMethod>();
+
+  /**
+   * Takes a snapshot of the class files of all application classes.
+   */
+  public IncrementalCallGraphUpdater() {
+    this(Scene.v().getApplicationClasses());
+  }
+
+  /**
+   * Takes a snapshot of the class files of the given classes.
+   */
+  public IncrementalCallGraphUpdater(Collection<SootClass> classes) {
+    for (SootClass c : classes) {
+      snapshot.put(c, fingerprint(c));
+    }
+  }
+
+  /**
+   * Returns the classes of the snapshot whose class file has changed or disappeared since the snapshot was taken or the
+   * class was last updated.
+   */
+  public Set<SootClass> findModifiedClasses() {
+    SourceLocator.v().invalidateCaches();
+    Set<SootClass> ret = new LinkedHashSet<SootClass>();
+    for (Map.Entry<SootClass, String> e : snapshot.entrySet()) {
+      if (!Objects.equals(e.getValue(), fingerprint(e.getKey()))) {
+        ret.add(e.getKey());
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Updates the call graph for all classes whose class file has changed, and returns these classes.
+   */
+  public Set<SootClass> update() {
+    Set<SootClass> modified = findModifiedClasses();
+    update(modified);
+    return modified;
+  }
+
+  /**
+   * Reloads the given classes from their class files and updates the call graph of the Scene accordingly.
+   *
+   * @param modified
+   *          the classes whose class files have changed
+   */
+  public void update(Collection<SootClass> modified) {
+    if (modified.isEmpty()) {
+      return;
+    }
+    final Scene scene = Scene.v();
+    final CallGraph cg = scene.getCallGraph();
+    final FastHierarchy fh = scene.getOrMakeFastHierarchy();
+
+    // Remember the state of the modified classes before they are reloaded
+    final ReachableMethods reachable = scene.getReachableMethods();
+    reachable.update();
+    final Map<SootMethod, SootClass> oldMethods = new HashMap<SootMethod, SootClass>();
+    final Map<SootClass, List<String>> oldSupertypes = new HashMap<SootClass, List<String>>();
+    final Map<SootClass, Map<String, Integer>> oldDispatch = new HashMap<SootClass, Map<String, Integer>>();
+    for (SootClass c : modified) {
+      for (SootMethod m : c.getMethods()) {
+        oldMethods.put(m, c);
+      }
+      List<String> saved = savedSupertypes.get(c);
+      oldSupertypes.put(c, saved != null ? saved : supertypes(c));
+      Map<String, Integer> savedModifiers = savedDispatch.get(c);
+      oldDispatch.put(c, savedModifiers != null ? savedModifiers : dispatchModifiers(c));
+    }
+    final Set<SootMethod> callersOfRemoved = new HashSet<SootMethod>(savedCallers);
+    final Set<SootMethod> calleesOfRemoved = new HashSet<SootMethod>(savedCallees);
+    savedSupertypes.clear();
+    savedDispatch.clear();
+    savedCallers.clear();
+    savedCallees.clear();
+
+    SourceLocator.v().invalidateCaches();
+    for (SootClass c : modified) {
+      SootResolver.v().reload(c);
+      snapshot.put(c, fingerprint(c));
+    }
+    updateEntryPoints(modified, oldMethods);
+
+    boolean incremental = isIncremental();
+    final Map<SootClass, Set<String>> changedSubsigs = new HashMap<SootClass, Set<String>>();
+    for (SootClass c : modified) {
+      incremental &= supertypes(c).equals(oldSupertypes.get(c));
+      Map<String, Integer> before = oldDispatch.get(c);
+      Map<String, Integer> after = dispatchModifiers(c);
+      Set<String> subsigs = new HashSet<String>(before.keySet());
+      subsigs.addAll(after.keySet());
+      Set<String> changed = new HashSet<String>();
+      for (String subsig : subsigs) {
+        if (!Objects.equals(before.get(subsig), after.get(subsig))) {
+          changed.add(subsig);
+        }
+      }
+      incremental &= !changed.contains(CLINIT);
+      changedSubsigs.put(c, changed);
+    }
+    if (!incremental) {
+      logger.debug("Cannot update the call graph incrementally, rebuilding it");
+      PackManager.v().getPack("cg").apply();
+      return;
+    }
+
+    // Reloading the classes released the hierarchy, but only the dispatch results are out of date
+    scene.setFastHierarchy(fh);
+    fh.invalidateDispatch(modified);
+
+    // Collect the methods whose outgoing edges need to be recomputed. The call sites that dispatched to an old method have
+    // an edge into it. A call site that may now dispatch to a new implementation in a modified class dispatched to an
+    // implementation in a supertype of that class before, or to the old method, so it has an edge into one of them.
+    final Set<MethodOrMethodContext> seeds = new LinkedHashSet<MethodOrMethodContext>();
+    final Set<SootMethod> changedTargets = new HashSet<SootMethod>(oldMethods.keySet());
+    for (SootClass c : modified) {
+      for (String subsig : changedSubsigs.get(c)) {
+        for (SootClass s : supertypesOf(c)) {
+          SootMethod m = s.getMethodUnsafe(subsig);
+          if (m != null) {
+            changedTargets.add(m);
+          }
+        }
+      }
+    }
+    for (SootMethod m : changedTargets) {
+      for (Iterator<Edge> it = cg.edgesInto(m); it.hasNext();) {
+        MethodOrMethodContext src = it.next().getSrc();
+        if (src != null && !oldMethods.containsKey(src.method())) {
+          seeds.add(src);
+        }
+      }
+    }
+    for (SootMethod m : callersOfRemoved) {
+      if (!oldMethods.containsKey(m)) {
+        seeds.add(m);
+      }
+    }
+    for (SootMethod m : scene.getEntryPoints()) {
+      if (modified.contains(m.getDeclaringClass())) {
+        seeds.add(m);
+      }
+    }
+
+    // Only the methods that lose an incoming edge here may become unreachable, together with their callees
+    final Set<MethodOrMethodContext> lost = new HashSet<MethodOrMethodContext>(oldMethods.keySet());
+    lost.addAll(calleesOfRemoved);
+    for (SootMethod m : oldMethods.keySet()) {
+      removeEdges(cg, cg.edgesOutOf(m), lost);
+      removeEdges(cg, cg.edgesInto(m), lost);
+    }
+    for (MethodOrMethodContext m : seeds) {
+      removeEdges(cg, cg.edgesOutOf(m), lost);
+    }
+
+    // Compute the new edges in a separate graph, and only follow them into methods that have not been processed before
+    final CallGraph delta = new CallGraph();
+    ReachableMethods deltaReachable = new ReachableMethods(delta, seeds.iterator(), new Filter(new EdgePredicate() {
+      @Override
+      public boolean want(Edge e) {
+        return !reachable.contains(e.getTgt());
+      }
+    }));
+    new CallGraphBuilder(DumbPointerAnalysis.v(), delta, deltaReachable).build();
+    for (Edge e : delta) {
+      cg.addEdge(new Edge(e.getSrc(), e.srcUnit(), e.getTgt(), e.kind()));
+    }
+
+    // Drop the edges out of methods that are not reachable anymore, and update the reachable methods of the Scene
+    final Set<MethodOrMethodContext> unreachable = unreachableCallees(cg, lost, scene.getEntryPoints());
+    List<Edge> unreachableEdges = new ArrayList<Edge>();
+    for (MethodOrMethodContext m : unreachable) {
+      for (Iterator<Edge> it = cg.edgesOutOf(m); it.hasNext();) {
+        unreachableEdges.add(it.next());
+      }
+    }
+    cg.removeEdges(unreachableEdges);
+    unreachable.addAll(oldMethods.keySet());
+    reachable.removeMethods(unreachable);
+    for (SootMethod m : scene.getEntryPoints()) {
+      reachable.addMethod(m);
+    }
+    reachable.update();
+
+    CGOptions options = new CGOptions(PhaseOptions.v().getPhaseOptions("cg"));
+    if (options.trim_clinit()) {
+      ClinitElimTransformer trimmer = new ClinitElimTransformer();
+      for (Iterator<MethodOrMethodContext> it = deltaReachable.listener(); it.hasNext();) {
+        SootMethod m = it.next().method();
+        if (m.isConcrete() && m.hasActiveBody()) {
+          trimmer.transform(m.getActiveBody());
+        }
+      }
+    }
+    if (options.compact_storage() && cg instanceof CompactCallGraph) {
+      ((CompactCallGraph) cg).freeze();
+    }
+    logger.debug(
+        "Recomputed the edges of " + deltaReachable.size() + " methods for " + modified.size() + " modified classes");
+  }
+
+  /**
+   * Saves the snapshot of the class files together with the call graph of the Scene, so that a later run can restore it
+   * with {@link #load(Path)}. Besides the hashes of the class files, the supertypes and the dispatch modifiers of the
+   * methods of the classes are saved, which {@link #update(Collection)} compares with those of the new class files.
+   *
+   * @throws IOException
+   *           if the file cannot be written, or if the call graph contains contexts or call sites that are not part of the
+   *           active body of their method
+   */
+  public void save(Path file) throws IOException {
+    final CallGraph cg = Scene.v().getCallGraph();
+    final Map<SootMethod, Integer> methods = new LinkedHashMap<SootMethod, Integer>();
+    final Map<SootMethod, Map<Unit, Integer>> units = new HashMap<SootMethod, Map<Unit, Integer>>();
+    final List<int[]> edges = new ArrayList<int[]>();
+    final List<Kind> kinds = new ArrayList<Kind>();
+    for (Edge e : cg) {
+      if (e.srcCtxt() != null || e.tgtCtxt() != null) {
+        throw new IOException("Cannot save a context-sensitive call graph");
+      }
+      SootMethod src = e.src();
+      int unit = -1;
+      if (e.srcUnit() != null) {
+        Integer index = units.computeIfAbsent(src, IncrementalCallGraphUpdater::unitIndices).get(e.srcUnit());
+        if (index == null) {
+          throw new IOException("Call site of edge " + e + " is not part of the active body");
+        }
+        unit = index;
+      }
+      edges.add(new int[] { methodIndex(methods, src), unit, methodIndex(methods, e.tgt()) });
+      kinds.add(e.kind());
+    }
+
+    Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(optionsKey());
+        out.writeInt(snapshot.size());
+        for (Map.Entry<SootClass, String> e : snapshot.entrySet()) {
+          SootClass c = e.getKey();
+          out.writeUTF(c.getName());
+          writeNullable(out, e.getValue());
+          List<String> supertypes = supertypes(c);
+          out.writeInt(supertypes.size());
+          for (String t : supertypes) {
+            writeNullable(out, t);
+          }
+          Map<String, Integer> dispatch = dispatchModifiers(c);
+          out.writeInt(dispatch.size());
+          for (Map.Entry<String, Integer> d : dispatch.entrySet()) {
+            out.writeUTF(d.getKey());
+            out.writeInt(d.getValue());
+          }
+        }
+        out.writeInt(methods.size());
+        for (SootMethod m : methods.keySet()) {
+          out.writeUTF(m.getSignature());
+        }
+        out.writeInt(edges.size());
+        for (int i = 0; i < edges.size(); i++) {
+          int[] edge = edges.get(i);
+          out.writeInt(edge[0]);
+          out.writeInt(edge[1]);
+          out.writeInt(edge[2]);
+          out.writeUTF(kinds.get(i).name());
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Restores the call graph that {@link #save(Path)} has saved in the given file as the call graph of the Scene, and returns
+   * an updater with the snapshot of the class files from that file. The classes of the Scene must have been loaded, and its
+   * entry points set, as in the run that saved the call graph. They are usually loaded from newer class files, which
+   * {@link #update()} then takes into account.
+   *
+   * <p>
+   * The edges out of the methods of classes whose class files have changed are restored without their call sites, since
+   * the update recomputes them. The bodies of all other callers are loaded to find the call sites.
+   *
+   * @return the updater, or null if application classes have been added or removed since the call graph was saved, which
+   *         changes the hierarchy, so that the call graph needs to be built from scratch
+   * @throws IOException
+   *           if the file cannot be read, has been saved with different options, or does not match the bodies of the
+   *           callers
+   */
+  public static IncrementalCallGraphUpdater load(Path file) throws IOException {
+    final Scene scene = Scene.v();
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unexpected header");
+      }
+      if (!optionsKey().equals(in.readUTF())) {
+        throw new IOException("The call graph has been saved with different options");
+      }
+
+      final IncrementalCallGraphUpdater ret = new IncrementalCallGraphUpdater(Collections.<SootClass>emptySet());
+      final Set<SootClass> added = new HashSet<SootClass>(scene.getApplicationClasses());
+      final Set<SootClass> changed = new HashSet<SootClass>();
+      boolean removed = false;
+      for (int i = in.readInt(); i > 0; i--) {
+        String name = in.readUTF();
+        String fingerprint = readNullable(in);
+        List<String> supertypes = new ArrayList<String>();
+        for (int j = in.readInt(); j > 0; j--) {
+          supertypes.add(readNullable(in));
+        }
+        Map<String, Integer> dispatch = new HashMap<String, Integer>();
+        for (int j = in.readInt(); j > 0; j--) {
+          dispatch.put(in.readUTF(), in.readInt());
+        }
+        SootClass c = scene.getSootClassUnsafe(name, false);
+        if (c == null || !added.remove(c)) {
+          removed = true;
+          continue;
+        }
+        ret.snapshot.put(c, fingerprint);
+        ret.savedSupertypes.put(c, supertypes);
+        ret.savedDispatch.put(c, dispatch);
+        if (!Objects.equals(fingerprint, fingerprint(c))) {
+          changed.add(c);
+        }
+      }
+      if (removed || !added.isEmpty()) {
+        logger.debug("Application classes have been added or removed since the call graph was saved");
+        return null;
+      }
+
+      final SootMethod[] methods = new SootMethod[in.readInt()];
+      for (int i = 0; i < methods.length; i++) {
+        // Methods of changed classes may have been removed
+        methods[i] = scene.grabMethod(in.readUTF());
+      }
+      final CallGraph cg = scene.internalMakeCallGraph();
+      final Map<SootMethod, List<Unit>> units = new HashMap<SootMethod, List<Unit>>();
+      for (int i = in.readInt(); i > 0; i--) {
+        SootMethod src = methods[in.readInt()];
+        int unit = in.readInt();
+        SootMethod tgt = methods[in.readInt()];
+        Kind kind = Kind.forName(in.readUTF());
+        if (kind == null) {
+          throw new IOException("Unknown edge kind");
+        }
+        if (src == null || tgt == null) {
+          // The update needs to recompute the edges of the caller, and to check whether the callee is still reachable
+          if (src != null) {
+            ret.savedCallers.add(src);
+          }
+          if (tgt != null) {
+            ret.savedCallees.add(tgt);
+          }
+          continue;
+        }
+        Unit srcUnit = null;
+        if (unit >= 0 && !changed.contains(src.getDeclaringClass())) {
+          List<Unit> body = units.computeIfAbsent(src, m -> new ArrayList<Unit>(m.retrieveActiveBody().getUnits()));
+          if (unit >= body.size() || (kind.isExplicit() && !((Stmt) body.get(unit)).containsInvokeExpr())) {
+            throw new IOException("Call site of " + src.getSignature() + " does not match its body");
+          }
+          srcUnit = body.get(unit);
+        }
+        cg.addEdge(new Edge(src, srcUnit, tgt, kind));
+      }
+      if (in.read() != -1) {
+        throw new IOException("Trailing data");
+      }
+      scene.setCallGraph(cg);
+      return ret;
+    }
+  }
+
+  /**
+   * Returns true if the call graph of the Scene has been built by the context-insensitive Class Hierarchy Analysis.
+   */
+  protected boolean isIncremental() {
+    if (!Scene.v().hasCallGraph()) {
+      return false;
+    }
+    Map<String, String> opts = PhaseOptions.v().getPhaseOptions("cg.cha");
+    return PhaseOptions.getBoolean(opts, "enabled") && !new CHAOptions(opts).apponly();
+  }
+
+  /**
+   * Replaces the old methods of the modified classes in the entry points of the Scene by their new versions.
+   */
+  private void updateEntryPoints(Collection<SootClass> modified, Map<SootMethod, SootClass> oldMethods) {
+    final Scene scene = Scene.v();
+    List<SootMethod> entryPoints = new ArrayList<SootMethod>();
+    for (SootMethod m : scene.getEntryPoints()) {
+      SootClass c = oldMethods.get(m);
+      if (c == null) {
+        entryPoints.add(m);
+      } else {
+        SootMethod replacement = c.getMethodUnsafe(m.getSubSignature());
+        if (replacement != null) {
+          entryPoints.add(replacement);
+        }
+      }
+    }
+    if (new CGOptions(PhaseOptions.v().getPhaseOptions("cg")).all_reachable()) {
+      Set<SootMethod> known = new HashSet<SootMethod>(entryPoints);
+      for (SootClass c : modified) {
+        if (c.isApplicationClass()) {
+          for (SootMethod m : c.getMethods()) {
+            if (m.isConcrete() && known.add(m)) {
+              entryPoints.add(m);
+            }
+          }
+        }
+      }
+    }
+    scene.setEntryPoints(entryPoints);
+  }
+
+  /**
+   * Removes the given edges from the call graph, and adds their targets to the given set.
+   */
+  private static void removeEdges(CallGraph cg, Iterator<Edge> edges, Set<MethodOrMethodContext> targets) {
+    List<Edge> toRemove = new ArrayList<Edge>();
+    while (edges.hasNext()) {
+      Edge e = edges.next();
+      toRemove.add(e);
+      targets.add(e.getTgt());
+    }
+    cg.removeEdges(toRemove);
+  }
+
+  /**
+   * Returns the methods among the given methods that lost an incoming edge and their transitive callees which are not
+   * reachable anymore. The methods that are not callees of these methods keep a path from the entry points, since the last
+   * removed edge on any lost path leads to one of these methods. So a callee is still reachable iff it is an entry point or
+   * called by a method outside of the callees, or called by such a callee.
+   */
+  private static Set<MethodOrMethodContext> unreachableCallees(CallGraph cg, Set<MethodOrMethodContext> lost,
+      Collection<SootMethod> entryPoints) {
+    final Set<MethodOrMethodContext> callees = new LinkedHashSet<MethodOrMethodContext>();
+    List<MethodOrMethodContext> worklist = new ArrayList<MethodOrMethodContext>(lost);
+    while (!worklist.isEmpty()) {
+      MethodOrMethodContext m = worklist.remove(worklist.size() - 1);
+      if (callees.add(m)) {
+        for (Iterator<Edge> it = cg.edgesOutOf(m); it.hasNext();) {
+          worklist.add(it.next().getTgt());
+        }
+      }
+    }
+
+    final Set<SootMethod> entryPointSet = new HashSet<SootMethod>(entryPoints);
+    for (MethodOrMethodContext m : callees) {
+      if (entryPointSet.contains(m)) {
+        worklist.add(m);
+        continue;
+      }
+      for (Iterator<Edge> it = cg.edgesInto(m); it.hasNext();) {
+        MethodOrMethodContext src = it.next().getSrc();
+        if (src != null && !callees.contains(src)) {
+          worklist.add(m);
+          break;
+        }
+      }
+    }
+    final Set<MethodOrMethodContext> unreachable = new HashSet<MethodOrMethodContext>(callees);
+    while (!worklist.isEmpty()) {
+      MethodOrMethodContext m = worklist.remove(worklist.size() - 1);
+      if (unreachable.remove(m)) {
+        for (Iterator<Edge> it = cg.edgesOutOf(m); it.hasNext();) {
+          worklist.add(it.next().getTgt());
+        }
+      }
+    }
+    return unreachable;
+  }
+
+  /**
+   * Returns the transitive superclasses and superinterfaces of the given class.
+   */
+  private static Set<SootClass> supertypesOf(SootClass c) {
+    Set<SootClass> ret = new LinkedHashSet<SootClass>();
+    List<SootClass> worklist = new ArrayList<SootClass>();
+    worklist.add(c);
+    while (!worklist.isEmpty()) {
+      SootClass cur = worklist.remove(worklist.size() - 1);
+      if (cur.hasSuperclass() && ret.add(cur.getSuperclass())) {
+        worklist.add(cur.getSuperclass());
+      }
+      for (SootClass i : cur.getInterfaces()) {
+        if (ret.add(i)) {
+          worklist.add(i);
+        }
+      }
+    }
+    return ret;
+  }
+
+  private static List<String> supertypes(SootClass c) {
+    List<String> ret = new ArrayList<String>();
+    ret.add(c.isPhantom() ? "phantom" : c.isInterface() ? "interface" : c.isAbstract() ? "abstract class" : "class");
+    ret.add(c.hasSuperclass() ? c.getSuperclass().getName() : null);
+    Set<String> interfaces = new TreeSet<String>();
+    for (SootClass i : c.getInterfaces()) {
+      interfaces.add(i.getName());
+    }
+    ret.addAll(interfaces);
+    return ret;
+  }
+
+  private static Map<String, Integer> dispatchModifiers(SootClass c) {
+    Map<String, Integer> ret = new HashMap<String, Integer>();
+    for (SootMethod m : c.getMethods()) {
+      ret.put(m.getSubSignature(), m.getModifiers() & DISPATCH_MODIFIERS);
+    }
+    return ret;
+  }
+
+  private static int methodIndex(Map<SootMethod, Integer> methods, SootMethod m) {
+    Integer index = methods.get(m);
+    if (index == null) {
+      index = methods.size();
+      methods.put(m, index);
+    }
+    return index;
+  }
+
+  private static Map<Unit, Integer> unitIndices(SootMethod m) {
+    Map<Unit, Integer> ret = new HashMap<Unit, Integer>();
+    for (Unit u : m.getActiveBody().getUnits()) {
+      ret.put(u, ret.size());
+    }
+    return ret;
+  }
+
+  private static void writeNullable(DataOutputStream out, String s) throws IOException {
+    out.writeBoolean(s != null);
+    if (s != null) {
+      out.writeUTF(s);
+    }
+  }
+
+  private static String readNullable(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  /**
+   * Returns a digest of the options that the call graph and the call sites in the bodies of its methods depend on.
+   */
+  private static String optionsKey() {
+    final PhaseOptions phaseOpts = PhaseOptions.v();
+    StringBuilder sb = new StringBuilder();
+    sb.append(FORMAT_VERSION);
+    sb.append(";java.version=").append(System.getProperty("java.version"));
+    sb.append(";main-class=").append(Options.v().main_class());
+    for (String pack : new String[] { "jb", "cg" }) {
+      Map<String, String> opts = new TreeMap<String, String>(phaseOpts.getPhaseOptions(pack));
+      opts.remove("snapshot");
+      sb.append(';').append(pack).append('=').append(opts);
+      for (Transform t : PackManager.v().getPack(pack)) {
+        sb.append(';').append(t.getPhaseName()).append('=');
+        sb.append(new TreeMap<String, String>(phaseOpts.getPhaseOptions(t)));
+      }
+    }
+    return PersistentBodyCache.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns a hash of the class file of the given class, or null if there is no such class file.
+   */
+  private static String fingerprint(SootClass c) {
+    IFoundFile file = SourceLocator.v().lookupInClassPath(c.getName().replace('.', '/') + ".class");
+    if (file == null) {
+      return null;
+    }
+    try (InputStream is = file.inputStream()) {
+      return PersistentBodyCache.digest(is.readAllBytes());
+    } catch (IOException e) {
+      return null;
+    } finally {
+      file.close();
+    }
+  }
+}
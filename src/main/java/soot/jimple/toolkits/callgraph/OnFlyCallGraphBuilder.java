@@ -273,25 +273,25 @@ public class OnFlyCallGraphBuilder {
   }
 
   public void processReachables() {
+    final List<MethodOrMethodContext> batch = new ArrayList<>();
     while (true) {
-      if (!worklist.hasNext()) {
+      if (worklist.drainTo(batch) == 0) {
         rm.update();
-        if (!worklist.hasNext()) {
+        if (worklist.drainTo(batch) == 0) {
           break;
         }
       }
-      MethodOrMethodContext momc = worklist.next();
-      if (momc == null) {
-        continue;
-      }
-      SootMethod m = momc.method();
-      if (appOnly && !m.getDeclaringClass().isApplicationClass()) {
-        continue;
-      }
-      if (analyzedMethods.add(m)) {
-        processNewMethod(m);
+      for (MethodOrMethodContext momc : batch) {
+        SootMethod m = momc.method();
+        if (appOnly && !m.getDeclaringClass().isApplicationClass()) {
+          continue;
+        }
+        if (analyzedMethods.add(m)) {
+          processNewMethod(m);
+        }
+        processNewMethodContext(momc);
       }
-      processNewMethodContext(momc);
+      batch.clear();
     }
   }
 
@@ -22,13 +22,16 @@ package soot.jimple.toolkits.callgraph;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import soot.MethodOrMethodContext;
-import soot.util.queue.ChunkedQueue;
+import soot.util.queue.ConcurrentChunkedQueue;
 import soot.util.queue.QueueReader;
 
 /**
@@ -38,11 +41,11 @@ import soot.util.queue.QueueReader;
  */
 public class ReachableMethods {
 
-  protected final ChunkedQueue<MethodOrMethodContext> reachables = new ChunkedQueue<>();
-  protected final Set<MethodOrMethodContext> set = new HashSet<>();
-  protected final QueueReader<MethodOrMethodContext> allReachables = reachables.reader();
+  // Listeners read the methods found before them from the set, so the queue only keeps the chunks they have not read
+  protected ConcurrentChunkedQueue<MethodOrMethodContext> reachables = new ConcurrentChunkedQueue<>();
+  protected final Set<MethodOrMethodContext> set = new LinkedHashSet<>();
   protected QueueReader<MethodOrMethodContext> unprocessedMethods;
-  protected Iterator<Edge> edgeSource;
+  protected QueueReader<Edge> edgeSource;
   protected CallGraph cg;
   protected Filter filter;
 
@@ -51,7 +54,8 @@ public class ReachableMethods {
     this.cg = graph;
     addMethods(entryPoints);
     this.unprocessedMethods = reachables.reader();
-    this.edgeSource = (filter == null) ? graph.listener() : filter.wrap(graph.listener());
+    // The filter is checked edge by edge in update(), since wrapping would be undone by the next call to filter.wrap()
+    this.edgeSource = graph.listener();
   }
 
   public ReachableMethods(CallGraph graph, Iterator<? extends MethodOrMethodContext> entryPoints) {
@@ -78,14 +82,15 @@ public class ReachableMethods {
    * Causes the QueueReader objects to be filled up with any methods that have become reachable since the last call.
    */
   public void update() {
-    while (edgeSource.hasNext()) {
-      Edge e = edgeSource.next();
-      if (e != null) {
+    final List<Edge> newEdges = new ArrayList<>();
+    while (edgeSource.drainTo(newEdges) > 0) {
+      for (Edge e : newEdges) {
         MethodOrMethodContext srcMethod = e.getSrc();
-        if (srcMethod != null && !e.isInvalid() && set.contains(srcMethod)) {
+        if (srcMethod != null && !e.isInvalid() && set.contains(srcMethod) && (filter == null || filter.accepts(e))) {
           addMethod(e.getTgt());
         }
       }
+      newEdges.clear();
     }
     while (unprocessedMethods.hasNext()) {
       MethodOrMethodContext m = unprocessedMethods.next();
@@ -102,12 +107,42 @@ public class ReachableMethods {
     }
   }
 
+  /**
+   * Removes the given methods, which are not reachable anymore since edges have been removed from the call graph. The
+   * readers returned by {@link #listener()} and {@link #newListener()} before this call are not informed of methods that
+   * are found to be reachable later.
+   */
+  void removeMethods(Collection<? extends MethodOrMethodContext> methods) {
+    if (!set.removeAll(methods)) {
+      return;
+    }
+    final QueueReader<MethodOrMethodContext> pending = unprocessedMethods;
+    reachables = new ConcurrentChunkedQueue<>();
+    // The methods that have not been processed yet stay at the end of the queue
+    final Set<MethodOrMethodContext> unprocessed = new HashSet<>();
+    for (QueueReader<MethodOrMethodContext> r = pending.clone(); r.hasNext();) {
+      unprocessed.add(r.next());
+    }
+    for (MethodOrMethodContext m : set) {
+      if (!unprocessed.contains(m)) {
+        reachables.add(m);
+      }
+    }
+    unprocessedMethods = reachables.reader();
+    while (pending.hasNext()) {
+      MethodOrMethodContext m = pending.next();
+      if (set.contains(m)) {
+        reachables.add(m);
+      }
+    }
+  }
+
   /**
    * Returns a QueueReader object containing all methods found reachable so far, and which will be informed of any new
    * methods that are later found to be reachable.
    */
   public QueueReader<MethodOrMethodContext> listener() {
-    return allReachables.clone();
+    return reachables.reader(set);
   }
 
   /**
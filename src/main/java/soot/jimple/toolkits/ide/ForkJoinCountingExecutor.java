@@ -0,0 +1,92 @@
+package soot.jimple.toolkits.ide;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import heros.solver.CountingThreadPoolExecutor;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link CountingThreadPoolExecutor} which runs its tasks on a work-stealing {@link ForkJoinPool}. Tasks submitted by a
+ * running task are pushed onto the deque of the worker thread that runs it, and idle workers steal from the other deques.
+ *
+ * <p>
+ * The executor of heros' solvers uses a single core thread with an unbounded queue, which means that all path edges are
+ * processed by one thread and pass through one shared queue. This executor uses all the threads it is given.
+ */
+public class ForkJoinCountingExecutor extends CountingThreadPoolExecutor {
+
+  private final ForkJoinPool pool;
+
+  public ForkJoinCountingExecutor(int numThreads) {
+    // The thread pool of the super class is never started, only its task counter and failure handling are used
+    super(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+    this.pool = new ForkJoinPool(Math.max(1, numThreads), ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false);
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    numRunningTasks.increment();
+    try {
+      pool.execute(() -> {
+        Throwable t = null;
+        try {
+          command.run();
+        } catch (RuntimeException | Error e) {
+          t = e;
+        } finally {
+          afterExecute(command, t);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      numRunningTasks.decrement();
+      throw e;
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    pool.shutdown();
+    super.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    pool.shutdownNow();
+    return super.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return pool.isShutdown();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return pool.awaitTermination(timeout, unit) && super.awaitTermination(timeout, unit);
+  }
+}
@@ -52,8 +52,27 @@ public class JimpleIFDSSolver<D, I extends InterproceduralCFG<Unit, SootMethod>>
   }
 
   public JimpleIFDSSolver(IFDSTabulationProblem<Unit, D, SootMethod, I> problem, boolean dumpResults) {
+    this(problem, dumpResults, false);
+  }
+
+  /**
+   * Creates a solver for the given problem.
+   *
+   * @param problem
+   *          the problem to solve
+   * @param dumpResults
+   *          whether to dump the results to a CSV file after solving
+   * @param forkJoin
+   *          whether to process the path edges on a work-stealing {@link ForkJoinCountingExecutor} using
+   *          {@link heros.SolverConfiguration#numThreads()} threads, instead of the executor of heros
+   */
+  public JimpleIFDSSolver(IFDSTabulationProblem<Unit, D, SootMethod, I> problem, boolean dumpResults, boolean forkJoin) {
     super(problem);
     this.DUMP_RESULTS = dumpResults;
+    if (forkJoin) {
+      executor.shutdown();
+      executor = new ForkJoinCountingExecutor(numThreads);
+    }
   }
 
   @Override
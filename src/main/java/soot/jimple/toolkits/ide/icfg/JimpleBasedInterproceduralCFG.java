@@ -34,11 +34,15 @@ import heros.solver.IDESolver;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import soot.Body;
 import soot.MethodOrMethodContext;
 import soot.Scene;
 import soot.SootMethod;
@@ -48,6 +52,7 @@ import soot.jimple.toolkits.callgraph.CallGraph;
 import soot.jimple.toolkits.callgraph.Edge;
 import soot.jimple.toolkits.callgraph.EdgePredicate;
 import soot.jimple.toolkits.callgraph.Filter;
+import soot.toolkits.graph.DirectedGraph;
 
 /**
  * Default implementation for the {@link InterproceduralCFG} interface. Includes all statements reachable from
@@ -147,6 +152,35 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
   protected final LoadingCache<SootMethod, Collection<Unit>> methodToCallers
       = IDESolver.DEFAULT_CACHE_BUILDER.build(loaderMethodToCallers);
 
+  /**
+   * The owners, successors, predecessors and callees of the units of the reachable methods, indexed by the number of the
+   * unit in {@link #index}.
+   */
+  protected static class FrozenICFG {
+    protected final Map<Unit, Integer> index;
+    protected final Body[] owners;
+    protected final List<Unit>[] succs;
+    protected final List<Unit>[] preds;
+    protected final Collection<SootMethod>[] callees;
+
+    @SuppressWarnings("unchecked")
+    protected FrozenICFG(int size) {
+      this.index = new IdentityHashMap<Unit, Integer>(size);
+      this.owners = new Body[size];
+      this.succs = new List[size];
+      this.preds = new List[size];
+      this.callees = new Collection[size];
+    }
+
+    protected int indexOf(Unit u) {
+      Integer i = index.get(u);
+      return i == null ? -1 : i;
+    }
+  }
+
+  @DontSynchronize("written once by freeze(), read-only afterwards")
+  protected volatile FrozenICFG frozen;
+
   public JimpleBasedInterproceduralCFG() {
     this(true);
   }
@@ -170,8 +204,95 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
     }
   }
 
+  /**
+   * Precomputes the owner, the successors, the predecessors and the callees of every unit of the reachable methods into
+   * arrays, so that the solver looks them up without going through the caches of this ICFG. The call graph and the bodies
+   * of the reachable methods must not change once this ICFG is frozen. Units which were not reachable when freezing are
+   * still looked up as before.
+   */
+  public void freeze() {
+    List<Body> bodies = new ArrayList<Body>();
+    int size = 0;
+    for (Iterator<MethodOrMethodContext> iter = Scene.v().getReachableMethods().listener(); iter.hasNext();) {
+      SootMethod m = iter.next().method();
+      if (m.hasActiveBody()) {
+        Body b = m.getActiveBody();
+        bodies.add(b);
+        size += b.getUnits().size();
+      }
+    }
+
+    FrozenICFG f = new FrozenICFG(size);
+    int i = 0;
+    for (Body b : bodies) {
+      DirectedGraph<Unit> graph = getOrCreateUnitGraph(b);
+      for (Unit u : b.getUnits()) {
+        if (f.index.putIfAbsent(u, i) == null) {
+          f.owners[i] = b;
+          f.succs[i] = graph.getSuccsOf(u);
+          f.preds[i] = graph.getPredsOf(u);
+          if (isCallStmt(u)) {
+            f.callees[i] = unitToCallees.getUnchecked(u);
+          }
+          i++;
+        }
+      }
+    }
+    frozen = f;
+  }
+
+  /**
+   * Returns true if {@link #freeze()} has been called.
+   */
+  public boolean isFrozen() {
+    return frozen != null;
+  }
+
+  @Override
+  public Body getBodyOf(Unit u) {
+    final FrozenICFG f = frozen;
+    if (f != null) {
+      int i = f.indexOf(u);
+      if (i >= 0) {
+        return f.owners[i];
+      }
+    }
+    return super.getBodyOf(u);
+  }
+
+  @Override
+  public List<Unit> getSuccsOf(Unit u) {
+    final FrozenICFG f = frozen;
+    if (f != null) {
+      int i = f.indexOf(u);
+      if (i >= 0) {
+        return f.succs[i];
+      }
+    }
+    return super.getSuccsOf(u);
+  }
+
+  @Override
+  public List<Unit> getPredsOf(Unit u) {
+    final FrozenICFG f = frozen;
+    if (f != null) {
+      int i = f.indexOf(u);
+      if (i >= 0) {
+        return f.preds[i];
+      }
+    }
+    return super.getPredsOf(u);
+  }
+
   @Override
   public Collection<SootMethod> getCalleesOfCallAt(Unit u) {
+    final FrozenICFG f = frozen;
+    if (f != null) {
+      int i = f.indexOf(u);
+      if (i >= 0 && f.callees[i] != null) {
+        return f.callees[i];
+      }
+    }
     return unitToCallees.getUnchecked(u);
   }
 
@@ -84,6 +84,7 @@ import soot.rtlib.tamiflex.UnexpectedReflectiveCall;
 import soot.toolkits.scalar.UnusedLocalEliminator;
 import soot.util.Chain;
 import soot.util.HashChain;
+import soot.validation.ValidationManager;
 
 public class ReflectiveCallsInliner extends SceneTransformer {
 
@@ -105,9 +106,11 @@ public class ReflectiveCallsInliner extends SceneTransformer {
   private int callSiteId;
   private int callNum;
   private SootClass reflectiveCallsClass;
+  private String phaseName;
 
   @Override
   protected void internalTransform(String phaseName, Map<String, String> options) {
+    this.phaseName = phaseName;
     if (!this.initialized) {
       final CGOptions cgOptions = new CGOptions(PhaseOptions.v().getPhaseOptions("cg"));
       this.RTI = new ReflectionTraceInfo(cgOptions.reflection_log());
@@ -146,7 +149,7 @@ public class ReflectiveCallsInliner extends SceneTransformer {
         if (!classForNameClassNames.isEmpty()) {
           inlineRelectiveCalls(m, classForNameClassNames, ReflectionTraceInfo.Kind.ClassForName);
           if (validate) {
-            b.validate();
+            ValidationManager.v().validateOrThrow(b, phaseName);
           }
         }
       }
@@ -155,7 +158,7 @@ public class ReflectiveCallsInliner extends SceneTransformer {
         if (!classNewInstanceClassNames.isEmpty()) {
           inlineRelectiveCalls(m, classNewInstanceClassNames, ReflectionTraceInfo.Kind.ClassNewInstance);
           if (validate) {
-            b.validate();
+            ValidationManager.v().validateOrThrow(b, phaseName);
           }
         }
       }
@@ -164,7 +167,7 @@ public class ReflectiveCallsInliner extends SceneTransformer {
         if (!constructorNewInstanceSignatures.isEmpty()) {
           inlineRelectiveCalls(m, constructorNewInstanceSignatures, ReflectionTraceInfo.Kind.ConstructorNewInstance);
           if (validate) {
-            b.validate();
+            ValidationManager.v().validateOrThrow(b, phaseName);
           }
         }
       }
@@ -173,7 +176,7 @@ public class ReflectiveCallsInliner extends SceneTransformer {
         if (!methodInvokeSignatures.isEmpty()) {
           inlineRelectiveCalls(m, methodInvokeSignatures, ReflectionTraceInfo.Kind.MethodInvoke);
           if (validate) {
-            b.validate();
+            ValidationManager.v().validateOrThrow(b, phaseName);
           }
         }
       }
@@ -182,7 +185,7 @@ public class ReflectiveCallsInliner extends SceneTransformer {
         if (!fieldSetSignatures.isEmpty()) {
           inlineRelectiveCalls(m, fieldSetSignatures, ReflectionTraceInfo.Kind.FieldSet);
           if (validate) {
-            b.validate();
+            ValidationManager.v().validateOrThrow(b, phaseName);
           }
         }
       }
@@ -191,7 +194,7 @@ public class ReflectiveCallsInliner extends SceneTransformer {
         if (!fieldGetSignatures.isEmpty()) {
           inlineRelectiveCalls(m, fieldGetSignatures, ReflectionTraceInfo.Kind.FieldGet);
           if (validate) {
-            b.validate();
+            ValidationManager.v().validateOrThrow(b, phaseName);
           }
         }
       }
@@ -269,7 +272,7 @@ public class ReflectiveCallsInliner extends SceneTransformer {
     PatchingChain<Unit> units = body.getUnits();
     units.insertAfter(newUnits, units.getPredOf(units.getLast()));
     if (Options.v().validate()) {
-      body.validate();
+      ValidationManager.v().validateOrThrow(body, phaseName);
     }
   }
 
@@ -343,7 +346,7 @@ public class ReflectiveCallsInliner extends SceneTransformer {
     units.insertAfter(newUnits, firstStmt);
 
     if (Options.v().validate()) {
-      body.validate();
+      ValidationManager.v().validateOrThrow(body, phaseName);
     }
   }
 
@@ -713,7 +716,7 @@ public class ReflectiveCallsInliner extends SceneTransformer {
     }
 
     if (Options.v().validate()) {
-      newBody.validate();
+      ValidationManager.v().validateOrThrow(newBody, phaseName);
     }
 
     cleanup(newBody);
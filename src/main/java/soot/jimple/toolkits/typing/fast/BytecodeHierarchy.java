@@ -8,6 +8,7 @@ import java.util.LinkedList;
 import java.util.ListIterator;
 
 import soot.ArrayType;
+import soot.FastHierarchy;
 import soot.FloatType;
 import soot.IntegerType;
 import soot.NullType;
@@ -173,6 +174,15 @@ public class BytecodeHierarchy implements IHierarchy {
       return r;
     } else {
       // a and b are both RefType
+      HierarchyQueryCache.Tables tables = null;
+      if (HierarchyQueryCache.isCacheable(a) && HierarchyQueryCache.isCacheable(b)) {
+        tables = HierarchyQueryCache.v().getTables(Scene.v().getOrMakeFastHierarchy());
+        Collection<Type> cached = tables.getLcas(a, b);
+        if (cached != null) {
+          return cached;
+        }
+      }
+
       Collection<AncestryTreeNode> treea = buildAncestryTree((RefType) a), treeb = buildAncestryTree((RefType) b);
 
       LinkedList<Type> r = new LinkedList<Type>();
@@ -207,6 +217,11 @@ public class BytecodeHierarchy implements IHierarchy {
       if (r.isEmpty()) {
         r.add(Scene.v().getObjectType());
       }
+      if (tables != null) {
+        Collection<Type> result = Collections.unmodifiableList(r);
+        tables.putLcas(a, b, result);
+        return result;
+      }
       return r;
     }
   }
@@ -227,7 +242,17 @@ public class BytecodeHierarchy implements IHierarchy {
     } else if (ancestor instanceof NullType) {
       return false;
     } else {
-      return Scene.v().getOrMakeFastHierarchy().canStoreType(child, ancestor);
+      final FastHierarchy h = Scene.v().getOrMakeFastHierarchy();
+      if (HierarchyQueryCache.isCacheable(ancestor) && HierarchyQueryCache.isCacheable(child)) {
+        HierarchyQueryCache.Tables tables = HierarchyQueryCache.v().getTables(h);
+        Boolean cached = tables.getAncestor(ancestor, child);
+        if (cached == null) {
+          cached = h.canStoreType(child, ancestor);
+          tables.putAncestor(ancestor, child, cached);
+        }
+        return cached;
+      }
+      return h.canStoreType(child, ancestor);
     }
   }
 
@@ -0,0 +1,137 @@
+package soot.jimple.toolkits.typing.fast;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import soot.ArrayType;
+import soot.FastHierarchy;
+import soot.G;
+import soot.PrimType;
+import soot.RefType;
+import soot.Scene;
+import soot.Singletons;
+import soot.Type;
+
+/**
+ * Caches the least common ancestors and ancestor relations which {@link BytecodeHierarchy} computes from the class
+ * hierarchy, keyed by the numbers of the types involved. The cached results belong to the active {@link FastHierarchy} of
+ * the {@link Scene} and are discarded as soon as a different one is active, i.e., when the hierarchy has been modified.
+ *
+ * <p>
+ * Only class types and arrays of class or primitive types are cached, as these are unique within the Scene. Instances of
+ * {@link WeakObjectType}, which the typing creates on demand, are never cached.
+ * </p>
+ */
+public class HierarchyQueryCache {
+
+  private volatile Tables tables;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public HierarchyQueryCache(Singletons.Global g) {
+  }
+
+  public static HierarchyQueryCache v() {
+    return G.v().soot_jimple_toolkits_typing_fast_HierarchyQueryCache();
+  }
+
+  /**
+   * Returns the tables for the given hierarchy, which must be the active one of the Scene. Results computed under this
+   * hierarchy must be stored in the returned tables.
+   */
+  Tables getTables(FastHierarchy hierarchy) {
+    Tables t = tables;
+    if (t == null || t.hierarchy != hierarchy) {
+      // Racing threads may replace each other's tables, which only costs some recomputation
+      t = new Tables(hierarchy);
+      tables = t;
+    }
+    return t;
+  }
+
+  /**
+   * Returns true if queries on the given type may be cached.
+   */
+  static boolean isCacheable(Type t) {
+    if (t instanceof ArrayType) {
+      t = ((ArrayType) t).baseType;
+    }
+    return t.getClass() == RefType.class || t instanceof PrimType;
+  }
+
+  /** Returns the number of queries answered from the cache. */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** Returns the number of queries that had to be computed. */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  private static Long key(Type a, Type b) {
+    return ((long) a.getNumber() << 32) | (b.getNumber() & 0xFFFFFFFFL);
+  }
+
+  /**
+   * The cached results for one hierarchy.
+   */
+  final class Tables {
+    private final FastHierarchy hierarchy;
+    private final Map<Long, Collection<Type>> lcas = new ConcurrentHashMap<Long, Collection<Type>>();
+    private final Map<Long, Boolean> ancestors = new ConcurrentHashMap<Long, Boolean>();
+
+    private Tables(FastHierarchy hierarchy) {
+      this.hierarchy = hierarchy;
+    }
+
+    /** Returns the cached least common ancestors of <code>a</code> and <code>b</code>, or null if they are not cached. */
+    Collection<Type> getLcas(Type a, Type b) {
+      return count(lcas.get(key(a, b)));
+    }
+
+    /** Caches the least common ancestors of <code>a</code> and <code>b</code>, which must not be modified anymore. */
+    void putLcas(Type a, Type b, Collection<Type> result) {
+      lcas.put(key(a, b), result);
+    }
+
+    /** Returns whether <code>ancestor</code> is an ancestor of <code>child</code>, or null if that is not cached. */
+    Boolean getAncestor(Type ancestor, Type child) {
+      return count(ancestors.get(key(ancestor, child)));
+    }
+
+    void putAncestor(Type ancestor, Type child, boolean result) {
+      ancestors.put(key(ancestor, child), result);
+    }
+
+    private <T> T count(T result) {
+      (result == null ? misses : hits).increment();
+      return result;
+    }
+  }
+}
@@ -39,8 +39,8 @@ import soot.jimple.InvokeStmt;
 import soot.jimple.NewExpr;
 import soot.jimple.SpecialInvokeExpr;
 import soot.jimple.Stmt;
-import soot.toolkits.graph.BriefUnitGraph;
 import soot.toolkits.graph.UnitGraph;
+import soot.validation.BodyValidationContext;
 import soot.validation.BodyValidator;
 import soot.validation.ValidationException;
 
@@ -68,7 +68,12 @@ public enum NewValidator implements BodyValidator {
    */
   @Override
   public void validate(Body body, List<ValidationException> exceptions) {
-    UnitGraph g = new BriefUnitGraph(body);
+    validate(body, new BodyValidationContext(body), exceptions);
+  }
+
+  @Override
+  public void validate(Body body, BodyValidationContext context, List<ValidationException> exceptions) {
+    UnitGraph g = context.getBriefUnitGraph();
     for (Unit u : body.getUnits()) {
       if (u instanceof AssignStmt) {
         AssignStmt assign = (AssignStmt) u;
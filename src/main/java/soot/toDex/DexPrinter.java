@@ -38,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -45,7 +46,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -212,6 +215,9 @@ public class DexPrinter {
   protected MultiDexBuilder dexBuilder;
   protected File originalApk;
 
+  // Classes converted with -parallel-dex-output, which are interned into the dex files by print()
+  protected final Queue<MultiDexBuilder.ReferencedClass> convertedClasses = new ConcurrentLinkedQueue<>();
+
   public DexPrinter() {
     dexBuilder = createDexBuilder();
   }
@@ -667,6 +673,11 @@ public class DexPrinter {
   }
 
   protected void addClassDefinition(ClassDef classDef) {
+    if (Options.v().parallel_dex_output()) {
+      // Collect the references on the converting thread, so that no lock is needed
+      convertedClasses.add(new MultiDexBuilder.ReferencedClass(classDef));
+      return;
+    }
     synchronized (dexBuilder) {
       dexBuilder.internClass(classDef);
     }
@@ -1222,7 +1233,7 @@ public class DexPrinter {
     LabelAssigner labelAssigner = new LabelAssigner(builder);
     List<BuilderInstruction> instructions = stmtV.getRealInsns(labelAssigner);
 
-    Map<Local, Integer> seenRegisters = new HashMap<>();
+    Map<Local, Integer> seenRegisters = new LinkedHashMap<>();
     Map<Instruction, LocalRegisterAssignmentInformation> instructionRegisterMap = stmtV.getInstructionRegisterMap();
 
     if (Options.v().write_local_annotations()) {
@@ -1708,13 +1719,41 @@ public class DexPrinter {
       return; // a class was written that was not a dex class or the class
       // originates from a .dex file, not an APK
     }
-    if (originalApk != null && !originalApk.equals(sourceForClass)) {
-      throw new CompilationDeathException("multiple APKs as source of an application are not supported");
+    synchronized (this) {
+      if (originalApk != null && !originalApk.equals(sourceForClass)) {
+        throw new CompilationDeathException("multiple APKs as source of an application are not supported");
+      }
+      originalApk = sourceForClass;
+    }
+  }
+
+  /**
+   * Interns the classes that have been converted concurrently. The threads finish them in no particular order, but both the
+   * split into dex files and the layout of each dex file depend on the order. The classes are therefore interned in the
+   * order of the application classes, which is the order in which they are interned without
+   * <code>-parallel-dex-output</code>. Other classes follow, sorted by name.
+   */
+  private void internConvertedClasses() {
+    List<MultiDexBuilder.ReferencedClass> classes = new ArrayList<>(convertedClasses);
+    convertedClasses.clear();
+    final Map<String, Integer> order = new HashMap<>();
+    for (SootClass sc : Scene.v().getApplicationClasses()) {
+      order.put(SootToDexUtils.getDexClassName(sc.getName()), order.size());
+    }
+    classes.sort(Comparator.comparing((MultiDexBuilder.ReferencedClass c) -> order.getOrDefault(c.getClassDef().getType(),
+        Integer.MAX_VALUE)).thenComparing(c -> c.getClassDef().getType()));
+
+    int threadNum = Options.v().num_threads();
+    if (threadNum < 1) {
+      threadNum = Runtime.getRuntime().availableProcessors();
     }
-    originalApk = sourceForClass;
+    dexBuilder.internClasses(classes, threadNum);
   }
 
   public void print() {
+    if (!convertedClasses.isEmpty()) {
+      internConvertedClasses();
+    }
     try {
       if (Options.v().output_jar()
           || (originalApk != null && Options.v().output_format() != Options.output_format_force_dex)) {
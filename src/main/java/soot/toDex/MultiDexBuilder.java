@@ -25,11 +25,30 @@ package soot.toDex;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.jf.dexlib2.Opcodes;
+import org.jf.dexlib2.iface.Annotation;
 import org.jf.dexlib2.iface.ClassDef;
+import org.jf.dexlib2.iface.ExceptionHandler;
+import org.jf.dexlib2.iface.Field;
+import org.jf.dexlib2.iface.Method;
+import org.jf.dexlib2.iface.MethodImplementation;
+import org.jf.dexlib2.iface.TryBlock;
+import org.jf.dexlib2.iface.instruction.DualReferenceInstruction;
+import org.jf.dexlib2.iface.instruction.Instruction;
+import org.jf.dexlib2.iface.instruction.ReferenceInstruction;
+import org.jf.dexlib2.iface.reference.FieldReference;
+import org.jf.dexlib2.iface.reference.MethodReference;
+import org.jf.dexlib2.iface.reference.Reference;
+import org.jf.dexlib2.iface.reference.TypeReference;
 import org.jf.dexlib2.writer.io.FileDataStore;
 import org.jf.dexlib2.writer.pool.DexPool;
 
@@ -38,9 +57,15 @@ import org.jf.dexlib2.writer.pool.DexPool;
  */
 public class MultiDexBuilder {
 
+  /**
+   * The maximum number of method, field or type references in a single dex file
+   */
+  protected static final int MAX_REFERENCES = 1 << 16;
+
   protected final Opcodes opcodes;
   protected final List<DexPool> dexPools = new LinkedList<>();
   protected DexPool curPool;
+  private boolean curPoolUsed = false;
 
   public MultiDexBuilder(Opcodes opcodes) {
     this.opcodes = opcodes;
@@ -53,6 +78,7 @@ public class MultiDexBuilder {
   }
 
   public void internClass(final ClassDef clz) {
+    curPoolUsed = true;
     curPool.mark();
     curPool.internClass(clz);
     if (hasOverflowed()) {
@@ -75,6 +101,105 @@ public class MultiDexBuilder {
     }
   }
 
+  /**
+   * Interns the given classes into new dex files. The classes are assigned to the dex files in the given order, and a new
+   * dex file is started as soon as a class would exceed the method, field or type limit of the current one. The dex files
+   * are then built on up to <code>threadNum</code> threads. Dex files whose references have been underestimated, e.g.,
+   * because of references in annotations, are rebuilt class by class with {@link #internClass(ClassDef)}.
+   *
+   * @param classes
+   *          the classes to intern, together with their references
+   * @param threadNum
+   *          the maximum number of dex files built at the same time
+   */
+  public void internClasses(List<ReferencedClass> classes, int threadNum) {
+    final List<List<ClassDef>> partitions = partition(classes);
+    if (partitions.isEmpty()) {
+      return;
+    }
+    if (partitions.size() > 1 && !opcodes.isArt()) {
+      throw new RuntimeException("Dex file overflow. Splitting not support for pre Lollipop Android (Api 22).");
+    }
+    if (!curPoolUsed) {
+      dexPools.remove(curPool);
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threadNum, partitions.size())));
+    try {
+      List<Future<DexPool>> pools = new ArrayList<>(partitions.size());
+      for (final List<ClassDef> partition : partitions) {
+        pools.add(executor.submit(() -> {
+          DexPool pool = new DexPool(opcodes);
+          for (ClassDef clz : partition) {
+            pool.internClass(clz);
+          }
+          return pool;
+        }));
+      }
+      for (int i = 0; i < partitions.size(); i++) {
+        DexPool pool = pools.get(i).get();
+        if (pool.hasOverflowed()) {
+          newDexPool();
+          for (ClassDef clz : partitions.get(i)) {
+            internClass(clz);
+          }
+        } else {
+          curPool = pool;
+          dexPools.add(pool);
+        }
+      }
+      curPoolUsed = true;
+    } catch (InterruptedException e) {
+      throw new RuntimeException("Could not wait for dex threads to finish: " + e.getMessage(), e);
+    } catch (ExecutionException e) {
+      Throwable exception = e.getCause();
+      if (exception instanceof RuntimeException) {
+        throw (RuntimeException) exception;
+      } else {
+        throw new RuntimeException(exception);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Splits the given classes into dex files such that none of them exceeds the method, field or type limit.
+   */
+  protected List<List<ClassDef>> partition(List<ReferencedClass> classes) {
+    final List<List<ClassDef>> partitions = new ArrayList<>();
+    final Set<MethodReference> methods = new HashSet<>();
+    final Set<FieldReference> fields = new HashSet<>();
+    final Set<String> types = new HashSet<>();
+    List<ClassDef> current = null;
+    for (ReferencedClass clz : classes) {
+      if (current == null || methods.size() + countNew(methods, clz.methods) > MAX_REFERENCES
+          || fields.size() + countNew(fields, clz.fields) > MAX_REFERENCES
+          || types.size() + countNew(types, clz.types) > MAX_REFERENCES) {
+        current = new ArrayList<>();
+        partitions.add(current);
+        methods.clear();
+        fields.clear();
+        types.clear();
+      }
+      current.add(clz.classDef);
+      methods.addAll(clz.methods);
+      fields.addAll(clz.fields);
+      types.addAll(clz.types);
+    }
+    return partitions;
+  }
+
+  private static <T> int countNew(Set<T> present, Set<T> items) {
+    int count = 0;
+    for (T item : items) {
+      if (!present.contains(item)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
   protected boolean hasOverflowed() {
     if (!curPool.hasOverflowed()) {
       return false;
@@ -121,4 +246,90 @@ public class MultiDexBuilder {
     }
     return result;
   }
+
+  /**
+   * A class definition together with the methods, fields and types it references. The references are collected when the
+   * object is created, so that classes can be prepared on several threads before they are interned.
+   */
+  public static final class ReferencedClass {
+    private final ClassDef classDef;
+    private final Set<MethodReference> methods = new HashSet<>();
+    private final Set<FieldReference> fields = new HashSet<>();
+    private final Set<String> types = new HashSet<>();
+
+    public ReferencedClass(ClassDef classDef) {
+      this.classDef = classDef;
+      addType(classDef.getType());
+      addType(classDef.getSuperclass());
+      for (String ifc : classDef.getInterfaces()) {
+        addType(ifc);
+      }
+      addAnnotations(classDef.getAnnotations());
+      for (Field f : classDef.getFields()) {
+        addField(f);
+        addAnnotations(f.getAnnotations());
+      }
+      for (Method m : classDef.getMethods()) {
+        addMethod(m);
+        addAnnotations(m.getAnnotations());
+        MethodImplementation impl = m.getImplementation();
+        if (impl != null) {
+          for (Instruction insn : impl.getInstructions()) {
+            if (insn instanceof ReferenceInstruction) {
+              addReference(((ReferenceInstruction) insn).getReference());
+            }
+            if (insn instanceof DualReferenceInstruction) {
+              addReference(((DualReferenceInstruction) insn).getReference2());
+            }
+          }
+          for (TryBlock<? extends ExceptionHandler> tb : impl.getTryBlocks()) {
+            for (ExceptionHandler handler : tb.getExceptionHandlers()) {
+              addType(handler.getExceptionType());
+            }
+          }
+        }
+      }
+    }
+
+    public ClassDef getClassDef() {
+      return classDef;
+    }
+
+    private void addReference(Reference ref) {
+      if (ref instanceof MethodReference) {
+        addMethod((MethodReference) ref);
+      } else if (ref instanceof FieldReference) {
+        addField((FieldReference) ref);
+      } else if (ref instanceof TypeReference) {
+        addType(((TypeReference) ref).getType());
+      }
+    }
+
+    private void addMethod(MethodReference m) {
+      methods.add(m);
+      addType(m.getDefiningClass());
+      addType(m.getReturnType());
+      for (CharSequence param : m.getParameterTypes()) {
+        addType(param.toString());
+      }
+    }
+
+    private void addField(FieldReference f) {
+      fields.add(f);
+      addType(f.getDefiningClass());
+      addType(f.getType());
+    }
+
+    private void addAnnotations(Set<? extends Annotation> annotations) {
+      for (Annotation a : annotations) {
+        addType(a.getType());
+      }
+    }
+
+    private void addType(String type) {
+      if (type != null) {
+        types.add(type);
+      }
+    }
+  }
 }
@@ -27,10 +27,18 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import soot.AnySubType;
 import soot.FastHierarchy;
@@ -40,6 +48,7 @@ import soot.RefType;
 import soot.Scene;
 import soot.Singletons;
 import soot.SootClass;
+import soot.Type;
 import soot.Unit;
 import soot.dotnet.types.DotNetBasicTypes;
 import soot.options.Options;
@@ -86,12 +95,24 @@ import soot.options.Options;
  * contains, though, because we trust {@link Scene} to enforce the existence of only one <code>RefLikeType</code> instance
  * with a given name.
  * </p>
+ *
+ * <p>
+ * Besides the sets of included and excluded types, every <code>ThrowableSet</code> keeps bit sets over the dense numbers
+ * that its {@link Manager} assigns to exception types, which make membership tests, hashing and comparisons cheap. The
+ * results of <code>add()</code>, {@link #catchableAs(RefType)} and {@link #whichCatchableAs(RefType)} are memoized, and all
+ * operations may be used concurrently.
+ * </p>
  */
 
 public class ThrowableSet {
+  private static final Logger logger = LoggerFactory.getLogger(ThrowableSet.class);
+
+  private static final long[] NO_BITS = new long[0];
+  private static final AtomicReferenceFieldUpdater<ThrowableSet, long[]> MEMOIZED_CATCHABLE_AS_UPDATER
+      = AtomicReferenceFieldUpdater.newUpdater(ThrowableSet.class, long[].class, "memoizedCatchableAs");
 
-  private static final boolean INSTRUMENTING = false;
   private final SootClass JAVA_LANG_OBJECT_CLASS = Scene.v().getObjectType().getSootClass();
+  private final Manager manager;
 
   /**
    * Set of exception types included within the set.
@@ -109,7 +130,22 @@ public class ThrowableSet {
    * elements in k to <code>this</code>. If (k,v) is in <code>memoizedAdds</code> and k is a {@link RefLikeType}, then v is
    * the set that results from adding k to <code>this</code>.
    */
-  protected Map<Object, ThrowableSet> memoizedAdds;
+  protected volatile Map<Object, ThrowableSet> memoizedAdds;
+
+  /**
+   * The numbers of the types in <code>exceptionsIncluded</code> and <code>exceptionsExcluded</code>, as assigned by
+   * {@link Manager#numberOf(RefLikeType)}. Equal sets have equal arrays, as the arrays have no trailing zero words.
+   */
+  private final long[] includedBits;
+  private final long[] excludedBits;
+  private final int hashCode;
+
+  /**
+   * Two bits for every catcher type number, the first of which says whether the result of {@link #catchableAs(RefType)} is
+   * known, and the second of which is that result.
+   */
+  private volatile long[] memoizedCatchableAs = NO_BITS;
+  private volatile Map<RefType, Pair> memoizedCatches;
 
   /**
    * Constructs a <code>ThrowableSet</code> which contains the exception types represented in <code>include</code>, except
@@ -122,6 +158,11 @@ public class ThrowableSet {
    *          The set of {@link AnySubType} objects representing the types to be excluded from the set.
    */
   protected ThrowableSet(Set<RefLikeType> include, Set<AnySubType> exclude) {
+    this(include, exclude, Manager.v());
+  }
+
+  private ThrowableSet(Set<RefLikeType> include, Set<AnySubType> exclude, Manager manager) {
+    this.manager = manager;
     exceptionsIncluded = getImmutable(include);
     exceptionsExcluded = getImmutable(exclude);
     // We don't need to clone include and exclude to guarantee
@@ -129,6 +170,9 @@ public class ThrowableSet {
     // class, where it is only called (via
     // Manager.v().registerSetIfNew()) with arguments which the
     // callers do not subsequently modify.
+    includedBits = manager.toBits(exceptionsIncluded);
+    excludedBits = manager.toBits(exceptionsExcluded);
+    hashCode = (31 * Arrays.hashCode(includedBits)) + Arrays.hashCode(excludedBits);
   }
 
   private static <T> Set<T> getImmutable(Set<T> in) {
@@ -162,15 +206,32 @@ public class ThrowableSet {
     }
   }
 
+  private static boolean contains(long[] bits, int number) {
+    final int word = number >>> 6;
+    return word < bits.length && (bits[word] & (1L << number)) != 0;
+  }
+
+  private boolean includes(RefLikeType e) {
+    return contains(includedBits, manager.numberOf(e));
+  }
+
   private ThrowableSet getMemoizedAdds(Object key) {
-    return memoizedAdds == null ? null : memoizedAdds.get(key);
+    final Map<Object, ThrowableSet> memo = memoizedAdds;
+    return memo == null ? null : memo.get(key);
   }
 
   private void addToMemoizedAdds(Object key, ThrowableSet value) {
-    if (memoizedAdds == null) {
-      memoizedAdds = new ConcurrentHashMap<>();
+    Map<Object, ThrowableSet> memo = memoizedAdds;
+    if (memo == null) {
+      synchronized (this) {
+        memo = memoizedAdds;
+        if (memo == null) {
+          memo = new ConcurrentHashMap<>();
+          memoizedAdds = memo;
+        }
+      }
     }
-    memoizedAdds.put(key, value);
+    memo.put(key, value);
   }
 
   /**
@@ -206,32 +267,32 @@ public class ThrowableSet {
    *           {@link #whichCatchableAs(RefType)} operation and, thus, unable to represent the addition of <code>e</code>.
    */
   public ThrowableSet add(RefType e) throws ThrowableSet.AlreadyHasExclusionsException {
-    if (INSTRUMENTING) {
-      Manager.v().addsOfRefType++;
+    if (manager.instrumenting) {
+      manager.count(Counter.ADDS_OF_REF_TYPE);
     }
-    if (this.exceptionsIncluded.contains(e)) {
-      if (INSTRUMENTING) {
-        Manager.v().addsInclusionFromMap++;
-        Manager.v().addsExclusionWithoutSearch++;
+    if (includes(e)) {
+      if (manager.instrumenting) {
+        manager.count(Counter.ADDS_INCLUSION_FROM_MAP);
+        manager.count(Counter.ADDS_EXCLUSION_WITHOUT_SEARCH);
       }
       return this;
     }
 
     ThrowableSet result = getMemoizedAdds(e);
     if (result != null) {
-      if (INSTRUMENTING) {
-        Manager.v().addsInclusionFromMemo++;
-        Manager.v().addsExclusionWithoutSearch++;
+      if (manager.instrumenting) {
+        manager.count(Counter.ADDS_INCLUSION_FROM_MEMO);
+        manager.count(Counter.ADDS_EXCLUSION_WITHOUT_SEARCH);
       }
       return result;
     }
 
-    if (INSTRUMENTING) {
-      Manager.v().addsInclusionFromSearch++;
+    if (manager.instrumenting) {
+      manager.count(Counter.ADDS_INCLUSION_FROM_SEARCH);
       if (exceptionsExcluded.isEmpty()) {
-        Manager.v().addsExclusionWithoutSearch++;
+        manager.count(Counter.ADDS_EXCLUSION_WITHOUT_SEARCH);
       } else {
-        Manager.v().addsExclusionWithSearch++;
+        manager.count(Counter.ADDS_EXCLUSION_WITH_SEARCH);
       }
     }
 
@@ -268,7 +329,7 @@ public class ThrowableSet {
     }
     Set<RefLikeType> resultSet = new HashSet<>(this.exceptionsIncluded);
     resultSet.add(e);
-    result = Manager.v().registerSetIfNew(resultSet, this.exceptionsExcluded);
+    result = manager.registerSetIfNew(resultSet, this.exceptionsExcluded);
     addToMemoizedAdds(e, result);
     return result;
   }
@@ -313,15 +374,15 @@ public class ThrowableSet {
    *           unable to represent the addition of <code>e</code>.
    */
   public ThrowableSet add(AnySubType e) throws ThrowableSet.AlreadyHasExclusionsException {
-    if (INSTRUMENTING) {
-      Manager.v().addsOfAnySubType++;
+    if (manager.instrumenting) {
+      manager.count(Counter.ADDS_OF_ANY_SUB_TYPE);
     }
 
     ThrowableSet result = getMemoizedAdds(e);
     if (result != null) {
-      if (INSTRUMENTING) {
-        Manager.v().addsInclusionFromMemo++;
-        Manager.v().addsExclusionWithoutSearch++;
+      if (manager.instrumenting) {
+        manager.count(Counter.ADDS_INCLUSION_FROM_MEMO);
+        manager.count(Counter.ADDS_EXCLUSION_WITHOUT_SEARCH);
       }
       return result;
     }
@@ -332,11 +393,11 @@ public class ThrowableSet {
     RefType newBase = e.getBase();
     boolean newBaseHasNoHierarchy = hasNoHierarchy(newBase);
 
-    if (INSTRUMENTING) {
+    if (manager.instrumenting) {
       if (exceptionsExcluded.isEmpty()) {
-        Manager.v().addsExclusionWithoutSearch++;
+        manager.count(Counter.ADDS_EXCLUSION_WITHOUT_SEARCH);
       } else {
-        Manager.v().addsExclusionWithSearch++;
+        manager.count(Counter.ADDS_EXCLUSION_WITH_SEARCH);
       }
     }
     for (AnySubType excludedType : exceptionsExcluded) {
@@ -349,24 +410,24 @@ public class ThrowableSet {
           && (hierarchy.canStoreType(newBase, exclusionBase) || hierarchy.canStoreType(exclusionBase, newBase));
 
       if (isExcluded) {
-        if (INSTRUMENTING) {
+        if (manager.instrumenting) {
           // To ensure that the subcategories total properly:
-          Manager.v().addsInclusionInterrupted++;
+          manager.count(Counter.ADDS_INCLUSION_INTERRUPTED);
         }
         throw new AlreadyHasExclusionsException("ThrowableSet.add(" + e.toString() + ") to the set [ " + this.toString()
             + "] where " + exclusionBase.toString() + " is excluded.");
       }
     }
 
-    if (this.exceptionsIncluded.contains(e)) {
-      if (INSTRUMENTING) {
-        Manager.v().addsInclusionFromMap++;
+    if (includes(e)) {
+      if (manager.instrumenting) {
+        manager.count(Counter.ADDS_INCLUSION_FROM_MAP);
       }
       return this;
     }
 
-    if (INSTRUMENTING) {
-      Manager.v().addsInclusionFromSearch++;
+    if (manager.instrumenting) {
+      manager.count(Counter.ADDS_INCLUSION_FROM_SEARCH);
     }
 
     int changes = 0;
@@ -412,7 +473,7 @@ public class ThrowableSet {
       changes++;
     }
     if (changes > 0) {
-      result = Manager.v().registerSetIfNew(resultSet, this.exceptionsExcluded);
+      result = manager.registerSetIfNew(resultSet, this.exceptionsExcluded);
     } else {
       result = this;
     }
@@ -435,8 +496,8 @@ public class ThrowableSet {
    *           <code>ThrowableSet</code>.
    */
   public ThrowableSet add(ThrowableSet s) throws ThrowableSet.AlreadyHasExclusionsException {
-    if (INSTRUMENTING) {
-      Manager.v().addsOfSet++;
+    if (manager.instrumenting) {
+      manager.count(Counter.ADDS_OF_SET);
     }
     if ((exceptionsExcluded.size() > 0) || (s.exceptionsExcluded.size() > 0)) {
       throw new AlreadyHasExclusionsException(
@@ -444,15 +505,15 @@ public class ThrowableSet {
     }
     ThrowableSet result = getMemoizedAdds(s);
     if (result == null) {
-      if (INSTRUMENTING) {
-        Manager.v().addsInclusionFromSearch++;
-        Manager.v().addsExclusionWithoutSearch++;
+      if (manager.instrumenting) {
+        manager.count(Counter.ADDS_INCLUSION_FROM_SEARCH);
+        manager.count(Counter.ADDS_EXCLUSION_WITHOUT_SEARCH);
       }
       result = this.add(s.exceptionsIncluded);
       addToMemoizedAdds(s, result);
-    } else if (INSTRUMENTING) {
-      Manager.v().addsInclusionFromMemo++;
-      Manager.v().addsExclusionWithoutSearch++;
+    } else if (manager.instrumenting) {
+      manager.count(Counter.ADDS_INCLUSION_FROM_MEMO);
+      manager.count(Counter.ADDS_EXCLUSION_WITHOUT_SEARCH);
     }
     return result;
   }
@@ -547,7 +608,7 @@ public class ThrowableSet {
 
     ThrowableSet result = null;
     if (changes > 0) {
-      result = Manager.v().registerSetIfNew(resultSet, this.exceptionsExcluded);
+      result = manager.registerSetIfNew(resultSet, this.exceptionsExcluded);
     } else {
       result = this;
     }
@@ -582,7 +643,7 @@ public class ThrowableSet {
 
     ThrowableSet result = null;
     if (changes > 0) {
-      result = Manager.v().registerSetIfNew(resultSet, this.exceptionsExcluded);
+      result = manager.registerSetIfNew(resultSet, this.exceptionsExcluded);
     } else {
       result = this;
     }
@@ -624,10 +685,33 @@ public class ThrowableSet {
    *         it does not.
    */
   public boolean catchableAs(RefType catcher) {
-    if (INSTRUMENTING) {
-      Manager.v().catchableAsQueries++;
+    if (manager.instrumenting) {
+      manager.count(Counter.CATCHABLE_AS_QUERIES);
+    }
+
+    final int number = manager.numberOf(catcher);
+    final int word = number >>> 5;
+    final int shift = (number & 31) << 1;
+    long[] memo = memoizedCatchableAs;
+    if (word < memo.length && (memo[word] & (1L << shift)) != 0) {
+      if (manager.instrumenting) {
+        manager.count(Counter.CATCHABLE_AS_FROM_MEMO);
+      }
+      return (memo[word] & (2L << shift)) != 0;
     }
 
+    final boolean result = searchCatchableAs(catcher);
+    final long bits = (result ? 3L : 1L) << shift;
+    long[] newMemo;
+    do {
+      memo = memoizedCatchableAs;
+      newMemo = Arrays.copyOf(memo, Math.max(memo.length, word + 1));
+      newMemo[word] |= bits;
+    } while (!MEMOIZED_CATCHABLE_AS_UPDATER.compareAndSet(this, memo, newMemo));
+    return result;
+  }
+
+  private boolean searchCatchableAs(RefType catcher) {
     FastHierarchy h = Scene.v().getOrMakeFastHierarchy();
     /**
      * Originally this implementation had checked if the catcher.getSootClass() is a phantom class. However this makes
@@ -639,8 +723,8 @@ public class ThrowableSet {
     boolean catcherHasNoHierarchy = hasNoHierarchy(catcher);
 
     if (exceptionsExcluded.size() > 0) {
-      if (INSTRUMENTING) {
-        Manager.v().catchableAsFromSearch++;
+      if (manager.instrumenting) {
+        manager.count(Counter.CATCHABLE_AS_FROM_SEARCH);
       }
       for (AnySubType exclusion : exceptionsExcluded) {
         if (catcherHasNoHierarchy) {
@@ -653,19 +737,19 @@ public class ThrowableSet {
       }
     }
 
-    if (exceptionsIncluded.contains(catcher)) {
-      if (INSTRUMENTING) {
+    if (includes(catcher)) {
+      if (manager.instrumenting) {
         if (exceptionsExcluded.size() == 0) {
-          Manager.v().catchableAsFromMap++;
+          manager.count(Counter.CATCHABLE_AS_FROM_MAP);
         } else {
-          Manager.v().catchableAsFromSearch++;
+          manager.count(Counter.CATCHABLE_AS_FROM_SEARCH);
         }
       }
       return true;
     } else {
-      if (INSTRUMENTING) {
+      if (manager.instrumenting) {
         if (exceptionsExcluded.size() == 0) {
-          Manager.v().catchableAsFromSearch++;
+          manager.count(Counter.CATCHABLE_AS_FROM_SEARCH);
         }
       }
       for (RefLikeType thrownType : exceptionsIncluded) {
@@ -708,18 +792,41 @@ public class ThrowableSet {
    *         would not be caught as <code>catcher</code>.
    */
   public Pair whichCatchableAs(RefType catcher) {
-    if (INSTRUMENTING) {
-      Manager.v().removesOfAnySubType++;
+    if (manager.instrumenting) {
+      manager.count(Counter.REMOVES_OF_ANY_SUB_TYPE);
     }
 
+    Map<RefType, Pair> memo = memoizedCatches;
+    if (memo == null) {
+      synchronized (this) {
+        memo = memoizedCatches;
+        if (memo == null) {
+          memo = new ConcurrentHashMap<>();
+          memoizedCatches = memo;
+        }
+      }
+    }
+    Pair result = memo.get(catcher);
+    if (result != null) {
+      if (manager.instrumenting) {
+        manager.count(Counter.REMOVES_FROM_MEMO);
+      }
+      return result;
+    }
+    result = searchWhichCatchableAs(catcher);
+    memo.put(catcher, result);
+    return result;
+  }
+
+  private Pair searchWhichCatchableAs(RefType catcher) {
     FastHierarchy h = Scene.v().getOrMakeFastHierarchy();
     Set<RefLikeType> caughtIncluded = null;
     Set<AnySubType> caughtExcluded = null;
     Set<RefLikeType> uncaughtIncluded = null;
     Set<AnySubType> uncaughtExcluded = null;
 
-    if (INSTRUMENTING) {
-      Manager.v().removesFromSearch++;
+    if (manager.instrumenting) {
+      manager.count(Counter.REMOVES_FROM_SEARCH);
     }
     boolean catcherHasNoHierarchy = hasNoHierarchy(catcher);
 
@@ -728,14 +835,14 @@ public class ThrowableSet {
 
       // Is the current type explicitly excluded?
       if (catcherHasNoHierarchy && exclusionBase.equals(catcher)) {
-        return new Pair(ThrowableSet.Manager.v().EMPTY, this);
+        return new Pair(manager.EMPTY, this);
       }
 
       if (h.canStoreType(catcher, exclusionBase)) {
         // Because the add() operations ban additions to sets
         // with exclusions, we can be sure no types in this are
         // caught by catcher.
-        return new Pair(ThrowableSet.Manager.v().EMPTY, this);
+        return new Pair(manager.EMPTY, this);
       } else if (h.canStoreType(exclusionBase, catcher)) {
         // exclusion wouldn't be in exceptionsExcluded if one
         // of its supertypes were not in exceptionsIncluded,
@@ -798,8 +905,8 @@ public class ThrowableSet {
         }
       }
     }
-    ThrowableSet caughtSet = Manager.v().registerSetIfNew(caughtIncluded, caughtExcluded);
-    ThrowableSet uncaughtSet = Manager.v().registerSetIfNew(uncaughtIncluded, uncaughtExcluded);
+    ThrowableSet caughtSet = manager.registerSetIfNew(caughtIncluded, caughtExcluded);
+    ThrowableSet uncaughtSet = manager.registerSetIfNew(uncaughtIncluded, uncaughtExcluded);
     return new Pair(caughtSet, uncaughtSet);
   }
 
@@ -966,11 +1073,7 @@ public class ThrowableSet {
 
   @Override
   public int hashCode() {
-    final int prime = 31;
-    int result = 1;
-    result = (prime * result) + exceptionsIncluded.hashCode();
-    result = (prime * result) + exceptionsExcluded.hashCode();
-    return result;
+    return hashCode;
   }
 
   @Override
@@ -983,7 +1086,8 @@ public class ThrowableSet {
     }
     ThrowableSet other = (ThrowableSet) obj;
 
-    return exceptionsIncluded.equals(other.exceptionsIncluded) && exceptionsExcluded.equals(other.exceptionsExcluded);
+    return hashCode == other.hashCode && Arrays.equals(includedBits, other.includedBits)
+        && Arrays.equals(excludedBits, other.excludedBits);
   }
 
   /**
@@ -1039,26 +1143,20 @@ public class ThrowableSet {
     /**
      * This map stores all referenced <code>ThrowableSet</code>s.
      */
-    private final Map<ThrowableSet, ThrowableSet> registry
+    private final ConcurrentMap<ThrowableSet, ThrowableSet> registry
         = CacheBuilder.newBuilder().weakValues().<ThrowableSet, ThrowableSet>build().asMap();
-    private final int removesFromMap = 0;
-    private final int removesFromMemo = 0;
+    /**
+     * The dense numbers of the exception types that occur in sets, guarded by itself.
+     */
+    private final Map<RefLikeType, Integer> typeNumbers = new HashMap<RefLikeType, Integer>();
+    /**
+     * Maps {@link Type#getNumber()} to the dense number of the type plus one, or to zero if the type has none yet. Entries
+     * are only written while holding the lock on <code>typeNumbers</code>, so that readers need no lock.
+     */
+    private volatile int[] typeNumberCache = new int[0];
     // counts for instrumenting:
-    private int addsOfRefType = 0;
-    private int addsOfAnySubType = 0;
-    private int addsOfSet = 0;
-    private int addsInclusionFromMap = 0;
-    private int addsInclusionFromMemo = 0;
-    private int addsInclusionFromSearch = 0;
-    private int addsInclusionInterrupted = 0;
-    private int addsExclusionWithSearch = 0;
-    private int addsExclusionWithoutSearch = 0;
-    private int removesOfAnySubType = 0;
-    private int removesFromSearch = 0;
-    private int registrationCalls = 0;
-    private int catchableAsQueries = 0;
-    private int catchableAsFromMap = 0;
-    private int catchableAsFromSearch = 0;
+    boolean instrumenting = Options.v().time();
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
 
     /**
      * Constructs a <code>ThrowableSet.Manager</code> for inclusion in Soot's global variable manager, {@link G}.
@@ -1067,6 +1165,10 @@ public class ThrowableSet {
      *          guarantees that the constructor may only be called from {@link Singletons}.
      */
     public Manager(Singletons.Global g) {
+      for (int i = 0; i < counters.length; i++) {
+        counters[i] = new LongAdder();
+      }
+
       // First ensure the Exception classes are represented in Soot. Note that Soot supports multiple target platforms such
       // as .net, which may use different exception classes. In that case, we just use null for the Java exception types.
       final Scene scene = Scene.v();
@@ -1209,42 +1311,126 @@ public class ThrowableSet {
      *         <code>exclude</code>.
      */
     protected ThrowableSet registerSetIfNew(Set<RefLikeType> include, Set<AnySubType> exclude) {
-      if (INSTRUMENTING) {
-        registrationCalls++;
+      if (instrumenting) {
+        count(Counter.REGISTRATION_CALLS);
       }
-      ThrowableSet result = new ThrowableSet(include, exclude);
+      ThrowableSet result = new ThrowableSet(include, exclude, this);
       ThrowableSet ref = registry.get(result);
       if (null != ref) {
         return ref;
       }
-      registry.put(result, result);
+      // Another thread may have registered an equal set in the meantime
+      ref = registry.putIfAbsent(result, result);
+      return ref == null ? result : ref;
+    }
+
+    /**
+     * Returns the dense number of the given exception type, which is assigned when the type is first seen.
+     */
+    int numberOf(RefLikeType type) {
+      final int typeNumber = ((Type) type).getNumber();
+      final int[] cache = typeNumberCache;
+      if (typeNumber < cache.length) {
+        final int number = cache[typeNumber];
+        if (number != 0) {
+          return number - 1;
+        }
+      }
+      synchronized (typeNumbers) {
+        // Equal types share their number, even if Scene numbered them separately
+        Integer number = typeNumbers.get(type);
+        if (number == null) {
+          number = typeNumbers.size();
+          typeNumbers.put(type, number);
+        }
+        int[] newCache = typeNumberCache;
+        if (typeNumber >= newCache.length) {
+          newCache = Arrays.copyOf(newCache, Math.max(typeNumber + 1, newCache.length * 2));
+        }
+        newCache[typeNumber] = number + 1;
+        typeNumberCache = newCache;
+        return number;
+      }
+    }
+
+    long[] toBits(Set<? extends RefLikeType> types) {
+      long[] bits = NO_BITS;
+      for (RefLikeType type : types) {
+        final int number = numberOf(type);
+        final int word = number >>> 6;
+        if (word >= bits.length) {
+          bits = Arrays.copyOf(bits, word + 1);
+        }
+        bits[word] |= 1L << number;
+      }
+      return bits;
+    }
+
+    void count(Counter counter) {
+      counters[counter.ordinal()].increment();
+    }
+
+    /**
+     * Returns true if the instrumentation counters are updated, which is initially the case if the <code>-time</code>
+     * option is set.
+     */
+    public boolean isInstrumenting() {
+      return instrumenting;
+    }
+
+    public void setInstrumenting(boolean instrumenting) {
+      this.instrumenting = instrumenting;
+    }
+
+    /**
+     * Returns the current value of the given instrumentation counter.
+     */
+    public long getCount(Counter counter) {
+      return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of <code>ThrowableSet</code>s which are currently registered.
+     */
+    public int getRegisteredSetCount() {
+      return registry.size();
+    }
+
+    /**
+     * Returns the number of registered sets and the values of all instrumentation counters, keyed by their names in the
+     * order in which {@link #reportInstrumentation()} lists them.
+     *
+     * @return an ordered map from names to counts.
+     */
+    public Map<String, Long> getInstrumentation() {
+      Map<String, Long> result = new LinkedHashMap<String, Long>();
+      result.put("registeredSets", (long) getRegisteredSetCount());
+      for (Counter counter : Counter.values()) {
+        result.put(counter.toString(), getCount(counter));
+      }
       return result;
     }
 
     /**
-     * Report the counts collected by instrumentation (for now, at least, there is no need to provide access to the
-     * individual values as numbers).
+     * Report the counts collected by instrumentation, see {@link #getInstrumentation()}.
      *
      * @return a string listing the counts.
      */
     public String reportInstrumentation() {
-      int setCount = registry.size();
-
-      StringBuffer buf = new StringBuffer("registeredSets: ").append(setCount).append("\naddsOfRefType: ")
-          .append(addsOfRefType).append("\naddsOfAnySubType: ").append(addsOfAnySubType).append("\naddsOfSet: ")
-          .append(addsOfSet).append("\naddsInclusionFromMap: ").append(addsInclusionFromMap)
-          .append("\naddsInclusionFromMemo: ").append(addsInclusionFromMemo).append("\naddsInclusionFromSearch: ")
-          .append(addsInclusionFromSearch).append("\naddsInclusionInterrupted: ").append(addsInclusionInterrupted)
-          .append("\naddsExclusionWithoutSearch: ").append(addsExclusionWithoutSearch).append("\naddsExclusionWithSearch: ")
-          .append(addsExclusionWithSearch).append("\nremovesOfAnySubType: ").append(removesOfAnySubType)
-          .append("\nremovesFromMap: ").append(removesFromMap).append("\nremovesFromMemo: ").append(removesFromMemo)
-          .append("\nremovesFromSearch: ").append(removesFromSearch).append("\nregistrationCalls: ")
-          .append(registrationCalls).append("\ncatchableAsQueries: ").append(catchableAsQueries)
-          .append("\ncatchableAsFromMap: ").append(catchableAsFromMap).append("\ncatchableAsFromSearch: ")
-          .append(catchableAsFromSearch).append('\n');
+      StringBuilder buf = new StringBuilder();
+      for (Map.Entry<String, Long> e : getInstrumentation().entrySet()) {
+        buf.append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+      }
       return buf.toString();
     }
 
+    /**
+     * Logs the counts collected by instrumentation.
+     */
+    public void printInstrumentation() {
+      logger.info("ThrowableSet instrumentation:\n" + reportInstrumentation());
+    }
+
     /**
      * A package-private method to provide unit tests with access to the collection of ThrowableSets.
      */
@@ -1253,6 +1439,32 @@ public class ThrowableSet {
     }
   }
 
+  /**
+   * The counters which {@link Manager} updates while {@link Manager#isInstrumenting()}.
+   */
+  public enum Counter {
+    ADDS_OF_REF_TYPE("addsOfRefType"), ADDS_OF_ANY_SUB_TYPE("addsOfAnySubType"), ADDS_OF_SET("addsOfSet"),
+    ADDS_INCLUSION_FROM_MAP("addsInclusionFromMap"), ADDS_INCLUSION_FROM_MEMO("addsInclusionFromMemo"),
+    ADDS_INCLUSION_FROM_SEARCH("addsInclusionFromSearch"), ADDS_INCLUSION_INTERRUPTED("addsInclusionInterrupted"),
+    ADDS_EXCLUSION_WITHOUT_SEARCH("addsExclusionWithoutSearch"), ADDS_EXCLUSION_WITH_SEARCH("addsExclusionWithSearch"),
+    REMOVES_OF_ANY_SUB_TYPE("removesOfAnySubType"), REMOVES_FROM_MAP("removesFromMap"),
+    REMOVES_FROM_MEMO("removesFromMemo"), REMOVES_FROM_SEARCH("removesFromSearch"),
+    REGISTRATION_CALLS("registrationCalls"), CATCHABLE_AS_QUERIES("catchableAsQueries"),
+    CATCHABLE_AS_FROM_MAP("catchableAsFromMap"), CATCHABLE_AS_FROM_MEMO("catchableAsFromMemo"),
+    CATCHABLE_AS_FROM_SEARCH("catchableAsFromSearch");
+
+    private final String name;
+
+    Counter(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
   public static class AlreadyHasExclusionsException extends IllegalStateException {
     private static final long serialVersionUID = 6785184160868722359L;
 
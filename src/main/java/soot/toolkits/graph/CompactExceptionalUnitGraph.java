@@ -0,0 +1,597 @@
+package soot.toolkits.graph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import soot.Body;
+import soot.RefType;
+import soot.Scene;
+import soot.Timers;
+import soot.Trap;
+import soot.Unit;
+import soot.UnitBox;
+import soot.baf.ThrowInst;
+import soot.jimple.ThrowStmt;
+import soot.options.Options;
+import soot.toolkits.exceptions.ThrowAnalysis;
+import soot.toolkits.exceptions.ThrowableSet;
+import soot.util.ArraySet;
+import soot.util.Chain;
+
+/**
+ * An {@link ExceptionalUnitGraph} that stores its edges in compressed sparse row form instead of maps. The units of the
+ * body are numbered densely by a {@link UnitNumbering} that is shared with other graphs of the same body, and the
+ * successors and predecessors of unit <code>i</code> are the units whose numbers are stored in
+ * <code>succs[succStart[i]]</code> to <code>succs[succStart[i + 1] - 1]</code>.
+ *
+ * <p>
+ * The graph has exactly the same nodes, edges, heads, tails and exception destinations as an
+ * <code>ExceptionalUnitGraph</code> built with the same arguments, and lists its successors and predecessors in the same
+ * order. The lists it returns are unmodifiable views of the underlying arrays.
+ * </p>
+ *
+ * @see ExceptionalUnitGraphFactory
+ */
+public class CompactExceptionalUnitGraph extends ExceptionalUnitGraph {
+  private static final int[] NO_EDGES = new int[0];
+
+  protected final UnitNumbering numbering;
+
+  // If there are no traps within the method, the exceptional arrays are empty and the combined arrays are the same as the
+  // unexceptional ones.
+  protected int[] unexceptionalSuccStart;
+  protected int[] unexceptionalSuccs;
+  protected int[] unexceptionalPredStart;
+  protected int[] unexceptionalPreds;
+  protected int[] exceptionalSuccStart;
+  protected int[] exceptionalSuccs;
+  protected int[] exceptionalPredStart;
+  protected int[] exceptionalPreds;
+  protected int[] succStart;
+  protected int[] succs;
+  protected int[] predStart;
+  protected int[] preds;
+
+  // The destinations of the exceptions of every unit, or null if all its exceptions escape the method
+  protected ExceptionDest[][] exceptionDests;
+
+  // Exceptional edges while the graph is built, as lists of outgoing and incoming edges in insertion order
+  private int[] edgeFrom;
+  private int[] edgeTo;
+  private int[] nextOut;
+  private int[] nextIn;
+  private int[] firstOut;
+  private int[] lastOut;
+  private int[] firstIn;
+  private int[] lastIn;
+  private int edgeCount;
+
+  /**
+   * Constructs the graph for a given Body instance, using the given {@link ThrowAnalysis} and the given value for
+   * <code>omitExceptingUnitEdges</code>.
+   *
+   * @param body
+   *          the body from which to build a graph.
+   * @param throwAnalysis
+   *          the source of information about the exceptions which each unit may throw.
+   * @param omitExceptingUnitEdges
+   *          indicates whether the CFG should omit edges to a handler from trapped units which may throw an exception
+   *          which the handler catches but which have no potential side effects.
+   */
+  public CompactExceptionalUnitGraph(Body body, ThrowAnalysis throwAnalysis, boolean omitExceptingUnitEdges) {
+    super(body, false);
+    this.numbering = UnitNumbering.of(body);
+    initialize(throwAnalysis, omitExceptingUnitEdges);
+  }
+
+  public CompactExceptionalUnitGraph(Body body, ThrowAnalysis throwAnalysis) {
+    this(body, throwAnalysis, Options.v().omit_excepting_unit_edges());
+  }
+
+  public CompactExceptionalUnitGraph(Body body) {
+    this(body, Scene.v().getDefaultThrowAnalysis(), Options.v().omit_excepting_unit_edges());
+  }
+
+  @Override
+  protected void initialize(ThrowAnalysis throwAnalysis, boolean omitExceptingUnitEdges) {
+    if (Options.v().time()) {
+      Timers.v().graphTimer.start();
+    }
+
+    final int size = numbering.size();
+    this.throwAnalysis = throwAnalysis;
+    buildUnexceptionalEdges();
+
+    Set<Unit> trapUnitsThatAreHeads;
+    if (body.getTraps().isEmpty()) {
+      exceptionDests = new ExceptionDest[size][];
+      exceptionalSuccStart = exceptionalPredStart = new int[size + 1];
+      exceptionalSuccs = exceptionalPreds = NO_EDGES;
+      trapUnitsThatAreHeads = Collections.emptySet();
+      succStart = unexceptionalSuccStart;
+      succs = unexceptionalSuccs;
+      predStart = unexceptionalPredStart;
+      preds = unexceptionalPreds;
+    } else {
+      int[] throwers = buildExceptionDests(throwAnalysis, size);
+      trapUnitsThatAreHeads = buildExceptionalEdges(throwAnalysis, throwers, omitExceptingUnitEdges);
+      succStart = new int[size + 1];
+      succs = combine(unexceptionalSuccStart, unexceptionalSuccs, exceptionalSuccStart, exceptionalSuccs, succStart);
+      predStart = new int[size + 1];
+      preds = combine(unexceptionalPredStart, unexceptionalPreds, exceptionalPredStart, exceptionalPreds, predStart);
+    }
+    buildHeadsAndTails(trapUnitsThatAreHeads);
+
+    if (Options.v().time()) {
+      Timers.v().graphTimer.end();
+    }
+    soot.util.PhaseDumper.v().dumpGraph(this);
+  }
+
+  /**
+   * Computes the edges corresponding to unexceptional control flow, in the same order as
+   * {@link UnitGraph#buildUnexceptionalEdges(java.util.Map, java.util.Map)}.
+   */
+  private void buildUnexceptionalEdges() {
+    final int size = numbering.size();
+    int[] start = new int[size + 1];
+    int[] targets = new int[size + 1];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      start[i] = count;
+      Unit u = numbering.get(i);
+      if (u.fallsThrough() && i + 1 < size) {
+        if (count == targets.length) {
+          targets = Arrays.copyOf(targets, count * 2);
+        }
+        targets[count++] = i + 1;
+      }
+      if (u.branches()) {
+        for (UnitBox box : u.getUnitBoxes()) {
+          int target = numbering.indexOf(box.getUnit());
+          if (target < 0) {
+            throw new IllegalStateException("Branch target " + box.getUnit() + " of " + u + " is not in the body of "
+                + method.getSignature());
+          }
+          // Arbitrary bytecode can branch to the same target it falls through to, so we screen for duplicates
+          if (!contains(targets, start[i], count, target)) {
+            if (count == targets.length) {
+              targets = Arrays.copyOf(targets, count * 2);
+            }
+            targets[count++] = target;
+          }
+        }
+      }
+    }
+    start[size] = count;
+
+    unexceptionalSuccStart = start;
+    unexceptionalSuccs = count == 0 ? NO_EDGES : Arrays.copyOf(targets, count);
+    unexceptionalPredStart = new int[size + 1];
+    unexceptionalPreds = invert(start, unexceptionalSuccs, unexceptionalPredStart);
+  }
+
+  /**
+   * Records the destinations of the exceptions of every unit covered by a trap, like
+   * {@link ExceptionalUnitGraph#buildExceptionDests(ThrowAnalysis)}.
+   *
+   * @return the numbers of the units that have at least one destination within the method, in the order in which the
+   *         first such destination was found.
+   */
+  private int[] buildExceptionDests(ThrowAnalysis throwAnalysis, int size) {
+    final Chain<Unit> units = body.getUnits();
+    final ThrowableSet empty = ThrowableSet.Manager.v().EMPTY;
+    ThrowableSet[] uncaught = new ThrowableSet[size];
+    List<ExceptionDest>[] dests = newDestLists(size);
+    int[] throwers = new int[8];
+    int throwerCount = 0;
+
+    // Record the caught exceptions.
+    for (Trap trap : body.getTraps()) {
+      RefType catcher = trap.getException().getType();
+      for (Iterator<Unit> unitIt = units.iterator(trap.getBeginUnit(), units.getPredOf(trap.getEndUnit())); unitIt
+          .hasNext();) {
+        Unit unit = unitIt.next();
+        int u = numbering.indexOf(unit);
+        ThrowableSet thrownSet = uncaught[u];
+        if (thrownSet == null) {
+          thrownSet = throwAnalysis.mightThrow(unit);
+        }
+        ThrowableSet.Pair catchableAs = thrownSet.whichCatchableAs(catcher);
+        if (!catchableAs.getCaught().equals(empty)) {
+          if (dests[u] == null) {
+            dests[u] = new ArrayList<ExceptionDest>(3);
+            if (throwerCount == throwers.length) {
+              throwers = Arrays.copyOf(throwers, throwerCount * 2);
+            }
+            throwers[throwerCount++] = u;
+          }
+          dests[u].add(new ExceptionDest(trap, catchableAs.getCaught()));
+          uncaught[u] = catchableAs.getUncaught();
+        }
+      }
+    }
+
+    // Add a destination for the exceptions that escape the method. If all exceptions of a unit escape, none is recorded.
+    exceptionDests = new ExceptionDest[size][];
+    for (int i = 0; i < throwerCount; i++) {
+      int u = throwers[i];
+      if (uncaught[u] != empty) {
+        dests[u].add(new ExceptionDest(null, uncaught[u]));
+      }
+      exceptionDests[u] = dests[u].toArray(new ExceptionDest[dests[u].size()]);
+    }
+    return Arrays.copyOf(throwers, throwerCount);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<ExceptionDest>[] newDestLists(int size) {
+    return new List[size];
+  }
+
+  /**
+   * Adds the exceptional edges, following {@link ExceptionalUnitGraph#buildExceptionalEdges} step by step so that the
+   * edges are found in the same order.
+   */
+  private Set<Unit> buildExceptionalEdges(ThrowAnalysis throwAnalysis, int[] throwers, boolean omitExceptingUnitEdges) {
+    final int size = numbering.size();
+    edgeFrom = new int[16];
+    edgeTo = new int[16];
+    nextOut = new int[16];
+    nextIn = new int[16];
+    firstOut = new int[size];
+    lastOut = new int[size];
+    firstIn = new int[size];
+    lastIn = new int[size];
+    Arrays.fill(firstOut, -1);
+    Arrays.fill(firstIn, -1);
+    edgeCount = 0;
+
+    Set<Unit> trapsThatAreHeads = new ArraySet<Unit>();
+    for (int thrower : throwers) {
+      Unit throwerUnit = numbering.get(thrower);
+      boolean alwaysAddSelfEdges = ((!omitExceptingUnitEdges) || mightHaveSideEffects(throwerUnit));
+      ThrowableSet predThrowables = null;
+      ThrowableSet selfThrowables = null;
+      if (throwerUnit instanceof ThrowInst) {
+        ThrowInst throwInst = (ThrowInst) throwerUnit;
+        predThrowables = throwAnalysis.mightThrowImplicitly(throwInst);
+        selfThrowables = throwAnalysis.mightThrowExplicitly(throwInst);
+      } else if (throwerUnit instanceof ThrowStmt) {
+        ThrowStmt throwStmt = (ThrowStmt) throwerUnit;
+        predThrowables = throwAnalysis.mightThrowImplicitly(throwStmt);
+        selfThrowables = throwAnalysis.mightThrowExplicitly(throwStmt);
+      }
+
+      for (ExceptionDest dest : exceptionDests[thrower]) {
+        if (dest.getTrap() != null) {
+          Unit catcherUnit = dest.getTrap().getHandlerUnit();
+          int catcher = numbering.indexOf(catcherUnit);
+          RefType trapsType = dest.getTrap().getException().getType();
+          if (predThrowables == null || predThrowables.catchableAs(trapsType)) {
+            if (thrower == 0) {
+              trapsThatAreHeads.add(catcherUnit);
+            }
+            for (int p = unexceptionalPredStart[thrower]; p < unexceptionalPredStart[thrower + 1]; p++) {
+              addExceptionalEdge(unexceptionalPreds[p], catcher);
+            }
+          }
+          if (alwaysAddSelfEdges || (selfThrowables != null && selfThrowables.catchableAs(trapsType))) {
+            addExceptionalEdge(thrower, catcher);
+          }
+        }
+      }
+    }
+
+    // Transitive exceptional edges, for handlers which might themselves throw an exception that is caught within the
+    // method. The work list contains the CFG edges that lead to such a handler, with -1 as the head of an edge from the
+    // fictitious predecessor of the first unit.
+    int[] workList = new int[16];
+    int workHead = 0;
+    int workTail = 0;
+    for (Trap trap : body.getTraps()) {
+      int handlerStart = numbering.indexOf(trap.getHandlerUnit());
+      if (exceptionDests[handlerStart] != null) {
+        int needed = workTail + 2 * (unexceptionalPredStart[handlerStart + 1] - unexceptionalPredStart[handlerStart]
+            + edgeCount + 1);
+        if (needed > workList.length) {
+          workList = Arrays.copyOf(workList, Math.max(needed, workList.length * 2));
+        }
+        for (int p = unexceptionalPredStart[handlerStart]; p < unexceptionalPredStart[handlerStart + 1]; p++) {
+          workList[workTail++] = unexceptionalPreds[p];
+          workList[workTail++] = handlerStart;
+        }
+        for (int e = firstIn[handlerStart]; e >= 0; e = nextIn[e]) {
+          workList[workTail++] = edgeFrom[e];
+          workList[workTail++] = handlerStart;
+        }
+        if (trapsThatAreHeads.contains(numbering.get(handlerStart))) {
+          workList[workTail++] = -1;
+          workList[workTail++] = handlerStart;
+        }
+      }
+    }
+
+    while (workHead < workTail) {
+      int pred = workList[workHead++];
+      int thrower = workList[workHead++];
+      ExceptionDest[] throwerDests = exceptionDests[thrower];
+      if (throwerDests == null) {
+        continue;
+      }
+      for (ExceptionDest dest : throwerDests) {
+        if (dest.getTrap() != null) {
+          Unit handlerUnit = dest.getTrap().getHandlerUnit();
+          int handlerStart = numbering.indexOf(handlerUnit);
+          boolean edgeAdded = false;
+          if (pred < 0) {
+            edgeAdded = trapsThatAreHeads.add(handlerUnit);
+          } else {
+            edgeAdded = addExceptionalEdge(pred, handlerStart);
+          }
+          if (edgeAdded && exceptionDests[handlerStart] != null) {
+            if (workTail + 2 > workList.length) {
+              if (workHead >= workList.length / 2) {
+                // Reuse the space of the edges already processed
+                System.arraycopy(workList, workHead, workList, 0, workTail - workHead);
+                workTail -= workHead;
+                workHead = 0;
+              } else {
+                workList = Arrays.copyOf(workList, workList.length * 2);
+              }
+            }
+            workList[workTail++] = pred;
+            workList[workTail++] = handlerStart;
+          }
+        }
+      }
+    }
+
+    // Compress the edge lists
+    exceptionalSuccStart = new int[size + 1];
+    exceptionalPredStart = new int[size + 1];
+    exceptionalSuccs = edgeCount == 0 ? NO_EDGES : new int[edgeCount];
+    exceptionalPreds = edgeCount == 0 ? NO_EDGES : new int[edgeCount];
+    int succCount = 0;
+    int predCount = 0;
+    for (int i = 0; i < size; i++) {
+      exceptionalSuccStart[i] = succCount;
+      for (int e = firstOut[i]; e >= 0; e = nextOut[e]) {
+        exceptionalSuccs[succCount++] = edgeTo[e];
+      }
+      exceptionalPredStart[i] = predCount;
+      for (int e = firstIn[i]; e >= 0; e = nextIn[e]) {
+        exceptionalPreds[predCount++] = edgeFrom[e];
+      }
+    }
+    exceptionalSuccStart[size] = succCount;
+    exceptionalPredStart[size] = predCount;
+
+    edgeFrom = edgeTo = nextOut = nextIn = firstOut = lastOut = firstIn = lastIn = null;
+    return trapsThatAreHeads;
+  }
+
+  /**
+   * Adds an exceptional edge unless it already exists.
+   *
+   * @return whether the edge has been added.
+   */
+  private boolean addExceptionalEdge(int head, int tail) {
+    for (int e = firstOut[head]; e >= 0; e = nextOut[e]) {
+      if (edgeTo[e] == tail) {
+        return false;
+      }
+    }
+    if (edgeCount == edgeFrom.length) {
+      int newLength = edgeCount * 2;
+      edgeFrom = Arrays.copyOf(edgeFrom, newLength);
+      edgeTo = Arrays.copyOf(edgeTo, newLength);
+      nextOut = Arrays.copyOf(nextOut, newLength);
+      nextIn = Arrays.copyOf(nextIn, newLength);
+    }
+    int e = edgeCount++;
+    edgeFrom[e] = head;
+    edgeTo[e] = tail;
+    nextOut[e] = -1;
+    nextIn[e] = -1;
+    if (firstOut[head] < 0) {
+      firstOut[head] = e;
+    } else {
+      nextOut[lastOut[head]] = e;
+    }
+    lastOut[head] = e;
+    if (firstIn[tail] < 0) {
+      firstIn[tail] = e;
+    } else {
+      nextIn[lastIn[tail]] = e;
+    }
+    lastIn[tail] = e;
+    return true;
+  }
+
+  /**
+   * Computes the reverse edges of the given edges. The reverse edges of every unit are ordered by their source.
+   */
+  private static int[] invert(int[] start, int[] targets, int[] reverseStart) {
+    final int size = reverseStart.length - 1;
+    final int count = start[size];
+    if (count == 0) {
+      return NO_EDGES;
+    }
+    for (int e = 0; e < count; e++) {
+      reverseStart[targets[e] + 1]++;
+    }
+    for (int i = 0; i < size; i++) {
+      reverseStart[i + 1] += reverseStart[i];
+    }
+    int[] fill = Arrays.copyOf(reverseStart, size);
+    int[] reverse = new int[count];
+    for (int i = 0; i < size; i++) {
+      for (int e = start[i]; e < start[i + 1]; e++) {
+        reverse[fill[targets[e]]++] = i;
+      }
+    }
+    return reverse;
+  }
+
+  /**
+   * Combines exceptional and unexceptional edges like {@link UnitGraph#combineMapValues(java.util.Map, java.util.Map)}.
+   */
+  private static int[] combine(int[] startA, int[] edgesA, int[] startB, int[] edgesB, int[] resultStart) {
+    final int size = resultStart.length - 1;
+    int[] result = new int[startA[size] + startB[size]];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      resultStart[i] = count;
+      int lengthA = startA[i + 1] - startA[i];
+      int lengthB = startB[i + 1] - startB[i];
+      // Copy the longer list first
+      if (lengthA >= lengthB) {
+        System.arraycopy(edgesA, startA[i], result, count, lengthA);
+        count = addMissing(result, resultStart[i], count + lengthA, edgesB, startB[i], startB[i + 1]);
+      } else {
+        System.arraycopy(edgesB, startB[i], result, count, lengthB);
+        count = addMissing(result, resultStart[i], count + lengthB, edgesA, startA[i], startA[i + 1]);
+      }
+    }
+    resultStart[size] = count;
+    return count == result.length ? result : Arrays.copyOf(result, count);
+  }
+
+  private static int addMissing(int[] result, int from, int to, int[] edges, int edgesFrom, int edgesTo) {
+    for (int e = edgesFrom; e < edgesTo; e++) {
+      if (!contains(result, from, to, edges[e])) {
+        result[to++] = edges[e];
+      }
+    }
+    return to;
+  }
+
+  private static boolean contains(int[] array, int from, int to, int value) {
+    for (int i = from; i < to; i++) {
+      if (array[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void buildHeadsAndTails(Set<Unit> additionalHeads) {
+    heads = new ArrayList<Unit>(additionalHeads.size() + 1);
+    heads.addAll(additionalHeads);
+    if (unitChain.isEmpty()) {
+      throw new IllegalStateException("No body for method " + body.getMethod().getSignature());
+    }
+    Unit entryPoint = unitChain.getFirst();
+    if (!heads.contains(entryPoint)) {
+      heads.add(entryPoint);
+    }
+
+    tails = new ArrayList<Unit>();
+    for (int i = 0; i < numbering.size(); i++) {
+      Unit u = numbering.get(i);
+      if (u instanceof soot.jimple.ReturnStmt || u instanceof soot.jimple.ReturnVoidStmt || u instanceof soot.baf.ReturnInst
+          || u instanceof soot.baf.ReturnVoidInst) {
+        tails.add(u);
+      } else if (u instanceof soot.jimple.ThrowStmt || u instanceof soot.baf.ThrowInst) {
+        // A throw is a tail if some of its exceptions escape the method
+        ExceptionDest[] dests = exceptionDests[i];
+        if (dests == null || dests[dests.length - 1].getTrap() == null) {
+          tails.add(u);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the numbering of the units of this graph.
+   */
+  public UnitNumbering getNumbering() {
+    return numbering;
+  }
+
+  private List<Unit> edges(int[] start, int[] edges, Unit u) {
+    int i = numbering.indexOf(u);
+    if (i < 0 || start[i] == start[i + 1]) {
+      return Collections.<Unit>emptyList();
+    }
+    return numbering.asList(edges, start[i], start[i + 1]);
+  }
+
+  @Override
+  public List<Unit> getPredsOf(Unit u) {
+    return edges(predStart, preds, u);
+  }
+
+  @Override
+  public List<Unit> getSuccsOf(Unit u) {
+    return edges(succStart, succs, u);
+  }
+
+  @Override
+  public List<Unit> getUnexceptionalPredsOf(Unit u) {
+    return edges(unexceptionalPredStart, unexceptionalPreds, u);
+  }
+
+  @Override
+  public List<Unit> getUnexceptionalSuccsOf(Unit u) {
+    return edges(unexceptionalSuccStart, unexceptionalSuccs, u);
+  }
+
+  @Override
+  public List<Unit> getExceptionalPredsOf(Unit u) {
+    return edges(exceptionalPredStart, exceptionalPreds, u);
+  }
+
+  @Override
+  public List<Unit> getExceptionalSuccsOf(Unit u) {
+    return edges(exceptionalSuccStart, exceptionalSuccs, u);
+  }
+
+  @Override
+  public Collection<ExceptionDest> getExceptionDests(final Unit u) {
+    int i = numbering.indexOf(u);
+    if (i >= 0 && exceptionDests[i] != null) {
+      return Collections.unmodifiableList(Arrays.asList(exceptionDests[i]));
+    }
+    ExceptionDest e = new ExceptionDest(null, null) {
+      private ThrowableSet throwables;
+
+      @Override
+      public ThrowableSet getThrowables() {
+        if (null == throwables) {
+          throwables = throwAnalysis.mightThrow(u);
+        }
+        return throwables;
+      }
+    };
+    return Collections.singletonList(e);
+  }
+}
@@ -22,7 +22,13 @@ package soot.toolkits.graph;
  * #L%
  */
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import soot.Body;
+import soot.BodyAnalysisCache;
 import soot.G;
 import soot.Scene;
 import soot.Singletons.Global;
@@ -30,6 +36,9 @@ import soot.options.Options;
 import soot.toolkits.exceptions.ThrowAnalysis;
 
 public class ExceptionalUnitGraphFactory {
+  private final Map<Body, UnitNumbering> unitNumberings
+      = Collections.synchronizedMap(new WeakHashMap<Body, UnitNumbering>());
+
   public ExceptionalUnitGraphFactory(Global g) {
   }
 
@@ -38,21 +47,51 @@ public class ExceptionalUnitGraphFactory {
   }
 
   public static ExceptionalUnitGraph createExceptionalUnitGraph(Body body) {
-    return v().newExceptionalUnitGraph(body, Scene.v().getDefaultThrowAnalysis(), Options.v().omit_excepting_unit_edges());
+    return v().getExceptionalUnitGraph(body, Scene.v().getDefaultThrowAnalysis(), Options.v().omit_excepting_unit_edges());
   }
 
   public static ExceptionalUnitGraph createExceptionalUnitGraph(Body body, ThrowAnalysis throwAnalysis) {
-    return v().newExceptionalUnitGraph(body, throwAnalysis, Options.v().omit_excepting_unit_edges());
+    return v().getExceptionalUnitGraph(body, throwAnalysis, Options.v().omit_excepting_unit_edges());
   }
 
   public static ExceptionalUnitGraph createExceptionalUnitGraph(Body body, ThrowAnalysis throwAnalysis,
       boolean omitExceptingUnitEdges) {
-    return v().newExceptionalUnitGraph(body, throwAnalysis, omitExceptingUnitEdges);
+    return v().getExceptionalUnitGraph(body, throwAnalysis, omitExceptingUnitEdges);
+  }
+
+  /**
+   * Returns the graph of the given body, which is taken from the {@link BodyAnalysisCache} if it is enabled.
+   */
+  protected ExceptionalUnitGraph getExceptionalUnitGraph(final Body body, final ThrowAnalysis throwAnalysis,
+      final boolean omitExceptingUnitEdges) {
+    BodyAnalysisCache cache = BodyAnalysisCache.v();
+    if (!cache.isEnabled()) {
+      return newExceptionalUnitGraph(body, throwAnalysis, omitExceptingUnitEdges);
+    }
+    return cache.get(body, BodyAnalysisCache.Kind.UNIT_GRAPH,
+        Arrays.asList(throwAnalysis, omitExceptingUnitEdges, Options.v().compact_cfgs()),
+        () -> newExceptionalUnitGraph(body, throwAnalysis, omitExceptingUnitEdges));
   }
 
   protected ExceptionalUnitGraph newExceptionalUnitGraph(Body body, ThrowAnalysis throwAnalysis,
       boolean omitExceptingUnitEdges) {
+    if (Options.v().compact_cfgs()) {
+      return new CompactExceptionalUnitGraph(body, throwAnalysis, omitExceptingUnitEdges);
+    }
     return new ExceptionalUnitGraph(body, throwAnalysis, omitExceptingUnitEdges);
   }
 
+  /**
+   * Returns the numbering of the units of the given body, which is shared by all graphs built for the body until its unit
+   * chain is modified.
+   */
+  protected UnitNumbering getUnitNumbering(Body body) {
+    UnitNumbering numbering = unitNumberings.get(body);
+    if (numbering == null || !numbering.isValid()) {
+      numbering = UnitNumbering.of(body.getUnits());
+      unitNumberings.put(body, numbering);
+    }
+    return numbering;
+  }
+
 }
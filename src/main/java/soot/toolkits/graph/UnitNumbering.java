@@ -0,0 +1,179 @@
+package soot.toolkits.graph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import soot.Body;
+import soot.Unit;
+import soot.util.Chain;
+
+/**
+ * Numbers the {@link Unit}s of a {@link Body} densely from 0 in the order of the unit chain. A numbering stays valid as long
+ * as the unit chain is not modified, so that all graphs built for an unchanged body can share it. Use {@link #of(Body)} to
+ * obtain the shared numbering of a body.
+ */
+public final class UnitNumbering {
+  private final Chain<Unit> chain;
+  private final long modificationCount;
+  private final Unit[] units;
+
+  // Open-addressing identity hash table from units to their numbers
+  private final Unit[] keys;
+  private final int[] values;
+  private final int mask;
+
+  private UnitNumbering(Chain<Unit> chain) {
+    this.chain = chain;
+    this.modificationCount = chain.getModificationCount();
+    this.units = chain.toArray(new Unit[chain.size()]);
+
+    int capacity = Integer.highestOneBit(Math.max(4, units.length) * 2 - 1) << 1;
+    this.keys = new Unit[capacity];
+    this.values = new int[capacity];
+    this.mask = capacity - 1;
+    for (int i = 0; i < units.length; i++) {
+      int slot = hash(units[i]) & mask;
+      while (keys[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = units[i];
+      values[slot] = i;
+    }
+  }
+
+  /**
+   * Returns the numbering of the units of the given body. The numbering is shared with all other callers as long as the unit
+   * chain of the body does not change.
+   */
+  public static UnitNumbering of(Body body) {
+    return ExceptionalUnitGraphFactory.v().getUnitNumbering(body);
+  }
+
+  /**
+   * Creates a new numbering of the given units that is not shared.
+   */
+  public static UnitNumbering of(Chain<Unit> units) {
+    return new UnitNumbering(units);
+  }
+
+  /**
+   * Returns whether this numbering still corresponds to the current state of the unit chain it was built for.
+   */
+  public boolean isValid() {
+    return chain.getModificationCount() == modificationCount && chain.size() == units.length;
+  }
+
+  /**
+   * Returns the number of units.
+   */
+  public int size() {
+    return units.length;
+  }
+
+  /**
+   * Returns the unit with the given number.
+   */
+  public Unit get(int number) {
+    return units[number];
+  }
+
+  /**
+   * Returns the number of the given unit, or -1 if the unit is not part of the numbered chain.
+   */
+  public int indexOf(Unit u) {
+    if (u == null) {
+      return -1;
+    }
+    for (int slot = hash(u) & mask;; slot = (slot + 1) & mask) {
+      Unit key = keys[slot];
+      if (key == u) {
+        return values[slot];
+      }
+      if (key == null) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * Returns an unmodifiable list view of the units whose numbers are stored in <code>numbers[from]</code> to
+   * <code>numbers[to - 1]</code>.
+   */
+  public List<Unit> asList(int[] numbers, int from, int to) {
+    return new UnitList(numbers, from, to);
+  }
+
+  private static int hash(Unit u) {
+    int h = System.identityHashCode(u);
+    return h ^ (h >>> 16);
+  }
+
+  private final class UnitList extends AbstractList<Unit> implements RandomAccess {
+    private final int[] numbers;
+    private final int from;
+    private final int size;
+
+    UnitList(int[] numbers, int from, int to) {
+      this.numbers = numbers;
+      this.from = from;
+      this.size = to - from;
+    }
+
+    @Override
+    public Unit get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return units[numbers[from + index]];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return indexOf(o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+      return o instanceof Unit ? indexOfNumber(UnitNumbering.this.indexOf((Unit) o)) : -1;
+    }
+
+    private int indexOfNumber(int number) {
+      if (number >= 0) {
+        for (int i = 0; i < size; i++) {
+          if (numbers[from + i] == number) {
+            return i;
+          }
+        }
+      }
+      return -1;
+    }
+  }
+}
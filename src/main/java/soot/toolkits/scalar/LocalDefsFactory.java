@@ -22,7 +22,10 @@ package soot.toolkits.scalar;
  * #L%
  */
 
+import java.util.Arrays;
+
 import soot.Body;
+import soot.BodyAnalysisCache;
 import soot.Singletons;
 import soot.toolkits.graph.ExceptionalUnitGraphFactory;
 import soot.toolkits.graph.UnitGraph;
@@ -33,6 +36,12 @@ import soot.toolkits.scalar.SimpleLocalDefs.FlowAnalysisMode;
  */
 public class LocalDefsFactory {
 
+  /**
+   * The number of units from which on graphs are analyzed by {@link SparseLocalDefs} rather than by the bit set analysis of
+   * {@link SimpleLocalDefs}.
+   */
+  public static final int SPARSE_THRESHOLD = 1000;
+
   /**
    * Singleton constructor.
    *
@@ -100,7 +109,7 @@ public class LocalDefsFactory {
    */
   public LocalDefs newLocalDefs(UnitGraph graph, boolean expectUndefined) {
     // return new SmartLocalDefs(graph, LiveLocals.Factory.newLiveLocals(graph));
-    return new SimpleLocalDefs(graph, expectUndefined ? FlowAnalysisMode.OmitSSA : FlowAnalysisMode.Automatic);
+    return getLocalDefs(graph, expectUndefined ? FlowAnalysisMode.OmitSSA : FlowAnalysisMode.Automatic);
   }
 
   /**
@@ -116,6 +125,26 @@ public class LocalDefsFactory {
    */
   public LocalDefs newLocalDefsFlowInsensitive(UnitGraph graph) {
     // return new SmartLocalDefs(graph, LiveLocals.Factory.newLiveLocals(graph));
-    return new SimpleLocalDefs(graph, FlowAnalysisMode.FlowInsensitive);
+    return getLocalDefs(graph, FlowAnalysisMode.FlowInsensitive);
+  }
+
+  /**
+   * Returns the local definitions for the given graph. They are taken from the {@link BodyAnalysisCache} if it is enabled
+   * and the graph has been taken from the cache as well.
+   */
+  private LocalDefs getLocalDefs(final UnitGraph graph, final FlowAnalysisMode mode) {
+    BodyAnalysisCache cache = BodyAnalysisCache.v();
+    if (cache.isEnabled() && cache.isCached(graph.getBody(), graph)) {
+      return cache.get(graph.getBody(), BodyAnalysisCache.Kind.LOCAL_DEFS, Arrays.asList(graph, mode),
+          () -> createLocalDefs(graph, mode));
+    }
+    return createLocalDefs(graph, mode);
+  }
+
+  private static LocalDefs createLocalDefs(UnitGraph graph, FlowAnalysisMode mode) {
+    if (graph.size() >= SPARSE_THRESHOLD && mode != FlowAnalysisMode.FlowInsensitive) {
+      return new SparseLocalDefs(graph, mode);
+    }
+    return new SimpleLocalDefs(graph, mode);
   }
 }
\ No newline at end of file
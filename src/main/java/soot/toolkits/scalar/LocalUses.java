@@ -25,6 +25,7 @@ package soot.toolkits.scalar;
 import java.util.List;
 
 import soot.Body;
+import soot.BodyAnalysisCache;
 import soot.G;
 import soot.Unit;
 import soot.toolkits.graph.UnitGraph;
@@ -50,7 +51,11 @@ public interface LocalUses {
     private Factory() {
     }
 
-    public static LocalUses newLocalUses(Body body, LocalDefs localDefs) {
+    public static LocalUses newLocalUses(final Body body, final LocalDefs localDefs) {
+      BodyAnalysisCache cache = BodyAnalysisCache.v();
+      if (cache.isEnabled() && cache.isCached(body, localDefs)) {
+        return cache.get(body, BodyAnalysisCache.Kind.LOCAL_USES, localDefs, () -> new SimpleLocalUses(body, localDefs));
+      }
       return new SimpleLocalUses(body, localDefs);
     }
 
@@ -25,6 +25,8 @@ package soot.toolkits.scalar;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -164,7 +166,18 @@ public class SharedInitializationLocalSplitter extends BodyTransformer {
     final ExceptionalUnitGraph graph
         = ExceptionalUnitGraphFactory.createExceptionalUnitGraph(body, throwAnalysis, omitExceptingUnitEdges);
     final LocalDefs defs = G.v().soot_toolkits_scalar_LocalDefsFactory().newLocalDefs(graph, true);
-    final MultiMap<Local, Cluster> clustersPerLocal = new HashMultiMap<Local, Cluster>();
+    // Keep the locals and their clusters in the order they are found, since the new locals are created in that order
+    final MultiMap<Local, Cluster> clustersPerLocal = new HashMultiMap<Local, Cluster>() {
+      @Override
+      protected Map<Local, Set<Cluster>> createMap(int initialSize) {
+        return new LinkedHashMap<Local, Set<Cluster>>(initialSize, loadFactor);
+      }
+
+      @Override
+      protected Set<Cluster> newSet() {
+        return new LinkedHashSet<Cluster>(4);
+      }
+    };
 
     final Map<Unit, Integer> stmtToIndex = new HashMap<>();
     final Map<Integer, Unit> indexToStmt = new HashMap<>();
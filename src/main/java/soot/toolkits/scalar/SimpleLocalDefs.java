@@ -189,20 +189,7 @@ public class SimpleLocalDefs implements LocalDefs {
 
     @Override
     protected Flow getFlow(Unit from, Unit to) {
-      // QND
-      if (to instanceof IdentityUnit && graph instanceof ExceptionalGraph) {
-        ExceptionalGraph<Unit> g = (ExceptionalGraph<Unit>) graph;
-        if (!g.getExceptionalPredsOf(to).isEmpty()) {
-          // look if there is a real exception edge
-          for (ExceptionDest<Unit> exd : g.getExceptionDests(from)) {
-            Trap trap = exd.getTrap();
-            if (trap != null && trap.getHandlerUnit() == to) {
-              return Flow.IN;
-            }
-          }
-        }
-      }
-      return Flow.OUT;
+      return isExceptionalEdge(graph, from, to) ? Flow.IN : Flow.OUT;
     }
 
     @Override
@@ -407,12 +394,42 @@ public class SimpleLocalDefs implements LocalDefs {
     }
 
     if (doFlowAnalsis && mode != FlowAnalysisMode.FlowInsensitive) {
-      return new FlowAssignment(graph, locals, unitList, units, omitSSA);
+      return newFlowSensitiveDefs(graph, locals, unitList, units, omitSSA);
     } else {
       return new StaticSingleAssignment(locals, unitList);
     }
   }
 
+  /**
+   * Creates the flow-sensitive analysis for the given def points. It is called while the locals are numbered by their
+   * position in <code>locals</code>.
+   */
+  protected LocalDefs newFlowSensitiveDefs(DirectedGraph<Unit> graph, Local[] locals, List<Unit>[] unitList, int units,
+      boolean omitSSA) {
+    return new FlowAssignment(graph, locals, unitList, units, omitSSA);
+  }
+
+  /**
+   * Returns true if the edge from <code>from</code> to <code>to</code> is a real exception edge to a handler, along which
+   * the definitions reaching <code>from</code> flow instead of those leaving it.
+   */
+  static boolean isExceptionalEdge(DirectedGraph<Unit> graph, Unit from, Unit to) {
+    // QND
+    if (to instanceof IdentityUnit && graph instanceof ExceptionalGraph) {
+      ExceptionalGraph<Unit> g = (ExceptionalGraph<Unit>) graph;
+      if (!g.getExceptionalPredsOf(to).isEmpty()) {
+        // look if there is a real exception edge
+        for (ExceptionDest<Unit> exd : g.getExceptionDests(from)) {
+          Trap trap = exd.getTrap();
+          if (trap != null && trap.getHandlerUnit() == to) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
   // Is protected so that in case we have a smarter implementation we can use it.
   protected int getLocalNumber(Local l) {
     return l.getNumber();
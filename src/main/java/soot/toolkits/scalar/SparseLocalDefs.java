@@ -0,0 +1,692 @@
+package soot.toolkits.scalar;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import soot.Local;
+import soot.Unit;
+import soot.Value;
+import soot.ValueBox;
+import soot.toolkits.graph.DirectedGraph;
+import soot.toolkits.graph.UnitGraph;
+
+/**
+ * An implementation of {@link LocalDefs} for large methods. It gives the same answers as the flow-sensitive analysis of
+ * {@link SimpleLocalDefs}, but computes them sparsely instead of propagating a bit set of all definitions through every
+ * unit.
+ *
+ * <p>
+ * As in the construction of SSA form by Cytron et al., a phi node is placed for a local at the iterated dominance frontier
+ * of the units defining it, and the definition or phi node reaching each unit is named by a walk of the dominator tree. A
+ * phi node stands for the union of the definitions reaching its operands. The dominator tree is computed with the
+ * algorithm of Cooper, Harvey and Kennedy on arrays, so the work is roughly proportional to the number of units, edges and
+ * phi nodes rather than to the number of units times the number of definitions.
+ * </p>
+ *
+ * <p>
+ * {@link LocalDefsFactory} uses this implementation for graphs with at least {@link LocalDefsFactory#SPARSE_THRESHOLD}
+ * units.
+ * </p>
+ */
+public class SparseLocalDefs extends SimpleLocalDefs {
+
+  public SparseLocalDefs(UnitGraph graph) {
+    this(graph, FlowAnalysisMode.Automatic);
+  }
+
+  public SparseLocalDefs(UnitGraph graph, FlowAnalysisMode mode) {
+    super(graph, mode);
+  }
+
+  SparseLocalDefs(DirectedGraph<Unit> graph, Local[] locals, FlowAnalysisMode mode) {
+    super(graph, locals, mode);
+  }
+
+  @Override
+  protected LocalDefs newFlowSensitiveDefs(DirectedGraph<Unit> graph, Local[] locals, List<Unit>[] unitList, int units,
+      boolean omitSSA) {
+    SparseAssignment defs = new SparseAssignment(graph, locals, unitList, omitSSA);
+    if (!defs.build()) {
+      // Units defining several locals are left to the bit set analysis
+      return super.newFlowSensitiveDefs(graph, locals, unitList, units, omitSSA);
+    }
+    return defs;
+  }
+
+  /**
+   * The reaching definitions of the locals that are defined more than once, or of all locals if <code>omitSSA</code> is set.
+   * Nodes are numbered in reverse post-order of the units reachable from the heads, after a virtual root node 0 which
+   * precedes all heads. Values are numbered by the position of the definition among those of all tracked locals, followed
+   * by the phi nodes.
+   */
+  class SparseAssignment implements LocalDefs {
+    private static final int UNDEFINED = -1;
+
+    private final DirectedGraph<Unit> graph;
+    private final boolean omitSSA;
+    private final List<Unit>[] unitList;
+    private final Map<Local, Integer> locals;
+    // For every local, its index among the tracked locals or -1
+    private final int[] tracked;
+    // For every tracked local, its definitions and the number of its first one
+    private final List<Unit>[] defsOf;
+    private final int[] firstDef;
+    private int numTracked;
+    private int numDefs;
+
+    private Map<Unit, Integer> nodeIds;
+    private int[] idom;
+    private int[] defLocal;
+    private int[] defValue;
+    private int[] phiStart;
+    private int[] phiLocal;
+    private long[][] phiDefs;
+    private int[] useStart;
+    private int[] useLocal;
+    private int[] useValue;
+
+    @SuppressWarnings("unchecked")
+    SparseAssignment(DirectedGraph<Unit> graph, Local[] locals, List<Unit>[] unitList, boolean omitSSA) {
+      final int N = locals.length;
+      this.graph = graph;
+      this.omitSSA = omitSSA;
+      this.unitList = unitList;
+      this.locals = new HashMap<Local, Integer>((N * 3) / 2 + 7);
+      this.tracked = new int[N];
+      this.defsOf = new List[N];
+      this.firstDef = new int[N];
+
+      for (int i = 0; i < N; i++) {
+        tracked[i] = -1;
+        List<Unit> defs = unitList[i];
+        if (defs == null || defs.isEmpty()) {
+          continue;
+        }
+        this.locals.put(locals[i], i);
+        if (defs.size() >= 2 || omitSSA) {
+          tracked[i] = numTracked;
+          defsOf[numTracked] = defs;
+          firstDef[numTracked] = numDefs;
+          numDefs += defs.size();
+          numTracked++;
+        }
+      }
+    }
+
+    /**
+     * Computes the reaching definitions. Returns false if the graph has units defining more than one local.
+     */
+    boolean build() {
+      final List<Unit> heads = graph.getHeads();
+      if (heads.isEmpty()) {
+        return false;
+      }
+
+      // Number the reachable units in reverse post-order
+      final int size = graph.size();
+      final Map<Unit, Integer> ids = new HashMap<Unit, Integer>((size * 4) / 3 + 1);
+      final Unit[] postOrder = new Unit[size];
+      final Unit[] stack = new Unit[size];
+      final int[] cursor = new int[size];
+      int count = 0;
+      for (Unit head : heads) {
+        if (ids.putIfAbsent(head, UNDEFINED) != null) {
+          continue;
+        }
+        stack[0] = head;
+        cursor[0] = 0;
+        for (int sp = 1; sp > 0;) {
+          Unit u = stack[sp - 1];
+          List<Unit> succs = graph.getSuccsOf(u);
+          if (cursor[sp - 1] < succs.size()) {
+            Unit s = succs.get(cursor[sp - 1]++);
+            if (ids.putIfAbsent(s, UNDEFINED) == null) {
+              stack[sp] = s;
+              cursor[sp] = 0;
+              sp++;
+            }
+          } else {
+            postOrder[count++] = u;
+            sp--;
+          }
+        }
+      }
+      final int n = count + 1;
+      final Unit[] nodes = new Unit[n];
+      for (int i = 0; i < count; i++) {
+        Unit u = postOrder[count - 1 - i];
+        nodes[i + 1] = u;
+        ids.put(u, i + 1);
+      }
+
+      // Successors and predecessors
+      final int[] succStart = new int[n + 1];
+      succStart[1] = heads.size();
+      for (int v = 1; v < n; v++) {
+        succStart[v + 1] = succStart[v] + graph.getSuccsOf(nodes[v]).size();
+      }
+      final int numEdges = succStart[n];
+      final int[] succ = new int[numEdges];
+      final int[] predStart = new int[n + 1];
+      for (int v = 0, e = 0; v < n; v++) {
+        for (Unit s : v == 0 ? heads : graph.getSuccsOf(nodes[v])) {
+          int id = ids.get(s);
+          succ[e++] = id;
+          predStart[id + 1]++;
+        }
+      }
+      for (int v = 0; v < n; v++) {
+        predStart[v + 1] += predStart[v];
+      }
+      final int[] pred = new int[numEdges];
+      final int[] fill = Arrays.copyOf(predStart, n);
+      for (int v = 0; v < n; v++) {
+        for (int e = succStart[v]; e < succStart[v + 1]; e++) {
+          pred[fill[succ[e]]++] = v;
+        }
+      }
+
+      // Definitions
+      final Map<Unit, Integer> defValues = new HashMap<Unit, Integer>((numDefs * 4) / 3 + 1);
+      for (int t = 0; t < numTracked; t++) {
+        List<Unit> defs = defsOf[t];
+        for (int i = 0; i < defs.size(); i++) {
+          defValues.put(defs.get(i), firstDef[t] + i);
+        }
+      }
+      final int[] defLocal = new int[n];
+      final int[] defValue = new int[n];
+      Arrays.fill(defLocal, UNDEFINED);
+      final int[] useStart = new int[n + 1];
+      int[] useLocal = new int[n];
+      int numUses = 0;
+      for (int v = 1; v < n; v++) {
+        boolean definesLocal = false;
+        for (ValueBox vb : nodes[v].getDefBoxes()) {
+          Value val = vb.getValue();
+          if (val instanceof Local) {
+            if (definesLocal) {
+              return false;
+            }
+            definesLocal = true;
+            int t = tracked[getLocalNumber((Local) val)];
+            if (t >= 0) {
+              defLocal[v] = t;
+              defValue[v] = defValues.get(nodes[v]);
+            }
+          }
+        }
+        for (ValueBox vb : nodes[v].getUseBoxes()) {
+          Value val = vb.getValue();
+          if (val instanceof Local) {
+            int t = tracked[getLocalNumber((Local) val)];
+            if (t >= 0) {
+              if (numUses == useLocal.length) {
+                useLocal = Arrays.copyOf(useLocal, numUses * 2);
+              }
+              useLocal[numUses++] = t;
+            }
+          }
+        }
+        useStart[v + 1] = numUses;
+      }
+
+      // Immediate dominators, following Cooper, Harvey and Kennedy
+      final int[] idom = new int[n];
+      Arrays.fill(idom, UNDEFINED);
+      idom[0] = 0;
+      for (boolean changed = true; changed;) {
+        changed = false;
+        for (int b = 1; b < n; b++) {
+          int d = UNDEFINED;
+          for (int e = predStart[b]; e < predStart[b + 1]; e++) {
+            int p = pred[e];
+            if (idom[p] != UNDEFINED) {
+              d = (d == UNDEFINED) ? p : intersect(idom, p, d);
+            }
+          }
+          if (idom[b] != d) {
+            idom[b] = d;
+            changed = true;
+          }
+        }
+      }
+
+      // Dominance frontiers, collected from the join nodes as in Cytron's algorithm
+      final int[] frontierStart = new int[n + 1];
+      final int[] last = new int[n];
+      Arrays.fill(last, UNDEFINED);
+      for (int b = 1; b < n; b++) {
+        if (predStart[b + 1] - predStart[b] >= 2) {
+          for (int e = predStart[b]; e < predStart[b + 1]; e++) {
+            for (int r = pred[e]; r != idom[b] && last[r] != b; r = idom[r]) {
+              last[r] = b;
+              frontierStart[r + 1]++;
+            }
+          }
+        }
+      }
+      for (int v = 0; v < n; v++) {
+        frontierStart[v + 1] += frontierStart[v];
+      }
+      final int[] frontier = new int[frontierStart[n]];
+      System.arraycopy(frontierStart, 0, fill, 0, n);
+      Arrays.fill(last, UNDEFINED);
+      for (int b = 1; b < n; b++) {
+        if (predStart[b + 1] - predStart[b] >= 2) {
+          for (int e = predStart[b]; e < predStart[b + 1]; e++) {
+            for (int r = pred[e]; r != idom[b] && last[r] != b; r = idom[r]) {
+              last[r] = b;
+              frontier[fill[r]++] = b;
+            }
+          }
+        }
+      }
+
+      // The exception edges along which the definitions reaching a defining unit flow, rather than its own. Their handlers
+      // need a phi node for the defined local.
+      final boolean[] edgeFromIn = new boolean[numEdges];
+      final int[] defNodeStart = new int[numTracked + 1];
+      for (int v = 1; v < n; v++) {
+        if (defLocal[v] != UNDEFINED) {
+          defNodeStart[defLocal[v] + 1]++;
+          for (int e = succStart[v]; e < succStart[v + 1]; e++) {
+            edgeFromIn[e] = isExceptionalEdge(graph, nodes[v], nodes[succ[e]]);
+          }
+        }
+      }
+      for (int t = 0; t < numTracked; t++) {
+        defNodeStart[t + 1] += defNodeStart[t];
+      }
+      final int[] defNodes = new int[defNodeStart[numTracked]];
+      final int[] defFill = Arrays.copyOf(defNodeStart, numTracked);
+      for (int v = 1; v < n; v++) {
+        if (defLocal[v] != UNDEFINED) {
+          defNodes[defFill[defLocal[v]]++] = v;
+        }
+      }
+
+      // Phi nodes at the iterated dominance frontiers
+      final int[] hasPhi = new int[n];
+      final int[] queued = new int[n];
+      final int[] work = new int[n];
+      int[] phiNodes = new int[16];
+      int[] phiLocals = new int[16];
+      int numPhis = 0;
+      for (int t = 0; t < numTracked; t++) {
+        final int stamp = t + 1;
+        int top = 0;
+        for (int i = defNodeStart[t]; i < defNodeStart[t + 1]; i++) {
+          int v = defNodes[i];
+          if (queued[v] != stamp) {
+            queued[v] = stamp;
+            work[top++] = v;
+          }
+          for (int e = succStart[v]; e < succStart[v + 1]; e++) {
+            int s = succ[e];
+            if (edgeFromIn[e] && hasPhi[s] != stamp) {
+              hasPhi[s] = stamp;
+              if (numPhis == phiNodes.length) {
+                phiNodes = Arrays.copyOf(phiNodes, numPhis * 2);
+                phiLocals = Arrays.copyOf(phiLocals, numPhis * 2);
+              }
+              phiNodes[numPhis] = s;
+              phiLocals[numPhis++] = t;
+              if (queued[s] != stamp) {
+                queued[s] = stamp;
+                work[top++] = s;
+              }
+            }
+          }
+        }
+        while (top > 0) {
+          int x = work[--top];
+          for (int i = frontierStart[x]; i < frontierStart[x + 1]; i++) {
+            int y = frontier[i];
+            if (hasPhi[y] != stamp) {
+              hasPhi[y] = stamp;
+              if (numPhis == phiNodes.length) {
+                phiNodes = Arrays.copyOf(phiNodes, numPhis * 2);
+                phiLocals = Arrays.copyOf(phiLocals, numPhis * 2);
+              }
+              phiNodes[numPhis] = y;
+              phiLocals[numPhis++] = t;
+              if (queued[y] != stamp) {
+                queued[y] = stamp;
+                work[top++] = y;
+              }
+            }
+          }
+        }
+      }
+
+      // Order the phi nodes by their node and reserve an operand for each incoming edge
+      final int[] phiStart = new int[n + 1];
+      for (int i = 0; i < numPhis; i++) {
+        phiStart[phiNodes[i] + 1]++;
+      }
+      for (int v = 0; v < n; v++) {
+        phiStart[v + 1] += phiStart[v];
+      }
+      final int[] phiLocal = new int[numPhis];
+      System.arraycopy(phiStart, 0, fill, 0, n);
+      for (int i = 0; i < numPhis; i++) {
+        phiLocal[fill[phiNodes[i]]++] = phiLocals[i];
+      }
+      final int[] operandStart = new int[numPhis + 1];
+      for (int v = 0; v < n; v++) {
+        for (int q = phiStart[v]; q < phiStart[v + 1]; q++) {
+          operandStart[q + 1] = operandStart[q] + predStart[v + 1] - predStart[v];
+        }
+      }
+      final int[] operands = new int[operandStart[numPhis]];
+      final int[] operandFill = Arrays.copyOf(operandStart, numPhis);
+
+      // Name the values reaching the uses and the phi operands in a pre-order walk of the dominator tree
+      final int[] childStart = new int[n + 1];
+      for (int b = 1; b < n; b++) {
+        childStart[idom[b] + 1]++;
+      }
+      for (int v = 0; v < n; v++) {
+        childStart[v + 1] += childStart[v];
+      }
+      final int[] children = new int[n - 1];
+      System.arraycopy(childStart, 0, fill, 0, n);
+      for (int b = 1; b < n; b++) {
+        children[fill[idom[b]]++] = b;
+      }
+      final int[] useValue = new int[numUses];
+      final int[] current = new int[numTracked];
+      Arrays.fill(current, UNDEFINED);
+      int[] undoLocal = new int[16];
+      int[] undoValue = new int[16];
+      int undoTop = 0;
+      final int[] treeNode = new int[n];
+      final int[] treeCursor = new int[n];
+      final int[] treeUndo = new int[n];
+      int depth = 0;
+      for (int v = 0;;) {
+        // Enter v
+        treeNode[depth] = v;
+        treeCursor[depth] = childStart[v];
+        treeUndo[depth] = undoTop;
+        depth++;
+        for (int q = phiStart[v]; q < phiStart[v + 1]; q++) {
+          int t = phiLocal[q];
+          if (undoTop == undoLocal.length) {
+            undoLocal = Arrays.copyOf(undoLocal, undoTop * 2);
+            undoValue = Arrays.copyOf(undoValue, undoTop * 2);
+          }
+          undoLocal[undoTop] = t;
+          undoValue[undoTop++] = current[t];
+          current[t] = numDefs + q;
+        }
+        for (int i = useStart[v]; i < useStart[v + 1]; i++) {
+          useValue[i] = current[useLocal[i]];
+        }
+        final int t = defLocal[v];
+        if (t != UNDEFINED) {
+          for (int e = succStart[v]; e < succStart[v + 1]; e++) {
+            if (edgeFromIn[e]) {
+              setOperands(succ[e], phiStart, phiLocal, current, operands, operandFill);
+            }
+          }
+          if (undoTop == undoLocal.length) {
+            undoLocal = Arrays.copyOf(undoLocal, undoTop * 2);
+            undoValue = Arrays.copyOf(undoValue, undoTop * 2);
+          }
+          undoLocal[undoTop] = t;
+          undoValue[undoTop++] = current[t];
+          current[t] = defValue[v];
+        }
+        for (int e = succStart[v]; e < succStart[v + 1]; e++) {
+          if (!edgeFromIn[e]) {
+            setOperands(succ[e], phiStart, phiLocal, current, operands, operandFill);
+          }
+        }
+
+        // Continue with the next child, leaving the nodes whose children are done
+        v = UNDEFINED;
+        while (depth > 0) {
+          int top = depth - 1;
+          if (treeCursor[top] < childStart[treeNode[top] + 1]) {
+            v = children[treeCursor[top]++];
+            break;
+          }
+          for (int mark = treeUndo[top]; undoTop > mark;) {
+            undoTop--;
+            current[undoLocal[undoTop]] = undoValue[undoTop];
+          }
+          depth--;
+        }
+        if (v == UNDEFINED) {
+          break;
+        }
+      }
+
+      this.nodeIds = ids;
+      this.idom = idom;
+      this.defLocal = defLocal;
+      this.defValue = defValue;
+      this.phiStart = phiStart;
+      this.phiLocal = phiLocal;
+      this.phiDefs = resolvePhis(phiLocal, operandStart, operands);
+      this.useStart = useStart;
+      this.useLocal = useLocal;
+      this.useValue = useValue;
+      return true;
+    }
+
+    private int intersect(int[] idom, int a, int b) {
+      while (a != b) {
+        while (a > b) {
+          a = idom[a];
+        }
+        while (b > a) {
+          b = idom[b];
+        }
+      }
+      return a;
+    }
+
+    private void setOperands(int s, int[] phiStart, int[] phiLocal, int[] current, int[] operands, int[] operandFill) {
+      for (int q = phiStart[s]; q < phiStart[s + 1]; q++) {
+        operands[operandFill[q]++] = current[phiLocal[q]];
+      }
+    }
+
+    /**
+     * Computes the definitions reaching every phi node, relative to the first definition of its local, as the least
+     * solution of the union of its operands.
+     */
+    private long[][] resolvePhis(int[] phiLocal, int[] operandStart, int[] operands) {
+      final int numPhis = phiLocal.length;
+      final long[][] result = new long[numPhis][];
+      final int[] userStart = new int[numPhis + 1];
+      for (int q = 0; q < numPhis; q++) {
+        final int t = phiLocal[q];
+        final long[] bits = new long[(defsOf[t].size() + 63) >>> 6];
+        for (int i = operandStart[q]; i < operandStart[q + 1]; i++) {
+          int o = operands[i];
+          if (o >= numDefs) {
+            if (o - numDefs != q) {
+              userStart[o - numDefs + 1]++;
+            }
+          } else if (o != UNDEFINED) {
+            int bit = o - firstDef[t];
+            bits[bit >>> 6] |= 1L << bit;
+          }
+        }
+        result[q] = bits;
+      }
+      for (int q = 0; q < numPhis; q++) {
+        userStart[q + 1] += userStart[q];
+      }
+      final int[] users = new int[userStart[numPhis]];
+      final int[] fill = Arrays.copyOf(userStart, numPhis);
+      for (int q = 0; q < numPhis; q++) {
+        for (int i = operandStart[q]; i < operandStart[q + 1]; i++) {
+          int o = operands[i] - numDefs;
+          if (o >= 0 && o != q) {
+            users[fill[o]++] = q;
+          }
+        }
+      }
+
+      final int[] queue = new int[numPhis];
+      final boolean[] queued = new boolean[numPhis];
+      for (int q = 0; q < numPhis; q++) {
+        queue[q] = q;
+        queued[q] = true;
+      }
+      for (int head = 0, size = numPhis; size > 0; size--) {
+        final int p = queue[head];
+        head = (head + 1) % numPhis;
+        queued[p] = false;
+        final long[] from = result[p];
+        for (int i = userStart[p]; i < userStart[p + 1]; i++) {
+          final int q = users[i];
+          final long[] to = result[q];
+          boolean changed = false;
+          for (int w = 0; w < from.length; w++) {
+            long merged = to[w] | from[w];
+            if (merged != to[w]) {
+              to[w] = merged;
+              changed = true;
+            }
+          }
+          if (changed && !queued[q]) {
+            queued[q] = true;
+            queue[(head + size - 1) % numPhis] = q;
+            size++;
+          }
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Returns the value of the given tracked local which reaches the given node.
+     */
+    private int valueBefore(int v, int t) {
+      for (int i = useStart[v]; i < useStart[v + 1]; i++) {
+        if (useLocal[i] == t) {
+          return useValue[i];
+        }
+      }
+      // Without a phi node, the value reaching a node is the one leaving its immediate dominator
+      for (;;) {
+        for (int q = phiStart[v]; q < phiStart[v + 1]; q++) {
+          if (phiLocal[q] == t) {
+            return numDefs + q;
+          }
+        }
+        v = idom[v];
+        if (v == 0) {
+          return UNDEFINED;
+        }
+        if (defLocal[v] == t) {
+          return defValue[v];
+        }
+      }
+    }
+
+    /**
+     * Returns the definitions of the given tracked local that make up the given value, in the same kind of list as
+     * {@link FlowAssignment}.
+     */
+    private List<Unit> asList(int t, int value) {
+      if (value == UNDEFINED) {
+        return Collections.emptyList();
+      }
+      final List<Unit> defs = defsOf[t];
+      final int last = defs.size() - 1;
+      if (value < numDefs) {
+        int i = value - firstDef[t];
+        if (i == last) {
+          return Collections.singletonList(defs.get(i));
+        }
+        List<Unit> elements = new ArrayList<Unit>(1);
+        elements.add(defs.get(i));
+        return elements;
+      }
+      final long[] bits = phiDefs[value - numDefs];
+      int w = 0;
+      while (w < bits.length && bits[w] == 0) {
+        w++;
+      }
+      if (w == bits.length) {
+        return Collections.emptyList();
+      }
+      final int first = (w << 6) + Long.numberOfTrailingZeros(bits[w]);
+      if (first == last) {
+        return Collections.singletonList(defs.get(first));
+      }
+      List<Unit> elements = new ArrayList<Unit>(defs.size() - first);
+      for (; w < bits.length; w++) {
+        for (long word = bits[w]; word != 0; word &= word - 1) {
+          elements.add(defs.get((w << 6) + Long.numberOfTrailingZeros(word)));
+        }
+      }
+      return elements;
+    }
+
+    @Override
+    public List<Unit> getDefsOfAt(Local l, Unit s) {
+      Integer lno = locals.get(l);
+      if (lno == null) {
+        return Collections.emptyList();
+      }
+      final int t = tracked[lno];
+      if (t < 0) {
+        assert (!omitSSA && unitList[lno].size() == 1);
+        // singletonList is immutable
+        return unitList[lno];
+      }
+      Integer v = nodeIds.get(s);
+      if (v == null) {
+        // not reachable from the heads
+        return Collections.emptyList();
+      }
+      return asList(t, valueBefore(v, t));
+    }
+
+    @Override
+    public List<Unit> getDefsOf(Local l) {
+      List<Unit> defs = new ArrayList<Unit>();
+      for (Unit u : graph) {
+        List<Unit> defsOf = getDefsOfAt(l, u);
+        if (defsOf != null) {
+          defs.addAll(defsOf);
+        }
+      }
+      return defs;
+    }
+  }
+}
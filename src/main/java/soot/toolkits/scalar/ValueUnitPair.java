@@ -23,6 +23,7 @@ package soot.toolkits.scalar;
  */
 
 import soot.AbstractValueBox;
+import soot.BodyAnalysisCache;
 import soot.EquivTo;
 import soot.Unit;
 import soot.UnitBox;
@@ -80,6 +81,7 @@ public class ValueUnitPair extends AbstractValueBox implements UnitBox, EquivTo
 
     // Perform link
     this.unit = unit;
+    BodyAnalysisCache.noteModification();
 
     // Add this to back pointers
     if (this.unit != null) {
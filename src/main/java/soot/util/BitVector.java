@@ -138,6 +138,16 @@ public class BitVector {
     return (bits[indexOf(bit)] & mask(bit)) != 0L;
   }
 
+  /**
+   * Returns the 64 bits starting at bit <code>64 * index</code>, with the lowest of them in the least significant position.
+   */
+  public long getWord(int index) {
+    if (index >= bits.length) {
+      return 0L;
+    }
+    return bits[index];
+  }
+
   @Override
   public int hashCode() {
     long ret = 0;
@@ -0,0 +1,189 @@
+package soot.util;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import heros.ThreadSafe;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A numberer like {@link ArrayNumberer} which can be used by several threads without a global lock. Numbers are taken from
+ * an atomic counter, and the objects are stored in buckets that double in size and are never copied, so that lookups by
+ * number do not need to lock either.
+ *
+ * <p>
+ * Numbers freed by {@link #remove(Numberable)} are reused by later additions, as in {@link ArrayNumberer}.
+ */
+@ThreadSafe
+public class ConcurrentArrayNumberer<E extends Numberable> implements IterableNumberer<E> {
+
+  // The size of the first bucket, as a power of two
+  private static final int FIRST_BUCKET_BITS = 10;
+  private static final int NUM_BUCKETS = 32 - FIRST_BUCKET_BITS;
+
+  private final AtomicReferenceArray<AtomicReferenceArray<E>> buckets
+      = new AtomicReferenceArray<AtomicReferenceArray<E>>(NUM_BUCKETS);
+  private final AtomicInteger lastNumber = new AtomicInteger();
+  private final Queue<Integer> freeNumbers = new ConcurrentLinkedQueue<Integer>();
+
+  public ConcurrentArrayNumberer() {
+  }
+
+  private static int bucketOf(int number) {
+    return 31 - Integer.numberOfLeadingZeros(number + (1 << FIRST_BUCKET_BITS)) - FIRST_BUCKET_BITS;
+  }
+
+  private static int indexOf(int number, int bucket) {
+    return number + (1 << FIRST_BUCKET_BITS) - (1 << (bucket + FIRST_BUCKET_BITS));
+  }
+
+  private AtomicReferenceArray<E> getOrCreateBucket(int bucket) {
+    AtomicReferenceArray<E> b = buckets.get(bucket);
+    if (b == null) {
+      b = new AtomicReferenceArray<E>(1 << (bucket + FIRST_BUCKET_BITS));
+      if (!buckets.compareAndSet(bucket, null, b)) {
+        b = buckets.get(bucket);
+      }
+    }
+    return b;
+  }
+
+  @Override
+  public void add(E o) {
+    if (o.getNumber() != 0) {
+      return;
+    }
+    // Only guards against adding the same object twice, so this lock is not contended
+    synchronized (o) {
+      if (o.getNumber() != 0) {
+        return;
+      }
+      Integer free = freeNumbers.poll();
+      int chosenNumber = free != null ? free : lastNumber.incrementAndGet();
+      // Number the object before publishing it, so that it is numbered when looked up by other threads
+      o.setNumber(chosenNumber);
+      int bucket = bucketOf(chosenNumber);
+      getOrCreateBucket(bucket).set(indexOf(chosenNumber, bucket), o);
+    }
+  }
+
+  @Override
+  public long get(E o) {
+    if (o == null) {
+      return 0;
+    }
+    int ret = o.getNumber();
+    if (ret == 0) {
+      throw new RuntimeException("unnumbered: " + o);
+    }
+    return ret;
+  }
+
+  @Override
+  public E get(long number) {
+    if (number <= 0 || number > lastNumber.get()) {
+      return null;
+    }
+    int n = (int) number;
+    int bucket = bucketOf(n);
+    AtomicReferenceArray<E> b = buckets.get(bucket);
+    return b == null ? null : b.get(indexOf(n, bucket));
+  }
+
+  @Override
+  public int size() {
+    return lastNumber.get();
+  }
+
+  /**
+   * Returns an iterator over the numbered objects, in the order of their numbers. Objects which are added concurrently may
+   * or may not be returned.
+   */
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      int cur = 0;
+      E next = advance();
+      E lastReturned;
+
+      private E advance() {
+        final int last = lastNumber.get();
+        while (cur < last) {
+          E e = get(++cur);
+          if (e != null) {
+            return e;
+          }
+        }
+        return null;
+      }
+
+      @Override
+      public final boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public final E next() {
+        E ret = next;
+        if (ret == null) {
+          throw new NoSuchElementException();
+        }
+        next = advance();
+        lastReturned = ret;
+        return ret;
+      }
+
+      @Override
+      public final void remove() {
+        if (lastReturned == null) {
+          throw new IllegalStateException();
+        }
+        ConcurrentArrayNumberer.this.remove(lastReturned);
+        lastReturned = null;
+      }
+    };
+  }
+
+  @Override
+  public boolean remove(E o) {
+    if (o == null) {
+      return false;
+    }
+    synchronized (o) {
+      int num = o.getNumber();
+      if (num == 0) {
+        return false;
+      }
+      int bucket = bucketOf(num);
+      buckets.get(bucket).set(indexOf(num, bucket), null);
+      o.setNumber(0);
+      freeNumbers.add(num);
+      return true;
+    }
+  }
+}
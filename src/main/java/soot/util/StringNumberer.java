@@ -24,25 +24,30 @@ package soot.util;
 
 import heros.ThreadSafe;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * A class that numbers strings, so they can be placed in bitsets.
+ * A class that numbers strings, so they can be placed in bitsets. Strings which are already numbered are looked up without
+ * locking, and new strings only lock the bin of the map they fall into.
  *
  * @author Ondrej Lhotak
  */
 @ThreadSafe
-public class StringNumberer extends ArrayNumberer<NumberedString> {
+public class StringNumberer extends ConcurrentArrayNumberer<NumberedString> {
 
-  private final Map<String, NumberedString> stringToNumbered = new HashMap<String, NumberedString>(1024);
+  private final ConcurrentMap<String, NumberedString> stringToNumbered
+      = new ConcurrentHashMap<String, NumberedString>(1024);
 
-  public synchronized NumberedString findOrAdd(String s) {
+  public NumberedString findOrAdd(String s) {
     NumberedString ret = stringToNumbered.get(s);
     if (ret == null) {
-      ret = new NumberedString(s);
-      stringToNumbered.put(s, ret);
-      add(ret);
+      // The string is numbered before it is published, as NumberedString relies on its number
+      ret = stringToNumbered.computeIfAbsent(s, k -> {
+        NumberedString n = new NumberedString(k);
+        add(n);
+        return n;
+      });
     }
     return ret;
   }
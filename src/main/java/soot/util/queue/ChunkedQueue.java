@@ -22,6 +22,8 @@ package soot.util.queue;
  * #L%
  */
 
+import java.util.Collection;
+
 /**
  * A queue of Object's. One can add objects to the queue, and they are later read by a QueueReader. One can create arbitrary
  * numbers of QueueReader's for a queue, and each one receives all the Object's that are added. Only objects that have not
@@ -58,6 +60,13 @@ public class ChunkedQueue<E> {
     q[index++] = o;
   }
 
+  /** Add all given objects to the queue, in the order of the collection. */
+  public void addAll(Collection<? extends E> c) {
+    for (E o : c) {
+      add(o);
+    }
+  }
+
   /** Create reader which will read objects from the queue. */
   public QueueReader<E> reader() {
     return new QueueReader<E>((E[]) q, index);
@@ -0,0 +1,300 @@
+package soot.util.queue;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link ChunkedQueue} that keeps track of the positions of its readers, and to which several threads may add objects at
+ * the same time. Objects added by one call to {@link #addAll(Collection)} are kept together in the queue.
+ *
+ * <p>
+ * The queue holds on to its chunks from the one of its slowest reader onwards, so that {@link #reader(Collection)} can read
+ * all objects added so far from the queue itself. Chunks behind all readers are dropped when a new chunk is started. A
+ * reader that is no longer referenced stops counting once it has been garbage collected. Once chunks have been dropped,
+ * {@link #reader(Collection)} reads the objects added so far from the given history instead.
+ *
+ * <p>
+ * {@link QueueReader#drainTo(Collection)} synchronizes with the adding threads. The other methods of the readers do not. A
+ * reader sees the objects that were added before the reader's thread synchronized with the adding threads, for example by
+ * joining them or by draining the reader.
+ */
+@SuppressWarnings("unchecked")
+public class ConcurrentChunkedQueue<E> extends ChunkedQueue<E> {
+
+  /** The oldest chunk that is still kept for the readers. */
+  private Object[] head;
+  /** The number of slots for objects in the chunks before {@link #head}. */
+  private long headBase = 0;
+  /** The number of slots for objects in the chunks before the chunk that objects are added to. */
+  private long tailBase = 0;
+
+  private final List<WeakReference<Reader<E>>> readers = new ArrayList<WeakReference<Reader<E>>>();
+  private int purgeThreshold = 16;
+
+  public ConcurrentChunkedQueue() {
+    head = q;
+  }
+
+  @Override
+  public synchronized void add(E o) {
+    append(o);
+  }
+
+  @Override
+  public synchronized void addAll(Collection<? extends E> c) {
+    for (E o : c) {
+      append(o);
+    }
+  }
+
+  private void append(E o) {
+    if (o == null) {
+      throw new IllegalArgumentException("Null is not allowed");
+    }
+    if (index == LENGTH - 1) {
+      Object[] temp = new Object[LENGTH];
+      q[index] = temp;
+      q = temp;
+      index = 0;
+      tailBase += LENGTH - 1;
+      reclaim();
+    }
+    q[index++] = o;
+  }
+
+  /**
+   * Drops the chunks that all readers have left behind.
+   */
+  private void reclaim() {
+    long min = tailBase;
+    for (Iterator<WeakReference<Reader<E>>> it = readers.iterator(); it.hasNext();) {
+      Reader<E> r = it.next().get();
+      if (r == null) {
+        it.remove();
+      } else {
+        min = Math.min(min, r.chunkBase);
+      }
+    }
+    while (headBase < min) {
+      head = (Object[]) head[LENGTH - 1];
+      headBase += LENGTH - 1;
+    }
+  }
+
+  private Reader<E> register(Reader<E> r) {
+    if (readers.size() >= purgeThreshold) {
+      for (Iterator<WeakReference<Reader<E>>> it = readers.iterator(); it.hasNext();) {
+        if (it.next().get() == null) {
+          it.remove();
+        }
+      }
+      purgeThreshold = Math.max(16, 2 * readers.size());
+    }
+    readers.add(new WeakReference<Reader<E>>(r));
+    return r;
+  }
+
+  @Override
+  public synchronized QueueReader<E> reader() {
+    return register(new Reader<E>(this, null, 0, (E[]) q, index, tailBase));
+  }
+
+  /**
+   * Creates a reader that reads all objects added to this queue so far, and then the objects that are added later. As long
+   * as the queue still holds its first chunk, the reader starts there. Otherwise, it first reads the given history. The
+   * history must contain the objects added so far in the order in which they were added, except for those that have been
+   * removed. It is copied, and the copy is dropped once the reader has read it.
+   *
+   * @param history
+   *          the objects added to this queue so far
+   */
+  public synchronized QueueReader<E> reader(Collection<? extends E> history) {
+    if (headBase == 0) {
+      return register(new Reader<E>(this, null, 0, (E[]) head, 0, 0));
+    }
+    Object[] prefix = history.isEmpty() ? null : history.toArray();
+    return register(new Reader<E>(this, prefix, 0, (E[]) q, index, tailBase));
+  }
+
+  /**
+   * Returns the number of slots for objects in the chunks that this queue still holds on to.
+   */
+  synchronized long retainedSlots() {
+    return tailBase + index - headBase;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return super.toString();
+  }
+
+  /**
+   * A reader that publishes the chunk it is reading, and that may read a history before it reads from the queue.
+   */
+  private static final class Reader<E> extends QueueReader<E> {
+    private final ConcurrentChunkedQueue<E> queue;
+    private Object[] history;
+    private int historyIndex;
+    private boolean lastFromHistory;
+
+    /** The chunk at {@link #chunkBase}. */
+    private Object[] chunk;
+    /** The number of slots for objects in the chunks before the one this reader is reading. */
+    volatile long chunkBase;
+
+    Reader(ConcurrentChunkedQueue<E> queue, Object[] history, int historyIndex, E[] q, int index, long chunkBase) {
+      super(q, index);
+      this.queue = queue;
+      this.history = history;
+      this.historyIndex = historyIndex;
+      this.chunk = q;
+      this.chunkBase = chunkBase;
+    }
+
+    /**
+     * Publishes the chunk this reader has moved on to.
+     */
+    private void track() {
+      if (chunk != q) {
+        Object[] c = chunk;
+        long base = chunkBase;
+        while (c != q) {
+          c = (Object[]) c[c.length - 1];
+          base += c.length - 1;
+        }
+        chunk = c;
+        chunkBase = base;
+      }
+    }
+
+    @Override
+    public E next() {
+      if (history != null) {
+        while (historyIndex < history.length) {
+          Object ret = history[historyIndex++];
+          if (!skip(ret)) {
+            lastFromHistory = true;
+            return (E) ret;
+          }
+        }
+        history = null;
+      }
+      lastFromHistory = false;
+      E ret = super.next();
+      track();
+      return ret;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (history != null) {
+        while (historyIndex < history.length) {
+          if (!skip(history[historyIndex])) {
+            return true;
+          }
+          historyIndex++;
+        }
+        history = null;
+      }
+      boolean ret = super.hasNext();
+      track();
+      return ret;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> target) {
+      int count = 0;
+      if (history != null) {
+        while (historyIndex < history.length) {
+          Object o = history[historyIndex++];
+          if (!skip(o)) {
+            target.add((E) o);
+            count++;
+          }
+        }
+        history = null;
+      }
+      lastFromHistory = false;
+      synchronized (queue) {
+        count += super.drainTo(target);
+      }
+      track();
+      return count;
+    }
+
+    @Override
+    public void remove(Collection<E> toRemove) {
+      for (int i = historyIndex; history != null && i < history.length; i++) {
+        if (toRemove.contains(history[i])) {
+          history[i] = ChunkedQueue.DELETED_CONST;
+        }
+      }
+      super.remove(toRemove);
+    }
+
+    @Override
+    public void remove() {
+      if (lastFromHistory) {
+        if (history == null) {
+          // Like the chunks of the queue, the history cannot be changed once the reader has moved past it
+          throw new IllegalStateException();
+        }
+        history[historyIndex - 1] = ChunkedQueue.DELETED_CONST;
+      } else {
+        super.remove();
+      }
+    }
+
+    @Override
+    public QueueReader<E> clone() {
+      track();
+      synchronized (queue) {
+        return queue.register(new Reader<E>(queue, history, historyIndex, q, index, chunkBase));
+      }
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append("[");
+      final int end = history == null ? historyIndex : history.length;
+      for (int i = historyIndex; i < end; i++) {
+        if (i > historyIndex) {
+          sb.append(", ");
+        }
+        sb.append(history[i]);
+      }
+      String rest = super.toString();
+      if (historyIndex < end && rest.length() > 2) {
+        sb.append(", ");
+      }
+      sb.append(rest, 1, rest.length());
+      return sb.toString();
+    }
+  }
+}
@@ -167,6 +167,36 @@ public class QueueReader<E> implements java.util.Iterator<E> {
     q[index - 1] = (E) ChunkedQueue.DELETED_CONST;
   }
 
+  /**
+   * Reads all objects that are currently in the queue and adds them to the given collection. This is faster than reading
+   * them one by one, since every slot of the queue is only looked at once.
+   *
+   * @param target
+   *          the collection to add the objects to
+   * @return the number of objects added
+   */
+  @SuppressWarnings("unchecked")
+  public int drainTo(Collection<? super E> target) {
+    int count = 0;
+    Object[] curQ = q;
+    int idx = index;
+    for (Object o; (o = curQ[idx]) != null;) {
+      if (idx == curQ.length - 1) {
+        curQ = (Object[]) o;
+        idx = 0;
+      } else {
+        idx++;
+        if (!skip(o)) {
+          target.add((E) o);
+          count++;
+        }
+      }
+    }
+    q = (E[]) curQ;
+    index = idx;
+    return count;
+  }
+
   public QueueReader<E> clone() {
     return new QueueReader<E>(q, index);
   }
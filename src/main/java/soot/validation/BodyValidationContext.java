@@ -0,0 +1,98 @@
+package soot.validation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import soot.Body;
+import soot.G;
+import soot.toolkits.exceptions.PedanticThrowAnalysis;
+import soot.toolkits.exceptions.ThrowAnalysis;
+import soot.toolkits.exceptions.ThrowAnalysisFactory;
+import soot.toolkits.graph.BriefUnitGraph;
+import soot.toolkits.graph.ExceptionalUnitGraphFactory;
+import soot.toolkits.graph.UnitGraph;
+import soot.toolkits.scalar.LocalDefs;
+
+/**
+ * The analyses of a body which the validators of the body share. They are built on first use, and may be requested by
+ * validators running in parallel.
+ */
+public class BodyValidationContext {
+  private final Body body;
+  private UnitGraph exceptionalGraph;
+  private UnitGraph checkInitGraph;
+  private UnitGraph briefGraph;
+  private LocalDefs localDefs;
+
+  public BodyValidationContext(Body body) {
+    this.body = body;
+  }
+
+  public Body getBody() {
+    return body;
+  }
+
+  /**
+   * Returns an exceptional unit graph of the body which has edges to all exception handlers, even unreachable ones, as
+   * built with a {@link PedanticThrowAnalysis} and without omitting the edges of excepting units.
+   */
+  public synchronized UnitGraph getExceptionalUnitGraph() {
+    if (exceptionalGraph == null) {
+      exceptionalGraph = ExceptionalUnitGraphFactory.createExceptionalUnitGraph(body, PedanticThrowAnalysis.v(), false);
+    }
+    return exceptionalGraph;
+  }
+
+  /**
+   * Returns the exceptional unit graph of the body which is built with
+   * {@link ThrowAnalysisFactory#checkInitThrowAnalysis()}. This is {@link #getExceptionalUnitGraph()} unless the options
+   * select a throw analysis other than the pedantic one.
+   */
+  public synchronized UnitGraph getCheckInitUnitGraph() {
+    if (checkInitGraph == null) {
+      ThrowAnalysis ta = ThrowAnalysisFactory.checkInitThrowAnalysis();
+      checkInitGraph = ta == PedanticThrowAnalysis.v() ? getExceptionalUnitGraph()
+          : ExceptionalUnitGraphFactory.createExceptionalUnitGraph(body, ta, false);
+    }
+    return checkInitGraph;
+  }
+
+  /**
+   * Returns a unit graph of the body without exceptional edges.
+   */
+  public synchronized UnitGraph getBriefUnitGraph() {
+    if (briefGraph == null) {
+      briefGraph = new BriefUnitGraph(body);
+    }
+    return briefGraph;
+  }
+
+  /**
+   * Returns the local definitions on {@link #getExceptionalUnitGraph()}, which expect uses of undefined locals.
+   */
+  public synchronized LocalDefs getLocalDefs() {
+    if (localDefs == null) {
+      localDefs = G.v().soot_toolkits_scalar_LocalDefsFactory().newLocalDefs(getExceptionalUnitGraph(), true);
+    }
+    return localDefs;
+  }
+}
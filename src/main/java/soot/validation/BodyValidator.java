@@ -41,6 +41,21 @@ public interface BodyValidator extends Validator<Body> {
   @Override
   public void validate(Body body, List<ValidationException> exceptions);
 
+  /**
+   * Validates the given body like {@link #validate(Body, List)}, but takes the analyses it needs from the given context,
+   * which is shared with the other validators of the body.
+   *
+   * @param body
+   *          the body to check
+   * @param context
+   *          the shared analyses of the body
+   * @param exceptions
+   *          the list of exceptions
+   */
+  default void validate(Body body, BodyValidationContext context, List<ValidationException> exceptions) {
+    validate(body, exceptions);
+  }
+
   /**
    * Basic validators run essential checks and are run always if validate is called.<br>
    * If this method returns false and the caller of the validator respects this property,<br>
@@ -29,9 +29,6 @@ import soot.Local;
 import soot.Unit;
 import soot.Value;
 import soot.ValueBox;
-import soot.toolkits.exceptions.ThrowAnalysisFactory;
-import soot.toolkits.graph.ExceptionalUnitGraph;
-import soot.toolkits.graph.ExceptionalUnitGraphFactory;
 import soot.toolkits.scalar.FlowSet;
 import soot.toolkits.scalar.InitAnalysis;
 
@@ -44,10 +41,12 @@ public enum CheckInitValidator implements BodyValidator {
 
   @Override
   public void validate(Body body, List<ValidationException> exception) {
-    ExceptionalUnitGraph g
-        = ExceptionalUnitGraphFactory.createExceptionalUnitGraph(body, ThrowAnalysisFactory.checkInitThrowAnalysis(), false);
+    validate(body, new BodyValidationContext(body), exception);
+  }
 
-    InitAnalysis analysis = new InitAnalysis(g);
+  @Override
+  public void validate(Body body, BodyValidationContext context, List<ValidationException> exception) {
+    InitAnalysis analysis = new InitAnalysis(context.getCheckInitUnitGraph());
     for (Unit s : body.getUnits()) {
       FlowSet<Local> init = analysis.getFlowBefore(s);
       for (ValueBox vBox : s.getUseBoxes()) {
@@ -26,14 +26,10 @@ import java.util.Collection;
 import java.util.List;
 
 import soot.Body;
-import soot.G;
 import soot.Local;
 import soot.Unit;
 import soot.Value;
 import soot.ValueBox;
-import soot.toolkits.exceptions.PedanticThrowAnalysis;
-import soot.toolkits.exceptions.ThrowAnalysis;
-import soot.toolkits.graph.ExceptionalUnitGraphFactory;
 import soot.toolkits.graph.UnitGraph;
 import soot.toolkits.scalar.LocalDefs;
 
@@ -47,6 +43,11 @@ public enum UsesValidator implements BodyValidator {
   @Override
   /** Verifies that each use in this Body has a def. */
   public void validate(Body body, List<ValidationException> exception) {
+    validate(body, new BodyValidationContext(body), exception);
+  }
+
+  @Override
+  public void validate(Body body, BodyValidationContext context, List<ValidationException> exception) {
     // Conservative validation of uses: add edges to exception handlers
     // even if they are not reachable.
     //
@@ -66,7 +67,7 @@ public enum UsesValidator implements BodyValidator {
     // generate an Error, a subclass of Throwable and not of Exception.
     // Use of 'a' in "System.out.println" would thus trigger a 'no defs
     // for value' RuntimeException.
-    // To avoid this we create an ExceptionalUnitGraph that considers all
+    // To avoid this we use the ExceptionalUnitGraph of the context, which considers all
     // exception handlers (even unreachable ones as the one in the code
     // snippet above) by using a PedanticThrowAnalysis and setting the
     // parameter 'omitExceptingUnitEdges' to false.
@@ -74,9 +75,8 @@ public enum UsesValidator implements BodyValidator {
     // Note that unreachable traps can be removed by setting jb.uce's
     // "remove-unreachable-traps" option to true.
 
-    ThrowAnalysis throwAnalysis = PedanticThrowAnalysis.v();
-    UnitGraph g = ExceptionalUnitGraphFactory.createExceptionalUnitGraph(body, throwAnalysis, false);
-    LocalDefs ld = G.v().soot_toolkits_scalar_LocalDefsFactory().newLocalDefs(g, true);
+    UnitGraph g = context.getExceptionalUnitGraph();
+    LocalDefs ld = context.getLocalDefs();
 
     Collection<Local> locals = body.getLocals();
     for (Unit u : body.getUnits()) {
@@ -0,0 +1,177 @@
+package soot.validation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import soot.Body;
+import soot.G;
+import soot.SootMethod;
+import soot.Singletons;
+import soot.options.Options;
+import soot.validation.ValidationResult.Violation;
+
+/**
+ * Runs the validators of bodies. The validators of a body share one {@link BodyValidationContext}, and run in parallel if
+ * the <code>-parallel-validation</code> option is set. With the <code>-validation-sample-percent</code> option, only a
+ * part of the methods is validated after each phase. The results of validations that found violations are collected.
+ */
+public class ValidationManager {
+
+  private final Queue<ValidationResult> results = new ConcurrentLinkedQueue<ValidationResult>();
+
+  public ValidationManager(Singletons.Global g) {
+  }
+
+  public static ValidationManager v() {
+    return G.v().soot_validation_ValidationManager();
+  }
+
+  /**
+   * Runs the given validators on the given body and adds the violations they find to the given list, in the order of the
+   * validators.
+   */
+  public void runValidators(Body body, List<BodyValidator> validators, List<ValidationException> exceptions) {
+    for (List<ValidationException> found : run(body, validators)) {
+      exceptions.addAll(found);
+    }
+  }
+
+  /**
+   * Validates the given body after the given phase, unless its method is not part of the sample that is validated after
+   * this phase.
+   *
+   * @param body
+   *          the body to validate
+   * @param phase
+   *          the name of the phase after which the body is validated
+   * @return the result of the validation, or null if the body has not been validated
+   */
+  public ValidationResult validate(Body body, String phase) {
+    if (!isSampled(body.getMethod(), phase)) {
+      return null;
+    }
+    final List<BodyValidator> validators = body.getValidators();
+    final List<List<ValidationException>> found = run(body, validators);
+    final List<Violation> violations = new ArrayList<Violation>();
+    for (int i = 0; i < validators.size(); i++) {
+      for (ValidationException e : found.get(i)) {
+        violations.add(new Violation(validators.get(i), e));
+      }
+    }
+    ValidationResult result = new ValidationResult(body.getMethod(), phase, violations);
+    if (!violations.isEmpty()) {
+      results.add(result);
+    }
+    return result;
+  }
+
+  /**
+   * Validates the given body after the given phase like {@link #validate(Body, String)}, and throws the first violation
+   * found. Callers that used to call {@link Body#validate()} use this, so that the sample option applies to them.
+   *
+   * @param body
+   *          the body to validate
+   * @param phase
+   *          the name of the phase after which the body is validated
+   * @throws ValidationException
+   *           if the body has been validated and violates one of its validators
+   */
+  public void validateOrThrow(Body body, String phase) {
+    ValidationResult result = validate(body, phase);
+    if (result != null) {
+      result.throwFirstViolation();
+    }
+  }
+
+  /**
+   * Returns true if the given method is part of the sample that is validated after the given phase.
+   */
+  public boolean isSampled(SootMethod method, String phase) {
+    final int percent = Options.v().validation_sample_percent();
+    if (percent < 0 || percent >= 100) {
+      return true;
+    }
+    // Spread the bits of the hash code, which is stable across runs
+    int h = (method.getSignature() + '@' + phase).hashCode();
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    return Math.floorMod(h, 100) < percent;
+  }
+
+  /** Returns the results of all validations after phases which found violations. */
+  public List<ValidationResult> getResults() {
+    return new ArrayList<ValidationResult>(results);
+  }
+
+  public void clearResults() {
+    results.clear();
+  }
+
+  private List<List<ValidationException>> run(final Body body, List<BodyValidator> validators) {
+    final BodyValidationContext context = new BodyValidationContext(body);
+    final List<List<ValidationException>> found = new ArrayList<List<ValidationException>>(validators.size());
+    if (validators.size() < 2 || !Options.v().parallel_validation()) {
+      for (BodyValidator validator : validators) {
+        List<ValidationException> exceptions = new ArrayList<ValidationException>();
+        validator.validate(body, context, exceptions);
+        found.add(exceptions);
+      }
+      return found;
+    }
+
+    List<Callable<List<ValidationException>>> tasks = new ArrayList<Callable<List<ValidationException>>>();
+    for (final BodyValidator validator : validators) {
+      tasks.add(() -> {
+        List<ValidationException> exceptions = new ArrayList<ValidationException>();
+        validator.validate(body, context, exceptions);
+        return exceptions;
+      });
+    }
+    try {
+      for (Future<List<ValidationException>> f : ForkJoinPool.commonPool().invokeAll(tasks)) {
+        found.add(f.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+    return found;
+  }
+}
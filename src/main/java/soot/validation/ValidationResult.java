@@ -0,0 +1,147 @@
+package soot.validation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import soot.SootMethod;
+
+/**
+ * The outcome of validating one body after a phase: the violations found, each together with the validator that reported
+ * it.
+ */
+public class ValidationResult {
+
+  /**
+   * A violation reported by a validator.
+   */
+  public static class Violation {
+    private final BodyValidator validator;
+    private final ValidationException exception;
+
+    public Violation(BodyValidator validator, ValidationException exception) {
+      this.validator = validator;
+      this.exception = exception;
+    }
+
+    public BodyValidator getValidator() {
+      return validator;
+    }
+
+    public ValidationException getException() {
+      return exception;
+    }
+
+    /** Returns the object concerned by the violation, for example a unit or a local. */
+    public Object getConcerned() {
+      return exception.getConcerned();
+    }
+
+    public String getMessage() {
+      return exception.getRawMessage();
+    }
+
+    public boolean isWarning() {
+      return exception.isWarning();
+    }
+
+    @Override
+    public String toString() {
+      return validator.getClass().getSimpleName() + ": " + exception;
+    }
+  }
+
+  private final SootMethod method;
+  private final String phase;
+  private final List<Violation> violations;
+
+  public ValidationResult(SootMethod method, String phase, List<Violation> violations) {
+    this.method = method;
+    this.phase = phase;
+    this.violations = Collections.unmodifiableList(violations);
+  }
+
+  /** Returns the method whose body has been validated. */
+  public SootMethod getMethod() {
+    return method;
+  }
+
+  /** Returns the phase after which the body has been validated, or null if it has been validated outside of a phase. */
+  public String getPhase() {
+    return phase;
+  }
+
+  /** Returns all violations, in the order in which the validators have been run. */
+  public List<Violation> getViolations() {
+    return violations;
+  }
+
+  /** Returns the violations which are not warnings. */
+  public List<Violation> getErrors() {
+    List<Violation> errors = new ArrayList<Violation>();
+    for (Violation v : violations) {
+      if (!v.isWarning()) {
+        errors.add(v);
+      }
+    }
+    return errors;
+  }
+
+  /** Returns true if no violation other than warnings has been found. */
+  public boolean isValid() {
+    for (Violation v : violations) {
+      if (!v.isWarning()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Throws the first violation, if any, as {@link soot.Body#validate()} does.
+   *
+   * @throws ValidationException
+   *           the first violation
+   */
+  public void throwFirstViolation() {
+    if (!violations.isEmpty()) {
+      throw violations.get(0).getException();
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(method.getSignature());
+    if (phase != null) {
+      sb.append(" after ").append(phase);
+    }
+    sb.append(": ").append(violations.size()).append(" violation(s)");
+    for (Violation v : violations) {
+      sb.append("\n  ").append(v);
+    }
+    return sb.toString();
+  }
+}
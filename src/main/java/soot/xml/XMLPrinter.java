@@ -55,6 +55,7 @@ import soot.toolkits.graph.ExceptionalUnitGraphFactory;
 import soot.toolkits.scalar.LiveLocals;
 import soot.toolkits.scalar.SimpleLiveLocals;
 import soot.util.Chain;
+import soot.validation.ValidationManager;
 
 /** XML printing routines all XML output comes through here */
 public class XMLPrinter {
@@ -196,7 +197,7 @@ public class XMLPrinter {
               throw new RuntimeException("method " + method.getName() + " has no active body!");
             } else {
               Body body = method.getActiveBody();
-              body.validate();
+              ValidationManager.v().validateOrThrow(body, "xml");
               printStatementsInBody(body, methodsNode);
             }
           }
@@ -0,0 +1,188 @@
+package soot;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.BodyAnalysisCache.Kind;
+import soot.jimple.AssignStmt;
+import soot.jimple.IfStmt;
+import soot.jimple.Jimple;
+import soot.options.Options;
+import soot.toolkits.graph.ExceptionalUnitGraph;
+import soot.toolkits.graph.ExceptionalUnitGraphFactory;
+import soot.toolkits.scalar.LocalDefs;
+import soot.toolkits.scalar.LocalDefsFactory;
+import soot.toolkits.scalar.LocalUses;
+
+public class BodyAnalysisCacheTest {
+
+  @Before
+  public void setUp() {
+    G.reset();
+    Options.v().set_soot_classpath(new File("target/classes").getAbsolutePath());
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_src_prec(Options.src_prec_only_class);
+    Options.v().set_body_analysis_cache(true);
+    Scene.v().loadBasicClasses();
+    Scene.v().forceResolve("soot.SourceLocator", SootClass.BODIES).setApplicationClass();
+  }
+
+  @After
+  public void tearDown() {
+    G.reset();
+  }
+
+  @Test
+  public void resultsAreReusedForUnchangedBody() {
+    Body b = body();
+    BodyAnalysisCache cache = BodyAnalysisCache.v();
+    LocalDefsFactory defsFactory = G.v().soot_toolkits_scalar_LocalDefsFactory();
+    // The jb pack already uses the cache while retrieving the body
+    long graphHits = cache.getHits(Kind.UNIT_GRAPH);
+    long defsHits = cache.getHits(Kind.LOCAL_DEFS);
+    long usesHits = cache.getHits(Kind.LOCAL_USES);
+    long invalidations = cache.getInvalidations();
+
+    ExceptionalUnitGraph graph = ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b);
+    LocalDefs defs = defsFactory.newLocalDefs(graph);
+    LocalUses uses = LocalUses.Factory.newLocalUses(b, defs);
+    assertSame(graph, ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b));
+    assertSame(defs, defsFactory.newLocalDefs(b));
+    assertSame(uses, LocalUses.Factory.newLocalUses(b));
+    assertTrue(cache.getHits(Kind.UNIT_GRAPH) > graphHits);
+    assertTrue(cache.getHits(Kind.LOCAL_DEFS) > defsHits);
+    assertEquals(usesHits + 1, cache.getHits(Kind.LOCAL_USES));
+
+    // Different parameters lead to different results
+    assertNotSame(defs, defsFactory.newLocalDefs(graph, true));
+    assertNotSame(graph, ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b, Scene.v().getDefaultThrowAnalysis(),
+        !Options.v().omit_excepting_unit_edges()));
+
+    // Results for graphs that have not been taken from the cache are not cached
+    ExceptionalUnitGraph other = new ExceptionalUnitGraph(b);
+    assertNotSame(defsFactory.newLocalDefs(other), defsFactory.newLocalDefs(other));
+
+    cache.release(b);
+    assertNotSame(graph, ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b));
+    assertEquals(invalidations, cache.getInvalidations());
+  }
+
+  @Test
+  public void resultsAreDroppedWhenBodyChanges() {
+    Body b = body();
+    BodyAnalysisCache cache = BodyAnalysisCache.v();
+    long invalidations = cache.getInvalidations();
+
+    // Adding a unit
+    ExceptionalUnitGraph graph = ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b);
+    b.getUnits().insertBefore(Jimple.v().newNopStmt(), b.getUnits().getLast());
+    graph = checkRebuilt(b, graph);
+
+    // Redirecting a branch
+    IfStmt branch = null;
+    for (Unit u : b.getUnits()) {
+      if (u instanceof IfStmt) {
+        branch = (IfStmt) u;
+        break;
+      }
+    }
+    assertNotNull(branch);
+    branch.setTarget(b.getUnits().getSuccOf(branch));
+    graph = checkRebuilt(b, graph);
+
+    // Replacing a use in place
+    LocalDefs defs = G.v().soot_toolkits_scalar_LocalDefsFactory().newLocalDefs(b);
+    Local fresh = Jimple.v().newLocal("fresh", RefType.v("java.lang.Object"));
+    b.getLocals().add(fresh);
+    graph = checkRebuilt(b, graph);
+    defs = G.v().soot_toolkits_scalar_LocalDefsFactory().newLocalDefs(b);
+    for (Unit u : b.getUnits()) {
+      if (u instanceof AssignStmt && ((AssignStmt) u).getRightOp() instanceof Local) {
+        ((AssignStmt) u).setRightOp(fresh);
+        break;
+      }
+    }
+    assertNotSame(defs, G.v().soot_toolkits_scalar_LocalDefsFactory().newLocalDefs(b));
+    graph = ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b);
+
+    // Changing the type of a local
+    fresh.setType(RefType.v("java.lang.String"));
+    graph = checkRebuilt(b, graph);
+
+    // Changing the exception a trap catches
+    b.getTraps().getFirst().setException(Scene.v().getSootClass("java.lang.Error"));
+    checkRebuilt(b, graph);
+
+    assertEquals(invalidations + 6, cache.getInvalidations());
+  }
+
+  @Test
+  public void cacheIsNotUsedWhenDisabled() {
+    Options.v().set_body_analysis_cache(false);
+    Body b = body();
+    assertNotSame(ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b),
+        ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b));
+    assertEquals(0, BodyAnalysisCache.v().getMisses(Kind.UNIT_GRAPH));
+  }
+
+  private static ExceptionalUnitGraph checkRebuilt(Body b, ExceptionalUnitGraph old) {
+    ExceptionalUnitGraph graph = ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b);
+    assertNotSame(old, graph);
+    assertSame(graph, ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b));
+    assertEquals(new ExceptionalUnitGraph(b).toString(), graph.toString());
+    return graph;
+  }
+
+  /**
+   * Returns a body with traps, branches and copies.
+   */
+  private static Body body() {
+    for (SootMethod m : Scene.v().getSootClass("soot.SourceLocator").getMethods()) {
+      if (m.isConcrete()) {
+        Body b = m.retrieveActiveBody();
+        boolean hasBranch = false;
+        boolean hasCopy = false;
+        for (Unit u : b.getUnits()) {
+          hasBranch |= u instanceof IfStmt;
+          hasCopy |= u instanceof AssignStmt && ((AssignStmt) u).getRightOp() instanceof Local;
+        }
+        if (hasBranch && hasCopy && !b.getTraps().isEmpty()) {
+          return b;
+        }
+      }
+    }
+    throw new AssertionError("No suitable body");
+  }
+}
@@ -0,0 +1,180 @@
+package soot;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.options.Options;
+
+public class ClassPathIndexTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void indexedLookupFindsSameFilesAsSearch() throws IOException {
+    File first = jar("first.jar", "a/A.class", "a/Shared.class");
+    File dir = folder.newFolder("dir");
+    Files.createDirectories(dir.toPath().resolve("b"));
+    Files.write(dir.toPath().resolve("b/Dir.class"), new byte[] { 1 });
+    Files.write(dir.toPath().resolve("Shared.class"), new byte[] { 1 });
+    File second = jar("second.jar", "a/Shared.class", "b/B.class", "b/Dir.class", "Shared.class");
+    String classPath = first + File.pathSeparator + dir + File.pathSeparator + second;
+    File indexDir = folder.newFolder("index");
+
+    List<String> names = Arrays.asList("a/A.class", "a/Shared.class", "b/B.class", "b/Dir.class", "Shared.class",
+        "b/Missing.class", "Missing.jimple");
+    String[] expected = lookup(classPath, "", names);
+    assertEquals(first.getCanonicalPath(), expected[1]);
+    assertNull(expected[5]);
+
+    String[] indexed = lookup(classPath, indexDir.getPath(), names);
+    assertEquals(Arrays.asList(expected), Arrays.asList(indexed));
+    // The entries of each archive and the table merged from them
+    File[] indexFiles = indexDir.listFiles();
+    assertEquals(3, indexFiles.length);
+    for (File f : indexFiles) {
+      f.setLastModified(f.lastModified() - 10000);
+    }
+
+    // The stored indices are reused as long as no archive changes
+    assertEquals(Arrays.asList(expected), Arrays.asList(lookup(classPath, indexDir.getPath(), names)));
+    assertEquals(3, indexDir.listFiles().length);
+    assertTrue(unmodified(indexFiles));
+
+    // Changing an archive leads to a new table, which reads the entries of that archive only
+    jar("second.jar", "a/Shared.class", "b/B.class", "b/Added.class");
+    second.setLastModified(second.lastModified() + 2000);
+    String[] changed = lookup(classPath, indexDir.getPath(), Arrays.asList("b/Added.class", "b/Dir.class"));
+    assertNotNull(changed[0]);
+    assertTrue(changed[1].startsWith(dir.getCanonicalPath()));
+    assertEquals(5, indexDir.listFiles().length);
+    assertTrue(unmodified(indexFiles));
+  }
+
+  @Test
+  public void corruptIndexIsRebuilt() throws IOException {
+    File archive = jar("lib.jar", "c/C.class");
+    File indexDir = folder.newFolder("index");
+    lookup(archive.getPath(), indexDir.getPath(), Arrays.asList("c/C.class"));
+    File[] indexFiles = indexDir.listFiles();
+    for (File f : indexFiles) {
+      Files.write(f.toPath(), "garbage".getBytes(StandardCharsets.UTF_8));
+    }
+
+    String[] found = lookup(archive.getPath(), indexDir.getPath(), Arrays.asList("c/C.class", "c/D.class"));
+    assertNotNull(found[0]);
+    assertNull(found[1]);
+    for (File f : indexFiles) {
+      assertTrue(f.length() > "garbage".length());
+    }
+  }
+
+  @Test
+  public void tableWithNamesOutsideTheFileIsRebuilt() throws IOException {
+    File archive = jar("lib.jar", "c/C.class", "c/E.class");
+    File indexDir = folder.newFolder("index");
+    lookup(archive.getPath(), indexDir.getPath(), Arrays.asList("c/C.class"));
+    File indexFile = indexDir.listFiles((d, name) -> name.endsWith(".idx"))[0];
+
+    // Keep the header intact, but let every used slot point past the end of the file
+    ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+    for (int pos = 16; pos < 16 + buf.getInt(12) * 8; pos += 8) {
+      if (buf.getInt(pos + 4) != 0) {
+        buf.putInt(pos + 4, Integer.MAX_VALUE - 1);
+      }
+    }
+    Files.write(indexFile.toPath(), buf.array());
+
+    // The lookups fall back to searching the archive, and the next run builds the table again
+    List<String> names = Arrays.asList("c/C.class", "c/E.class", "c/D.class");
+    String[] found = lookup(archive.getPath(), indexDir.getPath(), names);
+    assertNotNull(found[0]);
+    assertNotNull(found[1]);
+    assertNull(found[2]);
+    assertFalse(indexFile.exists());
+    assertEquals(Arrays.asList(found), Arrays.asList(lookup(archive.getPath(), indexDir.getPath(), names)));
+    ByteBuffer rebuilt = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+    for (int pos = 16; pos < 16 + rebuilt.getInt(12) * 8; pos += 8) {
+      assertTrue(rebuilt.getInt(pos + 4) < indexFile.length());
+    }
+  }
+
+  private static boolean unmodified(File[] indexFiles) {
+    for (File f : indexFiles) {
+      if (!f.isFile() || System.currentTimeMillis() - f.lastModified() < 10000) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String[] lookup(String classPath, String indexDir, List<String> names) {
+    G.reset();
+    Options.v().set_soot_classpath(classPath);
+    Options.v().set_class_path_index_dir(indexDir);
+    SourceLocator locator = SourceLocator.v();
+    locator.getClassSource("Nothing");
+    String[] found = new String[names.size()];
+    for (int i = 0; i < found.length; i++) {
+      IFoundFile file = locator.lookupInClassPath(names.get(i));
+      if (file != null) {
+        found[i] = file.getFilePath();
+        file.close();
+      }
+    }
+    G.reset();
+    return found;
+  }
+
+  private File jar(String name, String... entries) throws IOException {
+    File f = new File(folder.getRoot(), name);
+    try (JarOutputStream out = new JarOutputStream(new FileOutputStream(f))) {
+      for (String entry : entries) {
+        out.putNextEntry(new ZipEntry(entry));
+        out.write(entry.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+      }
+    }
+    return f;
+  }
+}
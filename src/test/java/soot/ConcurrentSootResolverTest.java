@@ -0,0 +1,79 @@
+package soot;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.options.Options;
+
+/**
+ * Checks that the concurrent resolver builds exactly the same {@link Scene} as the sequential one.
+ */
+public class ConcurrentSootResolverTest {
+
+  @Test
+  public void sameSceneAsSequentialResolver() {
+    List<String> sequential = loadScene(false);
+    List<String> concurrent = loadScene(true);
+
+    assertTrue(sequential.size() > 100);
+    assertEquals(sequential, concurrent);
+  }
+
+  private static List<String> loadScene(boolean concurrent) {
+    G.reset();
+    Options.v().set_whole_program(true);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_concurrent_resolver(concurrent);
+    Options.v().set_num_threads(4);
+    Scene.v().loadNecessaryClasses();
+
+    // Records the classes in Scene order together with their resolved contents
+    List<String> snapshot = new ArrayList<String>();
+    for (SootClass sc : Scene.v().getClasses()) {
+      StringBuilder sb = new StringBuilder();
+      sb.append(sc.getName()).append(" level=").append(sc.resolvingLevel()).append(" phantom=").append(sc.isPhantom());
+      if (sc.hasSuperclass()) {
+        sb.append(" super=").append(sc.getSuperclass().getName());
+      }
+      for (SootClass iface : sc.getInterfaces()) {
+        sb.append(" iface=").append(iface.getName());
+      }
+      for (SootField f : sc.getFields()) {
+        sb.append(' ').append(f.getSignature());
+      }
+      for (SootMethod m : sc.getMethods()) {
+        sb.append(' ').append(m.getSignature());
+      }
+      snapshot.add(sb.toString());
+    }
+    G.reset();
+    return snapshot;
+  }
+}
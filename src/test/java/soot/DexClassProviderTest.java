@@ -0,0 +1,163 @@
+package soot;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.options.Options;
+
+/**
+ * Checks the class index that {@link DexClassProvider} builds from the dex sources on the class path, when the sources are
+ * parsed concurrently and when their class lists are stored in the class path index directory.
+ */
+public class DexClassProviderTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File standalone;
+  private File apk;
+  private String classPath;
+
+  @Before
+  public void createDexSources() throws IOException {
+    File first = toDex(Paths.get("src", "test", "resources", "ported", "PR1834", "java6", "bin").toFile());
+    File second = toDex(Paths.get("src", "test", "resources", "Clinit", "bin").toFile());
+
+    // The standalone dex file comes first on the class path, so its classes shadow those of the apk
+    standalone = new File(folder.getRoot(), "first.dex");
+    Files.copy(first.toPath(), standalone.toPath());
+    apk = new File(folder.getRoot(), "app.apk");
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(apk))) {
+      out.putNextEntry(new ZipEntry("classes.dex"));
+      Files.copy(first.toPath(), out);
+      out.closeEntry();
+      out.putNextEntry(new ZipEntry("classes2.dex"));
+      Files.copy(second.toPath(), out);
+      out.closeEntry();
+    }
+    classPath = standalone.getAbsolutePath() + File.pathSeparator + apk.getAbsolutePath();
+  }
+
+  @Test
+  public void parallelIndexMatchesSequential() throws IOException {
+    Map<String, String> sequential = dexIndex(1, "");
+    Map<String, String> parallel = dexIndex(4, "");
+    assertEquals(sequential, parallel);
+
+    assertTrue(sequential.containsValue(standalone.getCanonicalPath()));
+    assertTrue(sequential.containsValue(apk.getCanonicalPath()));
+    assertEquals(standalone.getCanonicalPath(), sequential.get("Autoboxing"));
+  }
+
+  @Test
+  public void storedClassListsAreReused() throws IOException {
+    File listDir = folder.newFolder("index");
+    Map<String, String> expected = dexIndex(4, listDir.getPath());
+    File[] lists = listDir.listFiles();
+    assertEquals(2, lists.length);
+
+    // Garbage that keeps the size and modification time of the sources can only be indexed from the stored lists
+    for (File f : new File[] { standalone, apk }) {
+      long modified = f.lastModified();
+      byte[] garbage = new byte[(int) f.length()];
+      Arrays.fill(garbage, (byte) 0x55);
+      Files.write(f.toPath(), garbage);
+      assertTrue(f.setLastModified(modified));
+    }
+    assertEquals(expected, dexIndex(4, listDir.getPath()));
+    assertArrayEquals(sorted(lists), sorted(listDir.listFiles()));
+  }
+
+  @Test
+  public void changedSourceInvalidatesItsClassList() throws IOException {
+    File listDir = folder.newFolder("index");
+    Map<String, String> expected = dexIndex(4, listDir.getPath());
+    assertEquals(2, listDir.listFiles().length);
+
+    assertTrue(apk.setLastModified(apk.lastModified() + 60000));
+    assertEquals(expected, dexIndex(4, listDir.getPath()));
+    assertEquals(3, listDir.listFiles().length);
+  }
+
+  /**
+   * Builds the dex class index of the class path and returns the path of the source of every class.
+   */
+  private Map<String, String> dexIndex(int threads, String listDir) throws IOException {
+    G.reset();
+    Options.v().set_soot_classpath(classPath);
+    Options.v().set_process_multiple_dex(true);
+    Options.v().set_num_threads(threads);
+    Options.v().set_class_path_index_dir(listDir);
+    SourceLocator.v().getClassSource("Nothing");
+    new DexClassProvider().ensureDexIndex();
+
+    Map<String, String> result = new TreeMap<String, String>();
+    for (Map.Entry<String, File> e : SourceLocator.v().dexClassIndex().entrySet()) {
+      result.put(e.getKey(), e.getValue().getCanonicalPath());
+    }
+    G.reset();
+    return result;
+  }
+
+  private File toDex(File corpus) throws IOException {
+    File outputDir = folder.newFolder();
+    G.reset();
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_process_dir(Collections.singletonList(corpus.getAbsolutePath()));
+    Options.v().set_src_prec(Options.src_prec_class);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_output_format(Options.output_format_dex);
+    Options.v().set_output_dir(outputDir.getAbsolutePath());
+    Scene.v().loadNecessaryClasses();
+    PackManager.v().runBodyPacks();
+    PackManager.v().writeOutput();
+    G.reset();
+    return new File(outputDir, "classes.dex");
+  }
+
+  private static File[] sorted(File[] files) {
+    File[] copy = files.clone();
+    Arrays.sort(copy);
+    return copy;
+  }
+}
@@ -24,6 +24,9 @@ package soot;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 import java.util.ArrayList;
@@ -176,6 +179,63 @@ public class FastHierarchyTest {
     assertThat(fh.getAllImplementersOfInterface(interfaceD), containsInAnyOrder(scA, scB, scC1, scD));
   }
 
+  @Test
+  public void testDispatchCache() {
+    G.reset();
+
+    Scene s = Scene.v();
+    s.loadNecessaryClasses();
+
+    SootClass scA = generacteSceneClass("ClassA", 0);
+    SootClass scB = generacteSceneClass("ClassB", 0);
+    scB.setSuperclass(scA);
+    SootMethod aM = new SootMethod("m", Collections.emptyList(), VoidType.v(), Modifier.PUBLIC);
+    scA.addMethod(aM);
+    SootMethodRef ref = aM.makeRef();
+    SootMethodRef missingRef = s.makeMethodRef(scA, "missing", Collections.emptyList(), VoidType.v(), false);
+
+    FastHierarchy fh = s.getOrMakeFastHierarchy();
+    assertSame(aM, fh.resolveConcreteDispatch(scB, ref));
+    assertEquals(0, fh.getDispatchCacheHits());
+    assertEquals(1, fh.getDispatchCacheMisses());
+    assertSame(aM, fh.resolveConcreteDispatch(scB, ref));
+    assertEquals(1, fh.getDispatchCacheHits());
+
+    // Failed lookups are cached as well
+    assertNull(fh.resolveConcreteDispatch(scB, missingRef));
+    assertNull(fh.resolveConcreteDispatch(scB, missingRef));
+    assertEquals(2, fh.getDispatchCacheHits());
+    assertEquals(2, fh.getDispatchCacheMisses());
+
+    // A new overriding method must be visible in the next dispatch, dispatches on supertypes stay cached
+    assertSame(aM, fh.resolveConcreteDispatch(scA, ref));
+    assertEquals(3, fh.getDispatchCacheMisses());
+    SootMethod bM = new SootMethod("m", Collections.emptyList(), VoidType.v(), Modifier.PUBLIC);
+    scB.addMethod(bM);
+    assertSame(s.getOrMakeFastHierarchy(), fh);
+    assertSame(bM, fh.resolveConcreteDispatch(scB, ref));
+    assertEquals(4, fh.getDispatchCacheMisses());
+    assertSame(aM, fh.resolveConcreteDispatch(scA, ref));
+    assertEquals(3, fh.getDispatchCacheHits());
+
+    // Removing the method modifies the hierarchy, also stale references must not dispatch to it anymore
+    scB.removeMethod(bM);
+    assertSame(aM, fh.resolveConcreteDispatch(scB, ref));
+    assertEquals(5, fh.getDispatchCacheMisses());
+    FastHierarchy newFh = s.getOrMakeFastHierarchy();
+    assertNotSame(fh, newFh);
+    assertSame(aM, newFh.resolveConcreteDispatch(scB, ref));
+
+    // The declaring class decides which methods are visible, so it is part of the key
+    SootClass scC = generacteSceneClass("ClassC", 0);
+    SootMethod cM = new SootMethod("m", Collections.emptyList(), VoidType.v(), Modifier.PUBLIC);
+    scC.addMethod(cM);
+    newFh = s.getOrMakeFastHierarchy();
+    assertSame(aM, newFh.resolveMethod(scB, scA, "m", Collections.emptyList(), VoidType.v(), false));
+    assertSame(aM, newFh.resolveMethod(scB, scC, "m", Collections.emptyList(), VoidType.v(), false));
+    assertEquals(2, newFh.getDispatchCacheMisses());
+  }
+
   private static class FastHierarchyForUnittest extends FastHierarchy {
 
     @Override
@@ -21,23 +21,28 @@ package soot;
  * #L%
  */
 
+import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
 import org.junit.Test;
 import soot.options.Options;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -155,6 +160,95 @@ public class PackManagerTest {
         fail("No Manifest entry found in " + targetJar.getAbsolutePath());
     }
 
+    @Test
+    public void testStreamingWritesSameOutput() throws Exception {
+        File normalDir = Files.createTempDir();
+        runPacksOnCorpus(normalDir, Options.output_format_jimple, false, false);
+        File streamingDir = Files.createTempDir();
+        runPacksOnCorpus(streamingDir, Options.output_format_jimple, false, true);
+
+        // Bodies have been released right after writing the class
+        for (SootClass c : Scene.v().getApplicationClasses()) {
+            for (SootMethod m : c.getMethods()) {
+                assertFalse(m.hasActiveBody());
+            }
+        }
+
+        String[] names = normalDir.list();
+        assertEquals(4, names.length);
+        assertEquals(new TreeSet<>(Arrays.asList(names)), new TreeSet<>(Arrays.asList(streamingDir.list())));
+        for (String name : names) {
+            assertEquals(name, Files.asCharSource(new File(normalDir, name), StandardCharsets.UTF_8).read(),
+                    Files.asCharSource(new File(streamingDir, name), StandardCharsets.UTF_8).read());
+        }
+    }
+
+    @Test
+    public void testStreamingToJar() throws Exception {
+        File normalDir = Files.createTempDir();
+        runPacksOnCorpus(normalDir, Options.output_format_class, true, false);
+        File streamingDir = Files.createTempDir();
+        runPacksOnCorpus(streamingDir, Options.output_format_class, true, true);
+        assertEquals(jarEntries(normalDir.listFiles()[0]), jarEntries(streamingDir.listFiles()[0]));
+    }
+
+    @Test
+    public void testJarEntriesMatchDirectoryOutput() throws Exception {
+        File dir = Files.createTempDir();
+        runPacksOnCorpus(dir, Options.output_format_jimple, false, false);
+        File jarDir = Files.createTempDir();
+        runPacksOnCorpus(jarDir, Options.output_format_jimple, true, false);
+
+        // Entries are written in the order of the application classes, no matter which thread printed them
+        List<String> expectedNames = new ArrayList<>();
+        for (SootClass c : Scene.v().getApplicationClasses()) {
+            expectedNames.add(c.getName() + ".jimple");
+        }
+        List<String> names = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jarDir.listFiles()[0])) {
+            for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements();) {
+                ZipEntry entry = entries.nextElement();
+                names.add(entry.getName());
+                String contents = new String(ByteStreams.toByteArray(zip.getInputStream(entry)), StandardCharsets.UTF_8);
+                assertEquals(Files.asCharSource(new File(dir, entry.getName()), StandardCharsets.UTF_8).read(), contents);
+            }
+        }
+        assertEquals(expectedNames, names);
+    }
+
+    private static void runPacksOnCorpus(File outputDir, int format, boolean jar, boolean streaming) {
+        Path cp = Paths.get("src", "test", "resources", "Clinit", "bin");
+        G.reset();
+        Options.v().set_prepend_classpath(true);
+        Options.v().set_process_dir(Collections.singletonList(cp.toFile().getAbsolutePath()));
+        Options.v().set_src_prec(Options.src_prec_class);
+        Options.v().set_allow_phantom_refs(true);
+        Options.v().set_output_format(format);
+        Options.v().set_output_dir(outputDir.getAbsolutePath());
+        Options.v().set_output_jar(jar);
+        Options.v().set_num_threads(2);
+        Options.v().set_streaming(streaming);
+        Scene.v().loadNecessaryClasses();
+        PackManager.v().runPacks();
+        assertEquals(streaming, PackManager.v().isStreaming());
+        if (!streaming) {
+            PackManager.v().writeOutput();
+        }
+    }
+
+    private static List<String> jarEntries(File jar) throws Exception {
+        List<String> names = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar)) {
+            for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements();) {
+                ZipEntry entry = entries.nextElement();
+                assertTrue(entry.getSize() > 0);
+                names.add(entry.getName());
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
     public static List<String> expectedBody(String... jimpleLines) {
         return Stream.of(jimpleLines).collect(Collectors.toList());
     }
@@ -0,0 +1,112 @@
+package soot.asm;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.options.Options;
+
+/**
+ * Checks that lazy method sources of the ASM front end produce the same bodies as the eager ones, that they can create a
+ * released body again, and that they are dropped after loading when the options say so.
+ */
+public class LazyAsmMethodSourceTest {
+
+  private static final String[] CLASSES = { "soot.SourceLocator", "soot.asm.AsmMethodSource", "soot.util.queue.ChunkedQueue" };
+
+  private static void setup(boolean lazy) {
+    G.reset();
+    Options.v().set_soot_classpath(new File("target/classes").getAbsolutePath());
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_src_prec(Options.src_prec_only_class);
+    Options.v().set_lazy_method_sources(lazy);
+    Scene.v().loadBasicClasses();
+  }
+
+  private static Map<String, String> loadBodies(boolean lazy) {
+    setup(lazy);
+    Map<String, String> bodies = new LinkedHashMap<String, String>();
+    for (String name : CLASSES) {
+      SootClass sc = Scene.v().forceResolve(name, SootClass.BODIES);
+      for (SootMethod m : sc.getMethods()) {
+        if (m.isConcrete()) {
+          assertEquals(m.getSignature(), lazy, m.getSource() instanceof LazyAsmMethodSource);
+          bodies.put(m.getSignature(), m.retrieveActiveBody().toString());
+        }
+      }
+    }
+    return bodies;
+  }
+
+  @Test
+  public void lazySourcesProduceSameBodies() {
+    Map<String, String> eager = loadBodies(false);
+    Map<String, String> lazy = loadBodies(true);
+    assertTrue(!eager.isEmpty());
+    assertEquals(eager, lazy);
+  }
+
+  @Test
+  public void lazySourcesRecreateReleasedBodies() {
+    setup(true);
+    Options.v().set_drop_bodies_after_load(false);
+    SootClass sc = Scene.v().forceResolve(CLASSES[0], SootClass.BODIES);
+    int checked = 0;
+    for (SootMethod m : sc.getMethods()) {
+      if (m.isConcrete()) {
+        String first = m.retrieveActiveBody().toString();
+        m.releaseActiveBody();
+        assertEquals(m.getSignature(), first, m.retrieveActiveBody().toString());
+        checked++;
+      }
+    }
+    assertTrue(checked > 0);
+  }
+
+  @Test
+  public void lazySourcesAreDroppedAfterLoad() {
+    setup(true);
+    Options.v().set_drop_bodies_after_load(true);
+    SootClass sc = Scene.v().forceResolve(CLASSES[0], SootClass.BODIES);
+    for (SootMethod m : sc.getMethods()) {
+      if (m.isConcrete()) {
+        assertTrue(m.getSignature(), m.getSource() instanceof LazyAsmMethodSource);
+        m.retrieveActiveBody();
+        assertNull(m.getSignature(), m.getSource());
+      }
+    }
+  }
+}
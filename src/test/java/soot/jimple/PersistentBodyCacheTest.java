@@ -0,0 +1,166 @@
+package soot.jimple;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.Body;
+import soot.G;
+import soot.PhaseOptions;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.options.Options;
+import soot.tagkit.BytecodeOffsetTag;
+import soot.tagkit.LineNumberTag;
+import soot.tagkit.SourceLnNamePosTag;
+
+public class PersistentBodyCacheTest {
+
+  private static final File CLASSES = new File("src/test/resources/ported/PR1834/java6/bin");
+
+  private static final File CLINIT = new File("src/test/resources/Clinit/bin");
+
+  @Rule
+  public TemporaryFolder cacheDir = new TemporaryFolder();
+
+  @Rule
+  public TemporaryFolder classesDir = new TemporaryFolder();
+
+  @Test
+  public void warmRunLoadsIdenticalBodies() {
+    List<String> cold = retrieveBodies(CLASSES, "enabled:true");
+    PersistentBodyCache cache = PersistentBodyCache.v();
+    assertEquals(0, cache.getHits());
+    assertTrue(cache.getStores() > 0);
+    final long stored = cache.getStores();
+
+    List<String> warm = retrieveBodies(CLASSES, "enabled:true");
+    cache = PersistentBodyCache.v();
+    assertEquals(stored, cache.getHits());
+    assertEquals(0, cache.getStores());
+    assertEquals(0, cache.getFailures());
+    assertEquals(cold, warm);
+  }
+
+  @Test
+  public void changedOptionsInvalidateEntries() {
+    retrieveBodies(CLASSES, "enabled:true");
+    retrieveBodies(CLASSES, "enabled:false");
+    assertEquals(0, PersistentBodyCache.v().getHits());
+  }
+
+  @Test
+  public void changedClassInvalidatesOnlyItsEntries() throws IOException {
+    final File classes = classesDir.getRoot();
+    FileUtils.copyDirectory(CLINIT, classes);
+    retrieveBodies(classes, "enabled:true");
+    final long stored = PersistentBodyCache.v().getStores();
+    final long mainBodies = concreteMethods("soot.Main");
+    assertTrue(stored > mainBodies);
+
+    // No other class refers to Main
+    change(new File(classes, "soot/Main.class"));
+    retrieveBodies(classes, "enabled:true");
+    assertEquals(mainBodies, PersistentBodyCache.v().getMisses());
+    assertEquals(stored - mainBodies, PersistentBodyCache.v().getHits());
+  }
+
+  @Test
+  public void changedSupertypeInvalidatesEntriesOfDependentClasses() throws IOException {
+    final File classes = classesDir.getRoot();
+    FileUtils.copyDirectory(CLINIT, classes);
+    retrieveBodies(classes, "enabled:true");
+    assertTrue(PersistentBodyCache.v().getStores() > 0);
+
+    // A implements IA, A1 extends A, and Main refers to A1
+    change(new File(classes, "soot/IA.class"));
+    retrieveBodies(classes, "enabled:true");
+    assertEquals(0, PersistentBodyCache.v().getHits());
+  }
+
+  @Test(expected = BodyCacheFormat.UnsupportedBodyException.class)
+  public void subclassesOfEncodedTagsAreRejected() throws IOException {
+    retrieveBodies(CLASSES, "enabled:true");
+    Body b = Scene.v().getSootClass("Reflection").getMethodByName("main").retrieveActiveBody();
+    // The encoding of SourceLnPosTag would lose the file name
+    b.getUnits().getFirst().addTag(new SourceLnNamePosTag("Reflection.java", 1, 1, 0, 0));
+    BodyCacheFormat.write(b, new DataOutputStream(new ByteArrayOutputStream()));
+  }
+
+  /** Changes the content of a class file, but not the class it declares. */
+  private static void change(File classFile) throws IOException {
+    FileUtils.writeByteArrayToFile(classFile, new byte[] { 0 }, true);
+  }
+
+  private static long concreteMethods(String className) {
+    return Scene.v().getSootClass(className).getMethods().stream().filter(SootMethod::isConcrete).count();
+  }
+
+  private List<String> retrieveBodies(File processDir, String jbOption) {
+    G.reset();
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_process_dir(
+        Collections.singletonList(processDir.getAbsolutePath()));
+    Options.v().set_src_prec(Options.src_prec_class);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_keep_line_number(true);
+    Options.v().set_keep_offset(true);
+    Options.v().set_body_cache_dir(cacheDir.getRoot().getAbsolutePath());
+    PhaseOptions.v().setPhaseOption("jb.ne", jbOption);
+    Scene.v().loadNecessaryClasses();
+
+    List<String> bodies = new ArrayList<String>();
+    for (SootClass sc : Scene.v().getApplicationClasses()) {
+      for (SootMethod m : sc.getMethods()) {
+        if (m.isConcrete()) {
+          Body b = m.retrieveActiveBody();
+          StringBuilder sb = new StringBuilder(b.toString());
+          for (Unit u : b.getUnits()) {
+            LineNumberTag t = (LineNumberTag) u.getTag(LineNumberTag.NAME);
+            sb.append(t == null ? -1 : t.getLineNumber()).append(' ');
+            BytecodeOffsetTag o = (BytecodeOffsetTag) u.getTag(BytecodeOffsetTag.NAME);
+            sb.append(o == null ? -1 : o.getBytecodeOffset()).append(' ');
+          }
+          bodies.add(sb.toString());
+        }
+      }
+    }
+    return bodies;
+  }
+}
@@ -0,0 +1,128 @@
+package soot.jimple.spark.geom.geomPA;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.G;
+import soot.Local;
+import soot.PackManager;
+import soot.RefLikeType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.sets.P2SetVisitor;
+import soot.jimple.spark.sets.PointsToSetInternal;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.options.Options;
+
+/**
+ * Checks that solving the clusters of pointers of geomPA on several threads gives the same points-to sets and call graph as
+ * solving them on one thread, for every encoding.
+ */
+public class ParallelGeomPointsToTest {
+
+  @Test
+  public void geomSameResultAsSequential() {
+    assertSameResult("Geom");
+  }
+
+  @Test
+  public void heapInsSameResultAsSequential() {
+    assertSameResult("HeapIns");
+  }
+
+  @Test
+  public void ptInsSameResultAsSequential() {
+    assertSameResult("PtIns");
+  }
+
+  private static void assertSameResult(String encoding) {
+    List<String> sequential = runGeom(encoding, false);
+    List<String> parallel = runGeom(encoding, true);
+    assertFalse(sequential.isEmpty());
+    assertEquals(sequential, parallel);
+  }
+
+  /**
+   * Runs geomPA and returns the points-to sets of all locals of the application classes, followed by the call graph.
+   */
+  private static List<String> runGeom(String encoding, boolean parallel) {
+    G.reset();
+    Options.v().set_prepend_classpath(true);
+    String corpus = Paths.get("src", "test", "resources", "ported", "PR1834", "java6", "bin").toFile().getAbsolutePath();
+    Options.v().set_process_dir(Collections.singletonList(corpus));
+    Options.v().set_src_prec(Options.src_prec_class);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_whole_program(true);
+    Options.v().set_no_bodies_for_excluded(true);
+    Options.v().set_num_threads(4);
+    Options.v().setPhaseOption("cg.spark", "on");
+    Options.v().setPhaseOption("cg.spark", "geom-pta:true");
+    Options.v().setPhaseOption("cg.spark", "geom-encoding:" + encoding);
+    Options.v().setPhaseOption("cg.spark", "geom-parallel:" + parallel);
+    Options.v().setPhaseOption("cg", "all-reachable:true");
+    Scene.v().loadNecessaryClasses();
+    PackManager.v().getPack("cg").apply();
+
+    GeomPointsTo geomPTA = (GeomPointsTo) Scene.v().getPointsToAnalysis();
+    assertEquals(parallel, geomPTA.isParallel());
+    final List<String> result = new ArrayList<String>();
+    for (SootClass sc : Scene.v().getApplicationClasses()) {
+      for (SootMethod m : sc.getMethods()) {
+        if (!m.hasActiveBody()) {
+          continue;
+        }
+        for (Local l : m.getActiveBody().getLocals()) {
+          if (!(l.getType() instanceof RefLikeType)) {
+            continue;
+          }
+          final List<String> objects = new ArrayList<String>();
+          ((PointsToSetInternal) geomPTA.reachingObjects(l)).forall(new P2SetVisitor() {
+            @Override
+            public void visit(Node n) {
+              objects.add(n.toString());
+            }
+          });
+          Collections.sort(objects);
+          result.add(m.getSignature() + " " + l + " " + objects);
+        }
+      }
+    }
+    for (Edge e : Scene.v().getCallGraph()) {
+      result.add(e.kind() + " " + e.src() + " ==> " + e.tgt());
+    }
+    assertFalse(IFigureManager.isParallel());
+    G.reset();
+    return result;
+  }
+}
@@ -0,0 +1,99 @@
+package soot.jimple.spark.pag;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.G;
+import soot.RefType;
+import soot.Scene;
+import soot.options.SparkOptions;
+
+public class NumberedEdgeMapTest {
+
+  private static PAG newPAG() {
+    G.reset();
+    Scene.v().loadBasicClasses();
+    return new PAG(new SparkOptions(Collections.<String, String>emptyMap()));
+  }
+
+  private static List<VarNode> makeVarNodes(PAG pag, int count) {
+    RefType object = RefType.v("java.lang.Object");
+    List<VarNode> nodes = new ArrayList<VarNode>();
+    for (int i = 0; i < count; i++) {
+      nodes.add(pag.makeGlobalVarNode("v" + i, object));
+    }
+    return nodes;
+  }
+
+  @Test
+  public void addsEachEdgeOnce() {
+    PAG pag = newPAG();
+    List<VarNode> v = makeVarNodes(pag, 100);
+    // Enough targets for the source to get a hash index
+    for (int round = 0; round < 2; round++) {
+      for (int i = 1; i < v.size(); i++) {
+        assertEquals(round == 0, pag.addSimpleEdge(v.get(0), v.get(i)));
+      }
+    }
+    NumberedEdgeMap<VarNode, VarNode> edges = pag.simpleEdges();
+    assertEquals(v.size() - 1, edges.targetCount(v.get(0)));
+    assertEquals(v.subList(1, v.size()), Arrays.asList(pag.simpleLookup(v.get(0))));
+    assertEquals(0, edges.targetCount(v.get(1)));
+    assertArrayEquals(PAG.EMPTY_NODE_ARRAY, pag.simpleLookup(v.get(1)));
+    assertEquals(Collections.singleton(v.get(0)), pag.simpleSources());
+    assertEquals(new HashSet<VarNode>(v.subList(1, v.size())), pag.simpleInvSources());
+  }
+
+  @Test
+  public void replacesMergedNodes() {
+    PAG pag = newPAG();
+    List<VarNode> v = makeVarNodes(pag, 4);
+    pag.addSimpleEdge(v.get(0), v.get(1));
+    pag.addSimpleEdge(v.get(0), v.get(2));
+    pag.addSimpleEdge(v.get(2), v.get(3));
+    pag.addSimpleEdge(v.get(2), v.get(1));
+
+    v.get(1).mergeWith(v.get(2));
+    pag.cleanUpMerges();
+
+    // The edges of v2 now start at v1, and the edge between v1 and v2 is gone
+    assertEquals(Arrays.asList(v.get(1)), Arrays.asList(pag.simpleLookup(v.get(0))));
+    assertEquals(Arrays.asList(v.get(3)), Arrays.asList(pag.simpleLookup(v.get(1))));
+    assertEquals(0, pag.simpleEdges().targetCount(v.get(2)));
+    assertFalse(pag.simpleSources().contains(v.get(2)));
+    assertTrue(pag.simpleSources().contains(v.get(1)));
+    assertEquals(2, pag.simpleSources().size());
+  }
+}
@@ -0,0 +1,96 @@
+package soot.jimple.spark.pag;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.G;
+import soot.PackManager;
+import soot.Scene;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.options.Options;
+
+/**
+ * Checks that building the method PAGs in parallel numbers the nodes exactly as building them one after the other.
+ */
+public class ParallelMethodPAGBuilderTest {
+
+  @Test
+  public void sameNumberingAsSequentialBuild() {
+    List<String> sequential = runSpark(false, true);
+    List<String> parallel = runSpark(true, true);
+    assertTrue(sequential.size() > 100);
+    assertEquals(sequential, parallel);
+  }
+
+  @Test
+  public void sameNumberingAsSequentialBuildWithoutOnTheFlyCallGraph() {
+    List<String> sequential = runSpark(false, false);
+    List<String> parallel = runSpark(true, false);
+    assertEquals(sequential, parallel);
+  }
+
+  /**
+   * Runs Spark and returns the variable and allocation nodes in the order of their numbers, followed by the call graph.
+   */
+  private static List<String> runSpark(boolean parallel, boolean onFlyCallGraph) {
+    G.reset();
+    Options.v().set_prepend_classpath(true);
+    String corpus = Paths.get("src", "test", "resources", "ported", "PR1834", "java6", "bin").toFile().getAbsolutePath();
+    Options.v().set_process_dir(Collections.singletonList(corpus));
+    Options.v().set_src_prec(Options.src_prec_class);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_whole_program(true);
+    Options.v().set_no_bodies_for_excluded(true);
+    Options.v().set_num_threads(4);
+    Options.v().setPhaseOption("cg.spark", "on");
+    Options.v().setPhaseOption("cg.spark", "on-fly-cg:" + onFlyCallGraph);
+    Options.v().setPhaseOption("cg.spark", "parallel-pag:" + parallel);
+    Options.v().setPhaseOption("cg", "all-reachable:true");
+    Scene.v().loadNecessaryClasses();
+    PackManager.v().getPack("cg").apply();
+
+    PAG pag = (PAG) Scene.v().getPointsToAnalysis();
+    assertEquals(parallel, pag.parallelBuilder() != null);
+    List<String> result = new ArrayList<String>();
+    for (VarNode vn : pag.getVarNodeNumberer()) {
+      result.add(vn + " " + vn.finishingNumber);
+    }
+    for (AllocNode an : pag.getAllocNodeNumberer()) {
+      result.add(an.toString());
+    }
+    for (Edge e : Scene.v().getCallGraph()) {
+      result.add(e.kind() + " " + e.src() + " ==> " + e.tgt());
+    }
+    G.reset();
+    return result;
+  }
+}
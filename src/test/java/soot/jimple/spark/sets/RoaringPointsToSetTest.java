@@ -0,0 +1,164 @@
+package soot.jimple.spark.sets;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import soot.G;
+import soot.Local;
+import soot.MethodOrMethodContext;
+import soot.PackManager;
+import soot.PointsToAnalysis;
+import soot.RefType;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Type;
+import soot.jimple.spark.pag.AllocNode;
+import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.PAG;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.options.Options;
+import soot.options.SparkOptions;
+import soot.util.queue.QueueReader;
+
+public class RoaringPointsToSetTest {
+
+  @Test
+  public void behavesLikeHashSet() {
+    G.reset();
+    Scene.v().loadBasicClasses();
+    PAG pag = new PAG(new SparkOptions(Collections.<String, String>emptyMap()));
+    RefType string = RefType.v("java.lang.String");
+    RefType integer = RefType.v("java.lang.Integer");
+
+    // Enough nodes for several containers, with both array and bitmap containers
+    List<AllocNode> nodes = new ArrayList<AllocNode>();
+    for (int i = 0; i < 140000; i++) {
+      nodes.add(pag.makeAllocNode("a" + i, i % 3 == 0 ? integer : string, null));
+    }
+    pag.getTypeManager().makeTypeMask();
+
+    Random random = new Random(13);
+    Type object = Scene.v().getObjectType();
+    for (int round = 0; round < 20; round++) {
+      int range = random.nextBoolean() ? nodes.size() : 20000;
+      PointsToSetInternal[] roaring = new PointsToSetInternal[3];
+      PointsToSetInternal[] hash = new PointsToSetInternal[3];
+      for (int s = 0; s < 3; s++) {
+        roaring[s] = new RoaringPointsToSet(object, pag);
+        hash[s] = new HashPointsToSet(object, pag);
+        int count = random.nextInt(s == 0 ? 8000 : 100);
+        for (int j = 0; j < count; j++) {
+          AllocNode n = nodes.get(random.nextInt(range));
+          assertEquals(hash[s].add(n), roaring[s].add(n));
+        }
+        assertEquals(contents(hash[s]), contents(roaring[s]));
+      }
+
+      PointsToSetInternal roaringTarget = new RoaringPointsToSet(random.nextBoolean() ? object : string, pag);
+      PointsToSetInternal hashTarget = new HashPointsToSet(roaringTarget.getType(), pag);
+      assertEquals(hashTarget.addAll(hash[1], null), roaringTarget.addAll(roaring[1], null));
+      assertEquals(hashTarget.addAll(hash[0], hash[2]), roaringTarget.addAll(roaring[0], roaring[2]));
+      assertEquals(hashTarget.addAll(hash[0], null), roaringTarget.addAll(roaring[0], null));
+      assertEquals(contents(hashTarget), contents(roaringTarget));
+      assertEquals(hashTarget.size(), roaringTarget.size());
+      assertEquals(hash[1].hasNonEmptyIntersection(hash[2]), roaring[1].hasNonEmptyIntersection(roaring[2]));
+      assertEquals(hashTarget.hasNonEmptyIntersection(hash[1]), roaringTarget.hasNonEmptyIntersection(roaring[1]));
+      for (AllocNode n : nodes.subList(0, 1000)) {
+        assertEquals(hashTarget.contains(n), roaringTarget.contains(n));
+      }
+    }
+  }
+
+  @Test
+  public void sparkGivesSameResultForAllSetImplementations() {
+    List<String> hybrid = runSpark("set-impl:hybrid");
+    assertTrue(hybrid.size() > 100);
+    assertEquals(hybrid, runSpark("set-impl:double"));
+    assertEquals(hybrid, runSpark("set-impl:roaring"));
+    assertEquals(hybrid, runSpark("set-impl:double,double-set-old:roaring,double-set-new:roaring"));
+  }
+
+  private static Set<Node> contents(PointsToSetInternal set) {
+    final Set<Node> ret = new HashSet<Node>();
+    set.forall(new P2SetVisitor() {
+      @Override
+      public void visit(Node n) {
+        assertTrue(ret.add(n));
+      }
+    });
+    return ret;
+  }
+
+  /**
+   * Runs Spark and returns the call graph and the possible types of all locals of the reachable methods.
+   */
+  private static List<String> runSpark(String setOptions) {
+    G.reset();
+    String corpus = Paths.get("src", "test", "resources", "ported", "PR1834", "java6", "bin").toFile().getAbsolutePath();
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_process_dir(Collections.singletonList(corpus));
+    Options.v().set_src_prec(Options.src_prec_class);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_whole_program(true);
+    Options.v().set_no_bodies_for_excluded(true);
+    Options.v().setPhaseOption("cg.spark", "on");
+    Options.v().setPhaseOption("cg.spark", setOptions);
+    Options.v().setPhaseOption("cg", "all-reachable:true");
+    Scene.v().loadNecessaryClasses();
+    PackManager.v().getPack("cg").apply();
+
+    List<String> result = new ArrayList<String>();
+    for (Edge e : Scene.v().getCallGraph()) {
+      result.add(e.kind() + " " + e.src() + " ==> " + e.tgt());
+    }
+    PointsToAnalysis pta = Scene.v().getPointsToAnalysis();
+    for (QueueReader<MethodOrMethodContext> r = Scene.v().getReachableMethods().listener(); r.hasNext();) {
+      SootMethod m = r.next().method();
+      if (m.hasActiveBody()) {
+        for (Local l : m.getActiveBody().getLocals()) {
+          TreeSet<String> types = new TreeSet<String>();
+          for (Type t : pta.reachingObjects(l).possibleTypes()) {
+            types.add(t.toString());
+          }
+          result.add(m.getSignature() + " " + l.getType() + " " + types);
+        }
+      }
+    }
+    Collections.sort(result);
+    G.reset();
+    return result;
+  }
+}
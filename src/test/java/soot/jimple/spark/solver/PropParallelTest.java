@@ -0,0 +1,190 @@
+package soot.jimple.spark.solver;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import soot.G;
+import soot.Local;
+import soot.MethodOrMethodContext;
+import soot.PackManager;
+import soot.PointsToAnalysis;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Type;
+import soot.jimple.spark.pag.AllocNode;
+import soot.jimple.spark.pag.ArrayElement;
+import soot.jimple.spark.pag.FieldRefNode;
+import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.PAG;
+import soot.jimple.spark.pag.VarNode;
+import soot.jimple.spark.sets.P2SetVisitor;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.options.Options;
+import soot.options.SparkOptions;
+import soot.util.queue.QueueReader;
+
+public class PropParallelTest {
+
+  @Test
+  public void sameFixedPointAsWorklistOnRandomGraph() {
+    G.reset();
+    Scene.v().loadBasicClasses();
+    List<String> sequential = solveRandomGraph(false, 300);
+    List<String> parallel = solveRandomGraph(true, 300);
+    assertEquals(sequential, parallel);
+  }
+
+  @Test
+  public void sameFixedPointAsWorklistOnLargeRandomGraph() {
+    // Large enough that every round is split into several tasks, which create field nodes of the same objects concurrently
+    G.reset();
+    Scene.v().loadBasicClasses();
+    List<String> sequential = solveRandomGraph(false, 5000);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(sequential, solveRandomGraph(true, 5000));
+    }
+  }
+
+  @Test
+  public void sameResultAsWorklistWithOnTheFlyCallGraph() {
+    List<String> sequential = runSpark("worklist");
+    List<String> parallel = runSpark("parallel");
+    assertTrue(sequential.size() > 100);
+    assertEquals(sequential, parallel);
+  }
+
+  /**
+   * Builds the same random graph of assignments, loads, and stores over the given number of variables, solves it, and
+   * returns the points-to set of each variable.
+   */
+  private static List<String> solveRandomGraph(boolean parallel, int numVars) {
+    PAG pag = new PAG(new SparkOptions(Collections.<String, String>emptyMap()));
+    Type type = Scene.v().getObjectType();
+    Random random = new Random(7);
+
+    List<VarNode> vars = new ArrayList<VarNode>();
+    for (int i = 0; i < numVars; i++) {
+      vars.add(pag.makeGlobalVarNode("v" + i, type));
+    }
+    for (int i = 0; i < numVars * 2 / 15; i++) {
+      AllocNode alloc = pag.makeAllocNode("a" + i, type, null);
+      pag.addEdge(alloc, vars.get(random.nextInt(vars.size())));
+    }
+    for (int i = 0; i < numVars * 4 / 3; i++) {
+      pag.addEdge(vars.get(random.nextInt(vars.size())), vars.get(random.nextInt(vars.size())));
+    }
+    for (int i = 0; i < numVars / 3; i++) {
+      FieldRefNode fr = pag.makeFieldRefNode(vars.get(random.nextInt(vars.size())), ArrayElement.v());
+      if (random.nextBoolean()) {
+        pag.addEdge(vars.get(random.nextInt(vars.size())), fr);
+      } else {
+        pag.addEdge(fr, vars.get(random.nextInt(vars.size())));
+      }
+    }
+
+    pag.getTypeManager().makeTypeMask();
+    Propagator propagator = parallel ? new PropParallel(pag, 4) : new PropWorklist(pag);
+    propagator.propagate();
+
+    List<String> result = new ArrayList<String>();
+    for (VarNode v : vars) {
+      result.add(v.getVariable() + " -> " + contents(v));
+    }
+    return result;
+  }
+
+  private static String contents(Node n) {
+    final TreeSet<String> objects = new TreeSet<String>();
+    n.getP2Set().forall(new P2SetVisitor() {
+      @Override
+      public void visit(Node n) {
+        objects.add(String.valueOf(((AllocNode) n).getNewExpr()));
+      }
+    });
+    return objects.toString();
+  }
+
+  /**
+   * Runs Spark with on-the-fly call graph construction and returns the call graph and the possible types of all locals of
+   * the reachable methods.
+   */
+  private static List<String> runSpark(String propagator) {
+    G.reset();
+    Options.v().set_prepend_classpath(true);
+    String corpus = Paths.get("src", "test", "resources", "ported", "PR1834", "java6", "bin").toFile().getAbsolutePath();
+    Options.v().set_process_dir(Collections.singletonList(corpus));
+    Options.v().set_src_prec(Options.src_prec_class);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_whole_program(true);
+    Options.v().set_no_bodies_for_excluded(true);
+    Options.v().set_num_threads(4);
+    Options.v().setPhaseOption("cg.spark", "on");
+    Options.v().setPhaseOption("cg.spark", "propagator:" + propagator);
+    Options.v().setPhaseOption("cg", "all-reachable:true");
+    Scene.v().loadNecessaryClasses();
+    PackManager.v().getPack("cg").apply();
+
+    List<String> result = new ArrayList<String>();
+    for (Edge e : Scene.v().getCallGraph()) {
+      result.add(e.kind() + " " + e.src() + " ==> " + e.tgt());
+    }
+    PointsToAnalysis pta = Scene.v().getPointsToAnalysis();
+    for (SootMethod m : reachableMethods()) {
+      if (m.hasActiveBody()) {
+        for (Local l : m.getActiveBody().getLocals()) {
+          result.add(m.getSignature() + " " + l.getType() + " " + new TreeSet<Object>(typeNames(pta, l)));
+        }
+      }
+    }
+    Collections.sort(result);
+    G.reset();
+    return result;
+  }
+
+  private static List<SootMethod> reachableMethods() {
+    List<SootMethod> methods = new ArrayList<SootMethod>();
+    for (QueueReader<MethodOrMethodContext> r = Scene.v().getReachableMethods().listener(); r.hasNext();) {
+      methods.add(r.next().method());
+    }
+    return methods;
+  }
+
+  private static List<String> typeNames(PointsToAnalysis pta, Local l) {
+    List<String> names = new ArrayList<String>();
+    for (Type t : pta.reachingObjects(l).possibleTypes()) {
+      names.add(t.toString());
+    }
+    return names;
+  }
+}
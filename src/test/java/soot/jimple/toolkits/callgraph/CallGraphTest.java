@@ -0,0 +1,150 @@
+package soot.jimple.toolkits.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.Kind;
+import soot.SootMethod;
+import soot.Type;
+import soot.Unit;
+import soot.VoidType;
+import soot.jimple.Jimple;
+import soot.util.queue.QueueReader;
+
+public class CallGraphTest {
+
+  private final List<SootMethod> methods = new ArrayList<SootMethod>();
+  private final List<Unit> units = new ArrayList<Unit>();
+
+  @Before
+  public void setUp() {
+    G.reset();
+    for (int i = 0; i < 4; i++) {
+      methods.add(new SootMethod("m" + i, Collections.<Type>emptyList(), VoidType.v()));
+    }
+    for (int i = 0; i < 4; i++) {
+      units.add(Jimple.v().newNopStmt());
+    }
+  }
+
+  private Edge edge(int src, int unit, int tgt) {
+    return new Edge(methods.get(src), units.get(unit), methods.get(tgt), Kind.VIRTUAL);
+  }
+
+  @Test
+  public void removeEdgesUnlinksEdges() {
+    CallGraph cg = new CallGraph();
+    Edge a = edge(0, 0, 1);
+    Edge b = edge(0, 0, 2);
+    Edge c = edge(0, 1, 2);
+    Edge d = edge(1, 2, 2);
+    for (Edge e : Arrays.asList(a, b, c, d)) {
+      cg.addEdge(e);
+    }
+
+    assertTrue(cg.removeEdges(Arrays.asList(a, c)));
+    assertEquals(2, cg.size());
+    assertEquals(Arrays.asList(b), toList(cg.edgesOutOf(units.get(0))));
+    assertEquals(Arrays.asList(b), toList(cg.edgesOutOf(methods.get(0))));
+    assertEquals(Arrays.asList(d), toList(cg.edgesOutOf(methods.get(1))));
+    assertEquals(Arrays.asList(b, d), sorted(cg.edgesInto(methods.get(2)), b, d));
+    assertTrue(cg.isEntryMethod(methods.get(1)));
+    assertEquals(Arrays.asList(b, d), toList(cg.iterator()));
+    assertEquals(Arrays.asList(b, d), toList(cg.listener()));
+
+    assertFalse(cg.removeEdges(Arrays.asList(a, c)));
+  }
+
+  @Test
+  public void removeEdgeKeepsEndpoints() {
+    CallGraph cg = new CallGraph();
+    Edge a = edge(0, 0, 1);
+    Edge b = edge(0, 1, 2);
+    cg.addEdge(a);
+    QueueReader<Edge> listener = cg.listener();
+    cg.addEdge(b);
+
+    assertTrue(cg.removeEdge(a));
+    assertTrue(a.isInvalid());
+    assertSame(methods.get(0), a.getSrc());
+    assertSame(units.get(0), a.srcUnit());
+    assertSame(methods.get(1), a.getTgt());
+    assertEquals(Arrays.asList(b), toList(listener));
+    assertEquals(Arrays.asList(b), toList(cg.edgesOutOf(methods.get(0))));
+  }
+
+  @Test
+  public void iteratorKeepsInsertionOrder() {
+    CallGraph cg = new CallGraph();
+    List<Edge> added = new ArrayList<Edge>();
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 4; j++) {
+        Edge e = edge(i, j, (i + j) % 4);
+        cg.addEdge(e);
+        added.add(e);
+      }
+    }
+    assertEquals(added, toList(cg.iterator()));
+
+    Iterator<Edge> it = cg.iterator();
+    it.next();
+    it.remove();
+    assertEquals(added.subList(1, added.size()), toList(cg.iterator()));
+    assertEquals(added.size() - 1, cg.size());
+  }
+
+  private static List<Edge> toList(Iterator<Edge> it) {
+    List<Edge> result = new ArrayList<Edge>();
+    while (it.hasNext()) {
+      result.add(it.next());
+    }
+    return result;
+  }
+
+  /** Returns the edges of the iterator in the order of the given edges. */
+  private static List<Edge> sorted(Iterator<Edge> it, Edge... order) {
+    List<Edge> edges = toList(it);
+    List<Edge> result = new ArrayList<Edge>();
+    for (Edge e : order) {
+      if (edges.remove(e)) {
+        result.add(e);
+      }
+    }
+    assertTrue(edges.isEmpty());
+    return result;
+  }
+}
@@ -0,0 +1,151 @@
+package soot.jimple.toolkits.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.Kind;
+import soot.MethodOrMethodContext;
+import soot.SootMethod;
+import soot.Type;
+import soot.Unit;
+import soot.VoidType;
+import soot.jimple.Jimple;
+
+public class CompactCallGraphTest {
+
+  private final List<SootMethod> methods = new ArrayList<SootMethod>();
+  private final List<Unit> units = new ArrayList<Unit>();
+
+  @Before
+  public void setUp() {
+    G.reset();
+    for (int i = 0; i < 50; i++) {
+      methods.add(new SootMethod("m" + i, Collections.<Type>emptyList(), VoidType.v()));
+    }
+    for (int i = 0; i < 200; i++) {
+      units.add(Jimple.v().newNopStmt());
+    }
+  }
+
+  @Test
+  public void frozenGraphAnswersLikeLinkedGraph() {
+    CallGraph linked = new CallGraph();
+    CompactCallGraph compact = new CompactCallGraph();
+    addRandomEdges(linked, compact, 1000);
+
+    compact.freeze();
+    assertTrue(compact.isFrozen());
+    assertSameEdges(linked, compact);
+  }
+
+  @Test
+  public void modifyingFrozenGraphThawsIt() {
+    CallGraph linked = new CallGraph();
+    CompactCallGraph compact = new CompactCallGraph();
+    addRandomEdges(linked, compact, 500);
+    compact.freeze();
+
+    Edge e = compact.iterator().next();
+    Unit u = e.srcUnit();
+    SootMethod tgt = e.tgt();
+    assertTrue(linked.removeEdge(linked.findEdge(u, tgt)));
+    assertTrue(compact.removeEdge(e));
+    assertFalse(compact.isFrozen());
+    assertNull(compact.findEdge(u, tgt));
+    assertSameEdges(linked, compact);
+
+    compact.freeze();
+    assertSameEdges(linked, compact);
+  }
+
+  @Test
+  public void frozenGraphKeepsInsertionOrder() {
+    CompactCallGraph compact = new CompactCallGraph();
+    Unit u = units.get(0);
+    List<Edge> added = new ArrayList<Edge>();
+    for (int i = 0; i < 5; i++) {
+      Edge e = new Edge(methods.get(0), u, methods.get(i + 1), Kind.VIRTUAL);
+      compact.addEdge(e);
+      added.add(e);
+    }
+    compact.freeze();
+
+    List<Edge> out = new ArrayList<Edge>();
+    for (Iterator<Edge> it = compact.edgesOutOf(u); it.hasNext();) {
+      out.add(it.next());
+    }
+    assertEquals(added, out);
+    assertSame(added.get(2), compact.findEdge(u, methods.get(3)));
+  }
+
+  private void addRandomEdges(CallGraph linked, CompactCallGraph compact, int count) {
+    Random random = new Random(42);
+    for (int i = 0; i < count; i++) {
+      SootMethod src = methods.get(random.nextInt(methods.size()));
+      SootMethod tgt = methods.get(random.nextInt(methods.size()));
+      Unit u = units.get(random.nextInt(units.size()));
+      // Edges are linked into the graph that contains them, so each graph needs its own copy
+      boolean added = linked.addEdge(new Edge(src, u, tgt, Kind.VIRTUAL));
+      assertEquals(added, compact.addEdge(new Edge(src, u, tgt, Kind.VIRTUAL)));
+    }
+  }
+
+  private void assertSameEdges(CallGraph expected, CallGraph actual) {
+    assertEquals(expected.size(), actual.size());
+    assertEquals(toSet(expected.iterator()), toSet(actual.iterator()));
+    assertEquals(toSet(expected.sourceMethods()), toSet(actual.sourceMethods()));
+    for (Unit u : units) {
+      assertEquals(toSet(expected.edgesOutOf(u)), toSet(actual.edgesOutOf(u)));
+    }
+    for (MethodOrMethodContext m : methods) {
+      assertEquals(toSet(expected.edgesOutOf(m)), toSet(actual.edgesOutOf(m)));
+      assertEquals(toSet(expected.edgesInto(m)), toSet(actual.edgesInto(m)));
+      assertEquals(expected.isEntryMethod(m.method()), actual.isEntryMethod(m.method()));
+    }
+  }
+
+  private static <T> Set<T> toSet(Iterator<? extends T> it) {
+    Set<T> result = new HashSet<T>();
+    while (it.hasNext()) {
+      result.add(it.next());
+    }
+    return result;
+  }
+}
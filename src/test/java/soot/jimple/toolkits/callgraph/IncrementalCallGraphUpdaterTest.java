@@ -0,0 +1,293 @@
+package soot.jimple.toolkits.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.G;
+import soot.MethodOrMethodContext;
+import soot.PackManager;
+import soot.Scene;
+import soot.SootClass;
+import soot.options.Options;
+
+public class IncrementalCallGraphUpdaterTest {
+
+  private static final String MAIN = "public class Main {\n"
+      + "  public static void main(String[] args) {\n"
+      + "    Shape s = args.length > 0 ? new Circle() : new Square();\n"
+      + "    s.area();\n"
+      + "    s.print();\n"
+      + "    Helper.help();\n"
+      + "  }\n"
+      + "}\n";
+
+  private static final String MAIN_V2 = "public class Main {\n"
+      + "  public static void main(String[] args) {\n"
+      + "    Shape s = args.length > 0 ? new Circle() : new Square();\n"
+      + "    s.area();\n"
+      + "  }\n"
+      + "}\n";
+
+  private static final String SHAPES = "abstract class Shape {\n"
+      + "  abstract double area();\n"
+      + "  void print() { Helper.format(this); }\n"
+      + "}\n";
+
+  private static final String CIRCLE_V1 = "class Circle extends Shape {\n"
+      + "  double area() { return radius(); }\n"
+      + "  double radius() { return 2; }\n"
+      + "}\n";
+
+  private static final String CIRCLE_V2 = "class Circle extends Shape {\n"
+      + "  double area() { return diameter() / 2; }\n"
+      + "  double diameter() { return Helper.unit(); }\n"
+      + "}\n";
+
+  private static final String SQUARE_V1 = "class Square extends Shape {\n"
+      + "  double area() { return 1; }\n"
+      + "}\n";
+
+  private static final String SQUARE_V2 = "class Square extends Shape {\n"
+      + "  double area() { return 1; }\n"
+      + "  void print() { Helper.unit(); }\n"
+      + "}\n";
+
+  private static final String HELPER_V1 = "class Helper {\n"
+      + "  static void help() { }\n"
+      + "  static void format(Shape s) { }\n"
+      + "  static double unit() { return 1; }\n"
+      + "}\n";
+
+  private static final String HELPER_V2 = "class Helper {\n"
+      + "  static void help() { new Circle().area(); }\n"
+      + "  static void format(Shape s) { s.area(); }\n"
+      + "  static double unit() { return 1; }\n"
+      + "}\n";
+
+  private static final String HELPER_V3 = "class Helper implements Runnable {\n"
+      + "  public void run() { }\n"
+      + "  static void help() { new Helper().run(); }\n"
+      + "  static void format(Shape s) { }\n"
+      + "  static double unit() { return 1; }\n"
+      + "}\n";
+
+  private static final String EXTRA = "class Extra {\n"
+      + "}\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void incrementalUpdateMatchesRebuildFromMain() throws IOException {
+    checkUpdate(false, Arrays.asList(MAIN, SHAPES, CIRCLE_V2, SQUARE_V2, HELPER_V2), "Circle, Helper, Square", true);
+  }
+
+  @Test
+  public void incrementalUpdateMatchesRebuildForAllReachable() throws IOException {
+    checkUpdate(true, Arrays.asList(MAIN, SHAPES, CIRCLE_V2, SQUARE_V2, HELPER_V2), "Circle, Helper, Square", true);
+  }
+
+  @Test
+  public void removedCallsMakeUnchangedMethodsUnreachable() throws IOException {
+    checkUpdate(false, Arrays.asList(MAIN_V2, SHAPES, CIRCLE_V1, SQUARE_V1, HELPER_V1), "Main", true);
+  }
+
+  @Test
+  public void changedSupertypesRebuildCallGraph() throws IOException {
+    checkUpdate(false, Arrays.asList(MAIN, SHAPES, CIRCLE_V1, SQUARE_V1, HELPER_V3), "Helper", false);
+  }
+
+  @Test
+  public void savedCallGraphIsUpdatedInLaterRun() throws IOException {
+    File classes = folder.newFolder("classes");
+    Path file = folder.getRoot().toPath().resolve("cg.snapshot");
+    compile(classes, Arrays.asList(MAIN, SHAPES, CIRCLE_V1, SQUARE_V1, HELPER_V1));
+    List<String> initial = buildCallGraph(classes, false);
+    new IncrementalCallGraphUpdater().save(file);
+
+    compile(classes, Arrays.asList(MAIN, SHAPES, CIRCLE_V2, SQUARE_V2, HELPER_V2));
+    List<String> expected = buildCallGraph(classes, false);
+    List<String> expectedReachable = reachableMethods();
+
+    loadClasses(classes, false);
+    IncrementalCallGraphUpdater updater = IncrementalCallGraphUpdater.load(file);
+    assertNotNull(updater);
+    CallGraph cg = Scene.v().getCallGraph();
+    TreeSet<String> modified = new TreeSet<String>();
+    for (SootClass c : updater.update()) {
+      modified.add(c.getName());
+    }
+    assertEquals("Circle, Helper, Square", String.join(", ", modified));
+    assertSame(cg, Scene.v().getCallGraph());
+    assertNotEquals(initial, edges());
+    assertEquals(expected, edges());
+    assertEquals(expectedReachable, reachableMethods());
+    G.reset();
+  }
+
+  @Test
+  public void snapshotOptionUpdatesCallGraphOfLaterRun() throws IOException {
+    File classes = folder.newFolder("classes");
+    Path file = folder.getRoot().toPath().resolve("cg.snapshot");
+    compile(classes, Arrays.asList(MAIN, SHAPES, CIRCLE_V1, SQUARE_V1, HELPER_V1));
+    List<String> initial = buildCallGraph(classes, true, file);
+    assertTrue(Files.isRegularFile(file));
+
+    compile(classes, Arrays.asList(MAIN_V2, SHAPES, CIRCLE_V2, SQUARE_V2, HELPER_V2));
+    List<String> updated = buildCallGraph(classes, true, file);
+    List<String> updatedReachable = reachableMethods();
+    assertNotEquals(initial, updated);
+    assertEquals(buildCallGraph(classes, true), updated);
+    assertEquals(reachableMethods(), updatedReachable);
+
+    // The snapshot now describes the new class files
+    loadClasses(classes, true);
+    assertTrue(IncrementalCallGraphUpdater.load(file).findModifiedClasses().isEmpty());
+    G.reset();
+  }
+
+  @Test
+  public void savedCallGraphIsNotRestoredWhenClassesAreAdded() throws IOException {
+    File classes = folder.newFolder("classes");
+    Path file = folder.getRoot().toPath().resolve("cg.snapshot");
+    compile(classes, Arrays.asList(MAIN, SHAPES, CIRCLE_V1, SQUARE_V1, HELPER_V1));
+    buildCallGraph(classes, false);
+    new IncrementalCallGraphUpdater().save(file);
+
+    compile(classes, Arrays.asList(EXTRA));
+    loadClasses(classes, false);
+    assertNull(IncrementalCallGraphUpdater.load(file));
+    G.reset();
+  }
+
+  private void checkUpdate(boolean allReachable, List<String> newSources, String expectedModified,
+      boolean expectIncremental) throws IOException {
+    File classes = folder.newFolder("classes");
+    compile(classes, Arrays.asList(MAIN, SHAPES, CIRCLE_V1, SQUARE_V1, HELPER_V1));
+    List<String> initial = buildCallGraph(classes, allReachable);
+
+    IncrementalCallGraphUpdater updater = new IncrementalCallGraphUpdater();
+    CallGraph cg = Scene.v().getCallGraph();
+    compile(classes, newSources);
+    TreeSet<String> modified = new TreeSet<String>();
+    for (SootClass c : updater.update()) {
+      modified.add(c.getName());
+    }
+    List<String> updated = edges();
+    List<String> updatedReachable = reachableMethods();
+    assertEquals(expectedModified, String.join(", ", modified));
+    if (expectIncremental) {
+      assertSame(cg, Scene.v().getCallGraph());
+    } else {
+      assertNotSame(cg, Scene.v().getCallGraph());
+    }
+    assertNotEquals(initial, updated);
+    assertEquals(buildCallGraph(classes, allReachable), updated);
+    assertEquals(reachableMethods(), updatedReachable);
+    G.reset();
+  }
+
+  private void compile(File classes, List<String> sources) throws IOException {
+    File dir = folder.newFolder();
+    List<String> args = new ArrayList<String>(Arrays.asList("-d", classes.getAbsolutePath(), "--release", "8"));
+    for (String source : sources) {
+      String name = source.substring(source.indexOf("class ") + 6, source.indexOf(' ', source.indexOf("class ") + 6));
+      File file = new File(dir, name + ".java");
+      Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+      args.add(file.getAbsolutePath());
+    }
+    assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, args.toArray(new String[0])));
+  }
+
+  private static List<String> buildCallGraph(File classes, boolean allReachable) {
+    return buildCallGraph(classes, allReachable, null);
+  }
+
+  private static List<String> buildCallGraph(File classes, boolean allReachable, Path snapshot) {
+    loadClasses(classes, allReachable);
+    if (snapshot != null) {
+      Options.v().setPhaseOption("cg", "snapshot:" + snapshot);
+    }
+    PackManager.v().getPack("cg").apply();
+    return edges();
+  }
+
+  private static void loadClasses(File classes, boolean allReachable) {
+    G.reset();
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_process_dir(Collections.singletonList(classes.getAbsolutePath()));
+    Options.v().set_src_prec(Options.src_prec_class);
+    Options.v().set_whole_program(true);
+    Options.v().set_no_bodies_for_excluded(true);
+    Options.v().set_allow_phantom_refs(true);
+    if (allReachable) {
+      Options.v().setPhaseOption("cg", "all-reachable:true");
+    } else {
+      Options.v().set_main_class("Main");
+    }
+    Scene.v().loadNecessaryClasses();
+  }
+
+  private static List<String> reachableMethods() {
+    List<String> ret = new ArrayList<String>();
+    for (Iterator<MethodOrMethodContext> it = Scene.v().getReachableMethods().listener(); it.hasNext();) {
+      ret.add(it.next().toString());
+    }
+    Collections.sort(ret);
+    return ret;
+  }
+
+  private static List<String> edges() {
+    List<String> ret = new ArrayList<String>();
+    for (Edge e : Scene.v().getCallGraph()) {
+      ret.add(e.kind() + " " + e.src() + " " + e.srcUnit() + " ==> " + e.tgt());
+    }
+    Collections.sort(ret);
+    return ret;
+  }
+}
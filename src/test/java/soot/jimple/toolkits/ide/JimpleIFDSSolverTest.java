@@ -0,0 +1,141 @@
+package soot.jimple.toolkits.ide;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import heros.InterproceduralCFG;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.MethodOrMethodContext;
+import soot.PackManager;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.jimple.DefinitionStmt;
+import soot.jimple.toolkits.ide.exampleproblems.IFDSReachingDefinitions;
+import soot.jimple.toolkits.ide.icfg.JimpleBasedInterproceduralCFG;
+import soot.options.Options;
+import soot.toolkits.scalar.Pair;
+import soot.util.queue.QueueReader;
+
+public class JimpleIFDSSolverTest {
+
+  @Before
+  public void setUp() {
+    G.reset();
+    Options.v().set_prepend_classpath(true);
+    String corpus = Paths.get("src", "test", "resources", "ported", "PR1834", "java6", "bin").toFile().getAbsolutePath();
+    Options.v().set_process_dir(Collections.singletonList(corpus));
+    Options.v().set_main_class("GenTypeParam");
+    Options.v().set_src_prec(Options.src_prec_class);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_whole_program(true);
+    Options.v().set_no_bodies_for_excluded(true);
+    Scene.v().loadNecessaryClasses();
+    PackManager.v().getPack("cg").apply();
+  }
+
+  @After
+  public void tearDown() {
+    G.reset();
+  }
+
+  @Test
+  public void forkJoinSolverOnFrozenICFGComputesSameResults() {
+    JimpleBasedInterproceduralCFG icfg = new JimpleBasedInterproceduralCFG();
+    List<String> expected = solve(icfg, false);
+    assertTrue(expected.size() > 50);
+
+    JimpleBasedInterproceduralCFG frozen = new JimpleBasedInterproceduralCFG();
+    frozen.freeze();
+    assertTrue(frozen.isFrozen());
+    for (Unit u : units()) {
+      assertSame(icfg.getMethodOf(u), frozen.getMethodOf(u));
+      assertEquals(icfg.getSuccsOf(u), frozen.getSuccsOf(u));
+      assertEquals(icfg.getPredsOf(u), frozen.getPredsOf(u));
+      if (icfg.isCallStmt(u)) {
+        assertEquals(icfg.getCalleesOfCallAt(u), frozen.getCalleesOfCallAt(u));
+      }
+    }
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(expected, solve(frozen, true));
+    }
+  }
+
+  private static List<Unit> units() {
+    List<Unit> units = new ArrayList<Unit>();
+    for (QueueReader<MethodOrMethodContext> r = Scene.v().getReachableMethods().listener(); r.hasNext();) {
+      SootMethod m = r.next().method();
+      if (m.hasActiveBody()) {
+        units.addAll(m.getActiveBody().getUnits());
+      }
+    }
+    return units;
+  }
+
+  /**
+   * Solves reaching definitions with four threads and returns the facts that hold at each reachable unit.
+   */
+  private static List<String> solve(JimpleBasedInterproceduralCFG icfg, boolean forkJoin) {
+    IFDSReachingDefinitions problem = new IFDSReachingDefinitions(icfg) {
+      @Override
+      public int numThreads() {
+        return 4;
+      }
+    };
+    JimpleIFDSSolver<Pair<Value, Set<DefinitionStmt>>, InterproceduralCFG<Unit, SootMethod>> solver
+        = new JimpleIFDSSolver<Pair<Value, Set<DefinitionStmt>>, InterproceduralCFG<Unit, SootMethod>>(problem, false,
+            forkJoin);
+    solver.solve();
+
+    List<String> result = new ArrayList<String>();
+    for (Unit u : units()) {
+      Set<String> facts = new TreeSet<String>();
+      for (Pair<Value, Set<DefinitionStmt>> fact : solver.ifdsResultsAt(u)) {
+        Set<String> defs = new TreeSet<String>();
+        for (DefinitionStmt def : fact.getO2()) {
+          defs.add(def.toString());
+        }
+        facts.add(fact.getO1() + " " + defs);
+      }
+      result.add(icfg.getMethodOf(u).getSignature() + " " + u + " " + facts);
+    }
+    return result;
+  }
+}
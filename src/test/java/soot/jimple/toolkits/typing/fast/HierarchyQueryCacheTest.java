@@ -0,0 +1,107 @@
+package soot.jimple.toolkits.typing.fast;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.Type;
+import soot.options.Options;
+
+public class HierarchyQueryCacheTest {
+
+  @Before
+  public void setUp() {
+    G.reset();
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_allow_phantom_refs(true);
+    for (String name : new String[] { "java.util.ArrayList", "java.util.LinkedList", "java.lang.Integer" }) {
+      Scene.v().addBasicClass(name, SootClass.HIERARCHY);
+    }
+    Scene.v().loadBasicClasses();
+  }
+
+  @After
+  public void tearDown() {
+    G.reset();
+  }
+
+  @Test
+  public void resultsAreCachedUntilHierarchyChanges() {
+    RefType arrayList = RefType.v("java.util.ArrayList");
+    RefType linkedList = RefType.v("java.util.LinkedList");
+    HierarchyQueryCache cache = HierarchyQueryCache.v();
+
+    Collection<Type> lcas = BytecodeHierarchy.lcas_(arrayList, linkedList);
+    assertEquals(3, lcas.size());
+    assertTrue(lcas.contains(RefType.v("java.util.AbstractList")));
+    assertTrue(lcas.contains(RefType.v("java.lang.Cloneable")));
+    long hits = cache.getHits();
+    assertSame(lcas, BytecodeHierarchy.lcas_(arrayList, linkedList));
+    assertEquals(hits + 1, cache.getHits());
+
+    assertTrue(BytecodeHierarchy.ancestor_(RefType.v("java.util.List"), arrayList));
+    assertTrue(BytecodeHierarchy.ancestor_(RefType.v("java.util.List"), arrayList));
+    assertFalse(BytecodeHierarchy.ancestor_(arrayList, linkedList));
+    assertFalse(BytecodeHierarchy.ancestor_(arrayList, linkedList));
+    assertEquals(hits + 3, cache.getHits());
+
+    // Results are computed again for a new hierarchy
+    Scene.v().releaseFastHierarchy();
+    Collection<Type> recomputed = BytecodeHierarchy.lcas_(arrayList, linkedList);
+    assertNotSame(lcas, recomputed);
+    assertEquals(new ArrayList<Type>(lcas), new ArrayList<Type>(recomputed));
+  }
+
+  @Test
+  public void weakObjectTypesAreNotCached() {
+    RefType integer = RefType.v("java.lang.Integer");
+    Type weak = new WeakObjectType("java.lang.Number");
+    HierarchyQueryCache cache = HierarchyQueryCache.v();
+    assertEquals(Collections.singletonList(RefType.v("java.lang.Number")),
+        new ArrayList<Type>(BytecodeHierarchy.lcas_(integer, RefType.v("java.lang.Number"))));
+    long hits = cache.getHits();
+    long misses = cache.getMisses();
+
+    assertTrue(BytecodeHierarchy.ancestor_(weak, integer));
+    BytecodeHierarchy.lcas_(weak, integer);
+    BytecodeHierarchy.lcas_(weak, weak.makeArrayType());
+    assertEquals(hits, cache.getHits());
+    assertEquals(misses, cache.getMisses());
+  }
+}
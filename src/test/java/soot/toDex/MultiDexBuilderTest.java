@@ -0,0 +1,158 @@
+package soot.toDex;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jf.dexlib2.AccessFlags;
+import org.jf.dexlib2.AnnotationVisibility;
+import org.jf.dexlib2.Opcodes;
+import org.jf.dexlib2.iface.ClassDef;
+import org.jf.dexlib2.iface.value.EncodedValue;
+import org.jf.dexlib2.immutable.ImmutableAnnotation;
+import org.jf.dexlib2.immutable.ImmutableAnnotationElement;
+import org.jf.dexlib2.immutable.ImmutableClassDef;
+import org.jf.dexlib2.immutable.reference.ImmutableMethodReference;
+import org.jf.dexlib2.immutable.value.ImmutableArrayEncodedValue;
+import org.jf.dexlib2.immutable.value.ImmutableMethodEncodedValue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.G;
+import soot.PackManager;
+import soot.Scene;
+import soot.options.Options;
+
+/**
+ * Checks that dex files built with {@link MultiDexBuilder#internClasses(List, int)} are the same as those built class by
+ * class with {@link MultiDexBuilder#internClass(ClassDef)}.
+ */
+public class MultiDexBuilderTest {
+
+  /**
+   * Method references per class in {@link #annotatedClass(int)}. Two such classes do not fit into a single dex file.
+   */
+  private static final int ANNOTATION_REFERENCES = 40000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void parallelDexOutputMatchesSequential() throws IOException {
+    for (String corpus : new String[] { "ported/PR1834/java6/bin", "Clinit/bin" }) {
+      File sequential = toDex(corpus, false);
+      File parallel = toDex(corpus, true);
+      File[] expected = sequential.listFiles();
+      assertFalse(expected.length == 0);
+      assertEquals(expected.length, parallel.listFiles().length);
+      for (File f : expected) {
+        assertArrayEquals(f.getName(), Files.readAllBytes(f.toPath()),
+            Files.readAllBytes(new File(parallel, f.getName()).toPath()));
+      }
+    }
+  }
+
+  @Test
+  public void underestimatedReferencesFallBackToInternClass() throws IOException {
+    final Opcodes opcodes = Opcodes.forApi(26);
+    final List<ClassDef> classes = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      classes.add(annotatedClass(i));
+    }
+
+    MultiDexBuilder sequential = new MultiDexBuilder(opcodes);
+    for (ClassDef clz : classes) {
+      sequential.internClass(clz);
+    }
+
+    // The references in annotation values are not counted, so both classes end up in one partition that overflows
+    final int[] internClassCalls = new int[1];
+    MultiDexBuilder parallel = new MultiDexBuilder(opcodes) {
+      @Override
+      public void internClass(ClassDef clz) {
+        internClassCalls[0]++;
+        super.internClass(clz);
+      }
+    };
+    List<MultiDexBuilder.ReferencedClass> referenced = new ArrayList<>();
+    for (ClassDef clz : classes) {
+      referenced.add(new MultiDexBuilder.ReferencedClass(clz));
+    }
+    assertEquals(1, parallel.partition(referenced).size());
+    parallel.internClasses(referenced, 4);
+    assertEquals(classes.size(), internClassCalls[0]);
+
+    List<File> expected = sequential.writeTo(folder.newFolder().getPath());
+    List<File> actual = parallel.writeTo(folder.newFolder().getPath());
+    assertEquals(2, expected.size());
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertArrayEquals(Files.readAllBytes(expected.get(i).toPath()), Files.readAllBytes(actual.get(i).toPath()));
+    }
+  }
+
+  /**
+   * Creates a class whose only references beyond its own type are the methods in the value of a class annotation.
+   */
+  private static ClassDef annotatedClass(int index) {
+    List<EncodedValue> values = new ArrayList<>(ANNOTATION_REFERENCES);
+    for (int i = 0; i < ANNOTATION_REFERENCES; i++) {
+      values.add(new ImmutableMethodEncodedValue(new ImmutableMethodReference("Lsoot/Target;", "m" + index + "_" + i,
+          Collections.<String>emptyList(), "V")));
+    }
+    ImmutableAnnotation annotation = new ImmutableAnnotation(AnnotationVisibility.RUNTIME, "Lsoot/Methods;",
+        Collections.singleton(new ImmutableAnnotationElement("value", new ImmutableArrayEncodedValue(values))));
+    return new ImmutableClassDef("Lsoot/Annotated" + index + ";", AccessFlags.PUBLIC.getValue(), "Ljava/lang/Object;",
+        null, null, Collections.singleton(annotation), null, null);
+  }
+
+  private File toDex(String corpus, boolean parallel) throws IOException {
+    File outputDir = folder.newFolder();
+    G.reset();
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_process_dir(
+        Collections.singletonList(Paths.get("src", "test", "resources", corpus).toFile().getAbsolutePath()));
+    Options.v().set_src_prec(Options.src_prec_class);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_output_format(Options.output_format_dex);
+    Options.v().set_output_dir(outputDir.getAbsolutePath());
+    Options.v().set_parallel_dex_output(parallel);
+    Options.v().set_num_threads(parallel ? 4 : 1);
+    Scene.v().loadNecessaryClasses();
+    PackManager.v().runBodyPacks();
+    PackManager.v().writeOutput();
+    G.reset();
+    return outputDir;
+  }
+}
@@ -1516,6 +1516,79 @@ public class ThrowableSetTest {
 		assertTrue(bothPhantoms == bothPhantoms2);
 	}
 
+	@Test
+	public void test_15_MemoizedQueries() {
+		if (DUMP_INTERNALS) {
+			System.err.println("\n\ntestMemoizedQueries()");
+		}
+
+		mgr.setInstrumenting(true);
+		try {
+			ThrowableSet set = mgr.EMPTY.add(util.ARITHMETIC_EXCEPTION)
+					.add(AnySubType.v(util.LINKAGE_ERROR));
+			long memoizedCatchableAs = mgr.getCount(ThrowableSet.Counter.CATCHABLE_AS_FROM_MEMO);
+			long memoizedCatches = mgr.getCount(ThrowableSet.Counter.REMOVES_FROM_MEMO);
+
+			for (int i = 0; i < 2; i++) {
+				assertTrue(set.catchableAs(util.RUNTIME_EXCEPTION));
+				assertTrue(set.catchableAs(util.ERROR));
+				assertTrue(set.catchableAs(util.VERIFY_ERROR));
+				assertFalse(set.catchableAs(util.NULL_POINTER_EXCEPTION));
+			}
+			assertEquals(memoizedCatchableAs + 4,
+					mgr.getCount(ThrowableSet.Counter.CATCHABLE_AS_FROM_MEMO));
+
+			ThrowableSet.Pair pair = set.whichCatchableAs(util.VERIFY_ERROR);
+			assertTrue(pair == set.whichCatchableAs(util.VERIFY_ERROR));
+			assertSameMembers(pair,
+					new RefLikeType[] { AnySubType.v(util.VERIFY_ERROR) },
+					new AnySubType[] {},
+					new RefLikeType[] { util.ARITHMETIC_EXCEPTION, AnySubType.v(util.LINKAGE_ERROR) },
+					new AnySubType[] { AnySubType.v(util.VERIFY_ERROR) });
+			assertEquals(memoizedCatches + 1, mgr.getCount(ThrowableSet.Counter.REMOVES_FROM_MEMO));
+
+			Map<String, Long> counts = mgr.getInstrumentation();
+			assertEquals(Long.valueOf(mgr.getRegisteredSetCount()), counts.get("registeredSets"));
+			assertEquals(Long.valueOf(mgr.getCount(ThrowableSet.Counter.CATCHABLE_AS_QUERIES)),
+					counts.get("catchableAsQueries"));
+			assertTrue(mgr.reportInstrumentation().contains("catchableAsFromMemo: "));
+		} finally {
+			mgr.setInstrumenting(false);
+		}
+	}
+
+	@Test
+	public void test_16_ConcurrentAdds() throws InterruptedException {
+		if (DUMP_INTERNALS) {
+			System.err.println("\n\ntestConcurrentAdds()");
+		}
+
+		final RefType[] types = { util.ARITHMETIC_EXCEPTION, util.ARRAY_STORE_EXCEPTION, util.CLASS_CAST_EXCEPTION,
+				util.ILLEGAL_MONITOR_STATE_EXCEPTION, util.NEGATIVE_ARRAY_SIZE_EXCEPTION, util.NULL_POINTER_EXCEPTION,
+				util.UNDECLARED_THROWABLE_EXCEPTION };
+		final ThrowableSet[] results = new ThrowableSet[8];
+		Thread[] threads = new Thread[results.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int thread = i;
+			threads[i] = new Thread(() -> {
+				// Every thread adds the same types in a different order
+				ThrowableSet set = mgr.VM_ERRORS;
+				for (int j = 0; j < types.length; j++) {
+					set = set.add(types[(j + thread) % types.length]);
+				}
+				results[thread] = set;
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (ThrowableSet result : results) {
+			assertTrue(results[0] == result);
+		}
+		assertEquals(types.length + mgr.VM_ERRORS.typesIncluded().size(), results[0].typesIncluded().size());
+	}
+
 	void printAllSets() {
 		for (ThrowableSet s : mgr.getThrowableSets()) {
 			System.err.println(s.toString());
@@ -0,0 +1,160 @@
+package soot.toolkits.graph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.Body;
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.baf.Baf;
+import soot.jimple.Jimple;
+import soot.options.Options;
+import soot.toolkits.exceptions.PedanticThrowAnalysis;
+import soot.toolkits.exceptions.ThrowAnalysis;
+import soot.toolkits.exceptions.UnitThrowAnalysis;
+
+public class CompactExceptionalUnitGraphTest {
+
+  // Classes with nested, overlapping and self-protecting handlers
+  private static final String[] CLASSES = { "soot.PackManager", "soot.SourceLocator", "soot.ClassPathIndex",
+      "soot.toolkits.graph.ExceptionalUnitGraph", "soot.toolkits.graph.targets.TestException" };
+
+  @Before
+  public void setUp() {
+    G.reset();
+    Options.v().set_soot_classpath(new File("target/classes").getAbsolutePath() + File.pathSeparator
+        + new File("target/test-classes").getAbsolutePath());
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_src_prec(Options.src_prec_only_class);
+    Scene.v().loadBasicClasses();
+    for (String name : CLASSES) {
+      Scene.v().forceResolve(name, SootClass.BODIES).setApplicationClass();
+    }
+  }
+
+  @After
+  public void tearDown() {
+    G.reset();
+  }
+
+  @Test
+  public void sameGraphAsExceptionalUnitGraph() {
+    int bodies = 0;
+    int bodiesWithTraps = 0;
+    for (Body jimple : bodies()) {
+      Body baf = Baf.v().newBody((soot.jimple.JimpleBody) jimple);
+      for (Body b : new Body[] { jimple, baf }) {
+        for (ThrowAnalysis ta : new ThrowAnalysis[] { UnitThrowAnalysis.v(), PedanticThrowAnalysis.v() }) {
+          for (boolean omit : new boolean[] { false, true }) {
+            assertSameGraph(new ExceptionalUnitGraph(b, ta, omit), new CompactExceptionalUnitGraph(b, ta, omit));
+          }
+        }
+      }
+      bodies++;
+      if (!jimple.getTraps().isEmpty()) {
+        bodiesWithTraps++;
+      }
+    }
+    assertTrue(bodies > 100);
+    assertTrue(bodiesWithTraps > 10);
+  }
+
+  @Test
+  public void numberingIsSharedUntilBodyChanges() {
+    Body b = bodies().get(0);
+    ExceptionalUnitGraph first = new CompactExceptionalUnitGraph(b);
+    ExceptionalUnitGraph second = new CompactExceptionalUnitGraph(b);
+    UnitNumbering numbering = ((CompactExceptionalUnitGraph) first).getNumbering();
+    assertSame(numbering, ((CompactExceptionalUnitGraph) second).getNumbering());
+    assertEquals(b.getUnits().size(), numbering.size());
+
+    Unit nop = Jimple.v().newNopStmt();
+    b.getUnits().insertBefore(nop, b.getUnits().getLast());
+    assertTrue(!numbering.isValid());
+    CompactExceptionalUnitGraph third = new CompactExceptionalUnitGraph(b);
+    assertNotSame(numbering, third.getNumbering());
+    assertEquals(Collections.singletonList(b.getUnits().getLast()), third.getSuccsOf(nop));
+    assertSameGraph(new ExceptionalUnitGraph(b), third);
+  }
+
+  @Test
+  public void factoryBuildsCompactGraphWhenEnabled() {
+    Body b = bodies().get(0);
+    assertEquals(ExceptionalUnitGraph.class, ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b).getClass());
+    Options.v().set_compact_cfgs(true);
+    assertEquals(CompactExceptionalUnitGraph.class, ExceptionalUnitGraphFactory.createExceptionalUnitGraph(b).getClass());
+  }
+
+  private static List<Body> bodies() {
+    List<Body> bodies = new ArrayList<Body>();
+    for (String name : CLASSES) {
+      for (SootMethod m : Scene.v().getSootClass(name).getMethods()) {
+        if (m.isConcrete()) {
+          bodies.add(m.retrieveActiveBody());
+        }
+      }
+    }
+    return bodies;
+  }
+
+  private static void assertSameGraph(ExceptionalUnitGraph expected, ExceptionalUnitGraph actual) {
+    String method = expected.getBody().getMethod().getSignature();
+    assertEquals(method, expected.getHeads(), actual.getHeads());
+    assertEquals(method, expected.getTails(), actual.getTails());
+    assertEquals(method, expected.size(), actual.size());
+    for (Unit u : expected) {
+      assertEquals(method, expected.getSuccsOf(u), actual.getSuccsOf(u));
+      assertEquals(method, expected.getPredsOf(u), actual.getPredsOf(u));
+      assertEquals(method, expected.getUnexceptionalSuccsOf(u), actual.getUnexceptionalSuccsOf(u));
+      assertEquals(method, expected.getUnexceptionalPredsOf(u), actual.getUnexceptionalPredsOf(u));
+      assertEquals(method, expected.getExceptionalSuccsOf(u), actual.getExceptionalSuccsOf(u));
+      assertEquals(method, expected.getExceptionalPredsOf(u), actual.getExceptionalPredsOf(u));
+      assertEquals(method, destinations(expected, u), destinations(actual, u));
+    }
+  }
+
+  private static List<String> destinations(ExceptionalUnitGraph g, Unit u) {
+    List<String> ret = new ArrayList<String>();
+    for (ExceptionalUnitGraph.ExceptionDest dest : g.getExceptionDests(u)) {
+      ret.add(dest.getTrap() + " " + dest.getThrowables());
+    }
+    return ret;
+  }
+}
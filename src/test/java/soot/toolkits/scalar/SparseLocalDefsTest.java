@@ -0,0 +1,145 @@
+package soot.toolkits.scalar;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.Body;
+import soot.G;
+import soot.IntType;
+import soot.Local;
+import soot.Modifier;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.VoidType;
+import soot.jimple.IntConstant;
+import soot.jimple.Jimple;
+import soot.jimple.JimpleBody;
+import soot.options.Options;
+import soot.toolkits.graph.BriefUnitGraph;
+import soot.toolkits.graph.ExceptionalUnitGraph;
+import soot.toolkits.graph.UnitGraph;
+import soot.toolkits.scalar.SimpleLocalDefs.FlowAnalysisMode;
+
+public class SparseLocalDefsTest {
+
+  // Classes with loops, nested handlers and handlers redefining locals
+  private static final String[] CLASSES = { "soot.PackManager", "soot.SourceLocator", "soot.toolkits.scalar.LocalSplitter",
+      "soot.toolkits.graph.ExceptionalUnitGraph" };
+
+  @Before
+  public void setUp() {
+    G.reset();
+    Options.v().set_soot_classpath(new File("target/classes").getAbsolutePath());
+    Options.v().set_prepend_classpath(true);
+    Options.v().set_allow_phantom_refs(true);
+    Options.v().set_src_prec(Options.src_prec_only_class);
+    Scene.v().loadBasicClasses();
+    for (String name : CLASSES) {
+      Scene.v().forceResolve(name, SootClass.BODIES).setApplicationClass();
+    }
+  }
+
+  @After
+  public void tearDown() {
+    G.reset();
+  }
+
+  @Test
+  public void sameDefsAsFlowAssignment() {
+    int bodies = 0;
+    for (String name : CLASSES) {
+      for (SootMethod m : Scene.v().getSootClass(name).getMethods()) {
+        if (!m.isConcrete()) {
+          continue;
+        }
+        Body body = m.retrieveActiveBody();
+        bodies++;
+        for (UnitGraph graph : Arrays.asList(new ExceptionalUnitGraph(body), new BriefUnitGraph(body))) {
+          for (FlowAnalysisMode mode : Arrays.asList(FlowAnalysisMode.Automatic, FlowAnalysisMode.OmitSSA)) {
+            assertSameDefs(body, new SimpleLocalDefs(graph, mode), new SparseLocalDefs(graph, mode));
+          }
+        }
+      }
+    }
+    assertTrue(bodies > 100);
+  }
+
+  @Test
+  public void factoryUsesSparseDefsForLargeGraphs() {
+    SootClass c = new SootClass("Generated", Modifier.PUBLIC);
+    SootMethod m = new SootMethod("run", Collections.emptyList(), VoidType.v(), Modifier.PUBLIC | Modifier.STATIC);
+    c.addMethod(m);
+    JimpleBody body = Jimple.v().newBody(m);
+    m.setActiveBody(body);
+    Local i = Jimple.v().newLocal("i", IntType.v());
+    body.getLocals().add(i);
+
+    // i = 0; loop: i = i + 1; ... i = i + 1; if i < 10 goto loop; return
+    Unit init = Jimple.v().newAssignStmt(i, IntConstant.v(0));
+    body.getUnits().add(init);
+    List<Unit> increments = new ArrayList<Unit>();
+    for (int n = 0; n < LocalDefsFactory.SPARSE_THRESHOLD; n++) {
+      Unit increment = Jimple.v().newAssignStmt(i, Jimple.v().newAddExpr(i, IntConstant.v(1)));
+      body.getUnits().add(increment);
+      increments.add(increment);
+    }
+    Unit loop = Jimple.v().newIfStmt(Jimple.v().newLtExpr(i, IntConstant.v(10)), increments.get(0));
+    body.getUnits().add(loop);
+    Unit ret = Jimple.v().newReturnVoidStmt();
+    body.getUnits().add(ret);
+
+    UnitGraph graph = new BriefUnitGraph(body);
+    LocalDefs defs = G.v().soot_toolkits_scalar_LocalDefsFactory().newLocalDefs(graph);
+    assertTrue(defs instanceof SparseLocalDefs);
+    assertEquals(Arrays.asList(init, increments.get(increments.size() - 1)), defs.getDefsOfAt(i, increments.get(0)));
+    assertEquals(Collections.singletonList(increments.get(0)), defs.getDefsOfAt(i, increments.get(1)));
+    assertEquals(Collections.singletonList(increments.get(increments.size() - 1)), defs.getDefsOfAt(i, ret));
+    assertSameDefs(body, new SimpleLocalDefs(graph), defs);
+  }
+
+  private static void assertSameDefs(Body body, LocalDefs expected, LocalDefs actual) {
+    for (Unit u : body.getUnits()) {
+      for (Local l : body.getLocals()) {
+        List<Unit> expectedDefs = expected.getDefsOfAt(l, u);
+        List<Unit> actualDefs = actual.getDefsOfAt(l, u);
+        assertEquals(body.getMethod() + ": " + l + " at " + u, expectedDefs, actualDefs);
+        assertSame(expectedDefs.getClass(), actualDefs.getClass());
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package soot.util;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ConcurrentArrayNumbererTest {
+
+  private static final int THREADS = 32;
+  private static final int SUBSIGS = 5000;
+
+  private static String subSig(int i) {
+    return "void m" + i + "(int,java.lang.String)";
+  }
+
+  @Test
+  public void concurrentInterningOfSubSignatures() throws Exception {
+    final StringNumberer numberer = new StringNumberer();
+    final CyclicBarrier start = new CyclicBarrier(THREADS);
+    List<Callable<NumberedString[]>> tasks = new ArrayList<Callable<NumberedString[]>>();
+    for (int t = 0; t < THREADS; t++) {
+      final int offset = t * 97;
+      tasks.add(() -> {
+        NumberedString[] interned = new NumberedString[SUBSIGS];
+        start.await();
+        // Every thread interns all subsignatures, starting at a different one
+        for (int i = 0; i < SUBSIGS; i++) {
+          int n = (i + offset) % SUBSIGS;
+          interned[n] = numberer.findOrAdd(subSig(n));
+        }
+        return interned;
+      });
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<NumberedString[]> results = new ArrayList<NumberedString[]>();
+    try {
+      for (Future<NumberedString[]> f : executor.invokeAll(tasks)) {
+        results.add(f.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(SUBSIGS, numberer.size());
+    boolean[] seen = new boolean[SUBSIGS + 1];
+    for (int i = 0; i < SUBSIGS; i++) {
+      NumberedString s = results.get(0)[i];
+      for (NumberedString[] interned : results) {
+        assertSame(s, interned[i]);
+      }
+      assertEquals(subSig(i), s.getString());
+      assertSame(s, numberer.find(subSig(i)));
+      assertSame(s, numberer.get(s.getNumber()));
+      assertFalse(seen[s.getNumber()]);
+      seen[s.getNumber()] = true;
+    }
+  }
+
+  @Test
+  public void removedNumbersAreReused() {
+    ConcurrentArrayNumberer<NumberedString> numberer = new ConcurrentArrayNumberer<NumberedString>();
+    List<NumberedString> strings = new ArrayList<NumberedString>();
+    for (int i = 0; i < 3000; i++) {
+      NumberedString s = new NumberedString(subSig(i));
+      numberer.add(s);
+      strings.add(s);
+      assertEquals(i + 1, s.getNumber());
+    }
+    assertNull(numberer.get(0));
+    assertNull(numberer.get(3001));
+
+    NumberedString removed = strings.get(1500);
+    assertTrue(numberer.remove(removed));
+    assertFalse(numberer.remove(removed));
+    assertNull(numberer.get(1501));
+
+    int count = 0;
+    for (Iterator<NumberedString> it = numberer.iterator(); it.hasNext();) {
+      assertTrue(it.next() != removed);
+      count++;
+    }
+    assertEquals(2999, count);
+
+    NumberedString added = new NumberedString("added");
+    numberer.add(added);
+    assertEquals(1501, added.getNumber());
+    assertSame(added, numberer.get(1501));
+    assertEquals(3000, numberer.size());
+  }
+}
@@ -22,6 +22,12 @@ package soot.util.queue;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -143,4 +149,121 @@ public class ChunkedQueueTest {
 		Assert.assertTrue(rdr.hasNext());
 	}
 
+	@Test
+	public void drainToTest() {
+		ChunkedQueue<String> queue = new ChunkedQueue<>();
+		QueueReader<String> rdr = queue.reader();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			queue.add("Hello World " + i);
+			expected.add("Hello World " + i);
+		}
+		rdr.remove("Hello World 90");
+		expected.remove("Hello World 90");
+
+		List<String> drained = new ArrayList<>();
+		Assert.assertEquals(expected.size(), rdr.drainTo(drained));
+		Assert.assertEquals(expected, drained);
+		Assert.assertFalse(rdr.hasNext());
+
+		queue.add("Test");
+		drained.clear();
+		Assert.assertEquals(1, rdr.drainTo(drained));
+		Assert.assertEquals(Arrays.asList("Test"), drained);
+	}
+
+	@Test
+	public void historyFromQueueTest() {
+		ConcurrentChunkedQueue<String> queue = new ConcurrentChunkedQueue<>();
+		queue.add("A");
+		queue.add("B");
+		// The queue still holds its first chunk, so the history is not used
+		QueueReader<String> rdr = queue.reader(Arrays.asList("X"));
+		queue.add("C");
+
+		List<String> drained = new ArrayList<>();
+		rdr.drainTo(drained);
+		Assert.assertEquals(Arrays.asList("A", "B", "C"), drained);
+	}
+
+	@Test
+	public void reclaimTest() {
+		ConcurrentChunkedQueue<String> queue = new ConcurrentChunkedQueue<>();
+		QueueReader<String> rdr = queue.reader();
+		List<String> history = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			queue.add("H" + i);
+			history.add("H" + i);
+		}
+		// The reader has not read anything, so all chunks are kept
+		Assert.assertTrue(queue.retainedSlots() >= 1000);
+
+		List<String> drained = new ArrayList<>();
+		Assert.assertEquals(1000, rdr.drainTo(drained));
+		Assert.assertEquals(history, drained);
+		for (int i = 0; i < 100; i++) {
+			queue.add("N" + i);
+		}
+		// Only the chunks from the one the reader was in are left
+		Assert.assertTrue(queue.retainedSlots() < 100 + 2 * ChunkedQueue.LENGTH);
+
+		// The first chunks are gone, so a reader over all objects reads the history first
+		QueueReader<String> all = queue.reader(history);
+		QueueReader<String> clone = all.clone();
+		Assert.assertEquals("H0", all.next());
+		all.remove("H1");
+		queue.add("Last");
+		drained.clear();
+		all.drainTo(drained);
+		Assert.assertEquals(999, drained.size());
+		Assert.assertEquals("H2", drained.get(0));
+		Assert.assertEquals("Last", drained.get(drained.size() - 1));
+
+		// The clone shares the removal, and reads the objects added after it was created
+		drained.clear();
+		clone.drainTo(drained);
+		Assert.assertEquals(1000, drained.size());
+		Assert.assertFalse(drained.contains("H1"));
+		Assert.assertFalse(drained.contains("N0"));
+		Assert.assertEquals("Last", drained.get(drained.size() - 1));
+	}
+
+	@Test
+	public void concurrentProducersTest() throws InterruptedException {
+		final ConcurrentChunkedQueue<String> queue = new ConcurrentChunkedQueue<>();
+		QueueReader<String> rdr = queue.reader();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final int id = t;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					queue.addAll(Arrays.asList(id + "-" + i + "-a", id + "-" + i + "-b"));
+				}
+			}));
+		}
+		for (Thread t : threads) {
+			t.start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+
+		List<String> drained = new ArrayList<>();
+		rdr.drainTo(drained);
+		Assert.assertEquals(16000, drained.size());
+		Set<String> distinct = new HashSet<>(drained);
+		Assert.assertEquals(16000, distinct.size());
+		// The objects of one call to addAll are next to each other
+		for (int i = 0; i < drained.size(); i += 2) {
+			String a = drained.get(i);
+			Assert.assertTrue(a.endsWith("-a"));
+			Assert.assertEquals(a.substring(0, a.length() - 1) + "b", drained.get(i + 1));
+		}
+		// The reader has read everything, so the chunks before its own are dropped once a new chunk is started
+		for (int i = 0; i < ChunkedQueue.LENGTH; i++) {
+			queue.add("Last " + i);
+		}
+		Assert.assertTrue(queue.retainedSlots() < 3 * ChunkedQueue.LENGTH);
+	}
+
 }
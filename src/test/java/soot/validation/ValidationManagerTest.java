@@ -0,0 +1,172 @@
+package soot.validation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2026 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.IntType;
+import soot.Local;
+import soot.Modifier;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.VoidType;
+import soot.jimple.IntConstant;
+import soot.jimple.Jimple;
+import soot.jimple.JimpleBody;
+import soot.options.Options;
+
+public class ValidationManagerTest {
+
+  private SootClass sootClass;
+
+  @Before
+  public void setUp() {
+    G.reset();
+    Options.v().set_validate(true);
+    sootClass = new SootClass("Generated", Modifier.PUBLIC);
+  }
+
+  @After
+  public void tearDown() {
+    G.reset();
+  }
+
+  /**
+   * Creates a body that uses an undefined local and a local that is not in its local chain.
+   */
+  private JimpleBody newInvalidBody(String name) {
+    SootMethod m = new SootMethod(name, Collections.emptyList(), VoidType.v(), Modifier.PUBLIC | Modifier.STATIC);
+    sootClass.addMethod(m);
+    JimpleBody body = Jimple.v().newBody(m);
+    m.setActiveBody(body);
+    Local undefined = Jimple.v().newLocal("undefined", IntType.v());
+    Local undeclared = Jimple.v().newLocal("undeclared", IntType.v());
+    Local x = Jimple.v().newLocal("x", IntType.v());
+    body.getLocals().add(undefined);
+    body.getLocals().add(x);
+    body.getUnits().add(Jimple.v().newAssignStmt(x, Jimple.v().newAddExpr(undefined, IntConstant.v(1))));
+    body.getUnits().add(Jimple.v().newAssignStmt(undeclared, x));
+    body.getUnits().add(Jimple.v().newAssignStmt(x, Jimple.v().newAddExpr(undeclared, x)));
+    body.getUnits().add(Jimple.v().newReturnVoidStmt());
+    return body;
+  }
+
+  private static List<String> messages(List<ValidationException> exceptions) {
+    List<String> messages = new ArrayList<String>();
+    for (ValidationException e : exceptions) {
+      messages.add(e.toString());
+    }
+    return messages;
+  }
+
+  @Test
+  public void parallelValidationReportsSameViolations() {
+    JimpleBody body = newInvalidBody("m");
+    List<ValidationException> serial = new ArrayList<ValidationException>();
+    body.validate(serial);
+    assertFalse(serial.isEmpty());
+
+    Options.v().set_parallel_validation(true);
+    for (int i = 0; i < 20; i++) {
+      List<ValidationException> parallel = new ArrayList<ValidationException>();
+      body.validate(parallel);
+      assertEquals(messages(serial), messages(parallel));
+    }
+  }
+
+  @Test
+  public void violationsAreReportedAsResults() {
+    Options.v().set_parallel_validation(true);
+    JimpleBody body = newInvalidBody("m");
+    ValidationResult result = ValidationManager.v().validate(body, "jtp");
+    assertNotNull(result);
+    assertFalse(result.isValid());
+    assertSame(body.getMethod(), result.getMethod());
+    assertEquals("jtp", result.getPhase());
+
+    boolean undefinedUse = false;
+    boolean undeclaredLocal = false;
+    for (ValidationResult.Violation v : result.getViolations()) {
+      if (v.getValidator() == UsesValidator.v() && v.getMessage().contains("no path from a definition")) {
+        undefinedUse = true;
+      }
+      if (v.getValidator() == LocalsValidator.v()) {
+        undeclaredLocal = true;
+      }
+    }
+    assertTrue(undefinedUse);
+    assertTrue(undeclaredLocal);
+    assertEquals(Collections.singletonList(result), ValidationManager.v().getResults());
+
+    try {
+      result.throwFirstViolation();
+    } catch (ValidationException e) {
+      assertSame(result.getViolations().get(0).getException(), e);
+      return;
+    }
+    throw new AssertionError("no violation thrown");
+  }
+
+  @Test
+  public void samplingSelectsFractionOfMethodsPerPhase() {
+    Options.v().set_validation_sample_percent(0);
+    JimpleBody body = newInvalidBody("m");
+    assertNull(ValidationManager.v().validate(body, "jtp"));
+    assertTrue(ValidationManager.v().getResults().isEmpty());
+
+    Options.v().set_validation_sample_percent(30);
+    List<SootMethod> methods = new ArrayList<SootMethod>();
+    for (int i = 0; i < 1000; i++) {
+      methods.add(newInvalidBody("m" + i).getMethod());
+    }
+    int jtp = 0;
+    int differ = 0;
+    for (SootMethod m : methods) {
+      boolean sampled = ValidationManager.v().isSampled(m, "jtp");
+      assertEquals(sampled, ValidationManager.v().isSampled(m, "jtp"));
+      if (sampled) {
+        jtp++;
+      }
+      if (sampled != ValidationManager.v().isSampled(m, "tag")) {
+        differ++;
+      }
+    }
+    assertTrue("sampled " + jtp, jtp > 220 && jtp < 380);
+    assertTrue(differ > 0);
+  }
+}